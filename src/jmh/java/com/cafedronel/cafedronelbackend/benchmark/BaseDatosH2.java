@@ -0,0 +1,55 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cafedronel.cafedronelbackend.CafedronelbackendApplication;
+import com.cafedronel.cafedronelbackend.services.reporte.ReporteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
+
+/**
+ * Levanta la aplicación con el perfil de test (H2 en memoria) y la llena con
+ * {@code lineas} detalles de pedido sintéticos. Se crea una vez por tamaño.
+ */
+@State(Scope.Benchmark)
+public class BaseDatosH2 {
+
+    @Param({"10000", "100000", "1000000"})
+    public int lineas;
+
+    ConfigurableApplicationContext contexto;
+    ReporteService reporteService;
+    VentaDiariaService ventaDiariaService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CafedronelbackendApplication.class)
+                .profiles("test", "benchmark")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark" + lineas + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.cafedronel.cafedronelbackend=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+
+        DatosSinteticos.sembrar(contexto.getBean(JdbcTemplate.class), lineas);
+
+        reporteService = contexto.getBean(ReporteService.class);
+        ventaDiariaService = contexto.getBean(VentaDiariaService.class);
+        ventaDiariaService.reconstruir(null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
+
+/**
+ * Búsqueda de clientes por prefijos sobre usuario_token_busqueda con 100k / 1M clientes, frente a
+ * la consulta LIKE '%texto%' que reemplaza
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class BusquedaClientesBenchmark {
+
+    // Nombre y apellido frecuentes: muchas coincidencias, se corta en la primera página
+    @Benchmark
+    public PaginaCursorDTO<ClienteDTO> nombreYApellidoFrecuentes(ClientesH2 datos) {
+        return datos.clienteService.buscar("maria garc", null, 20);
+    }
+
+    // Pocas coincidencias: parte del correo de un cliente concreto
+    @Benchmark
+    public PaginaCursorDTO<ClienteDTO> correoSelectivo(ClientesH2 datos) {
+        return datos.clienteService.buscar("cliente98765", null, 20);
+    }
+
+    // Combinación de tres términos con una sola coincidencia cada tanto
+    @Benchmark
+    public PaginaCursorDTO<ClienteDTO> tresTerminos(ClientesH2 datos) {
+        return datos.clienteService.buscar("hector nahui salaz", null, 20);
+    }
+
+    // Referencia: la búsqueda anterior (findByNombreContainingIgnoreCaseAndRol), LIKE con comodín inicial y sin límite
+    @Benchmark
+    public List<Map<String, Object>> likeContieneAnterior(ClientesH2 datos) {
+        return datos.jdbcTemplate.queryForList("SELECT id_usuario, nombre, apellido, correo FROM usuario "
+                + "WHERE rol = 'CLIENTE' AND LOWER(nombre) LIKE '%ector%'");
+    }
+}
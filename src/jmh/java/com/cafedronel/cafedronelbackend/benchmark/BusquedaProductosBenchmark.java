@@ -0,0 +1,85 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.services.producto.busqueda.IndiceProductos;
+
+/**
+ * Búsquedas sobre el índice invertido de productos con un catálogo sintético de 10k / 100k productos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class BusquedaProductosBenchmark {
+
+    private static final String[] NOMBRES = {"Café", "Capuccino", "Latte", "Mocaccino", "Té", "Jugo", "Torta", "Galleta",
+            "Sándwich", "Empanada", "Alfajor", "Chocolate", "Infusión", "Frappé", "Brownie", "Croissant"};
+    private static final String[] VARIANTES = {"clásico", "de vainilla", "de fresa", "de maracuyá", "de piña", "con canela",
+            "sin azúcar", "de lúcuma", "helado", "orgánico", "artesanal", "de quinua", "andino", "especial"};
+    private static final String[] CATEGORIAS = {"Bebidas", "Postres", "Salados", "Panadería", "Granos"};
+    private static final String[] SUBTIPOS = {"Café", "Té", "Jugos", "Tortas", "Galletas", "Sándwiches", "Empanadas", "Molido"};
+    private static final String[] DESCRIPCIONES = {"preparado al momento", "receta de la casa", "ingredientes de la región",
+            "tostado medio", "leche entera o vegetal", "porción individual", "ideal para compartir", "edición de temporada"};
+
+    @Param({"10000", "100000"})
+    private int productos;
+
+    private IndiceProductos indice;
+
+    @Setup
+    public void preparar() {
+        indice = new IndiceProductos();
+        for (int id = 1; id <= productos; id++) {
+            Producto producto = new Producto();
+            producto.setIdProducto(id);
+            producto.setNombre(NOMBRES[id % NOMBRES.length] + " " + VARIANTES[(id / NOMBRES.length) % VARIANTES.length] + " " + id);
+            producto.setCategoria(CATEGORIAS[id % CATEGORIAS.length]);
+            producto.setSubtipo(SUBTIPOS[id % SUBTIPOS.length]);
+            producto.setDescripcion(DESCRIPCIONES[id % DESCRIPCIONES.length] + ", " + DESCRIPCIONES[(id / 7) % DESCRIPCIONES.length]);
+            producto.setPrecio(5.0 + id % 40);
+            producto.setStock(100);
+            producto.setActivo(true);
+            indice.indexar(producto);
+        }
+    }
+
+    // Palabra frecuente y exacta
+    @Benchmark
+    public BusquedaProductosDTO palabraFrecuente() {
+        return indice.buscar("cafe", null, null, 20);
+    }
+
+    // Dos términos, el último como prefijo (búsqueda mientras se escribe)
+    @Benchmark
+    public BusquedaProductosDTO dosTerminosConPrefijo() {
+        return indice.buscar("capuccino vain", null, null, 20);
+    }
+
+    @Benchmark
+    public BusquedaProductosDTO conFiltroDeCategoria() {
+        return indice.buscar("torta", "postres", null, 20);
+    }
+
+    // Término poco frecuente: el caso típico al buscar un producto concreto
+    @Benchmark
+    public BusquedaProductosDTO terminoSelectivo() {
+        return indice.buscar("mocaccino lucuma", null, null, 20);
+    }
+}
@@ -0,0 +1,146 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cafedronel.cafedronelbackend.CafedronelbackendApplication;
+import com.cafedronel.cafedronelbackend.util.jwt.JwtUtil;
+
+/**
+ * Prueba de carga sobre la aplicación real (Tomcat + H2): cada operación dispara {@code concurrencia}
+ * peticiones HTTP a la vez contra endpoints existentes y espera todas las respuestas.
+ * Compara Tomcat con pool de hilos ("plataforma") contra el perfil "virtual" con el mismo heap.
+ * El modo virtual necesita Java 21: ./mvnw -Pjava21,benchmark ...
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx512m", "-Xms512m"})
+public class CargaConcurrenteBenchmark {
+
+    private static final int LINEAS = 10_000;
+    private static final int CLIENTES_CONSULTADOS = 100;
+
+    @State(Scope.Benchmark)
+    public static class Servidor {
+
+        @Param({"plataforma", "virtual"})
+        public String modo;
+
+        @Param({"100", "1000"})
+        public int concurrencia;
+
+        ConfigurableApplicationContext contexto;
+        HttpClient cliente;
+        List<HttpRequest> peticiones;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            boolean virtual = "virtual".equals(modo);
+            if (virtual && Runtime.version().feature() < 21) {
+                throw new IllegalStateException("El modo virtual requiere Java 21 (compilar con -Pjava21)");
+            }
+
+            contexto = new SpringApplicationBuilder(CafedronelbackendApplication.class)
+                    .profiles(virtual ? new String[]{"test", "benchmark", "virtual"} : new String[]{"test", "benchmark"})
+                    .properties(
+                            "server.port=0",
+                            "spring.datasource.url=jdbc:h2:mem:carga" + modo + concurrencia + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                            "spring.jpa.show-sql=false",
+                            "logging.level.root=WARN",
+                            "logging.level.com.cafedronel.cafedronelbackend=WARN",
+                            "logging.level.org.springframework.security=WARN")
+                    .run();
+            DatosSinteticos.sembrar(contexto.getBean(JdbcTemplate.class), LINEAS);
+
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            String token = contexto.getBean(JwtUtil.class).generateToken("cliente1@example.com");
+
+            peticiones = new ArrayList<>(concurrencia);
+            for (int i = 0; i < concurrencia; i++) {
+                // Mitad catálogo (caché en memoria), mitad pedidos de un cliente (consulta a la base de datos)
+                HttpRequest.Builder peticion = i % 2 == 0
+                        ? HttpRequest.newBuilder(URI.create(base + "/api/v1/productos/" + (1 + i % DatosSinteticos.PRODUCTOS)))
+                        : HttpRequest.newBuilder(URI.create(base + "/api/v1/pedidos/usuario/" + (1 + i % CLIENTES_CONSULTADOS)))
+                                .header("Authorization", "Bearer " + token);
+                peticiones.add(peticion.timeout(Duration.ofSeconds(30)).GET().build());
+            }
+
+            cliente = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            contexto.close();
+        }
+    }
+
+    /** Respuestas por tipo, reportadas por JMH junto al tiempo de cada ráfaga. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Respuestas {
+        public long exitosas;
+        public long rechazadas;
+        public long fallidas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            exitosas = 0;
+            rechazadas = 0;
+            fallidas = 0;
+        }
+    }
+
+    @Benchmark
+    public int rafaga(Servidor servidor, Respuestas respuestas) {
+        List<CompletableFuture<Integer>> enCurso = new ArrayList<>(servidor.peticiones.size());
+        for (HttpRequest peticion : servidor.peticiones) {
+            enCurso.add(servidor.cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode)
+                    .exceptionally(error -> -1));
+        }
+
+        int exitosas = 0;
+        for (CompletableFuture<Integer> respuesta : enCurso) {
+            int estado = respuesta.join();
+            if (estado == 200) {
+                exitosas++;
+            } else if (estado == 503) {
+                respuestas.rechazadas++;
+            } else {
+                respuestas.fallidas++;
+            }
+        }
+        respuestas.exitosas += exitosas;
+        return exitosas;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cafedronel.cafedronelbackend.CafedronelbackendApplication;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.services.cliente.ClienteService;
+import com.cafedronel.cafedronelbackend.services.cliente.IndiceBusquedaClientes;
+
+/**
+ * Levanta la aplicación con el perfil de test (H2 en memoria) y la llena con {@code clientes}
+ * clientes sintéticos con sus palabras de búsqueda. Se crea una vez por tamaño.
+ */
+@State(Scope.Benchmark)
+public class ClientesH2 {
+
+    static final String[] NOMBRES = {"María", "José", "Lucía", "Juan", "Ana", "Luis", "Rosa", "Carlos", "Sofía", "Jorge",
+            "Carmen", "Miguel", "Valeria", "Andrés", "Camila", "Diego", "Elena", "Fernando", "Gabriela", "Héctor"};
+    static final String[] APELLIDOS = {"García", "Rodríguez", "Quispe", "Flores", "Sánchez", "Huamán", "Ramírez", "Torres",
+            "Mendoza", "Chávez", "Gonzáles", "Vásquez", "Castillo", "Rojas", "Díaz", "Mamani", "Gutiérrez", "Ñahui",
+            "Espinoza", "Salazar", "Paredes", "Cárdenas", "Ríos", "Vargas", "Ortiz"};
+    private static final int LOTE = 5_000;
+
+    @Param({"100000", "1000000"})
+    public int clientes;
+
+    ConfigurableApplicationContext contexto;
+    ClienteService clienteService;
+    JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CafedronelbackendApplication.class)
+                .profiles("test", "benchmark")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:clientes" + clientes + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.cafedronel.cafedronelbackend=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        List<Object[]> filas = new ArrayList<>(LOTE);
+        for (int id = 1; id <= clientes; id++) {
+            String nombre = NOMBRES[id % NOMBRES.length];
+            String apellido = APELLIDOS[(id / NOMBRES.length) % APELLIDOS.length] + " "
+                    + APELLIDOS[(id / 7) % APELLIDOS.length];
+            filas.add(new Object[]{id, nombre, apellido, "cliente" + id + "@example.com", "x", Rol.CLIENTE.name()});
+            if (filas.size() == LOTE) {
+                insertar(filas);
+            }
+        }
+        insertar(filas);
+
+        // Los clientes se insertaron por fuera del servicio: se completan como al iniciar sobre una base existente
+        contexto.getBean(IndiceBusquedaClientes.class).indexarPendientes();
+        clienteService = contexto.getBean(ClienteService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    private void insertar(List<Object[]> filas) {
+        jdbcTemplate.batchUpdate("INSERT INTO usuario (id_usuario, nombre, apellido, correo, contrasena, activo, rol) "
+                + "VALUES (?, ?, ?, ?, ?, TRUE, ?)", filas);
+        filas.clear();
+    }
+}
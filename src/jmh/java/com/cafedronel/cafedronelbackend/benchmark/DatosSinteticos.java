@@ -0,0 +1,175 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Envio;
+import com.cafedronel.cafedronelbackend.data.model.Pago;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
+
+/**
+ * Generador determinista de datos para los benchmarks: siempre produce el mismo grafo
+ * para un mismo tamaño, así los resultados son comparables entre commits.
+ */
+final class DatosSinteticos {
+
+    static final int PRODUCTOS = 200;
+    static final int CLIENTES = 1_000;
+    static final int LINEAS_POR_PEDIDO = 5;
+    static final int DIAS = 365;
+    static final LocalDate PRIMER_DIA = LocalDate.of(2024, 1, 1);
+
+    private static final int LOTE = 5_000;
+    private static final EstadoPedido[] ESTADOS = EstadoPedido.values();
+
+    private DatosSinteticos() {
+    }
+
+    /**
+     * Inserta productos, clientes y pedidos hasta completar el número de líneas de detalle indicado
+     */
+    static void sembrar(JdbcTemplate jdbcTemplate, int lineas) {
+        List<Object[]> filas = new ArrayList<>();
+        for (int id = 1; id <= PRODUCTOS; id++) {
+            filas.add(new Object[]{id, "Producto " + id, "Categoria " + (id % 10), "Subtipo", "Descripción " + id,
+                    precio(id), 1_000_000, true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO producto (id_producto, nombre, categoria, subtipo, descripcion, precio, stock, activo) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", filas);
+
+        filas.clear();
+        for (int id = 1; id <= CLIENTES; id++) {
+            filas.add(new Object[]{id, "Cliente " + id, "Apellido", "cliente" + id + "@example.com", "x",
+                    "9" + String.format("%08d", id), "Dirección " + id, true, Rol.CLIENTE.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO usuario (id_usuario, nombre, apellido, correo, contrasena, telefono, direccion, activo, rol) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", filas);
+
+        int pedidos = Math.max(1, lineas / LINEAS_POR_PEDIDO);
+        List<Object[]> filasPedido = new ArrayList<>(LOTE);
+        List<Object[]> filasDetalle = new ArrayList<>(LOTE * LINEAS_POR_PEDIDO);
+        int idDetalle = 1;
+        for (int idPedido = 1; idPedido <= pedidos; idPedido++) {
+            BigDecimal total = TotalesPedido.cero();
+            for (int linea = 0; linea < LINEAS_POR_PEDIDO && idDetalle <= lineas; linea++) {
+                int idProducto = 1 + (idPedido * 7 + linea * 13) % PRODUCTOS;
+                int cantidad = 1 + (idPedido + linea) % 4;
+                BigDecimal subtotal = TotalesPedido.calcularSubtotal(cantidad, precio(idProducto));
+                total = total.add(subtotal);
+                filasDetalle.add(new Object[]{idDetalle++, idPedido, idProducto, cantidad, precio(idProducto), subtotal});
+            }
+
+            filasPedido.add(new Object[]{idPedido, 1 + idPedido % CLIENTES, Date.valueOf(PRIMER_DIA.plusDays(idPedido % DIAS)),
+                    ESTADOS[idPedido % ESTADOS.length].name(), "987654321", "Dirección de entrega", total});
+
+            if (filasPedido.size() == LOTE) {
+                insertarPedidos(jdbcTemplate, filasPedido, filasDetalle);
+            }
+        }
+        insertarPedidos(jdbcTemplate, filasPedido, filasDetalle);
+    }
+
+    /**
+     * Grafo de pedidos en memoria (sin base de datos) para medir serialización
+     */
+    static List<Pedido> construirPedidos(int cantidadPedidos, int detallesPorPedido) {
+        List<Producto> productos = new ArrayList<>();
+        for (int id = 1; id <= PRODUCTOS; id++) {
+            Producto producto = new Producto();
+            producto.setIdProducto(id);
+            producto.setNombre("Producto " + id);
+            producto.setCategoria("Categoria " + (id % 10));
+            producto.setSubtipo("Subtipo");
+            producto.setDescripcion("Descripción " + id);
+            producto.setPrecio(precio(id));
+            producto.setStock(100);
+            producto.setActivo(true);
+            productos.add(producto);
+        }
+
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(1);
+        usuario.setNombre("Cliente");
+        usuario.setCorreo("cliente@example.com");
+        usuario.setRol(Rol.CLIENTE);
+
+        List<Pedido> pedidos = new ArrayList<>(cantidadPedidos);
+        for (int idPedido = 1; idPedido <= cantidadPedidos; idPedido++) {
+            Pedido pedido = new Pedido();
+            pedido.setIdPedido(idPedido);
+            pedido.setUsuario(usuario);
+            pedido.setFecha(Date.valueOf(PRIMER_DIA.plusDays(idPedido % DIAS)));
+            pedido.setEstado(ESTADOS[idPedido % ESTADOS.length]);
+            pedido.setTelefono("987654321");
+            pedido.setDireccion("Dirección de entrega");
+
+            List<DetallePedido> detalles = new ArrayList<>(detallesPorPedido);
+            for (int linea = 0; linea < detallesPorPedido; linea++) {
+                Producto producto = productos.get((idPedido * 7 + linea * 13) % PRODUCTOS);
+                DetallePedido detalle = new DetallePedido();
+                detalle.setIdDetalle(idPedido * 1_000 + linea);
+                detalle.setPedido(pedido);
+                detalle.setProducto(producto);
+                detalle.setCantidad(1 + linea % 4);
+                detalle.setPrecioUnitario(producto.getPrecio());
+                detalles.add(detalle);
+            }
+            pedido.setDetalles(detalles);
+            TotalesPedido.recalcular(pedido);
+
+            Pago pago = new Pago();
+            pago.setIdPago(idPedido);
+            pago.setPedido(pedido);
+            pago.setMetodoPago("TARJETA");
+            pago.setMonto(pedido.getTotal().doubleValue());
+            pago.setEstado("PAGADO");
+            pago.setReferencia("REF-" + idPedido);
+            pago.setFechaPago(pedido.getFecha());
+            pedido.setPago(pago);
+
+            Envio envio = new Envio();
+            envio.setIdEnvio(idPedido);
+            envio.setPedido(pedido);
+            envio.setMetodoEnvio("DELIVERY");
+            envio.setEstado("EN_CAMINO");
+            envio.setFechaEnvio(pedido.getFecha());
+            envio.setNumeroSeguimiento("TRK-" + idPedido);
+            envio.setDireccion("Dirección de entrega");
+            envio.setDepartamento("Lima");
+            envio.setProvincia("Lima");
+            envio.setDistrito("Miraflores");
+            envio.setCostoEnvio(10.0);
+            pedido.setEnvio(envio);
+
+            pedidos.add(pedido);
+        }
+        return pedidos;
+    }
+
+    static double precio(int idProducto) {
+        return 2.5 + (idProducto % 40) * 0.75;
+    }
+
+    private static void insertarPedidos(JdbcTemplate jdbcTemplate, List<Object[]> filasPedido, List<Object[]> filasDetalle) {
+        if (filasPedido.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (id_pedido, id_usuario, fecha, estado, telefono, direccion, total) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", filasPedido);
+        jdbcTemplate.batchUpdate("INSERT INTO detalle_pedido (id_detalle, id_pedido, id_producto, cantidad, precio_unitario, subtotal) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", filasDetalle);
+        filasPedido.clear();
+        filasDetalle.clear();
+    }
+}
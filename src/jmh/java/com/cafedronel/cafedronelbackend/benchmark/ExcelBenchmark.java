@@ -0,0 +1,43 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generación de archivos Excel en streaming sobre los mismos datos de ReporteBenchmark.
+ * La salida se descarta para medir sólo la construcción del libro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ExcelBenchmark {
+
+    private static final LocalDate INICIO_MES = DatosSinteticos.PRIMER_DIA.plusMonths(3);
+    private static final LocalDate FIN_MES = INICIO_MES.plusDays(29);
+
+    @Benchmark
+    public void excelProductos(BaseDatosH2 baseDatos) {
+        baseDatos.reporteService.exportarExcelProductos(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void excelPedidosDeUnMes(BaseDatosH2 baseDatos) {
+        baseDatos.reporteService.exportarExcelPedidos(INICIO_MES, FIN_MES, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void excelCompleto(BaseDatosH2 baseDatos) {
+        baseDatos.reporteService.exportarExcelCompleto(null, null, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,122 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cafedronel.cafedronelbackend.CafedronelbackendApplication;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
+import com.cafedronel.cafedronelbackend.services.producto.importacion.ImportacionProductoService;
+import com.cafedronel.cafedronelbackend.util.archivo.EscritorCsv;
+
+/**
+ * Importación y exportación de {@code productos} productos sintéticos en CSV y XLSX. Usa su propia base
+ * H2 vacía: los ids los asignan las secuencias y no deben chocar con datos insertados a mano.
+ * La primera iteración crea los productos y las siguientes los actualizan por SKU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ImportacionProductosBenchmark {
+
+    private static final String[] CATEGORIAS = {"Bebidas", "Postres", "Salados", "Panadería", "Granos"};
+
+    @Param({"10000", "100000"})
+    public int productos;
+
+    @Param({"CSV", "XLSX"})
+    public FormatoArchivo formato;
+
+    private ConfigurableApplicationContext contexto;
+    private ImportacionProductoService importacionProductoService;
+    private byte[] archivo;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        contexto = new SpringApplicationBuilder(CafedronelbackendApplication.class)
+                .profiles("test", "benchmark")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:importacion" + productos + formato + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.cafedronel.cafedronelbackend=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+        importacionProductoService = contexto.getBean(ImportacionProductoService.class);
+
+        // El XLSX se obtiene exportando lo importado desde el CSV, así ambos formatos llevan las mismas filas
+        archivo = generarCsv();
+        if (formato == FormatoArchivo.XLSX) {
+            importacionProductoService.importar(new ByteArrayInputStream(archivo), FormatoArchivo.CSV);
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            importacionProductoService.exportar(FormatoArchivo.XLSX, salida);
+            archivo = salida.toByteArray();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ResultadoImportacionDTO importar() {
+        return importacionProductoService.importar(new ByteArrayInputStream(archivo), formato);
+    }
+
+    @Benchmark
+    public long exportar() {
+        ContadorBytes salida = new ContadorBytes();
+        importacionProductoService.exportar(formato, salida);
+        return salida.bytes;
+    }
+
+    private byte[] generarCsv() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (EscritorCsv escritor = new EscritorCsv(salida)) {
+            escritor.escribirFila("sku", "nombre", "categoria", "subtipo", "descripcion", "precio", "stock", "activo");
+            for (int id = 1; id <= productos; id++) {
+                escritor.escribirFila("SKU-" + id, "Producto " + id, CATEGORIAS[id % CATEGORIAS.length],
+                        "Tipo " + id % 8, "Descripción del producto " + id, 5.0 + id % 40, 100 + id % 50, id % 10 != 0);
+            }
+        }
+        return salida.toByteArray();
+    }
+
+    /** Descarta lo exportado para medir sólo la generación */
+    private static class ContadorBytes extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
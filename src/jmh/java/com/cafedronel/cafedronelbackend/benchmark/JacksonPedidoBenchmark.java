@@ -0,0 +1,51 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialización JSON de una página de 100 pedidos con pago, envío y detalles, como la devuelve PedidoController
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonPedidoBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int detallesPorPedido;
+
+    private ObjectMapper objectMapper;
+    private List<Pedido> pedidos;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración base que usa Spring MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pedidos = DatosSinteticos.construirPedidos(100, detallesPorPedido);
+    }
+
+    @Benchmark
+    public byte[] serializarPedidos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pedidos);
+    }
+}
@@ -0,0 +1,76 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.cafedronel.cafedronelbackend.util.jwt.JwtUtil;
+import com.cafedronel.cafedronelbackend.util.jwt.TokenJwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Costo de validar un token por petición. "anterior" reproduce el camino previo
+ * (clave y parser nuevos en cada llamada, tres parseos por petición); "actual" usa
+ * la clave y el parser compartidos de JwtUtil con un único parseo.
+ * Con -prof gc (activado en el perfil benchmark) se reporta gc.alloc.rate.norm en bytes/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "una_clave_hmac_de_al_menos_32_caracteres_para_benchmark";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        token = jwtUtil.generateToken("cliente@example.com", "CLIENTE");
+    }
+
+    @Benchmark
+    public void anterior(Blackhole blackhole) {
+        // extractEmail + validateToken + isTokenExpired, cada uno con su propia clave y parser
+        blackhole.consume(parsearConParserNuevo(token).getSubject());
+        blackhole.consume(parsearConParserNuevo(token).getSubject());
+        blackhole.consume(parsearConParserNuevo(token).getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public TokenJwt actual() {
+        return jwtUtil.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generateToken("cliente@example.com", "CLIENTE");
+    }
+
+    private Claims parsearConParserNuevo(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+}
@@ -0,0 +1,112 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.cliente.ImpClienteService;
+import com.cafedronel.cafedronelbackend.services.producto.CatalogoProductoCache;
+import com.cafedronel.cafedronelbackend.services.producto.ImpProductoService;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Conversión entidad → DTO en los listados de productos y clientes (1000 filas, sin base de datos).
+ * El catálogo de productos se mide recién invalidado (mapeo completo) y ya cargado en la caché.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoDtoBenchmark {
+
+    private static final int FILAS = 1_000;
+
+    private CatalogoProductoCache catalogoProductoCache;
+    private ImpProductoService productoService;
+    private ImpClienteService clienteService;
+
+    @Setup
+    public void setUp() {
+        List<Producto> productos = new ArrayList<>(FILAS);
+        for (int id = 1; id <= FILAS; id++) {
+            Producto producto = new Producto();
+            producto.setIdProducto(id);
+            producto.setNombre("Producto " + id);
+            producto.setCategoria("Categoria " + (id % 10));
+            producto.setSubtipo("Subtipo");
+            producto.setDescripcion("Descripción " + id);
+            producto.setPrecio(DatosSinteticos.precio(id));
+            producto.setStock(100);
+            producto.setActivo(true);
+            productos.add(producto);
+        }
+        ProductoRepository productoRepository = mock(ProductoRepository.class);
+        when(productoRepository.findAll(any(Sort.class))).thenReturn(productos);
+        catalogoProductoCache = new CatalogoProductoCache(productoRepository, new VersionesDatos(),
+                new SimpleMeterRegistry(), 10_000, 600, 600, 600);
+        productoService = new ImpProductoService();
+        ReflectionTestUtils.setField(productoService, "productoRepository", productoRepository);
+        ReflectionTestUtils.setField(productoService, "catalogoProductoCache", catalogoProductoCache);
+
+        List<Usuario> clientes = new ArrayList<>(FILAS);
+        for (int id = 1; id <= FILAS; id++) {
+            clientes.add(Usuario.builder()
+                    .idUsuario(id)
+                    .nombre("Cliente " + id)
+                    .apellido("Apellido")
+                    .correo("cliente" + id + "@example.com")
+                    .telefono("987654321")
+                    .direccion("Dirección " + id)
+                    .activo(true)
+                    .rol(Rol.CLIENTE)
+                    .build());
+        }
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findByRol(Rol.CLIENTE)).thenReturn(clientes);
+        clienteService = new ImpClienteService(usuarioRepository, null, null);
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> productosSinCache() {
+        catalogoProductoCache.invalidarTodo();
+        return productoService.findAll();
+    }
+
+    @Benchmark
+    public List<ProductoResponseDTO> productosEnCache() {
+        return productoService.findAll();
+    }
+
+    @Benchmark
+    public List<ClienteDTO> clientes() {
+        return clienteService.findAll();
+    }
+}
@@ -0,0 +1,56 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafedronel.cafedronelbackend.services.email.plantilla.PlantillasCorreo;
+import com.cafedronel.cafedronelbackend.services.email.plantilla.TipoPlantilla;
+
+/**
+ * Renderizado de plantillas de correo precompiladas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantillaCorreoBenchmark {
+
+    private PlantillasCorreo plantillas;
+    private Map<String, String> recuperacion;
+    private Map<String, String> confirmacion;
+
+    @Setup
+    public void preparar() {
+        plantillas = new PlantillasCorreo();
+        recuperacion = Map.of("codigo", "482913");
+        confirmacion = Map.of(
+                "nombre", "Cliente 1",
+                "idPedido", "12345",
+                "fecha", "2025-10-01",
+                "total", "58.40",
+                "direccion", "Av. Larco 123, Miraflores");
+    }
+
+    @Benchmark
+    public String recuperacionContrasena() {
+        return plantillas.renderizar(TipoPlantilla.RECUPERACION_CONTRASENA, recuperacion);
+    }
+
+    @Benchmark
+    public String confirmacionPedido() {
+        return plantillas.renderizar(TipoPlantilla.CONFIRMACION_PEDIDO, confirmacion);
+    }
+}
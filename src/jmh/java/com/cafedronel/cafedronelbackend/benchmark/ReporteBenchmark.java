@@ -0,0 +1,51 @@
+package com.cafedronel.cafedronelbackend.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReportePedidosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
+
+/**
+ * Agregaciones de reportes sobre H2 con 10k / 100k / 1M líneas de detalle
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ReporteBenchmark {
+
+    private static final LocalDate INICIO_MES = DatosSinteticos.PRIMER_DIA.plusMonths(3);
+    private static final LocalDate FIN_MES = INICIO_MES.plusDays(29);
+
+    @Benchmark
+    public List<ReporteProductosDTO> reporteProductos(BaseDatosH2 baseDatos) {
+        return baseDatos.reporteService.generarReporteProductos();
+    }
+
+    @Benchmark
+    public List<ReporteVentasDTO> reporteVentasDesdeResumen(BaseDatosH2 baseDatos) {
+        return baseDatos.reporteService.generarReporteVentas(null, null);
+    }
+
+    @Benchmark
+    public List<ReporteVentasDTO> reporteVentasDesdePedidos(BaseDatosH2 baseDatos) {
+        return baseDatos.ventaDiariaService.calcularVentasDesdePedidos(null, null);
+    }
+
+    @Benchmark
+    public List<ReportePedidosDTO> reportePedidosDeUnMes(BaseDatosH2 baseDatos) {
+        return baseDatos.reporteService.generarReportePedidos(INICIO_MES, FIN_MES);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cafedronel.cafedronelbackend.config;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hikari avisa de una conexión retenida más allá de leak-detection-threshold sólo con una advertencia
+ * en el log. Este filtro la cuenta en la métrica hikaricp.connections.leaks para verla en
+ * /actuator/metrics junto al resto de métricas del pool, sin tener que buscarla en los logs.
+ */
+@Component
+public class FugasConexionesMetricas implements DisposableBean {
+
+    private static final String LOGGER_FUGAS = "com.zaxxer.hikari.pool.ProxyLeakTask";
+
+    private final FiltroFugas filtro;
+    private final LoggerContext contexto;
+
+    public FugasConexionesMetricas(MeterRegistry meterRegistry) {
+        Counter fugas = Counter.builder("hikaricp.connections.leaks")
+                .description("Conexiones retenidas más tiempo que leak-detection-threshold")
+                .register(meterRegistry);
+        ILoggerFactory fabrica = LoggerFactory.getILoggerFactory();
+        // Sólo con Logback, el backend por defecto de Spring Boot
+        this.contexto = fabrica instanceof LoggerContext loggerContext ? loggerContext : null;
+        this.filtro = new FiltroFugas(fugas);
+        if (contexto != null) {
+            filtro.start();
+            contexto.addTurboFilter(filtro);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // El contexto de Logback sobrevive al de Spring (p. ej. entre tests): el filtro no debe quedar colgado
+        if (contexto != null) {
+            contexto.getTurboFilterList().remove(filtro);
+            filtro.stop();
+        }
+    }
+
+    private static final class FiltroFugas extends TurboFilter {
+
+        private final Counter fugas;
+
+        private FiltroFugas(Counter fugas) {
+            this.fugas = fugas;
+        }
+
+        @Override
+        public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+            // format es null cuando Logback sólo consulta si el nivel está habilitado
+            if (format != null && level == Level.WARN && LOGGER_FUGAS.equals(logger.getName())) {
+                fugas.increment();
+            }
+            return FilterReply.NEUTRAL;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.cafedronel.cafedronelbackend.config;
 import java.time.OffsetDateTime;
 
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.cafedronel.cafedronelbackend.data.dto.error.ApiError;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.exceptions.AjusteStockRechazadoException;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -73,6 +76,23 @@ public class GlobalExceptionConfig {
         return build(HttpStatus.BAD_REQUEST, ex.getMessage(), req.getRequestURI());
     }
 
+    // Ajuste de stock rechazado: se devuelve el estado de cada ítem en lugar del error genérico
+    @ExceptionHandler(AjusteStockRechazadoException.class)
+    public ResponseEntity<AjusteStockResponseDTO> handleAjusteStockRechazado(AjusteStockRechazadoException ex) {
+        AjusteStockResponseDTO body = AjusteStockResponseDTO.builder()
+                .aplicado(false)
+                .resultados(ex.getResultados())
+                .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // Restricciones de la base de datos, p. ej. un correo repetido que pasó la validación por concurrencia
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest req) {
+        return build(HttpStatus.CONFLICT, "El registro viola una restricción de datos (por ejemplo, un correo ya registrado)",
+                req.getRequestURI());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex, HttpServletRequest req) {
         ex.printStackTrace(); // o logger.error("Unexpected error", ex);
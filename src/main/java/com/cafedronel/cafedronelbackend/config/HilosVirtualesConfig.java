@@ -0,0 +1,32 @@
+package com.cafedronel.cafedronelbackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.cafedronel.cafedronelbackend.util.http.LimiteConcurrenciaFilter;
+
+/**
+ * Modo de hilos virtuales (perfil "virtual", requiere Java 21). Spring Boot ya ejecuta Tomcat y
+ * las tareas @Scheduled en hilos virtuales con spring.threads.virtual.enabled; aquí sólo se agrega
+ * el límite de peticiones concurrentes que antes ponía el pool de hilos de Tomcat.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    @Bean
+    public FilterRegistrationBean<LimiteConcurrenciaFilter> limiteConcurrenciaFilter(
+            @Value("${concurrencia.max-peticiones:40}") int maxPeticiones,
+            @Value("${concurrencia.espera-ms:2000}") long esperaMs) {
+        FilterRegistrationBean<LimiteConcurrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcurrenciaFilter(maxPeticiones, esperaMs));
+        registro.addUrlPatterns("/api/*");
+        // Antes de Spring Security, para que la validación del JWT también quede dentro del límite
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cafedronel.cafedronelbackend.config;
+
+import java.util.Map;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * En MySQL Hibernate emula las secuencias con una tabla de una fila. Al pasar de IDENTITY a secuencias
+ * la tabla empieza en 1, así que se adelanta por encima del mayor id existente para no repetir claves.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecuenciasConfig implements ApplicationRunner {
+
+    // Debe coincidir con el allocationSize de los @SequenceGenerator
+    private static final int TAMANO_BLOQUE = 50;
+
+    // secuencia -> {tabla, columna id}
+    private static final Map<String, String[]> SECUENCIAS = Map.of(
+            "pedido_seq", new String[]{"pedido", "id_pedido"},
+            "detalle_pedido_seq", new String[]{"detalle_pedido", "id_detalle"},
+            "usuario_seq", new String[]{"usuario", "id_usuario"},
+            "producto_seq", new String[]{"producto", "id_producto"},
+            "pago_seq", new String[]{"pago", "id_pago"},
+            "envio_seq", new String[]{"envio", "id_envio"},
+            "correo_saliente_seq", new String[]{"correo_saliente", "id_correo"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String motor = jdbcTemplate.execute((ConnectionCallback<String>) conexion ->
+                conexion.getMetaData().getDatabaseProductName());
+        if (motor == null || !(motor.contains("MySQL") || motor.contains("MariaDB"))) {
+            return;
+        }
+
+        SECUENCIAS.forEach((secuencia, destino) -> {
+            // El optimizador pooled reparte ids en (next_val - bloque, next_val], por eso se suma el bloque completo
+            int filas = jdbcTemplate.update("UPDATE " + secuencia + " SET next_val = GREATEST(next_val, "
+                    + "(SELECT COALESCE(MAX(" + destino[1] + "), 0) + " + TAMANO_BLOQUE + " FROM " + destino[0] + "))");
+            log.debug("Secuencia {} sincronizada con {} ({} filas)", secuencia, destino[0], filas);
+        });
+    }
+}
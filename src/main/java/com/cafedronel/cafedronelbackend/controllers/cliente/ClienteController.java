@@ -1,8 +1,10 @@
 package com.cafedronel.cafedronelbackend.controllers.cliente;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteUpdateDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.EstadisticasClientesDTO;
 import com.cafedronel.cafedronelbackend.services.cliente.ClienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -89,12 +91,13 @@ public class ClienteController {
 
     @GetMapping("/buscar")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
-    @Operation(summary = "Buscar clientes por nombre", description = "Busca clientes que contengan el texto especificado en su nombre")
-    public ResponseEntity<List<ClienteDTO>> buscarClientesPorNombre(
-            @Parameter(description = "Texto a buscar en el nombre") @RequestParam String nombre) {
+    @Operation(summary = "Buscar clientes", description = "Busca clientes cuyo nombre, apellido o correo tenga palabras que empiecen por cada término del texto, sin distinguir mayúsculas ni tildes")
+    public ResponseEntity<PaginaCursorDTO<ClienteDTO>> buscarClientes(
+            @Parameter(description = "Texto a buscar, por ejemplo \"juan per\"") @RequestParam String q,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(required = false) Integer tamano) {
 
-        List<ClienteDTO> clientes = clienteService.findByNombreContaining(nombre);
-        return ResponseEntity.ok(clientes);
+        return ResponseEntity.ok(clienteService.buscar(q, cursor, tamano));
     }
 
     @PostMapping
@@ -175,12 +178,7 @@ public class ClienteController {
     @GetMapping("/estadisticas")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     @Operation(summary = "Obtener estadísticas de clientes", description = "Obtiene estadísticas básicas sobre los clientes")
-    public ResponseEntity<Map<String, Object>> getEstadisticasClientes() {
-        long totalClientes = clienteService.count();
-
-        Map<String, Object> estadisticas = Map.of(
-                "totalClientes", totalClientes);
-
-        return ResponseEntity.ok(estadisticas);
+    public ResponseEntity<EstadisticasClientesDTO> getEstadisticasClientes() {
+        return ResponseEntity.ok(clienteService.obtenerEstadisticas());
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.cafedronel.cafedronelbackend.controllers.envio;
 
 import com.cafedronel.cafedronelbackend.data.dto.MessageResponse;
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.envio.EnvioDTO;
 import com.cafedronel.cafedronelbackend.data.model.Envio;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
@@ -28,6 +29,15 @@ public class EnvioController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaCursorDTO<Envio>> getPaginaEnvios(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(envioService.findPagina(cursor, tamano));
+    }
+
+    // Listado completo sin paginar, sólo bajo pedido explícito (?completo=true)
+    @GetMapping(params = "completo=true")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Envio>> getAllEnvios() {
         return ResponseEntity.ok(envioService.findAll());
     }
@@ -1,6 +1,7 @@
 package com.cafedronel.cafedronelbackend.controllers.pago;
 
 import com.cafedronel.cafedronelbackend.data.dto.MessageResponse;
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.pago.PagoDTO;
 import com.cafedronel.cafedronelbackend.data.model.Pago;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
@@ -28,6 +29,15 @@ public class PagoController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaCursorDTO<Pago>> getPaginaPagos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
+        return ResponseEntity.ok(pagoService.findPagina(cursor, tamano));
+    }
+
+    // Listado completo sin paginar, sólo bajo pedido explícito (?completo=true)
+    @GetMapping(params = "completo=true")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Pago>> getAllPagos() {
         return ResponseEntity.ok(pagoService.findAll());
     }
@@ -1,15 +1,37 @@
 package com.cafedronel.cafedronelbackend.controllers.producto;
 
 import com.cafedronel.cafedronelbackend.data.dto.MessageResponse;
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
 import com.cafedronel.cafedronelbackend.services.producto.ProductoService;
+import com.cafedronel.cafedronelbackend.services.producto.importacion.ImportacionProductoService;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos;
+import com.cafedronel.cafedronelbackend.util.http.RespuestaCondicional;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @RestController
@@ -19,13 +41,47 @@ public class ProductoController {
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private ImportacionProductoService importacionProductoService;
+
+    @Autowired
+    private VersionesDatos versionesDatos;
+
     @GetMapping
-    public ResponseEntity<List<ProductoResponseDTO>> getAllProductos() {
+    public ResponseEntity<PaginaCursorDTO<ProductoResponseDTO>> getPaginaProductos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(productoService.findPagina(cursor, tamano));
+    }
+
+    // Catálogo completo sin paginar, sólo bajo pedido explícito (?completo=true)
+    @GetMapping(params = "completo=true")
+    public ResponseEntity<List<ProductoResponseDTO>> getAllProductos(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         return ResponseEntity.ok(productoService.findAll());
     }
 
+    // Búsqueda por texto sin distinguir tildes, con prefijos ("caf" encuentra "Café") y facetas por categoría y subtipo
+    @GetMapping("/buscar")
+    public ResponseEntity<BusquedaProductosDTO> buscarProductos(
+            @RequestParam String q,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) String subtipo,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(productoService.buscar(q, categoria, subtipo, limite));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductoResponseDTO> getProductoById(@PathVariable Integer id) {
+    public ResponseEntity<ProductoResponseDTO> getProductoById(@PathVariable Integer id, WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         return ResponseEntity.ok(productoService.findById(id));
     }
 
@@ -47,4 +103,44 @@ public class ProductoController {
         productoService.delete(id);
         return ResponseEntity.ok(new MessageResponse("Producto eliminado correctamente"));
     }
-}
\ No newline at end of file
+
+    // Ingresos y salidas de varios productos a la vez; si alguno no puede aplicarse se responde 409 y no se aplica ninguno
+    @PostMapping("/stock/ajustes")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<AjusteStockResponseDTO> ajustarStock(@Valid @RequestBody AjusteStockRequestDTO ajuste,
+                                                               Authentication authentication) {
+        String usuario = authentication != null ? authentication.getName() : null;
+        return ResponseEntity.ok(productoService.ajustarStock(ajuste, usuario));
+    }
+
+    // Alta y actualización masiva por SKU desde un .csv o .xlsx; las filas con error se informan y se omiten
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ResultadoImportacionDTO> importarProductos(@RequestParam("archivo") MultipartFile archivo)
+            throws IOException {
+        FormatoArchivo formato = FormatoArchivo.desde(archivo.getOriginalFilename());
+        try (InputStream entrada = archivo.getInputStream()) {
+            return ResponseEntity.ok(importacionProductoService.importar(entrada, formato));
+        }
+    }
+
+    // El archivo se escribe directamente en la respuesta, sin Content-Length
+    @GetMapping("/exportar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<StreamingResponseBody> exportarProductos(@RequestParam(defaultValue = "csv") String formato) {
+        FormatoArchivo tipo = FormatoArchivo.desde(formato);
+        String nombreArchivo = "productos_" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + tipo.getExtension();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(tipo.getTipoContenido()));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(nombreArchivo).build());
+        StreamingResponseBody cuerpo = salida -> importacionProductoService.exportar(tipo, salida);
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    // GET condicional: con el mismo ETag se responde 304 sin leer ni serializar el catálogo
+    private boolean noModificado(WebRequest request) {
+        return RespuestaCondicional.noModificado(request, versionesDatos.etagCatalogo(),
+                versionesDatos.ultimaModificacionCatalogo(), CacheControl.noCache());
+    }
+}
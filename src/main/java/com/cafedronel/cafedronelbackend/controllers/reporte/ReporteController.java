@@ -5,21 +5,30 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteClientesDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReportePedidosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteProductosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
+import com.cafedronel.cafedronelbackend.data.dto.MessageResponse;
 import com.cafedronel.cafedronelbackend.services.reporte.ReporteService;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos;
+import com.cafedronel.cafedronelbackend.util.http.RespuestaCondicional;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,6 +44,9 @@ import lombok.RequiredArgsConstructor;
 public class ReporteController {
 
     private final ReporteService reporteService;
+    private final VentaDiariaService ventaDiariaService;
+    private final ResumenClienteService resumenClienteService;
+    private final VersionesDatos versionesDatos;
 
     // ========== REPORTES JSON ==========
 
@@ -45,7 +57,10 @@ public class ReporteController {
             @ApiResponse(responseCode = "200", description = "Reporte generado exitosamente"),
             @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
-    public ResponseEntity<List<ReporteClientesDTO>> obtenerReporteClientes() {
+    public ResponseEntity<List<ReporteClientesDTO>> obtenerReporteClientes(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         List<ReporteClientesDTO> reporte = reporteService.generarReporteClientes();
         return ResponseEntity.ok(reporte);
     }
@@ -57,7 +72,11 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         
         List<ReportePedidosDTO> reporte = reporteService.generarReportePedidos(fechaInicio, fechaFin);
         return ResponseEntity.ok(reporte);
@@ -66,7 +85,10 @@ public class ReporteController {
     @GetMapping("/productos")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     @Operation(summary = "Obtener reporte de productos", description = "Genera un reporte con estadísticas de productos y ventas")
-    public ResponseEntity<List<ReporteProductosDTO>> obtenerReporteProductos() {
+    public ResponseEntity<List<ReporteProductosDTO>> obtenerReporteProductos(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         List<ReporteProductosDTO> reporte = reporteService.generarReporteProductos();
         return ResponseEntity.ok(reporte);
     }
@@ -78,12 +100,39 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         
         List<ReporteVentasDTO> reporte = reporteService.generarReporteVentas(fechaInicio, fechaFin);
         return ResponseEntity.ok(reporte);
     }
 
+    @PostMapping("/ventas/reconstruir")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Reconstruir resumen de ventas", 
+               description = "Recalcula el resumen diario de ventas a partir de los pedidos (todo el historial si no se indican fechas)")
+    public ResponseEntity<MessageResponse<String>> reconstruirResumenVentas(
+            @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+
+        int dias = ventaDiariaService.reconstruir(fechaInicio, fechaFin);
+        return ResponseEntity.ok(new MessageResponse<>("Resumen de ventas reconstruido: " + dias + " días"));
+    }
+
+    @PostMapping("/clientes/reconstruir")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Reconstruir resumen de clientes",
+               description = "Recalcula pedidos, gasto total y último pedido de cada cliente a partir de los pedidos")
+    public ResponseEntity<MessageResponse<String>> reconstruirResumenClientes() {
+        int clientes = resumenClienteService.reconstruir();
+        return ResponseEntity.ok(new MessageResponse<>("Resumen de clientes reconstruido: " + clientes + " clientes"));
+    }
+
     // ========== EXPORTACIÓN A EXCEL ==========
 
     @GetMapping("/excel/clientes")
@@ -94,7 +143,10 @@ public class ReporteController {
             @ApiResponse(responseCode = "403", description = "Acceso denegado"),
             @ApiResponse(responseCode = "500", description = "Error generando el archivo")
     })
-    public ResponseEntity<byte[]> descargarExcelClientes() {
+    public ResponseEntity<byte[]> descargarExcelClientes(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         byte[] excelData = reporteService.generarExcelClientes();
         
         String fileName = "reporte_clientes_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
@@ -114,7 +166,11 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         
         // Si no se proporcionan fechas, usar el último mes
         if (fechaInicio == null) {
@@ -140,7 +196,10 @@ public class ReporteController {
     @GetMapping("/excel/productos")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     @Operation(summary = "Descargar reporte de productos en Excel", description = "Genera y descarga un archivo Excel con el reporte de productos")
-    public ResponseEntity<byte[]> descargarExcelProductos() {
+    public ResponseEntity<byte[]> descargarExcelProductos(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         byte[] excelData = reporteService.generarExcelProductos();
         
         String fileName = "reporte_productos_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
@@ -160,7 +219,11 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         
         byte[] excelData = reporteService.generarExcelVentas(fechaInicio, fechaFin);
         
@@ -188,7 +251,11 @@ public class ReporteController {
             @Parameter(description = "Fecha de inicio para reportes con fechas (formato: yyyy-MM-dd)")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @Parameter(description = "Fecha de fin para reportes con fechas (formato: yyyy-MM-dd)")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
         
         // Si no se proporcionan fechas, usar el último mes
         if (fechaInicio == null) {
@@ -210,6 +277,117 @@ public class ReporteController {
         return new ResponseEntity<>(excelData, headers, HttpStatus.OK);
     }
 
+    // ========== EXPORTACIÓN A EXCEL EN STREAMING ==========
+    // El archivo se escribe directamente en la respuesta, por lo que el uso de memoria no depende
+    // de la cantidad de filas. No se envía Content-Length porque el tamaño no se conoce de antemano.
+
+    @GetMapping("/excel/stream/clientes")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Descargar reporte de clientes en Excel (streaming)", description = "Escribe el archivo Excel de clientes directamente en la respuesta")
+    public ResponseEntity<StreamingResponseBody> descargarExcelClientesStreaming(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
+        String fileName = "reporte_clientes_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+
+        StreamingResponseBody cuerpo = salida -> reporteService.exportarExcelClientes(salida);
+        return new ResponseEntity<>(cuerpo, crearHeadersExcel(fileName), HttpStatus.OK);
+    }
+
+    @GetMapping("/excel/stream/pedidos")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Descargar reporte de pedidos en Excel (streaming)", description = "Escribe el archivo Excel de pedidos directamente en la respuesta, leyendo los pedidos con un cursor")
+    public ResponseEntity<StreamingResponseBody> descargarExcelPedidosStreaming(
+            @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
+        
+        // Si no se proporcionan fechas, usar el último mes
+        LocalDate inicio = fechaInicio != null ? fechaInicio : LocalDate.now().minusMonths(1);
+        LocalDate fin = fechaFin != null ? fechaFin : LocalDate.now();
+        
+        String fileName = "reporte_pedidos_" + inicio.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
+                         "_" + fin.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+
+        StreamingResponseBody cuerpo = salida -> reporteService.exportarExcelPedidos(inicio, fin, salida);
+        return new ResponseEntity<>(cuerpo, crearHeadersExcel(fileName), HttpStatus.OK);
+    }
+
+    @GetMapping("/excel/stream/productos")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Descargar reporte de productos en Excel (streaming)", description = "Escribe el archivo Excel de productos directamente en la respuesta")
+    public ResponseEntity<StreamingResponseBody> descargarExcelProductosStreaming(WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
+        String fileName = "reporte_productos_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+
+        StreamingResponseBody cuerpo = salida -> reporteService.exportarExcelProductos(salida);
+        return new ResponseEntity<>(cuerpo, crearHeadersExcel(fileName), HttpStatus.OK);
+    }
+
+    @GetMapping("/excel/stream/ventas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Descargar reporte de ventas en Excel (streaming)", description = "Escribe el archivo Excel de ventas directamente en la respuesta")
+    public ResponseEntity<StreamingResponseBody> descargarExcelVentasStreaming(
+            @Parameter(description = "Fecha de inicio (formato: yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin (formato: yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
+        
+        String fileName = "reporte_ventas_" + fechaInicio.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
+                         "_" + fechaFin.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+
+        StreamingResponseBody cuerpo = salida -> reporteService.exportarExcelVentas(fechaInicio, fechaFin, salida);
+        return new ResponseEntity<>(cuerpo, crearHeadersExcel(fileName), HttpStatus.OK);
+    }
+
+    @GetMapping("/excel/stream/completo")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Descargar reporte completo en Excel (streaming)", 
+               description = "Escribe el archivo Excel con todas las hojas directamente en la respuesta")
+    public ResponseEntity<StreamingResponseBody> descargarExcelCompletoStreaming(
+            @Parameter(description = "Fecha de inicio para reportes con fechas (formato: yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin para reportes con fechas (formato: yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            WebRequest request) {
+        if (noModificado(request)) {
+            return null;
+        }
+        
+        // Si no se proporcionan fechas, usar el último mes
+        LocalDate inicio = fechaInicio != null ? fechaInicio : LocalDate.now().minusMonths(1);
+        LocalDate fin = fechaFin != null ? fechaFin : LocalDate.now();
+        
+        String fileName = "reporte_completo_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+
+        StreamingResponseBody cuerpo = salida -> reporteService.exportarExcelCompleto(inicio, fin, salida);
+        return new ResponseEntity<>(cuerpo, crearHeadersExcel(fileName), HttpStatus.OK);
+    }
+
+    // GET condicional: mientras no cambien pedidos ni productos se responde 304 sin generar el reporte
+    private boolean noModificado(WebRequest request) {
+        return RespuestaCondicional.noModificado(request, versionesDatos.etagReportes(),
+                versionesDatos.ultimaModificacionReportes(), CacheControl.noCache().cachePrivate());
+    }
+
+    private HttpHeaders crearHeadersExcel(String fileName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", fileName);
+        return headers;
+    }
+
     // ========== ENDPOINTS DE UTILIDAD ==========
 
     @GetMapping("/disponibles")
@@ -0,0 +1,23 @@
+package com.cafedronel.cafedronelbackend.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de un listado por cursor. Para pedir la siguiente se envía {@code siguienteCursor}
+ * como parámetro {@code cursor}; es null cuando no hay más resultados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+    private List<T> contenido;
+    private int tamano;
+    private boolean hayMas;
+    private String siguienteCursor;
+}
@@ -0,0 +1,12 @@
+package com.cafedronel.cafedronelbackend.data.dto.auth;
+
+/**
+ * Datos mínimos del usuario que necesita el filtro JWT en cada petición
+ */
+public record UsuarioSesion(
+        Integer idUsuario,
+        String correo,
+        String rol,
+        boolean activo
+) {
+}
@@ -0,0 +1,18 @@
+package com.cafedronel.cafedronelbackend.data.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasClientesDTO {
+    private Long totalClientes;
+    private Long clientesConPedidos;
+    private Long totalPedidos;
+    private Double totalGastado;
+    private Double gastoPromedioPorCliente;
+}
@@ -0,0 +1,19 @@
+package com.cafedronel.cafedronelbackend.data.dto.pedido;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetallePedidoResumenDTO {
+    private Integer idDetalle;
+    private Integer idProducto;
+    private String nombreProducto;
+    private Integer cantidad;
+    private Double precioUnitario;
+    private Double subtotal;
+}
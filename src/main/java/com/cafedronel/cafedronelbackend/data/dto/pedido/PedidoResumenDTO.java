@@ -0,0 +1,36 @@
+package com.cafedronel.cafedronelbackend.data.dto.pedido;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Vista plana de un pedido para los listados (sin referencias a entidades)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoResumenDTO {
+    private Integer idPedido;
+    private Date fecha;
+    private EstadoPedido estado;
+    private String telefono;
+    private String direccion;
+    private Integer idUsuario;
+    private String nombreCliente;
+    private String correoCliente;
+    private String metodoPago;
+    private String estadoPago;
+    private Double montoPago;
+    private String metodoEnvio;
+    private String estadoEnvio;
+    private String numeroSeguimiento;
+    private Double total;
+    private List<DetallePedidoResumenDTO> detalles;
+}
@@ -0,0 +1,25 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AjusteStockRequestDTO {
+
+    @NotEmpty(message = "Indique al menos un ajuste")
+    @Size(max = 1000, message = "No se pueden ajustar más de 1000 productos a la vez")
+    private List<@Valid ItemAjusteStockDTO> items;
+
+    @Size(max = 255, message = "El motivo no debe exceder los 255 caracteres")
+    private String motivo;
+}
@@ -0,0 +1,19 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AjusteStockResponseDTO {
+    // Los ajustes se aplican todos o ninguno
+    private boolean aplicado;
+    // En el mismo orden que los ítems del pedido
+    private List<ResultadoAjusteStockDTO> resultados;
+}
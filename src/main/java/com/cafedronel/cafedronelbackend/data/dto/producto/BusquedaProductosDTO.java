@@ -0,0 +1,25 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una búsqueda de productos. {@code total} y las facetas cuentan todas las
+ * coincidencias, no sólo las devueltas en {@code resultados}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaProductosDTO {
+    private int total;
+    private List<ProductoEncontradoDTO> resultados;
+    // Cantidad de coincidencias por categoría y por subtipo, de mayor a menor
+    private Map<String, Integer> categorias;
+    private Map<String, Integer> subtipos;
+}
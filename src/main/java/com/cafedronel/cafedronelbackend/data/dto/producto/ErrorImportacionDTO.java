@@ -0,0 +1,17 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorImportacionDTO {
+    // Número de fila en el archivo, contando la de encabezados como 1
+    private Integer fila;
+    private String sku;
+    private String mensaje;
+}
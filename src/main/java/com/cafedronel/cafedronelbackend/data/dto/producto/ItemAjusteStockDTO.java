@@ -0,0 +1,21 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAjusteStockDTO {
+
+    @NotNull(message = "El producto es obligatorio")
+    private Integer idProducto;
+
+    // Positiva para ingresos, negativa para salidas
+    @NotNull(message = "La cantidad es obligatoria")
+    private Integer cantidad;
+}
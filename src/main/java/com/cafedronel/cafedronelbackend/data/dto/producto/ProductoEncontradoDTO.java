@@ -0,0 +1,19 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoEncontradoDTO {
+    private Integer idProducto;
+    private String nombre;
+    private String categoria;
+    private String subtipo;
+    private Double precio;
+    private Double puntaje;
+}
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ProductoResponseDTO {
     private Integer idProducto;
+    private String sku;
     private String nombre;
     private String categoria;
     private String subtipo;
@@ -0,0 +1,20 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoAjusteStock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoAjusteStockDTO {
+    private Integer idProducto;
+    private Integer cantidad;
+    // Stock después del ajuste; si se rechazó, el stock actual (null si el producto no existe)
+    private Integer stock;
+    private EstadoAjusteStock estado;
+}
@@ -0,0 +1,25 @@
+package com.cafedronel.cafedronelbackend.data.dto.producto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen de una importación masiva de productos. Las filas con error se omiten y el resto se guarda.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionDTO {
+    private int filasLeidas;
+    private int creados;
+    private int actualizados;
+    private int filasConError;
+    // Sólo las primeras; filasConError cuenta todas
+    private List<ErrorImportacionDTO> errores;
+    private long milisegundos;
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -19,6 +20,7 @@ public class ReporteClientesDTO {
     private String direccion;
     private Integer totalPedidos;
     private Double totalGastado;
+    private LocalDate ultimoPedido;
     private LocalDateTime fechaRegistro;
     private String estado; // Activo/Inactivo basado en pedidos recientes
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.cafedronel.cafedronelbackend.data.dto.reporte;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unidades vendidas e ingresos acumulados de un producto, agregados en base de datos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentasProductoDTO {
+    private Integer idProducto;
+    private Long totalVendido;
+    private BigDecimal ingresosTotales;
+}
@@ -0,0 +1,9 @@
+package com.cafedronel.cafedronelbackend.data.enums;
+
+public enum EstadoAjusteStock {
+    APLICADO,
+    // El ajuste era válido pero se revirtió porque otro del mismo lote falló
+    REVERTIDO,
+    STOCK_INSUFICIENTE,
+    PRODUCTO_NO_ENCONTRADO
+}
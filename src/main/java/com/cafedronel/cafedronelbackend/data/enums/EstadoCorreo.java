@@ -0,0 +1,8 @@
+package com.cafedronel.cafedronelbackend.data.enums;
+
+public enum EstadoCorreo {
+    PENDIENTE,
+    ENVIANDO,
+    ENVIADO,
+    FALLIDO
+}
@@ -0,0 +1,41 @@
+package com.cafedronel.cafedronelbackend.data.enums;
+
+import java.util.Locale;
+
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+
+public enum FormatoArchivo {
+    CSV("csv", "text/csv"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String tipoContenido;
+
+    FormatoArchivo(String extension, String tipoContenido) {
+        this.extension = extension;
+        this.tipoContenido = tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    /**
+     * Formato según la extensión ("csv", "xlsx") o el nombre de archivo que la lleva
+     */
+    public static FormatoArchivo desde(String nombreOExtension) {
+        if (nombreOExtension != null) {
+            String valor = nombreOExtension.trim().toLowerCase(Locale.ROOT);
+            for (FormatoArchivo formato : values()) {
+                if (valor.equals(formato.extension) || valor.endsWith("." + formato.extension)) {
+                    return formato;
+                }
+            }
+        }
+        throw new BusinessException("Formato de archivo no soportado: use .csv o .xlsx");
+    }
+}
@@ -0,0 +1,74 @@
+package com.cafedronel.cafedronelbackend.data.model;
+
+import java.time.LocalDateTime;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Correo en la bandeja de salida. Se guarda en la misma transacción que lo origina
+ * y lo envía después un proceso en segundo plano, con reintentos.
+ */
+@Entity
+@Table(name = "correo_saliente", indexes = {
+        @Index(name = "idx_correo_estado_proximo", columnList = "estado, proximo_intento"),
+        @Index(name = "idx_correo_lote", columnList = "lote")
+})
+@Getter
+@Setter
+@ToString(exclude = {"cuerpo"})
+public class CorreoSaliente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "correo_saliente_seq")
+    @SequenceGenerator(name = "correo_saliente_seq", sequenceName = "correo_saliente_seq", allocationSize = 50)
+    private Integer idCorreo;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String asunto;
+
+    @Lob
+    @Column(nullable = false)
+    private String cuerpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoCorreo estado;
+
+    private int intentos;
+
+    // No se intenta enviar antes de esta fecha (backoff exponencial entre reintentos)
+    @Column(nullable = false)
+    private LocalDateTime proximoIntento;
+
+    // Identifica qué proceso reclamó el correo mientras está ENVIANDO
+    @Column(length = 36)
+    private String lote;
+
+    private LocalDateTime reclamadoEn;
+
+    @Column(nullable = false)
+    private LocalDateTime creadoEn;
+
+    private LocalDateTime enviadoEn;
+
+    @Column(length = 500)
+    private String ultimoError;
+}
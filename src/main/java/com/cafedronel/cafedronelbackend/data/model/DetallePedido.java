@@ -1,13 +1,19 @@
 package com.cafedronel.cafedronelbackend.data.model;
 
+import java.math.BigDecimal;
+
+import com.cafedronel.cafedronelbackend.services.version.CambioDatosListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -15,6 +21,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners(CambioDatosListener.class)
 @Table(name = "detalle_pedido")
 @Getter
 @Setter
@@ -22,8 +29,10 @@ import lombok.ToString;
 @EqualsAndHashCode(exclude = {"pedido"})
 public class DetallePedido {
 
+    // Secuencia con asignación por bloques: IDENTITY impide los inserts en lote de Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_pedido_seq")
+    @SequenceGenerator(name = "detalle_pedido_seq", sequenceName = "detalle_pedido_seq", allocationSize = 50)
     private Integer idDetalle;
 
     @ManyToOne
@@ -37,5 +46,8 @@ public class DetallePedido {
 
     private Integer cantidad;
     private Double precioUnitario;
-    private Double subtotal;
+
+    // cantidad × precioUnitario en decimal exacto, calculado al guardar
+    @Column(precision = 12, scale = 2)
+    private BigDecimal subtotal;
 }
@@ -2,14 +2,17 @@ package com.cafedronel.cafedronelbackend.data.model;
 
 import java.util.Date;
 
+import com.cafedronel.cafedronelbackend.services.version.CambioDatosListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
@@ -19,6 +22,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners(CambioDatosListener.class)
 @Table(name = "envio")
 @Getter
 @Setter
@@ -27,7 +31,8 @@ import lombok.ToString;
 public class Envio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "envio_seq")
+    @SequenceGenerator(name = "envio_seq", sequenceName = "envio_seq", allocationSize = 50)
     private Integer idEnvio;
 
     @OneToOne
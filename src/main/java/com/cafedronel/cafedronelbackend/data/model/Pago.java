@@ -2,13 +2,16 @@ package com.cafedronel.cafedronelbackend.data.model;
 
 import java.util.Date;
 
+import com.cafedronel.cafedronelbackend.services.version.CambioDatosListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
@@ -18,6 +21,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners(CambioDatosListener.class)
 @Table(name = "pago")
 @Getter
 @Setter
@@ -26,7 +30,8 @@ import lombok.ToString;
 public class Pago {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_seq")
+    @SequenceGenerator(name = "pago_seq", sequenceName = "pago_seq", allocationSize = 50)
     private Integer idPago;
 
     @OneToOne
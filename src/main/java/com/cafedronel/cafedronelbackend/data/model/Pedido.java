@@ -1,15 +1,19 @@
 package com.cafedronel.cafedronelbackend.data.model;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 
 import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.services.version.CambioDatosListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -19,6 +23,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
@@ -28,6 +33,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners(CambioDatosListener.class)
 @Table(name = "pedido")
 @Getter
 @Setter
@@ -35,8 +41,10 @@ import lombok.ToString;
 @EqualsAndHashCode(exclude = {"usuario", "pago", "envio", "detalles"})
 public class Pedido {
 
+    // Secuencia con asignación por bloques: IDENTITY impide los inserts en lote de Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
     private Integer idPedido;
 
     @ManyToOne
@@ -53,6 +61,13 @@ public class Pedido {
     private String telefono;
     private String direccion;
 
+    // Suma de los subtotales de sus detalles, mantenida al escribir el pedido o sus detalles
+    @Column(precision = 12, scale = 2)
+    private BigDecimal total;
+
+    // Hasta cuándo se retiene el stock descontado en el checkout; null si no hay reserva activa
+    private LocalDateTime reservaExpiraEn;
+
     @OneToOne(mappedBy = "pedido", cascade = CascadeType.ALL)
     @JsonManagedReference("pedido-pago")
     private Pago pago;
@@ -9,9 +9,14 @@ import lombok.Data;
 public class Producto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_seq")
+    @SequenceGenerator(name = "producto_seq", sequenceName = "producto_seq", allocationSize = 50)
     private Integer idProducto;
 
+    // Código del proveedor; clave de las importaciones masivas
+    @Column(length = 64, unique = true)
+    private String sku;
+
     private String nombre;
     private String categoria;
     private String subtipo;
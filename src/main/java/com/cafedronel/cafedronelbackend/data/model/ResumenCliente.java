@@ -0,0 +1,32 @@
+package com.cafedronel.cafedronelbackend.data.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Totales acumulados de un cliente. Se recalcula al crear, modificar o eliminar sus pedidos
+ * y puede reconstruirse completo con una sola consulta agrupada. Sólo existe si el cliente tiene pedidos.
+ */
+@Entity
+@Table(name = "resumen_cliente")
+@Getter
+@Setter
+@ToString
+public class ResumenCliente {
+
+    @Id
+    private Integer idUsuario;
+
+    private Integer totalPedidos;
+    @Column(precision = 14, scale = 2)
+    private BigDecimal totalGastado;
+    private LocalDate ultimoPedido;
+}
@@ -0,0 +1,50 @@
+package com.cafedronel.cafedronelbackend.data.model;
+
+import java.io.Serializable;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Palabra normalizada del nombre, apellido o correo de un usuario, para buscar por prefijo con índice.
+ * Sólo se lee con JPA; la escribe {@code IndiceBusquedaClientes}.
+ */
+@Entity
+@Immutable
+@Table(name = "usuario_token_busqueda")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenBusquedaUsuario {
+
+    @EmbeddedId
+    private Clave id;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+
+        @Column(length = 50)
+        private String token;
+
+        private Integer idUsuario;
+    }
+}
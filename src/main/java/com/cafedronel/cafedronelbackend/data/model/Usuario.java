@@ -1,5 +1,6 @@
 package com.cafedronel.cafedronelbackend.data.model;
 
+import com.cafedronel.cafedronelbackend.services.version.CambioDatosListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -13,6 +14,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Entity
+@EntityListeners(CambioDatosListener.class)
 @Table(name = "usuario")
 @Getter
 @Setter
@@ -24,12 +26,14 @@ import java.util.List;
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
     private Integer idUsuario;
 
     private String nombre;
     private String apellido;
+    // Único en la base de datos (uk_usuario_correo, migración V2)
+    @Column(unique = true)
     private String correo;
     private String contrasena;
     private String telefono;
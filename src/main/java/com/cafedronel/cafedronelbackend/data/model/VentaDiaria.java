@@ -0,0 +1,34 @@
+package com.cafedronel.cafedronelbackend.data.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Resumen materializado de las ventas de un día. Pedidos y ventas se acumulan al crear, modificar
+ * o eliminar pedidos; clientes y producto más vendido no son acumulables: quedan en null hasta la
+ * siguiente reconstrucción y mientras tanto se calculan al leer. Puede reconstruirse desde los pedidos.
+ */
+@Entity
+@Table(name = "ventas_diarias")
+@Getter
+@Setter
+@ToString
+public class VentaDiaria {
+
+    @Id
+    private LocalDate fecha;
+
+    private Integer totalPedidos;
+    @Column(precision = 14, scale = 2)
+    private BigDecimal totalVentas;
+    private Integer clientesUnicos;
+    private String productoMasVendido;
+}
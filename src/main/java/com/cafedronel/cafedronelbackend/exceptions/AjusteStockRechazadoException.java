@@ -0,0 +1,22 @@
+package com.cafedronel.cafedronelbackend.exceptions;
+
+import java.util.List;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoAjusteStockDTO;
+
+/**
+ * Algún ajuste del lote no pudo aplicarse; lleva el resultado de cada ítem para la respuesta
+ */
+public class AjusteStockRechazadoException extends BusinessException {
+
+    private final List<ResultadoAjusteStockDTO> resultados;
+
+    public AjusteStockRechazadoException(List<ResultadoAjusteStockDTO> resultados) {
+        super("No se aplicó ningún ajuste de stock: hay productos inexistentes o con stock insuficiente");
+        this.resultados = resultados;
+    }
+
+    public List<ResultadoAjusteStockDTO> getResultados() {
+        return resultados;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cafedronel.cafedronelbackend.repository;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo;
+import com.cafedronel.cafedronelbackend.data.model.CorreoSaliente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface CorreoSalienteRepository extends JpaRepository<CorreoSaliente, Integer> {
+
+    // Correos pendientes cuyo próximo intento ya venció, los más antiguos primero
+    @Query("SELECT c.idCorreo FROM CorreoSaliente c WHERE c.estado = com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo.PENDIENTE "
+            + "AND c.proximoIntento <= :ahora ORDER BY c.idCorreo")
+    List<Integer> findIdsListos(@Param("ahora") LocalDateTime ahora, Limit limit);
+
+    // Reclamo condicional: si otro proceso ya tomó un correo, la sentencia no lo toca
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CorreoSaliente c SET c.estado = com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo.ENVIANDO, "
+            + "c.lote = :lote, c.reclamadoEn = :ahora "
+            + "WHERE c.idCorreo IN :ids AND c.estado = com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo.PENDIENTE")
+    int reclamar(@Param("ids") Collection<Integer> ids, @Param("lote") String lote, @Param("ahora") LocalDateTime ahora);
+
+    List<CorreoSaliente> findByLoteOrderByIdCorreoAsc(String lote);
+
+    // Devuelve a la cola los correos de un proceso que terminó sin registrar el resultado
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CorreoSaliente c SET c.estado = com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo.PENDIENTE, "
+            + "c.lote = null, c.reclamadoEn = null "
+            + "WHERE c.estado = com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo.ENVIANDO AND c.reclamadoEn < :limite")
+    int liberarReclamosVencidos(@Param("limite") LocalDateTime limite);
+
+    long countByEstado(EstadoCorreo estado);
+}
@@ -1,10 +1,44 @@
 package com.cafedronel.cafedronelbackend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.cafedronel.cafedronelbackend.data.dto.reporte.VentasProductoDTO;
 import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DetallePedidoRepository extends JpaRepository<DetallePedido, Integer> {
     List<DetallePedido> findByPedidoIdPedido(Integer pedidoId);
+
+    @Query("SELECT d.pedido.idPedido FROM DetallePedido d WHERE d.idDetalle = :idDetalle")
+    Optional<Integer> findIdPedidoByIdDetalle(@Param("idDetalle") Integer idDetalle);
+
+    @Query("SELECT d.pedido.usuario.idUsuario FROM DetallePedido d WHERE d.idDetalle = :idDetalle")
+    Optional<Integer> findIdUsuarioByIdDetalle(@Param("idDetalle") Integer idDetalle);
+
+    // Unidades vendidas e ingresos por producto en una sola consulta agrupada
+    @Query("SELECT new com.cafedronel.cafedronelbackend.data.dto.reporte.VentasProductoDTO("
+            + "d.producto.idProducto, SUM(d.cantidad), SUM(d.subtotal)) "
+            + "FROM DetallePedido d GROUP BY d.producto.idProducto")
+    List<VentasProductoDTO> obtenerVentasPorProducto();
+
+    // Unidades de cada producto en un conjunto de pedidos, para devolver su stock reservado
+    @Query("SELECT d.producto.idProducto AS idProducto, SUM(d.cantidad) AS cantidad FROM DetallePedido d "
+            + "WHERE d.pedido.idPedido IN :idsPedido GROUP BY d.producto.idProducto")
+    List<CantidadProducto> sumarCantidadesPorProducto(@Param("idsPedido") Collection<Integer> idsPedido);
+
+    interface CantidadProducto {
+        Integer getIdProducto();
+        Long getCantidad();
+    }
+
+    // Completa el subtotal de los detalles guardados antes de que se calculara al escribir
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE detalle_pedido SET subtotal = ROUND(cantidad * precio_unitario, 2) "
+            + "WHERE subtotal IS NULL AND cantidad IS NOT NULL AND precio_unitario IS NOT NULL", nativeQuery = true)
+    int completarSubtotalesPendientes();
 }
@@ -1,10 +1,15 @@
 package com.cafedronel.cafedronelbackend.repository;
 
 import com.cafedronel.cafedronelbackend.data.model.Envio;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface EnvioRepository extends JpaRepository<Envio, Integer> {
     Optional<Envio> findByPedidoIdPedido(Integer pedidoId);
+
+    // Página por cursor sobre la clave primaria
+    List<Envio> findByIdEnvioGreaterThanOrderByIdEnvioAsc(Integer despuesDe, Limit limit);
 }
@@ -1,10 +1,15 @@
 package com.cafedronel.cafedronelbackend.repository;
 
 import com.cafedronel.cafedronelbackend.data.model.Pago;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PagoRepository extends JpaRepository<Pago, Integer> {
     Optional<Pago> findByPedidoIdPedido(Integer pedidoId);
+
+    // Página por cursor sobre la clave primaria
+    List<Pago> findByIdPagoGreaterThanOrderByIdPagoAsc(Integer despuesDe, Limit limit);
 }
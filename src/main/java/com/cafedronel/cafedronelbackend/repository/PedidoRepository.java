@@ -1,13 +1,123 @@
 package com.cafedronel.cafedronelbackend.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
+
+    // Reporte de pedidos: total guardado y unidades agregadas en base de datos, sin cargar detalles
+    String SELECT_REPORTE_PEDIDOS = "SELECT p.idPedido AS idPedido, p.fecha AS fecha, p.estado AS estado, p.total AS total, "
+            + "u.nombre AS nombre, u.apellido AS apellido, u.correo AS correo, pa.metodoPago AS metodoPago, "
+            + "e.direccion AS direccionEnvio, p.direccion AS direccion, "
+            + "(SELECT COALESCE(SUM(d.cantidad), 0) FROM DetallePedido d WHERE d.pedido = p) AS cantidadProductos "
+            + "FROM Pedido p LEFT JOIN p.usuario u LEFT JOIN p.pago pa LEFT JOIN p.envio e ";
+
     List<Pedido> findByUsuarioIdUsuario(Integer idUsuario);
     List<Pedido> findByFechaBetween(Date fechaInicio, Date fechaFin);
+
+    // Listados de solo lectura: el grafo completo se trae en una sola consulta
+    @EntityGraph(attributePaths = {"usuario", "pago", "envio", "detalles", "detalles.producto"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT p FROM Pedido p ORDER BY p.idPedido")
+    List<Pedido> findAllConDetalles();
+
+    @EntityGraph(attributePaths = {"usuario", "pago", "envio", "detalles", "detalles.producto"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT p FROM Pedido p WHERE p.usuario.idUsuario = :idUsuario ORDER BY p.idPedido")
+    List<Pedido> findConDetallesByUsuarioId(@Param("idUsuario") Integer idUsuario);
+
+    // Paginación por cursor: primero se paginan los ids y luego se carga el grafo de esos pedidos,
+    // porque limitar un fetch de colecciones obliga a Hibernate a paginar en memoria
+    @Query("SELECT p.idPedido FROM Pedido p WHERE p.idPedido > :despuesDe ORDER BY p.idPedido")
+    List<Integer> findIdsDespuesDe(@Param("despuesDe") Integer despuesDe, Limit limit);
+
+    @EntityGraph(attributePaths = {"usuario", "pago", "envio", "detalles", "detalles.producto"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT p FROM Pedido p WHERE p.idPedido IN :ids ORDER BY p.idPedido")
+    List<Pedido> findConDetallesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT p.fecha FROM Pedido p WHERE p.idPedido = :idPedido")
+    Optional<Date> findFechaByIdPedido(@Param("idPedido") Integer idPedido);
+
+    @Query("SELECT p.total FROM Pedido p WHERE p.idPedido = :idPedido")
+    Optional<BigDecimal> findTotalByIdPedido(@Param("idPedido") Integer idPedido);
+
+    @Query("SELECT p.usuario.idUsuario FROM Pedido p WHERE p.idPedido = :idPedido")
+    Optional<Integer> findIdUsuarioByIdPedido(@Param("idPedido") Integer idPedido);
+
+    @Query("SELECT p.reservaExpiraEn FROM Pedido p WHERE p.idPedido = :idPedido")
+    Optional<LocalDateTime> findReservaExpiraEnByIdPedido(@Param("idPedido") Integer idPedido);
+
+    // Las reservas de stock sólo se cierran con el pedido bloqueado, para que el barrido y un cambio
+    // de estado no la liberen dos veces
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Pedido p WHERE p.idPedido = :idPedido")
+    Optional<Pedido> bloquearPorId(@Param("idPedido") Integer idPedido);
+
+    @Query("SELECT p.idPedido FROM Pedido p WHERE p.reservaExpiraEn < :ahora ORDER BY p.idPedido")
+    List<Integer> findIdsReservaVencida(@Param("ahora") LocalDateTime ahora, Limit limit);
+
+    // Vuelve a filtrar al bloquear: otra transacción pudo cerrar la reserva entre la consulta de ids y el bloqueo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Pedido p WHERE p.idPedido IN :ids AND p.reservaExpiraEn < :ahora ORDER BY p.idPedido")
+    List<Pedido> bloquearReservasVencidas(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT COALESCE(SUM(d.subtotal), 0) FROM DetallePedido d WHERE d.pedido.idPedido = :idPedido")
+    BigDecimal sumarSubtotales(@Param("idPedido") Integer idPedido);
+
+    // Completa el total de los pedidos guardados antes de que existiera la columna
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE pedido p SET total = (SELECT COALESCE(SUM(d.subtotal), 0) FROM detalle_pedido d "
+            + "WHERE d.id_pedido = p.id_pedido) WHERE p.total IS NULL", nativeQuery = true)
+    int completarTotalesPendientes();
+
+    @Query("SELECT DISTINCT p.fecha FROM Pedido p WHERE p.fecha BETWEEN :fechaInicio AND :fechaFin")
+    List<Date> findFechasDistintasBetween(@Param("fechaInicio") Date fechaInicio, @Param("fechaFin") Date fechaFin);
+
+    @Query("SELECT DISTINCT p.fecha FROM Pedido p")
+    List<Date> findFechasDistintas();
+
+    // Cursores para reportes y exportaciones: deben consumirse dentro de una transacción y cerrarse
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_REPORTE_PEDIDOS + "WHERE p.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY p.idPedido")
+    Stream<FilaReportePedido> streamReportePedidos(@Param("fechaInicio") Date fechaInicio, @Param("fechaFin") Date fechaFin);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_REPORTE_PEDIDOS + "ORDER BY p.idPedido")
+    Stream<FilaReportePedido> streamReportePedidos();
+
+    interface FilaReportePedido {
+        Integer getIdPedido();
+        Date getFecha();
+        EstadoPedido getEstado();
+        BigDecimal getTotal();
+        String getNombre();
+        String getApellido();
+        String getCorreo();
+        String getMetodoPago();
+        String getDireccionEnvio();
+        String getDireccion();
+        Long getCantidadProductos();
+    }
 }
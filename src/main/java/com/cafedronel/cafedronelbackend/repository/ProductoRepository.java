@@ -1,7 +1,62 @@
 package com.cafedronel.cafedronelbackend.repository;
 
 import com.cafedronel.cafedronelbackend.data.model.Producto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductoRepository extends JpaRepository<Producto, Integer> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Producto p ORDER BY p.idProducto")
+    Stream<Producto> streamAll();
+
+    // Página por cursor sobre la clave primaria
+    List<Producto> findByIdProductoGreaterThanOrderByIdProductoAsc(Integer despuesDe, Limit limit);
+
+    Optional<Producto> findBySku(String sku);
+
+    // Productos de un lote de importación que ya existen
+    List<Producto> findBySkuIn(Collection<String> skus);
+
+    // Lecturas de stock para la caché del catálogo
+    @Query("SELECT p.stock FROM Producto p WHERE p.idProducto = :idProducto")
+    Optional<Integer> findStockById(@Param("idProducto") Integer idProducto);
+
+    @Query("SELECT p.idProducto AS idProducto, p.stock AS stock FROM Producto p WHERE p.idProducto IN :ids")
+    List<StockProducto> findStockByIds(@Param("ids") Collection<Integer> ids);
+
+    interface StockProducto {
+        Integer getIdProducto();
+        Integer getStock();
+    }
+
+    // Descuento condicional en una sola sentencia: retorna 0 si no existe o no hay stock suficiente
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad WHERE p.idProducto = :idProducto AND p.stock >= :cantidad")
+    int disminuirStockSiDisponible(@Param("idProducto") Integer idProducto, @Param("cantidad") Integer cantidad);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock + :cantidad WHERE p.idProducto = :idProducto")
+    int aumentarStock(@Param("idProducto") Integer idProducto, @Param("cantidad") Integer cantidad);
+
+    // Carga y bloquea todos los productos de un pedido en una consulta, siempre en orden de id para evitar interbloqueos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Producto p WHERE p.idProducto IN :ids ORDER BY p.idProducto")
+    List<Producto> bloquearPorIds(@Param("ids") Collection<Integer> ids);
 }
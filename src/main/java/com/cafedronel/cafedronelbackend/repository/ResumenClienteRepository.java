@@ -0,0 +1,93 @@
+package com.cafedronel.cafedronelbackend.repository;
+
+import com.cafedronel.cafedronelbackend.data.model.ResumenCliente;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ResumenClienteRepository extends JpaRepository<ResumenCliente, Integer> {
+
+    // Crea la fila del cliente si falta o bloquea la existente, en una sola sentencia: dos primeros pedidos
+    // simultáneos no pueden insertarla ambos, el segundo espera al primero
+    @Modifying
+    @Query(value = "INSERT INTO resumen_cliente (id_usuario, total_pedidos, total_gastado) VALUES (:idUsuario, 0, 0) "
+            + "ON DUPLICATE KEY UPDATE total_pedidos = total_pedidos", nativeQuery = true)
+    int asegurarFila(@Param("idUsuario") Integer idUsuario);
+
+    // Totales del cliente desde sus pedidos. Las subconsultas de un UPDATE leen los pedidos confirmados
+    // más recientes, no la foto de la transacción, así nunca se pierde el pedido del que esperó el bloqueo
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE resumen_cliente SET "
+            + "total_pedidos = (SELECT COUNT(*) FROM pedido p WHERE p.id_usuario = :idUsuario), "
+            + "total_gastado = (SELECT COALESCE(SUM(p.total), 0) FROM pedido p WHERE p.id_usuario = :idUsuario), "
+            + "ultimo_pedido = (SELECT MAX(p.fecha) FROM pedido p WHERE p.id_usuario = :idUsuario) "
+            + "WHERE id_usuario = :idUsuario", nativeQuery = true)
+    int recalcular(@Param("idUsuario") Integer idUsuario);
+
+    // Sólo tienen resumen los clientes con pedidos
+    @Modifying
+    @Query(value = "DELETE FROM resumen_cliente WHERE id_usuario = :idUsuario AND total_pedidos = 0", nativeQuery = true)
+    int eliminarSiNoTienePedidos(@Param("idUsuario") Integer idUsuario);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ResumenCliente r")
+    int eliminarTodos();
+
+    // Reconstrucción completa en una sola sentencia agrupada
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO resumen_cliente (id_usuario, total_pedidos, total_gastado, ultimo_pedido) "
+            + "SELECT p.id_usuario, COUNT(*), COALESCE(SUM(p.total), 0), MAX(p.fecha) "
+            + "FROM pedido p WHERE p.id_usuario IS NOT NULL GROUP BY p.id_usuario", nativeQuery = true)
+    int insertarDesdePedidos();
+
+    // Reporte de clientes: usuario y totales en una consulta
+    @Query("SELECT u.idUsuario AS idUsuario, u.nombre AS nombre, u.apellido AS apellido, u.correo AS correo, "
+            + "u.telefono AS telefono, u.direccion AS direccion, u.activo AS activo, "
+            + "r.totalPedidos AS totalPedidos, r.totalGastado AS totalGastado, r.ultimoPedido AS ultimoPedido "
+            + "FROM Usuario u LEFT JOIN ResumenCliente r ON r.idUsuario = u.idUsuario "
+            + "WHERE u.rol = :rol ORDER BY u.idUsuario")
+    List<FilaReporteCliente> findReporteClientes(@Param("rol") Rol rol);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.idUsuario AS idUsuario, u.nombre AS nombre, u.apellido AS apellido, u.correo AS correo, "
+            + "u.telefono AS telefono, u.direccion AS direccion, u.activo AS activo, "
+            + "r.totalPedidos AS totalPedidos, r.totalGastado AS totalGastado, r.ultimoPedido AS ultimoPedido "
+            + "FROM Usuario u LEFT JOIN ResumenCliente r ON r.idUsuario = u.idUsuario "
+            + "WHERE u.rol = :rol ORDER BY u.idUsuario")
+    Stream<FilaReporteCliente> streamReporteClientes(@Param("rol") Rol rol);
+
+    @Query("SELECT COUNT(u.idUsuario) AS totalClientes, COUNT(r.idUsuario) AS clientesConPedidos, "
+            + "COALESCE(SUM(r.totalPedidos), 0) AS totalPedidos, COALESCE(SUM(r.totalGastado), 0) AS totalGastado "
+            + "FROM Usuario u LEFT JOIN ResumenCliente r ON r.idUsuario = u.idUsuario WHERE u.rol = :rol")
+    EstadisticasClientes calcularEstadisticas(@Param("rol") Rol rol);
+
+    interface FilaReporteCliente {
+        Integer getIdUsuario();
+        String getNombre();
+        String getApellido();
+        String getCorreo();
+        String getTelefono();
+        String getDireccion();
+        Boolean getActivo();
+        Integer getTotalPedidos();
+        BigDecimal getTotalGastado();
+        LocalDate getUltimoPedido();
+    }
+
+    interface EstadisticasClientes {
+        Long getTotalClientes();
+        Long getClientesConPedidos();
+        Number getTotalPedidos();
+        Number getTotalGastado();
+    }
+}
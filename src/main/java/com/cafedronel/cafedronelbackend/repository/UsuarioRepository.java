@@ -2,12 +2,19 @@ package com.cafedronel.cafedronelbackend.repository;
 
 import com.cafedronel.cafedronelbackend.data.model.Rol;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     Optional<Usuario> getUsuarioByCorreo(String correo);
@@ -20,12 +27,36 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     List<Usuario> findByRol(Rol rol);
     
     Page<Usuario> findByRol(Rol rol, Pageable pageable);
+
+    // Cursor para exportaciones: debe consumirse dentro de una transacción y cerrarse
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Usuario> streamByRolOrderByIdUsuario(Rol rol);
     
     Optional<Usuario> findByIdUsuarioAndRol(Integer id, Rol rol);
     
     Optional<Usuario> findByCorreoAndRol(String correo, Rol rol);
     
-    List<Usuario> findByNombreContainingIgnoreCaseAndRol(String nombre, Rol rol);
+    /**
+     * Usuarios del rol que tienen, para cada término, alguna palabra que empieza por él. Cada término
+     * llega como rango [desde, hasta] sobre usuario_token_busqueda (ver IndiceBusquedaClientes), así
+     * la base de datos lo resuelve con el índice de la tabla en lugar de un LIKE '%texto%'.
+     * Paginado por cursor sobre el id.
+     */
+    @Query("SELECT u FROM Usuario u WHERE u.rol = :rol AND u.idUsuario > :despuesDe "
+            + "AND u.idUsuario IN (SELECT t.id.idUsuario FROM TokenBusquedaUsuario t WHERE t.id.token BETWEEN :desde1 AND :hasta1) "
+            + "AND u.idUsuario IN (SELECT t.id.idUsuario FROM TokenBusquedaUsuario t WHERE t.id.token BETWEEN :desde2 AND :hasta2) "
+            + "AND u.idUsuario IN (SELECT t.id.idUsuario FROM TokenBusquedaUsuario t WHERE t.id.token BETWEEN :desde3 AND :hasta3) "
+            + "ORDER BY u.idUsuario")
+    List<Usuario> buscarPorPrefijos(@Param("rol") Rol rol, @Param("despuesDe") Integer despuesDe,
+                                    @Param("desde1") String desde1, @Param("hasta1") String hasta1,
+                                    @Param("desde2") String desde2, @Param("hasta2") String hasta2,
+                                    @Param("desde3") String desde3, @Param("hasta3") String hasta3,
+                                    Limit limit);
+
+    // Usuarios que aún no tienen palabras de búsqueda (creados antes de la tabla o por fuera de los servicios)
+    @Query("SELECT u.idUsuario FROM Usuario u WHERE u.idUsuario > :despuesDe AND NOT EXISTS "
+            + "(SELECT t FROM TokenBusquedaUsuario t WHERE t.id.idUsuario = u.idUsuario) ORDER BY u.idUsuario")
+    List<Integer> findIdsSinTokensBusqueda(@Param("despuesDe") Integer despuesDe, Limit limit);
     
     boolean existsByCorreoAndRol(String correo, Rol rol);
     
@@ -0,0 +1,66 @@
+package com.cafedronel.cafedronelbackend.repository;
+
+import com.cafedronel.cafedronelbackend.data.model.VentaDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface VentaDiariaRepository extends JpaRepository<VentaDiaria, LocalDate> {
+    List<VentaDiaria> findByFechaBetweenOrderByFechaAsc(LocalDate fechaInicio, LocalDate fechaFin);
+
+    List<VentaDiaria> findAllByOrderByFechaAsc();
+
+    // Suma (o resta) pedidos y ventas al día en una sola sentencia atómica, exista o no la fila:
+    // no hace falta leerla ni bloquearla antes. Los campos no acumulables quedan pendientes (null)
+    @Modifying
+    @Query(value = "INSERT INTO ventas_diarias (fecha, total_pedidos, total_ventas) VALUES (:fecha, :pedidos, :ventas) "
+            + "ON DUPLICATE KEY UPDATE total_pedidos = total_pedidos + :pedidos, total_ventas = total_ventas + :ventas, "
+            + "clientes_unicos = NULL, producto_mas_vendido = NULL", nativeQuery = true)
+    int acumular(@Param("fecha") LocalDate fecha, @Param("pedidos") int pedidos, @Param("ventas") BigDecimal ventas);
+
+    @Modifying
+    @Query(value = "DELETE FROM ventas_diarias WHERE fecha = :fecha AND total_pedidos <= 0", nativeQuery = true)
+    int eliminarSiNoTienePedidos(@Param("fecha") LocalDate fecha);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM VentaDiaria v WHERE v.fecha BETWEEN :fechaInicio AND :fechaFin")
+    int eliminarEntreFechas(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM VentaDiaria v")
+    int eliminarTodas();
+
+    // Reconstrucción de pedidos, ventas y clientes en una sola sentencia agrupada
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO ventas_diarias (fecha, total_pedidos, total_ventas, clientes_unicos) "
+            + "SELECT p.fecha, COUNT(*), COALESCE(SUM(p.total), 0), COUNT(DISTINCT p.id_usuario) "
+            + "FROM pedido p WHERE p.fecha BETWEEN :fechaInicio AND :fechaFin GROUP BY p.fecha", nativeQuery = true)
+    int insertarDesdePedidos(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    @Query("SELECT p.fecha AS fecha, COUNT(DISTINCT p.usuario.idUsuario) AS cantidad "
+            + "FROM Pedido p WHERE p.fecha IN :fechas GROUP BY p.fecha")
+    List<CantidadDia> contarClientesPorDia(@Param("fechas") Collection<Date> fechas);
+
+    // Unidades vendidas de cada producto por día, para elegir el más vendido sin recorrer los detalles
+    @Query("SELECT p.fecha AS fecha, pr.nombre AS nombre, SUM(d.cantidad) AS cantidad "
+            + "FROM DetallePedido d JOIN d.pedido p JOIN d.producto pr WHERE p.fecha IN :fechas GROUP BY p.fecha, pr.nombre")
+    List<CantidadProductoDia> sumarCantidadesPorProducto(@Param("fechas") Collection<Date> fechas);
+
+    interface CantidadDia {
+        Date getFecha();
+        Long getCantidad();
+    }
+
+    interface CantidadProductoDia {
+        Date getFecha();
+        String getNombre();
+        Long getCantidad();
+    }
+}
@@ -7,6 +7,7 @@ import com.cafedronel.cafedronelbackend.data.dto.auth.VerifyRequest;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.cliente.IndiceBusquedaClientes;
 import com.cafedronel.cafedronelbackend.util.jwt.JwtUtil;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,12 +22,16 @@ public class ImpAuthService implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsuarioSesionCache usuarioSesionCache;
+    private final IndiceBusquedaClientes indiceBusquedaClientes;
 
-    public ImpAuthService(JwtUtil jwtUtil, AuthenticationManager authenticationManager, UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public ImpAuthService(JwtUtil jwtUtil, AuthenticationManager authenticationManager, UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder, UsuarioSesionCache usuarioSesionCache, IndiceBusquedaClientes indiceBusquedaClientes) {
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usuarioSesionCache = usuarioSesionCache;
+        this.indiceBusquedaClientes = indiceBusquedaClientes;
     }
 
     @Override
@@ -40,8 +45,9 @@ public class ImpAuthService implements AuthService {
 
         Usuario userFound = usuarioRepository.findByCorreo(loginRequest.correo()).orElseThrow(() -> new BusinessException("El usuario no existe"));
 
-
-        return new AuthResponse(jwtUtil.generateToken(authentication.getName()), authentication.getName(), authentication.getAuthorities().iterator().next().getAuthority(), userFound.getIdUsuario());
+        // El rol viaja en el token para no consultarlo en cada petición
+        String rol = authentication.getAuthorities().iterator().next().getAuthority();
+        return new AuthResponse(jwtUtil.generateToken(authentication.getName(), rol), authentication.getName(), rol, userFound.getIdUsuario());
     }
 
     @Override
@@ -59,6 +65,9 @@ public class ImpAuthService implements AuthService {
         newUser.setRol(registerRequest.rol());
 
         usuarioRepository.save(newUser);
+        indiceBusquedaClientes.indexar(newUser);
+        // Descarta una posible entrada negativa previa para este correo
+        usuarioSesionCache.invalidar(newUser.getCorreo());
 
         return true;
     }
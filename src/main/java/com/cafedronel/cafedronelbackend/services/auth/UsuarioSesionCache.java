@@ -0,0 +1,66 @@
+package com.cafedronel.cafedronelbackend.services.auth;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cafedronel.cafedronelbackend.data.dto.auth.UsuarioSesion;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Caché acotada de existencia, rol y estado de los usuarios autenticados por JWT.
+ * Evita consultar la base de datos en cada petición; se invalida al modificar o eliminar usuarios
+ * y las entradas caducan solas pasado el TTL.
+ */
+@Component
+public class UsuarioSesionCache {
+
+    private final LoadingCache<String, Optional<UsuarioSesion>> usuarios;
+
+    public UsuarioSesionCache(UsuarioRepository usuarioRepository,
+                              @Value("${jwt.cache.tamano-maximo:10000}") long tamanoMaximo,
+                              @Value("${jwt.cache.ttl-segundos:300}") long ttlSegundos) {
+        // Los correos inexistentes también se guardan (Optional vacío) para no repetir la consulta con tokens huérfanos
+        this.usuarios = CacheBuilder.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .build(CacheLoader.from(correo -> usuarioRepository.findByCorreo(correo)
+                        .map(usuario -> new UsuarioSesion(
+                                usuario.getIdUsuario(),
+                                usuario.getCorreo(),
+                                String.valueOf(usuario.getRol()),
+                                !Boolean.FALSE.equals(usuario.getActivo())))));
+    }
+
+    public Optional<UsuarioSesion> obtener(String correo) {
+        return usuarios.getUnchecked(correo);
+    }
+
+    public void invalidar(String correo) {
+        if (correo == null) {
+            return;
+        }
+        usuarios.invalidate(correo);
+
+        // Se repite al confirmar para descartar lo que otra petición haya cargado mientras la transacción seguía abierta
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usuarios.invalidate(correo);
+                }
+            });
+        }
+    }
+
+    public void invalidarTodo() {
+        usuarios.invalidateAll();
+    }
+}
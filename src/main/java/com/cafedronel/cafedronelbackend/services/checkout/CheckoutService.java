@@ -0,0 +1,12 @@
+package com.cafedronel.cafedronelbackend.services.checkout;
+
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+
+public interface CheckoutService {
+
+    /**
+     * Crea el pedido reservando el stock de todas sus líneas en una sola operación
+     */
+    Pedido crearPedido(PedidoDTO pedidoDTO);
+}
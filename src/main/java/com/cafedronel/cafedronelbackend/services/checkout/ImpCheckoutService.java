@@ -0,0 +1,150 @@
+package com.cafedronel.cafedronelbackend.services.checkout;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.pedido.DetallePedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.services.pedido.ReservasStock;
+import com.cafedronel.cafedronelbackend.services.producto.CatalogoProductoCache;
+import com.cafedronel.cafedronelbackend.services.producto.MovimientosStock;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class ImpCheckoutService implements CheckoutService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ProductoRepository productoRepository;
+    private final PedidoService pedidoService;
+    private final CatalogoProductoCache catalogoProductoCache;
+    private final ReservasStock reservasStock;
+    private final MovimientosStock movimientosStock;
+
+    @Override
+    @Transactional
+    public Pedido crearPedido(PedidoDTO pedidoDTO) {
+        Usuario usuario = usuarioRepository.findById(pedidoDTO.getIdUsuario())
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
+
+        Pedido pedido = new Pedido();
+        pedido.setUsuario(usuario);
+        pedido.setFecha(new Date());
+        pedido.setEstado(EstadoPedido.PENDIENTE);
+        pedido.setTelefono(pedidoDTO.getTelefono());
+        pedido.setDireccion(pedidoDTO.getDireccion());
+
+        List<DetallePedido> detalles = new ArrayList<>();
+        Map<Integer, Integer> reservados = Map.of();
+        Map<Integer, Producto> productos = Map.of();
+        if (pedidoDTO.getDetalles() != null && !pedidoDTO.getDetalles().isEmpty()) {
+            reservados = cantidadesPorProducto(pedidoDTO.getDetalles());
+            productos = reservarStock(reservados);
+            // El stock queda retenido hasta que se confirme el pago; si vence antes, el barrido lo devuelve
+            pedido.setReservaExpiraEn(reservasStock.vencimientoNuevaReserva());
+
+            for (DetallePedidoDTO detalleDTO : pedidoDTO.getDetalles()) {
+                Producto producto = productos.get(detalleDTO.getIdProducto());
+
+                DetallePedido detalle = new DetallePedido();
+                detalle.setPedido(pedido);
+                detalle.setProducto(producto);
+                detalle.setCantidad(detalleDTO.getCantidad());
+                detalle.setPrecioUnitario(producto.getPrecio());
+                detalles.add(detalle);
+            }
+        }
+        pedido.setDetalles(detalles);
+
+        // Pedido y detalles se insertan en lote al hacer flush (ids por secuencia)
+        Pedido guardado = pedidoService.save(pedido);
+        if (!reservados.isEmpty()) {
+            registrarReserva(guardado, reservados, productos);
+        }
+        return guardado;
+    }
+
+    // Cantidades agrupadas por producto; el TreeMap fija el orden de bloqueo por id
+    private static Map<Integer, Integer> cantidadesPorProducto(List<DetallePedidoDTO> detalles) {
+        Map<Integer, Integer> cantidades = new TreeMap<>();
+        for (DetallePedidoDTO detalle : detalles) {
+            if (detalle.getCantidad() == null || detalle.getCantidad() <= 0) {
+                throw new BusinessException("La cantidad debe ser mayor a cero");
+            }
+            cantidades.merge(detalle.getIdProducto(), detalle.getCantidad(), Integer::sum);
+        }
+        return cantidades;
+    }
+
+    /**
+     * Bloquea todos los productos del pedido con una sola consulta y descuenta el stock en memoria;
+     * los UPDATE salen en lote al confirmar la transacción. El contador de disponibles sólo adelanta
+     * el rechazo: la validación definitiva es la de las filas bloqueadas.
+     */
+    private Map<Integer, Producto> reservarStock(Map<Integer, Integer> cantidades) {
+        // Rechazo rápido con el contador en memoria: un producto agotado no espera el bloqueo de su fila
+        cantidades.forEach((idProducto, cantidad) -> catalogoProductoCache.disponible(idProducto)
+                .filter(disponible -> disponible < cantidad)
+                .ifPresent(disponible -> {
+                    throw new BusinessException("Stock insuficiente para el producto con ID: " + idProducto +
+                            ". Stock disponible: " + disponible + ", cantidad solicitada: " + cantidad);
+                }));
+
+        Map<Integer, Producto> productos = productoRepository.bloquearPorIds(cantidades.keySet()).stream()
+                .collect(Collectors.toMap(Producto::getIdProducto, Function.identity()));
+
+        // Primero se valida todo el pedido para no dejar descuentos a medias
+        cantidades.forEach((idProducto, cantidad) -> {
+            Producto producto = productos.get(idProducto);
+            if (producto == null) {
+                throw new BusinessException("Producto no encontrado con ID: " + idProducto);
+            }
+            if (producto.getStock() < cantidad) {
+                throw new BusinessException("Stock insuficiente para el producto: " + producto.getNombre() +
+                        ". Stock disponible: " + producto.getStock() + ", cantidad solicitada: " + cantidad);
+            }
+        });
+
+        Map<Integer, Integer> reservados = new TreeMap<>();
+        cantidades.forEach((idProducto, cantidad) -> {
+            Producto producto = productos.get(idProducto);
+            producto.setStock(producto.getStock() - cantidad);
+            reservados.put(idProducto, -cantidad);
+        });
+        catalogoProductoCache.ajustarDisponible(reservados);
+
+        return productos;
+    }
+
+    /**
+     * Deja la salida de stock de la reserva en movimiento_stock, en la misma transacción que el pedido;
+     * los productos siguen bloqueados, así su stock en memoria es el que queda al confirmar
+     */
+    private void registrarReserva(Pedido pedido, Map<Integer, Integer> cantidades, Map<Integer, Producto> productos) {
+        List<ItemAjusteStockDTO> items = cantidades.entrySet().stream()
+                .map(entrada -> new ItemAjusteStockDTO(entrada.getKey(), -entrada.getValue()))
+                .toList();
+        Map<Integer, Integer> stockFinal = productos.values().stream()
+                .collect(Collectors.toMap(Producto::getIdProducto, Producto::getStock));
+        movimientosStock.registrar(items, stockFinal, "Pedido " + pedido.getIdPedido() + " reservado", null);
+    }
+}
@@ -1,8 +1,10 @@
 package com.cafedronel.cafedronelbackend.services.cliente;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteUpdateDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.EstadisticasClientesDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -32,9 +34,9 @@ public interface ClienteService {
     Optional<ClienteDTO> findByCorreo(String correo);
     
     /**
-     * Busca clientes por nombre (búsqueda parcial)
+     * Busca clientes por el comienzo de las palabras de su nombre, apellido o correo, paginado por cursor
      */
-    List<ClienteDTO> findByNombreContaining(String nombre);
+    PaginaCursorDTO<ClienteDTO> buscar(String texto, String cursor, Integer tamano);
     
     /**
      * Crea un nuevo cliente
@@ -60,4 +62,9 @@ public interface ClienteService {
      * Cuenta el total de clientes
      */
     long count();
-}
\ No newline at end of file
+
+    /**
+     * Totales de clientes, pedidos y gasto leídos del resumen por cliente en una sola consulta
+     */
+    EstadisticasClientesDTO obtenerEstadisticas();
+}
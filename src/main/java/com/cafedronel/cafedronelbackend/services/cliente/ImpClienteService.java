@@ -1,12 +1,18 @@
 package com.cafedronel.cafedronelbackend.services.cliente;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteUpdateDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.EstadisticasClientesDTO;
 import com.cafedronel.cafedronelbackend.data.model.Rol;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository.EstadisticasClientes;
 import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.auth.UsuarioSesionCache;
+import com.cafedronel.cafedronelbackend.util.paginacion.CursorPaginacion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +31,9 @@ public class ImpClienteService implements ClienteService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsuarioSesionCache usuarioSesionCache;
+    private final ResumenClienteRepository resumenClienteRepository;
+    private final IndiceBusquedaClientes indiceBusquedaClientes;
 
     @Override
     @Transactional(readOnly = true)
@@ -58,11 +67,11 @@ public class ImpClienteService implements ClienteService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ClienteDTO> findByNombreContaining(String nombre) {
-        return usuarioRepository.findByNombreContainingIgnoreCaseAndRol(nombre, Rol.CLIENTE)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<ClienteDTO> buscar(String texto, String cursor, Integer tamano) {
+        int tamanoPagina = CursorPaginacion.normalizarTamano(tamano);
+        List<Usuario> filas = indiceBusquedaClientes.buscar(texto, Rol.CLIENTE,
+                CursorPaginacion.decodificar(cursor), CursorPaginacion.limiteDeConsulta(tamanoPagina));
+        return CursorPaginacion.construirPagina(filas, tamanoPagina, Usuario::getIdUsuario, this::convertToDTO);
     }
 
     @Override
@@ -82,6 +91,7 @@ public class ImpClienteService implements ClienteService {
                 .build();
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
+        indiceBusquedaClientes.indexar(savedUsuario);
         return convertToDTO(savedUsuario);
     }
 
@@ -97,6 +107,9 @@ public class ImpClienteService implements ClienteService {
             throw new BusinessException("Ya existe un usuario con el correo: " + clienteUpdate.getCorreo());
         }
 
+        // El correo anterior deja de ser válido en la caché de sesiones
+        usuarioSesionCache.invalidar(usuario.getCorreo());
+
         // Actualizar solo los campos que no son nulos
         if (clienteUpdate.getNombre() != null) {
             usuario.setNombre(clienteUpdate.getNombre());
@@ -115,6 +128,8 @@ public class ImpClienteService implements ClienteService {
         }
 
         Usuario updatedUsuario = usuarioRepository.save(usuario);
+        indiceBusquedaClientes.indexar(updatedUsuario);
+        usuarioSesionCache.invalidar(updatedUsuario.getCorreo());
         return convertToDTO(updatedUsuario);
     }
 
@@ -124,6 +139,7 @@ public class ImpClienteService implements ClienteService {
                 .orElseThrow(() -> new BusinessException("Cliente no encontrado con ID: " + id));
 
         usuarioRepository.delete(usuario);
+        usuarioSesionCache.invalidar(usuario.getCorreo());
     }
 
     @Override
@@ -138,6 +154,22 @@ public class ImpClienteService implements ClienteService {
         return usuarioRepository.countByRol(Rol.CLIENTE);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public EstadisticasClientesDTO obtenerEstadisticas() {
+        EstadisticasClientes estadisticas = resumenClienteRepository.calcularEstadisticas(Rol.CLIENTE);
+        long totalClientes = estadisticas.getTotalClientes() != null ? estadisticas.getTotalClientes() : 0L;
+        double totalGastado = estadisticas.getTotalGastado() != null ? estadisticas.getTotalGastado().doubleValue() : 0.0;
+
+        return EstadisticasClientesDTO.builder()
+                .totalClientes(totalClientes)
+                .clientesConPedidos(estadisticas.getClientesConPedidos() != null ? estadisticas.getClientesConPedidos() : 0L)
+                .totalPedidos(estadisticas.getTotalPedidos() != null ? estadisticas.getTotalPedidos().longValue() : 0L)
+                .totalGastado(totalGastado)
+                .gastoPromedioPorCliente(totalClientes > 0 ? totalGastado / totalClientes : 0.0)
+                .build();
+    }
+
     private ClienteDTO convertToDTO(Usuario usuario) {
         return ClienteDTO.builder()
                 .idUsuario(usuario.getIdUsuario())
@@ -0,0 +1,152 @@
+package com.cafedronel.cafedronelbackend.services.cliente;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.util.texto.Tokenizador;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene usuario_token_busqueda: las palabras normalizadas de nombre, apellido y la parte local
+ * del correo de cada usuario. Se reescriben en cada alta o edición y al iniciar se completan las de
+ * los usuarios que no tengan ninguna.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceBusquedaClientes {
+
+    // Debe coincidir con el largo de usuario_token_busqueda.token
+    static final int LARGO_MAXIMO_TOKEN = 50;
+    // Términos de consulta que se combinan (el resto se ignora); se eligen los más largos, que filtran más
+    static final int MAXIMO_TERMINOS = 3;
+    private static final int LARGO_MINIMO_TERMINO = 2;
+    private static final int TAMANO_LOTE = 1000;
+    private static final String INSERTAR = "INSERT INTO usuario_token_busqueda (token, id_usuario) VALUES (?, ?)";
+
+    private final UsuarioRepository usuarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void indexar(Usuario usuario) {
+        // Las palabras referencian al usuario: debe estar escrito antes de insertarlas
+        usuarioRepository.flush();
+        jdbcTemplate.update("DELETE FROM usuario_token_busqueda WHERE id_usuario = ?", usuario.getIdUsuario());
+        insertar(List.of(usuario));
+    }
+
+    /**
+     * Usuarios del rol con alguna palabra que empiece por cada término del texto, después del id indicado
+     */
+    public List<Usuario> buscar(String texto, Rol rol, int despuesDe, Limit limite) {
+        List<String> terminos = terminosDeConsulta(texto);
+        if (terminos.isEmpty()) {
+            throw new BusinessException("Ingrese al menos " + LARGO_MINIMO_TERMINO + " caracteres para buscar");
+        }
+        // Si hay menos de tres términos se repite el primero: la condición sobra pero no cambia el resultado
+        String[] rangos = new String[MAXIMO_TERMINOS * 2];
+        for (int i = 0; i < MAXIMO_TERMINOS; i++) {
+            String termino = terminos.get(i < terminos.size() ? i : 0);
+            rangos[i * 2] = termino;
+            rangos[i * 2 + 1] = limiteSuperior(termino);
+        }
+        return usuarioRepository.buscarPorPrefijos(rol, despuesDe, rangos[0], rangos[1], rangos[2], rangos[3],
+                rangos[4], rangos[5], limite);
+    }
+
+    /**
+     * Completa por lotes, cada uno en su propia transacción, a los usuarios sin palabras de búsqueda
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexarPendientes() {
+        int indexados = 0;
+        Integer ultimoId = 0;
+        List<Integer> ids;
+        do {
+            ids = usuarioRepository.findIdsSinTokensBusqueda(ultimoId, Limit.of(TAMANO_LOTE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Integer> lote = ids;
+            transactionTemplate.executeWithoutResult(estado -> insertar(usuarioRepository.findAllById(lote)));
+            indexados += ids.size();
+            ultimoId = ids.get(ids.size() - 1);
+        } while (ids.size() == TAMANO_LOTE);
+
+        if (indexados > 0) {
+            log.info("Palabras de búsqueda generadas para {} usuarios", indexados);
+        }
+    }
+
+    /**
+     * Palabras de búsqueda de un usuario, sin repetir y recortadas al largo de la columna
+     */
+    public static Set<String> tokensDe(Usuario usuario) {
+        Set<String> tokens = new LinkedHashSet<>();
+        agregar(tokens, usuario.getNombre());
+        agregar(tokens, usuario.getApellido());
+        // Del correo sólo la parte local: el dominio (gmail, com...) lo comparten casi todos
+        String correo = usuario.getCorreo();
+        if (correo != null) {
+            int arroba = correo.indexOf('@');
+            agregar(tokens, arroba >= 0 ? correo.substring(0, arroba) : correo);
+        }
+        return tokens;
+    }
+
+    static List<String> terminosDeConsulta(String texto) {
+        // Igual que al indexar, de un correo sólo cuenta la parte local
+        String consulta = texto != null && texto.contains("@") ? texto.substring(0, texto.indexOf('@')) : texto;
+        return Tokenizador.tokenizar(consulta).stream()
+                .filter(termino -> termino.length() >= LARGO_MINIMO_TERMINO)
+                .map(IndiceBusquedaClientes::recortar)
+                .distinct()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .limit(MAXIMO_TERMINOS)
+                .toList();
+    }
+
+    /**
+     * Las palabras sólo tienen [a-z0-9] y 'z' es el mayor de esos caracteres: toda palabra que empieza
+     * por el término queda entre el término y el término completado con 'z' hasta el largo máximo
+     */
+    static String limiteSuperior(String termino) {
+        return termino + "z".repeat(LARGO_MAXIMO_TOKEN - termino.length());
+    }
+
+    static String recortar(String token) {
+        return token.length() > LARGO_MAXIMO_TOKEN ? token.substring(0, LARGO_MAXIMO_TOKEN) : token;
+    }
+
+    private void insertar(List<Usuario> usuarios) {
+        List<Object[]> filas = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            tokensDe(usuario).forEach(token -> filas.add(new Object[]{token, usuario.getIdUsuario()}));
+        }
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERTAR, filas);
+        }
+    }
+
+    private static void agregar(Set<String> tokens, String texto) {
+        Tokenizador.tokenizar(texto).forEach(token -> tokens.add(recortar(token)));
+    }
+}
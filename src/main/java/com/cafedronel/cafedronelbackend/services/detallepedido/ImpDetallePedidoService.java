@@ -1,11 +1,18 @@
 package com.cafedronel.cafedronelbackend.services.detallepedido;
 
 import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +22,15 @@ public class ImpDetallePedidoService implements DetallePedidoService {
     @Autowired
     private DetallePedidoRepository detallePedidoRepository;
 
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private VentaDiariaService ventaDiariaService;
+
+    @Autowired
+    private ResumenClienteService resumenClienteService;
+
     @Override
     public List<DetallePedido> findByPedidoId(Integer pedidoId) {
         return detallePedidoRepository.findByPedidoIdPedido(pedidoId);
@@ -26,15 +42,59 @@ public class ImpDetallePedidoService implements DetallePedidoService {
     }
 
     @Override
+    @Transactional
     public DetallePedido save(DetallePedido detallePedido) {
-        return detallePedidoRepository.save(detallePedido);
+        if (detallePedido.getIdDetalle() != null) {
+            verificarSinReserva(detallePedidoRepository.findIdPedidoByIdDetalle(detallePedido.getIdDetalle()).orElse(null));
+        }
+        verificarSinReserva(detallePedido.getPedido() != null ? detallePedido.getPedido().getIdPedido() : null);
+        detallePedido.setSubtotal(TotalesPedido.calcularSubtotal(detallePedido));
+        DetallePedido guardado = detallePedidoRepository.save(detallePedido);
+        actualizarTotalPedido(detallePedidoRepository.findIdPedidoByIdDetalle(guardado.getIdDetalle()).orElse(null));
+        // El resumen del cliente se recalcula después de guardar para que lea el detalle ya persistido
+        resumenClienteService.registrarCambio(detallePedidoRepository.findIdUsuarioByIdDetalle(guardado.getIdDetalle()).orElse(null));
+        return guardado;
     }
 
     @Override
+    @Transactional
     public void delete(Integer id) {
         if (!detallePedidoRepository.existsById(id)) {
             throw new BusinessException("Detalle de pedido no encontrado con ID: " + id);
         }
+        Integer idPedido = detallePedidoRepository.findIdPedidoByIdDetalle(id).orElse(null);
+        verificarSinReserva(idPedido);
+        Integer idUsuario = detallePedidoRepository.findIdUsuarioByIdDetalle(id).orElse(null);
         detallePedidoRepository.deleteById(id);
+        actualizarTotalPedido(idPedido);
+        resumenClienteService.registrarCambio(idUsuario);
+    }
+
+    /**
+     * Con la reserva activa las líneas del pedido no pueden cambiar: al cancelarse o vencer se devuelven
+     * las cantidades de sus detalles, que deben seguir siendo las que descontó el checkout
+     */
+    private void verificarSinReserva(Integer idPedido) {
+        if (idPedido != null && pedidoRepository.findReservaExpiraEnByIdPedido(idPedido).isPresent()) {
+            throw new BusinessException("El pedido " + idPedido
+                    + " tiene stock reservado: sus detalles no pueden cambiar hasta confirmarlo o cancelarlo");
+        }
+    }
+
+    /**
+     * Vuelve a sumar los subtotales guardados del pedido (la consulta fuerza el flush del detalle)
+     * y pasa la diferencia al resumen de ventas de su día
+     */
+    private void actualizarTotalPedido(Integer idPedido) {
+        if (idPedido == null) {
+            return;
+        }
+        Pedido pedido = pedidoRepository.findById(idPedido).orElse(null);
+        if (pedido != null) {
+            BigDecimal totalAnterior = pedido.getTotal();
+            pedido.setTotal(TotalesPedido.valorOCero(pedidoRepository.sumarSubtotales(idPedido)));
+            pedidoRepository.save(pedido);
+            ventaDiariaService.registrarCambio(pedido.getFecha(), totalAnterior, pedido.getFecha(), pedido.getTotal());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,289 @@
+package com.cafedronel.cafedronelbackend.services.email;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo;
+import com.cafedronel.cafedronelbackend.data.model.CorreoSaliente;
+import com.cafedronel.cafedronelbackend.repository.CorreoSalienteRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bandeja de salida de correos. {@link #encolar} sólo guarda el mensaje en la transacción actual;
+ * un pool acotado de trabajadores lo envía después por lotes, con una sola conexión SMTP por lote
+ * y reintentos con backoff exponencial. Métricas en /actuator/metrics (correo.outbox.*).
+ */
+@Component
+@Slf4j
+public class BandejaSalidaCorreos {
+
+    private static final int LARGO_MAXIMO_ERROR = 500;
+
+    private final CorreoSalienteRepository correoRepository;
+    private final JavaMailSender mailSender;
+    private final InternetAddress remitente;
+    private final int tamanoLote;
+    private final int hilos;
+    private final int maxIntentos;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration reclamoVencido;
+    private final boolean programado;
+
+    private final ExecutorService trabajadores;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicLong pendientes = new AtomicLong();
+
+    private final Timer latenciaEnvio;
+    private final Timer demoraEntrega;
+    private final Counter enviados;
+    private final Counter reintentos;
+    private final Counter descartados;
+
+    public BandejaSalidaCorreos(CorreoSalienteRepository correoRepository,
+                                JavaMailSender mailSender,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.mail.username}") String remitente,
+                                @Value("${correo.outbox.lote:20}") int tamanoLote,
+                                @Value("${correo.outbox.hilos:2}") int hilos,
+                                @Value("${correo.outbox.max-intentos:6}") int maxIntentos,
+                                @Value("${correo.outbox.backoff-inicial-segundos:30}") long backoffInicialSegundos,
+                                @Value("${correo.outbox.backoff-maximo-segundos:3600}") long backoffMaximoSegundos,
+                                @Value("${correo.outbox.reclamo-vencido-segundos:600}") long reclamoVencidoSegundos,
+                                @Value("${correo.outbox.programado:true}") boolean programado) {
+        this.correoRepository = correoRepository;
+        this.mailSender = mailSender;
+        try {
+            this.remitente = new InternetAddress(remitente);
+        } catch (AddressException e) {
+            throw new IllegalStateException("spring.mail.username no es una dirección válida: " + remitente, e);
+        }
+        this.tamanoLote = tamanoLote;
+        this.hilos = hilos;
+        this.maxIntentos = maxIntentos;
+        this.backoffInicial = Duration.ofSeconds(backoffInicialSegundos);
+        this.backoffMaximo = Duration.ofSeconds(backoffMaximoSegundos);
+        this.reclamoVencido = Duration.ofSeconds(reclamoVencidoSegundos);
+        this.programado = programado;
+
+        this.trabajadores = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("correo-"));
+
+        Gauge.builder("correo.outbox.pendientes", pendientes, AtomicLong::get)
+                .description("Correos esperando envío")
+                .register(meterRegistry);
+        Gauge.builder("correo.outbox.trabajadores", enCurso, AtomicInteger::get)
+                .description("Trabajadores enviando en este momento")
+                .register(meterRegistry);
+        this.latenciaEnvio = Timer.builder("correo.outbox.envio")
+                .description("Duración del envío SMTP de un lote")
+                .register(meterRegistry);
+        this.demoraEntrega = Timer.builder("correo.outbox.demora")
+                .description("Tiempo desde que se encola un correo hasta que se entrega")
+                .register(meterRegistry);
+        this.enviados = Counter.builder("correo.outbox.resultado").tag("resultado", "enviado").register(meterRegistry);
+        this.reintentos = Counter.builder("correo.outbox.resultado").tag("resultado", "reintento").register(meterRegistry);
+        this.descartados = Counter.builder("correo.outbox.resultado").tag("resultado", "descartado").register(meterRegistry);
+    }
+
+    /**
+     * Guarda el correo para enviarlo en segundo plano. Participa de la transacción del llamador:
+     * si ésta se revierte, el correo no se envía.
+     */
+    public CorreoSaliente encolar(String destinatario, String asunto, String cuerpoHtml) {
+        LocalDateTime ahora = LocalDateTime.now();
+        CorreoSaliente correo = new CorreoSaliente();
+        correo.setDestinatario(destinatario);
+        correo.setAsunto(asunto);
+        correo.setCuerpo(cuerpoHtml);
+        correo.setEstado(EstadoCorreo.PENDIENTE);
+        correo.setIntentos(0);
+        correo.setProximoIntento(ahora);
+        correo.setCreadoEn(ahora);
+        return correoRepository.save(correo);
+    }
+
+    @Scheduled(fixedDelayString = "${correo.outbox.intervalo-ms:5000}", initialDelayString = "${correo.outbox.intervalo-ms:5000}")
+    public void programar() {
+        if (programado) {
+            despachar();
+        }
+    }
+
+    /**
+     * Actualiza las métricas, recupera reclamos abandonados y lanza trabajadores hasta el máximo configurado.
+     */
+    public void despachar() {
+        correoRepository.liberarReclamosVencidos(LocalDateTime.now().minus(reclamoVencido));
+        long enCola = correoRepository.countByEstado(EstadoCorreo.PENDIENTE);
+        pendientes.set(enCola);
+
+        // Un trabajador por lote pendiente, sin pasar del tamaño del pool
+        long necesarios = Math.min(hilos, (enCola + tamanoLote - 1) / tamanoLote);
+        int actuales;
+        while ((actuales = enCurso.get()) < necesarios) {
+            if (enCurso.compareAndSet(actuales, actuales + 1)) {
+                trabajadores.execute(this::drenar);
+            }
+        }
+    }
+
+    private void drenar() {
+        try {
+            // Sigue mientras encuentre lotes completos; el siguiente ciclo retoma lo que quede
+            while (procesarLote() == tamanoLote) {
+                // siguiente lote
+            }
+        } catch (RuntimeException e) {
+            log.error("Error procesando la bandeja de salida de correos", e);
+        } finally {
+            enCurso.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reclama hasta un lote de correos listos, los envía y registra el resultado.
+     * Retorna cuántos correos listos encontró.
+     */
+    public int procesarLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Integer> ids = correoRepository.findIdsListos(ahora, Limit.of(tamanoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String lote = UUID.randomUUID().toString();
+        if (correoRepository.reclamar(ids, lote, ahora) == 0) {
+            return ids.size();
+        }
+
+        List<CorreoSaliente> correos = correoRepository.findByLoteOrderByIdCorreoAsc(lote);
+        Map<CorreoSaliente, Exception> fallos = enviar(correos);
+        registrarResultado(correos, fallos);
+        correoRepository.saveAll(correos);
+        return ids.size();
+    }
+
+    private Map<CorreoSaliente, Exception> enviar(List<CorreoSaliente> correos) {
+        Map<CorreoSaliente, Exception> fallos = new HashMap<>();
+        Map<MimeMessage, CorreoSaliente> porMensaje = new LinkedHashMap<>();
+        for (CorreoSaliente correo : correos) {
+            try {
+                porMensaje.put(crearMensaje(correo), correo);
+            } catch (MessagingException e) {
+                fallos.put(correo, e);
+            }
+        }
+        if (porMensaje.isEmpty()) {
+            return fallos;
+        }
+
+        Timer.Sample muestra = Timer.start();
+        try {
+            // Un solo send con todo el lote: JavaMailSenderImpl abre una conexión SMTP y la reutiliza para cada mensaje
+            mailSender.send(porMensaje.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                porMensaje.values().forEach(correo -> fallos.put(correo, e));
+            }
+            e.getFailedMessages().forEach((mensaje, error) -> {
+                CorreoSaliente correo = porMensaje.get(mensaje);
+                if (correo != null) {
+                    fallos.put(correo, error);
+                }
+            });
+        } catch (MailException e) {
+            porMensaje.values().forEach(correo -> fallos.put(correo, e));
+        } finally {
+            muestra.stop(latenciaEnvio);
+        }
+        return fallos;
+    }
+
+    // El cuerpo ya es el HTML final: un mensaje de una sola parte, sin armar un multipart por correo
+    private MimeMessage crearMensaje(CorreoSaliente correo) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        mensaje.setFrom(remitente);
+        mensaje.setRecipient(Message.RecipientType.TO, new InternetAddress(correo.getDestinatario()));
+        mensaje.setSubject(correo.getAsunto(), "UTF-8");
+        mensaje.setText(correo.getCuerpo(), "UTF-8", "html");
+        return mensaje;
+    }
+
+    private void registrarResultado(List<CorreoSaliente> correos, Map<CorreoSaliente, Exception> fallos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (CorreoSaliente correo : correos) {
+            correo.setLote(null);
+            correo.setReclamadoEn(null);
+            correo.setIntentos(correo.getIntentos() + 1);
+
+            Exception error = fallos.get(correo);
+            if (error == null) {
+                correo.setEstado(EstadoCorreo.ENVIADO);
+                correo.setEnviadoEn(ahora);
+                correo.setUltimoError(null);
+                demoraEntrega.record(Duration.between(correo.getCreadoEn(), ahora));
+                enviados.increment();
+            } else if (correo.getIntentos() >= maxIntentos) {
+                correo.setEstado(EstadoCorreo.FALLIDO);
+                correo.setUltimoError(resumirError(error));
+                descartados.increment();
+                log.error("Se descarta el correo {} a {} tras {} intentos", correo.getIdCorreo(), correo.getDestinatario(), correo.getIntentos(), error);
+            } else {
+                correo.setEstado(EstadoCorreo.PENDIENTE);
+                correo.setProximoIntento(ahora.plus(calcularEspera(correo.getIntentos(), backoffInicial, backoffMaximo)));
+                correo.setUltimoError(resumirError(error));
+                reintentos.increment();
+                log.warn("Falló el envío del correo {} (intento {}): {}", correo.getIdCorreo(), correo.getIntentos(), error.getMessage());
+            }
+        }
+    }
+
+    // inicial, 2x, 4x, ... hasta el máximo
+    static Duration calcularEspera(int intentos, Duration inicial, Duration maximo) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 30);
+        Duration espera = inicial.multipliedBy(1L << exponente);
+        return espera.compareTo(maximo) > 0 ? maximo : espera;
+    }
+
+    private static String resumirError(Exception error) {
+        String mensaje = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return mensaje.length() > LARGO_MAXIMO_ERROR ? mensaje.substring(0, LARGO_MAXIMO_ERROR) : mensaje;
+    }
+
+    @PreDestroy
+    public void detener() {
+        trabajadores.shutdown();
+    }
+}
@@ -1,6 +1,13 @@
 package com.cafedronel.cafedronelbackend.services.email;
 
+import com.cafedronel.cafedronelbackend.services.email.plantilla.TipoPlantilla;
+
+import java.util.Map;
+
 public interface EmailService {
 
     void sendPasswordResetEmail(String email, String resetCode);
+
+    // Encola un correo con cualquiera de las plantillas; valores debe traer todas sus variables
+    void enviar(TipoPlantilla tipo, String email, Map<String, String> valores);
 }
@@ -0,0 +1,91 @@
+package com.cafedronel.cafedronelbackend.services.email.plantilla;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plantilla ya separada en tramos de texto fijo y variables {{nombre}}. Renderizar sólo
+ * concatena los tramos con los valores (escapados para HTML) en el buffer recibido.
+ */
+public final class PlantillaCompilada {
+
+    private static final String APERTURA = "{{";
+    private static final String CIERRE = "}}";
+
+    // segmentos.length == variables.length + 1: tramo, variable, tramo, ..., tramo
+    private final String[] segmentos;
+    private final String[] variables;
+    private final int largoFijo;
+
+    private PlantillaCompilada(String[] segmentos, String[] variables) {
+        this.segmentos = segmentos;
+        this.variables = variables;
+        int largo = 0;
+        for (String segmento : segmentos) {
+            largo += segmento.length();
+        }
+        this.largoFijo = largo;
+    }
+
+    public static PlantillaCompilada compilar(String texto) {
+        List<String> segmentos = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int desde = 0;
+        int apertura;
+        while ((apertura = texto.indexOf(APERTURA, desde)) >= 0) {
+            int cierre = texto.indexOf(CIERRE, apertura + APERTURA.length());
+            if (cierre < 0) {
+                throw new IllegalArgumentException("Variable sin cerrar en la posición " + apertura);
+            }
+            String nombre = texto.substring(apertura + APERTURA.length(), cierre).trim();
+            if (nombre.isEmpty()) {
+                throw new IllegalArgumentException("Variable sin nombre en la posición " + apertura);
+            }
+            segmentos.add(texto.substring(desde, apertura));
+            variables.add(nombre);
+            desde = cierre + CIERRE.length();
+        }
+        segmentos.add(texto.substring(desde));
+        return new PlantillaCompilada(segmentos.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    public Set<String> variables() {
+        return new LinkedHashSet<>(List.of(variables));
+    }
+
+    /**
+     * Largo del texto fijo; sirve para dimensionar el buffer antes de renderizar
+     */
+    public int largoFijo() {
+        return largoFijo;
+    }
+
+    public void renderizar(Map<String, String> valores, StringBuilder destino) {
+        destino.append(segmentos[0]);
+        for (int i = 0; i < variables.length; i++) {
+            String valor = valores.get(variables[i]);
+            if (valor == null) {
+                throw new IllegalArgumentException("Falta el valor de la variable " + variables[i]);
+            }
+            escaparHtml(valor, destino);
+            destino.append(segmentos[i + 1]);
+        }
+    }
+
+    private static void escaparHtml(String valor, StringBuilder destino) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '&' -> destino.append("&amp;");
+                case '<' -> destino.append("&lt;");
+                case '>' -> destino.append("&gt;");
+                case '"' -> destino.append("&quot;");
+                case '\'' -> destino.append("&#39;");
+                default -> destino.append(c);
+            }
+        }
+    }
+}
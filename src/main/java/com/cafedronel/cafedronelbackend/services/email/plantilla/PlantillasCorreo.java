@@ -0,0 +1,70 @@
+package com.cafedronel.cafedronelbackend.services.email.plantilla;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga y compila todas las plantillas de correo una sola vez al iniciar. Cada plantilla se
+ * inserta en base.html (marcador {{> contenido}}) antes de compilarse, así el diseño común
+ * no se vuelve a procesar en cada envío.
+ */
+@Component
+public class PlantillasCorreo {
+
+    private static final String DIRECTORIO = "correo/plantillas/";
+    private static final String BASE = "base.html";
+    private static final String MARCADOR_CONTENIDO = "{{> contenido}}";
+    // Buffers más grandes que esto no se conservan entre renderizados
+    private static final int CAPACIDAD_MAXIMA_BUFFER = 64 * 1024;
+
+    private final Map<TipoPlantilla, PlantillaCompilada> plantillas = new EnumMap<>(TipoPlantilla.class);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public PlantillasCorreo() {
+        String base = leer(BASE);
+        if (!base.contains(MARCADOR_CONTENIDO)) {
+            throw new IllegalStateException(BASE + " no contiene el marcador " + MARCADOR_CONTENIDO);
+        }
+        for (TipoPlantilla tipo : TipoPlantilla.values()) {
+            PlantillaCompilada plantilla = PlantillaCompilada.compilar(base.replace(MARCADOR_CONTENIDO, leer(tipo.getArchivo())));
+            Set<String> esperadas = new LinkedHashSet<>(tipo.getVariables());
+            if (!plantilla.variables().equals(esperadas)) {
+                throw new IllegalStateException("La plantilla " + tipo.getArchivo() + " usa las variables "
+                        + plantilla.variables() + " pero se esperaban " + esperadas);
+            }
+            plantillas.put(tipo, plantilla);
+        }
+    }
+
+    public String renderizar(TipoPlantilla tipo, Map<String, String> valores) {
+        PlantillaCompilada plantilla = plantillas.get(tipo);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(plantilla.largoFijo() + 256);
+        try {
+            plantilla.renderizar(valores, buffer);
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > CAPACIDAD_MAXIMA_BUFFER) {
+                buffers.remove();
+            }
+        }
+    }
+
+    private static String leer(String archivo) {
+        try (InputStream entrada = new ClassPathResource(DIRECTORIO + archivo).getInputStream()) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la plantilla " + archivo, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cafedronel.cafedronelbackend.services.email.plantilla;
+
+import java.util.List;
+
+/**
+ * Plantillas de correo disponibles. Cada una declara su archivo en correo/plantillas,
+ * el asunto y las variables que espera; al iniciar se valida que coincidan con el archivo.
+ */
+public enum TipoPlantilla {
+    RECUPERACION_CONTRASENA("recuperacion-contrasena.html", "Recuperación de Contraseña - CafeD'Ronnel",
+            List.of("codigo")),
+    CONFIRMACION_PEDIDO("confirmacion-pedido.html", "Confirmación de tu pedido - CafeD'Ronnel",
+            List.of("nombre", "idPedido", "fecha", "total", "direccion")),
+    ENVIO_PEDIDO("envio-pedido.html", "Tu pedido está en camino - CafeD'Ronnel",
+            List.of("nombre", "idPedido", "numeroSeguimiento", "metodoEnvio", "direccion", "fechaEntrega"));
+
+    private final String archivo;
+    private final String asunto;
+    private final List<String> variables;
+
+    TipoPlantilla(String archivo, String asunto, List<String> variables) {
+        this.archivo = archivo;
+        this.asunto = asunto;
+        this.variables = variables;
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public String getAsunto() {
+        return asunto;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+}
@@ -1,11 +1,13 @@
 package com.cafedronel.cafedronelbackend.services.envio;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.model.Envio;
 import java.util.List;
 import java.util.Optional;
 
 public interface EnvioService {
     List<Envio> findAll();
+    PaginaCursorDTO<Envio> findPagina(String cursor, Integer tamano);
     Optional<Envio> findById(Integer id);
     Optional<Envio> findByPedidoId(Integer pedidoId);
     Envio save(Envio envio);
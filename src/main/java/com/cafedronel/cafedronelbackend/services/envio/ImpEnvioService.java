@@ -1,8 +1,10 @@
 package com.cafedronel.cafedronelbackend.services.envio;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.model.Envio;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.EnvioRepository;
+import com.cafedronel.cafedronelbackend.util.paginacion.CursorPaginacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +22,14 @@ public class ImpEnvioService implements EnvioService {
         return envioRepository.findAll();
     }
 
+    @Override
+    public PaginaCursorDTO<Envio> findPagina(String cursor, Integer tamano) {
+        int tamanoPagina = CursorPaginacion.normalizarTamano(tamano);
+        List<Envio> filas = envioRepository.findByIdEnvioGreaterThanOrderByIdEnvioAsc(
+                CursorPaginacion.decodificar(cursor), CursorPaginacion.limiteDeConsulta(tamanoPagina));
+        return CursorPaginacion.construirPagina(filas, tamanoPagina, Envio::getIdEnvio, envio -> envio);
+    }
+
     @Override
     public Optional<Envio> findById(Integer id) {
         return envioRepository.findById(id);
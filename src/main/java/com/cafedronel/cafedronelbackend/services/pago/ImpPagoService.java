@@ -1,8 +1,10 @@
 package com.cafedronel.cafedronelbackend.services.pago;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.model.Pago;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.PagoRepository;
+import com.cafedronel.cafedronelbackend.util.paginacion.CursorPaginacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +22,14 @@ public class ImpPagoService implements PagoService {
         return pagoRepository.findAll();
     }
 
+    @Override
+    public PaginaCursorDTO<Pago> findPagina(String cursor, Integer tamano) {
+        int tamanoPagina = CursorPaginacion.normalizarTamano(tamano);
+        List<Pago> filas = pagoRepository.findByIdPagoGreaterThanOrderByIdPagoAsc(
+                CursorPaginacion.decodificar(cursor), CursorPaginacion.limiteDeConsulta(tamanoPagina));
+        return CursorPaginacion.construirPagina(filas, tamanoPagina, Pago::getIdPago, pago -> pago);
+    }
+
     @Override
     public Optional<Pago> findById(Integer id) {
         return pagoRepository.findById(id);
@@ -1,11 +1,13 @@
 package com.cafedronel.cafedronelbackend.services.pago;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.model.Pago;
 import java.util.List;
 import java.util.Optional;
 
 public interface PagoService {
     List<Pago> findAll();
+    PaginaCursorDTO<Pago> findPagina(String cursor, Integer tamano);
     Optional<Pago> findById(Integer id);
     Optional<Pago> findByPedidoId(Integer pedidoId);
     Pago save(Pago pago);
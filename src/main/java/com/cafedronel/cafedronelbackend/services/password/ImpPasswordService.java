@@ -8,6 +8,7 @@ import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
 import com.cafedronel.cafedronelbackend.services.email.EmailService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Random;
 
@@ -25,7 +26,9 @@ public class ImpPasswordService implements PasswordService {
         this.emailService = emailService;
     }
 
+    // El código y el correo que lo contiene se guardan juntos o no se guarda ninguno
     @Override
+    @Transactional
     public Boolean forgotAccount(ForgotRequest forgotRequest) {
         Usuario userFound = this.usuarioRepository.getUsuariosByCorreo(forgotRequest.email()).orElseThrow(
                 () -> new BusinessException("El usuario no existe")
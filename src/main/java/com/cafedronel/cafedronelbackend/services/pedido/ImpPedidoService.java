@@ -1,22 +1,61 @@
 package com.cafedronel.cafedronelbackend.services.pedido;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.DetallePedidoResumenDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoResumenDTO;
 import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Envio;
+import com.cafedronel.cafedronelbackend.data.model.Pago;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
 import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
+import com.cafedronel.cafedronelbackend.util.paginacion.CursorPaginacion;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class ImpPedidoService implements PedidoService {
 
     @Autowired
     private PedidoRepository pedidoRepository;
 
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private VentaDiariaService ventaDiariaService;
+
+    @Autowired
+    private ResumenClienteService resumenClienteService;
+
+    @Autowired
+    private ReservasStock reservasStock;
+
     @Override
     public List<Pedido> findAll() {
         return pedidoRepository.findAll();
@@ -33,32 +72,216 @@ public class ImpPedidoService implements PedidoService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<PedidoResumenDTO> findAllResumen() {
+        return pedidoRepository.findAllConDetalles().stream()
+                .map(this::convertirAResumen)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<PedidoResumenDTO> findPaginaResumen(String cursor, Integer tamano) {
+        int tamanoPagina = CursorPaginacion.normalizarTamano(tamano);
+        List<Integer> ids = pedidoRepository.findIdsDespuesDe(CursorPaginacion.decodificar(cursor),
+                CursorPaginacion.limiteDeConsulta(tamanoPagina));
+
+        boolean hayMas = ids.size() > tamanoPagina;
+        List<Integer> idsPagina = hayMas ? ids.subList(0, tamanoPagina) : ids;
+        List<PedidoResumenDTO> contenido = idsPagina.isEmpty() ? List.of()
+                : pedidoRepository.findConDetallesByIdIn(idsPagina).stream()
+                        .map(this::convertirAResumen)
+                        .collect(Collectors.toList());
+
+        return PaginaCursorDTO.<PedidoResumenDTO>builder()
+                .contenido(contenido)
+                .tamano(tamanoPagina)
+                .hayMas(hayMas)
+                .siguienteCursor(hayMas ? CursorPaginacion.codificar(idsPagina.get(idsPagina.size() - 1)) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PedidoResumenDTO> findResumenByUsuarioId(Integer usuarioId) {
+        return pedidoRepository.findConDetallesByUsuarioId(usuarioId).stream()
+                .map(this::convertirAResumen)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
     public Pedido save(Pedido pedido) {
-        return pedidoRepository.save(pedido);
+        calcularTotales(pedido);
+        Pedido guardado = pedidoRepository.save(pedido);
+        ventaDiariaService.registrarAlta(guardado.getFecha(), guardado.getTotal());
+        resumenClienteService.registrarCambio(idUsuario(guardado));
+        return guardado;
     }
 
     @Override
+    @Transactional
     public Pedido update(Integer id, Pedido pedido) {
-        if (!pedidoRepository.existsById(id)) {
-            throw new BusinessException("Pedido no encontrado con ID: " + id);
-        }
+        // Bloqueado como en cambiarEstado: el barrido de reservas vencidas no puede cancelarlo mientras se actualiza
+        Pedido actual = pedidoRepository.bloquearPorId(id)
+                .orElseThrow(() -> new BusinessException("Pedido no encontrado con ID: " + id));
+        EstadoPedido estado = pedido.getEstado() != null ? pedido.getEstado() : EstadoPedido.PENDIENTE;
+        verificarReactivacion(actual, estado);
+        // Los valores anteriores se leen antes de guardar: si cambia de día hay que recalcular ambos
+        Date fechaAnterior = actual.getFecha();
+        BigDecimal totalAnterior = actual.getTotal();
+        Integer usuarioAnterior = idUsuario(actual);
         pedido.setIdPedido(id);
-        return pedidoRepository.save(pedido);
+        // El pedido recibido no trae la reserva: sigue vigente mientras esté pendiente, si no se cierra
+        if (actual.getReservaExpiraEn() != null) {
+            verificarDetallesReservados(id, pedido.getDetalles());
+            if (estado == EstadoPedido.PENDIENTE) {
+                pedido.setReservaExpiraEn(actual.getReservaExpiraEn());
+            } else {
+                reservasStock.cerrar(actual, estado == EstadoPedido.CANCELADO);
+            }
+        }
+        calcularTotales(pedido);
+        Pedido actualizado = pedidoRepository.save(pedido);
+        ventaDiariaService.registrarCambio(fechaAnterior, totalAnterior, actualizado.getFecha(), actualizado.getTotal());
+        resumenClienteService.registrarCambio(usuarioAnterior);
+        if (!Objects.equals(usuarioAnterior, idUsuario(actualizado))) {
+            resumenClienteService.registrarCambio(idUsuario(actualizado));
+        }
+        return actualizado;
     }
 
     @Override
+    @Transactional
     public void delete(Integer id) {
         if (!pedidoRepository.existsById(id)) {
             throw new BusinessException("Pedido no encontrado con ID: " + id);
         }
+        Date fecha = pedidoRepository.findFechaByIdPedido(id).orElse(null);
+        BigDecimal total = pedidoRepository.findTotalByIdPedido(id).orElse(null);
+        Integer idUsuario = pedidoRepository.findIdUsuarioByIdPedido(id).orElse(null);
+        // Eliminar un pedido con reserva devuelve su stock, igual que cancelarlo
+        if (pedidoRepository.findReservaExpiraEnByIdPedido(id).isPresent()) {
+            cerrarReserva(id, EstadoPedido.CANCELADO);
+        }
         pedidoRepository.deleteById(id);
+        ventaDiariaService.registrarBaja(fecha, total);
+        resumenClienteService.registrarCambio(idUsuario);
     }
 
     @Override
+    @Transactional
     public Pedido cambiarEstado(Integer id, EstadoPedido nuevoEstado) {
-        Pedido pedido = pedidoRepository.findById(id)
+        // Bloqueado: el barrido de reservas vencidas no puede cancelarlo mientras cambia de estado
+        Pedido pedido = pedidoRepository.bloquearPorId(id)
                 .orElseThrow(() -> new BusinessException("Pedido no encontrado con ID: " + id));
+        verificarReactivacion(pedido, nuevoEstado);
+        if (nuevoEstado != EstadoPedido.PENDIENTE) {
+            // Confirmar el pago (o avanzar el pedido) convierte la reserva en venta; cancelarlo la libera
+            reservasStock.cerrar(pedido, nuevoEstado == EstadoPedido.CANCELADO);
+        }
         pedido.setEstado(nuevoEstado);
+        // El estado no cambia el resumen de ventas: cuenta todos los pedidos del día
         return pedidoRepository.save(pedido);
     }
-}
\ No newline at end of file
+
+    /**
+     * Completa subtotales y totales de los pedidos guardados antes de que se calcularan al
+     * escribir. Corre antes que la carga inicial de los resúmenes, que se basan en estos totales.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void completarTotalesPendientes() {
+        int detalles = detallePedidoRepository.completarSubtotalesPendientes();
+        int pedidos = pedidoRepository.completarTotalesPendientes();
+        if (detalles > 0 || pedidos > 0) {
+            log.info("Totales completados: {} detalles y {} pedidos", detalles, pedidos);
+        }
+    }
+
+    // Al cancelarlo se devolvió su stock; reactivarlo vendería unidades que ya no están reservadas
+    private void verificarReactivacion(Pedido pedido, EstadoPedido nuevoEstado) {
+        if (pedido.getEstado() == EstadoPedido.CANCELADO && nuevoEstado != EstadoPedido.CANCELADO) {
+            throw new BusinessException("El pedido " + pedido.getIdPedido() + " está cancelado y no puede cambiar de estado");
+        }
+    }
+
+    // Cierra la reserva con el pedido bloqueado; si el barrido la liberó antes no queda nada que hacer
+    private void cerrarReserva(Integer id, EstadoPedido nuevoEstado) {
+        pedidoRepository.bloquearPorId(id)
+                .ifPresent(bloqueado -> reservasStock.cerrar(bloqueado, nuevoEstado == EstadoPedido.CANCELADO));
+    }
+
+    // Con la reserva activa los detalles no pueden cambiar: al cancelarla se devuelven las cantidades guardadas
+    private void verificarDetallesReservados(Integer id, List<DetallePedido> detalles) {
+        if (detalles == null) {
+            return;
+        }
+        Map<Integer, Long> guardadas = new HashMap<>();
+        detallePedidoRepository.sumarCantidadesPorProducto(List.of(id))
+                .forEach(fila -> guardadas.put(fila.getIdProducto(), fila.getCantidad()));
+        Map<Integer, Long> recibidas = new HashMap<>();
+        for (DetallePedido detalle : detalles) {
+            recibidas.merge(detalle.getProducto() != null ? detalle.getProducto().getIdProducto() : null,
+                    detalle.getCantidad() != null ? detalle.getCantidad().longValue() : 0L, Long::sum);
+        }
+        if (!guardadas.equals(recibidas)) {
+            throw new BusinessException("El pedido " + id
+                    + " tiene stock reservado: sus detalles no pueden cambiar hasta confirmarlo o cancelarlo");
+        }
+    }
+
+    private void calcularTotales(Pedido pedido) {
+        // Si la petición no trae detalles el total sale de los ya guardados
+        if (!TotalesPedido.recalcular(pedido)) {
+            pedido.setTotal(pedido.getIdPedido() != null
+                    ? TotalesPedido.valorOCero(pedidoRepository.sumarSubtotales(pedido.getIdPedido()))
+                    : TotalesPedido.cero());
+        }
+    }
+
+    private Integer idUsuario(Pedido pedido) {
+        return pedido.getUsuario() != null ? pedido.getUsuario().getIdUsuario() : null;
+    }
+
+    private PedidoResumenDTO convertirAResumen(Pedido pedido) {
+        List<DetallePedidoResumenDTO> detalles = pedido.getDetalles() == null ? List.of()
+                : pedido.getDetalles().stream()
+                        .map(this::convertirAResumen)
+                        .collect(Collectors.toList());
+
+        Usuario usuario = pedido.getUsuario();
+        Pago pago = pedido.getPago();
+        Envio envio = pedido.getEnvio();
+        return PedidoResumenDTO.builder()
+                .idPedido(pedido.getIdPedido())
+                .fecha(pedido.getFecha())
+                .estado(pedido.getEstado())
+                .telefono(pedido.getTelefono())
+                .direccion(pedido.getDireccion())
+                .idUsuario(usuario != null ? usuario.getIdUsuario() : null)
+                .nombreCliente(usuario != null ? usuario.getNombre() : null)
+                .correoCliente(usuario != null ? usuario.getCorreo() : null)
+                .metodoPago(pago != null ? pago.getMetodoPago() : null)
+                .estadoPago(pago != null ? pago.getEstado() : null)
+                .montoPago(pago != null ? pago.getMonto() : null)
+                .metodoEnvio(envio != null ? envio.getMetodoEnvio() : null)
+                .estadoEnvio(envio != null ? envio.getEstado() : null)
+                .numeroSeguimiento(envio != null ? envio.getNumeroSeguimiento() : null)
+                .total(TotalesPedido.comoDouble(pedido.getTotal()))
+                .detalles(detalles)
+                .build();
+    }
+
+    private DetallePedidoResumenDTO convertirAResumen(DetallePedido detalle) {
+        return DetallePedidoResumenDTO.builder()
+                .idDetalle(detalle.getIdDetalle())
+                .idProducto(detalle.getProducto() != null ? detalle.getProducto().getIdProducto() : null)
+                .nombreProducto(detalle.getProducto() != null ? detalle.getProducto().getNombre() : null)
+                .cantidad(detalle.getCantidad())
+                .precioUnitario(detalle.getPrecioUnitario())
+                .subtotal(TotalesPedido.comoDouble(detalle.getSubtotal()))
+                .build();
+    }
+}
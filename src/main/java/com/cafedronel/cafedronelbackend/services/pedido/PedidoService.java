@@ -1,5 +1,7 @@
 package com.cafedronel.cafedronelbackend.services.pedido;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoResumenDTO;
 import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
 import java.util.List;
@@ -9,6 +11,9 @@ public interface PedidoService {
     List<Pedido> findAll();
     Optional<Pedido> findById(Integer id);
     List<Pedido> findByUsuarioId(Integer usuarioId);
+    List<PedidoResumenDTO> findAllResumen();
+    PaginaCursorDTO<PedidoResumenDTO> findPaginaResumen(String cursor, Integer tamano);
+    List<PedidoResumenDTO> findResumenByUsuarioId(Integer usuarioId);
     Pedido save(Pedido pedido);
     Pedido update(Integer id, Pedido pedido);
     void delete(Integer id);
@@ -0,0 +1,162 @@
+package com.cafedronel.cafedronelbackend.services.pedido;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.CatalogoProductoCache;
+import com.cafedronel.cafedronelbackend.services.producto.MovimientosStock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reservas de stock de los pedidos pendientes. El checkout descuenta el stock y fija un vencimiento;
+ * al confirmarse el pedido la reserva pasa a ser venta, y al cancelarse o vencer el stock se devuelve.
+ * Un barrido periódico cancela por lotes los pedidos con la reserva vencida.
+ */
+@Slf4j
+@Component
+public class ReservasStock {
+
+    private final PedidoRepository pedidoRepository;
+    private final DetallePedidoRepository detallePedidoRepository;
+    private final ProductoRepository productoRepository;
+    private final MovimientosStock movimientosStock;
+    private final CatalogoProductoCache catalogoProductoCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration duracion;
+    private final int tamanoLote;
+    private final boolean programado;
+
+    public ReservasStock(PedidoRepository pedidoRepository,
+                         DetallePedidoRepository detallePedidoRepository,
+                         ProductoRepository productoRepository,
+                         MovimientosStock movimientosStock,
+                         CatalogoProductoCache catalogoProductoCache,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${pedidos.reserva.ttl-minutos:30}") long ttlMinutos,
+                         @Value("${pedidos.reserva.lote:200}") int tamanoLote,
+                         @Value("${pedidos.reserva.programado:true}") boolean programado) {
+        this.pedidoRepository = pedidoRepository;
+        this.detallePedidoRepository = detallePedidoRepository;
+        this.productoRepository = productoRepository;
+        this.movimientosStock = movimientosStock;
+        this.catalogoProductoCache = catalogoProductoCache;
+        this.transactionTemplate = transactionTemplate;
+        this.duracion = Duration.ofMinutes(ttlMinutos);
+        this.tamanoLote = tamanoLote;
+        this.programado = programado;
+    }
+
+    /**
+     * Vencimiento de una reserva que se crea ahora
+     */
+    public LocalDateTime vencimientoNuevaReserva() {
+        return LocalDateTime.now().plus(duracion);
+    }
+
+    /**
+     * Cierra la reserva activa de un pedido bloqueado por el llamador: si {@code devolverStock} el stock
+     * vuelve a estar disponible, si no queda vendido
+     */
+    public void cerrar(Pedido pedido, boolean devolverStock) {
+        if (pedido.getReservaExpiraEn() == null) {
+            return;
+        }
+        pedido.setReservaExpiraEn(null);
+        if (devolverStock) {
+            devolverStock(List.of(pedido.getIdPedido()), "Pedido " + pedido.getIdPedido() + " cancelado");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pedidos.reserva.barrido-ms:60000}", initialDelayString = "${pedidos.reserva.barrido-ms:60000}")
+    public void programar() {
+        if (programado) {
+            liberarVencidas();
+        }
+    }
+
+    /**
+     * Cancela los pedidos con la reserva vencida y devuelve su stock, un lote por transacción.
+     * Retorna cuántos pedidos canceló.
+     */
+    public int liberarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int cancelados = 0;
+        Lote lote;
+        do {
+            lote = transactionTemplate.execute(estado -> liberarLote(ahora));
+            cancelados += lote.cancelados();
+        } while (lote.encontrados() == tamanoLote);
+
+        if (cancelados > 0) {
+            log.info("Reservas de stock vencidas: {} pedidos cancelados", cancelados);
+        }
+        return cancelados;
+    }
+
+    private Lote liberarLote(LocalDateTime ahora) {
+        List<Integer> ids = pedidoRepository.findIdsReservaVencida(ahora, Limit.of(tamanoLote));
+        if (ids.isEmpty()) {
+            return new Lote(0, 0);
+        }
+
+        List<Pedido> pedidos = pedidoRepository.bloquearReservasVencidas(ids, ahora);
+        List<Integer> cancelados = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            pedido.setEstado(EstadoPedido.CANCELADO);
+            pedido.setReservaExpiraEn(null);
+            cancelados.add(pedido.getIdPedido());
+        }
+        if (!cancelados.isEmpty()) {
+            // El resumen de ventas cuenta también los pedidos cancelados: no cambia
+            devolverStock(cancelados, "Reserva vencida");
+        }
+        return new Lote(ids.size(), cancelados.size());
+    }
+
+    /**
+     * Suma al stock las unidades de los pedidos con un lote de UPDATE y las deja en movimiento_stock
+     */
+    private void devolverStock(Collection<Integer> idsPedido, String motivo) {
+        // Orden por id, igual que el checkout y los ajustes, para bloquear los productos siempre en el mismo orden
+        Map<Integer, Integer> cantidades = new TreeMap<>();
+        detallePedidoRepository.sumarCantidadesPorProducto(idsPedido).stream()
+                .filter(fila -> fila.getIdProducto() != null && fila.getCantidad() != null && fila.getCantidad() > 0)
+                .forEach(fila -> cantidades.put(fila.getIdProducto(), fila.getCantidad().intValue()));
+        if (cantidades.isEmpty()) {
+            return;
+        }
+
+        List<ItemAjusteStockDTO> items = cantidades.entrySet().stream()
+                .map(entrada -> new ItemAjusteStockDTO(entrada.getKey(), entrada.getValue()))
+                .toList();
+        movimientosStock.aplicar(items);
+        Map<Integer, Integer> stockFinal = productoRepository.findStockByIds(cantidades.keySet()).stream()
+                .collect(Collectors.toMap(ProductoRepository.StockProducto::getIdProducto,
+                        fila -> fila.getStock() != null ? fila.getStock() : 0));
+        movimientosStock.registrar(items, stockFinal, motivo, null);
+        catalogoProductoCache.ajustarDisponible(cantidades);
+    }
+
+    // Pedidos con reserva vencida que encontró la consulta y los que seguían así al bloquearlos
+    private record Lote(int encontrados, int cancelados) {
+    }
+}
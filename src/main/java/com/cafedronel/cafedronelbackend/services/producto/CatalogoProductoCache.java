@@ -0,0 +1,290 @@
+package com.cafedronel.cafedronelbackend.services.producto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos.Recurso;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Caché en memoria del catálogo público de productos.
+ * La ficha de cada producto (todo menos el stock) se arma una vez y se guarda sin modificar;
+ * el stock vive en una caché aparte con TTL corto, así una venta sólo invalida su propia entrada
+ * y no obliga a recargar el catálogo. Las métricas se publican en /actuator/metrics (cache.*).
+ * Además lleva un contador de disponibles por producto para verificar stock sin ir a la base de datos.
+ */
+@Component
+public class CatalogoProductoCache {
+
+    private static final String CLAVE_CATALOGO = "catalogo";
+
+    private final ProductoRepository productoRepository;
+    private final VersionesDatos versionesDatos;
+    private final LoadingCache<Integer, Optional<ProductoResponseDTO>> fichas;
+    private final LoadingCache<Integer, Integer> stock;
+    // Ids del catálogo completo en orden; una sola entrada
+    private final LoadingCache<String, List<Integer>> catalogo;
+    // Disponible para la venta: las reservas y liberaciones lo ajustan al confirmarse, los demás cambios
+    // de stock lo descartan. Expira igual para acotar el desfase con lo que otra transacción haya escrito
+    // entre una carga y un ajuste; el checkout vuelve a validar el stock con la fila bloqueada.
+    private final Cache<Integer, AtomicInteger> disponibles;
+
+    public CatalogoProductoCache(ProductoRepository productoRepository,
+                                 VersionesDatos versionesDatos,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${catalogo.cache.tamano-maximo:5000}") long tamanoMaximo,
+                                 @Value("${catalogo.cache.ttl-segundos:600}") long ttlSegundos,
+                                 @Value("${catalogo.cache.stock-ttl-segundos:5}") long stockTtlSegundos,
+                                 @Value("${catalogo.cache.disponible-ttl-segundos:60}") long disponibleTtlSegundos) {
+        this.productoRepository = productoRepository;
+        this.versionesDatos = versionesDatos;
+
+        this.fichas = CacheBuilder.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<ProductoResponseDTO> load(Integer idProducto) {
+                        return productoRepository.findById(idProducto).map(CatalogoProductoCache::crearFicha);
+                    }
+
+                    @Override
+                    public Map<Integer, Optional<ProductoResponseDTO>> loadAll(Iterable<? extends Integer> ids) {
+                        Map<Integer, Optional<ProductoResponseDTO>> cargadas = new HashMap<>();
+                        ids.forEach(id -> cargadas.put(id, Optional.empty()));
+                        productoRepository.findAllById(ImmutableList.copyOf(ids))
+                                .forEach(producto -> cargadas.put(producto.getIdProducto(), Optional.of(crearFicha(producto))));
+                        return cargadas;
+                    }
+                });
+
+        this.stock = CacheBuilder.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(stockTtlSegundos))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Integer load(Integer idProducto) {
+                        return productoRepository.findStockById(idProducto).orElse(0);
+                    }
+
+                    @Override
+                    public Map<Integer, Integer> loadAll(Iterable<? extends Integer> ids) {
+                        Map<Integer, Integer> cargados = new HashMap<>();
+                        ids.forEach(id -> cargados.put(id, 0));
+                        productoRepository.findStockByIds(ImmutableList.copyOf(ids))
+                                .forEach(fila -> cargados.put(fila.getIdProducto(), valorStock(fila.getStock())));
+                        return cargados;
+                    }
+                });
+
+        this.catalogo = CacheBuilder.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build(CacheLoader.from(clave -> cargarCatalogo()));
+
+        this.disponibles = CacheBuilder.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(disponibleTtlSegundos))
+                .recordStats()
+                .build();
+
+        GuavaCacheMetrics.monitor(meterRegistry, fichas, "catalogo.productos");
+        GuavaCacheMetrics.monitor(meterRegistry, stock, "catalogo.stock");
+        GuavaCacheMetrics.monitor(meterRegistry, catalogo, "catalogo.listado");
+        GuavaCacheMetrics.monitor(meterRegistry, disponibles, "catalogo.disponibles");
+    }
+
+    public List<ProductoResponseDTO> obtenerTodos() {
+        List<Integer> ids = catalogo.getUnchecked(CLAVE_CATALOGO);
+        // Las entradas que falten (por expiración o desalojo) se cargan juntas en una consulta
+        Map<Integer, Optional<ProductoResponseDTO>> fichasCatalogo = obtenerTodas(fichas, ids);
+        Map<Integer, Integer> stockCatalogo = obtenerTodas(stock, ids);
+
+        List<ProductoResponseDTO> productos = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            fichasCatalogo.get(id).ifPresent(ficha -> productos.add(conStock(ficha, stockCatalogo.get(id))));
+        }
+        return productos;
+    }
+
+    public Optional<ProductoResponseDTO> obtener(Integer idProducto) {
+        return fichas.getUnchecked(idProducto)
+                .map(ficha -> conStock(ficha, stock.getUnchecked(idProducto)));
+    }
+
+    /**
+     * Unidades disponibles para la venta; vacío si el producto no existe. Sólo consulta la base de datos
+     * la primera vez o cuando el contador se descartó.
+     */
+    public Optional<Integer> disponible(Integer idProducto) {
+        AtomicInteger contador = disponibles.getIfPresent(idProducto);
+        if (contador == null) {
+            List<ProductoRepository.StockProducto> filas = productoRepository.findStockByIds(List.of(idProducto));
+            if (filas.isEmpty()) {
+                return Optional.empty();
+            }
+            AtomicInteger cargado = new AtomicInteger(valorStock(filas.get(0).getStock()));
+            contador = disponibles.asMap().putIfAbsent(idProducto, cargado);
+            if (contador == null) {
+                contador = cargado;
+            }
+        }
+        return Optional.of(contador.get());
+    }
+
+    /**
+     * Reserva (cantidades negativas) o liberación (positivas) de stock: descarta el stock mostrado en el
+     * catálogo y, al confirmar, suma el cambio a los contadores de disponibles sin volver a cargarlos
+     */
+    public void ajustarDisponible(Map<Integer, Integer> cambios) {
+        Map<Integer, Integer> copia = ImmutableMap.copyOf(cambios);
+        alConfirmar(() -> stock.invalidateAll(copia.keySet()));
+        // Sólo al confirmar: si la transacción se revierte el stock no cambió
+        despuesDeConfirmar(() -> copia.forEach((idProducto, cambio) -> {
+            AtomicInteger contador = disponibles.getIfPresent(idProducto);
+            if (contador != null) {
+                contador.addAndGet(cambio);
+            }
+        }));
+        versionesDatos.registrarCambio(Recurso.CATALOGO);
+    }
+
+    /**
+     * Alta, edición o baja de un producto: descarta su ficha, su stock y el listado
+     */
+    public void invalidarProducto(Integer idProducto) {
+        alConfirmar(() -> {
+            if (idProducto != null) {
+                fichas.invalidate(idProducto);
+                stock.invalidate(idProducto);
+                disponibles.invalidate(idProducto);
+            }
+            catalogo.invalidateAll();
+        });
+        // Después de la caché: al confirmar, la versión nueva sólo se publica cuando ya no hay datos viejos
+        versionesDatos.registrarCambio(Recurso.CATALOGO);
+    }
+
+    /**
+     * Cambio de stock: sólo se descarta el stock de esos productos
+     */
+    public void invalidarStock(Collection<Integer> idsProducto) {
+        List<Integer> ids = ImmutableList.copyOf(idsProducto);
+        alConfirmar(() -> {
+            stock.invalidateAll(ids);
+            disponibles.invalidateAll(ids);
+        });
+        versionesDatos.registrarCambio(Recurso.CATALOGO);
+    }
+
+    public void invalidarTodo() {
+        fichas.invalidateAll();
+        stock.invalidateAll();
+        disponibles.invalidateAll();
+        catalogo.invalidateAll();
+        versionesDatos.registrarCambio(Recurso.CATALOGO);
+    }
+
+    private List<Integer> cargarCatalogo() {
+        List<Producto> productos = productoRepository.findAll(Sort.by("idProducto"));
+        List<Integer> ids = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            ids.add(producto.getIdProducto());
+            fichas.put(producto.getIdProducto(), Optional.of(crearFicha(producto)));
+            stock.put(producto.getIdProducto(), valorStock(producto.getStock()));
+        }
+        return ImmutableList.copyOf(ids);
+    }
+
+    // Se invalida ya y otra vez al confirmar, para descartar lo que otra petición haya cargado
+    // mientras la transacción seguía abierta
+    private void alConfirmar(Runnable invalidacion) {
+        invalidacion.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            despuesDeConfirmar(invalidacion);
+        }
+    }
+
+    // Sin transacción activa se ejecuta de inmediato
+    private void despuesDeConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private static <V> Map<Integer, V> obtenerTodas(LoadingCache<Integer, V> cache, List<Integer> ids) {
+        try {
+            return cache.getAll(ids);
+        } catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    private static ProductoResponseDTO crearFicha(Producto producto) {
+        return ProductoResponseDTO.builder()
+                .idProducto(producto.getIdProducto())
+                .sku(producto.getSku())
+                .nombre(producto.getNombre())
+                .categoria(producto.getCategoria())
+                .subtipo(producto.getSubtipo())
+                .descripcion(producto.getDescripcion())
+                .precio(producto.getPrecio())
+                .activo(producto.getActivo())
+                .build();
+    }
+
+    // Cada respuesta es una copia: la ficha guardada nunca se expone ni se modifica
+    private static ProductoResponseDTO conStock(ProductoResponseDTO ficha, Integer stockActual) {
+        return ProductoResponseDTO.builder()
+                .idProducto(ficha.getIdProducto())
+                .sku(ficha.getSku())
+                .nombre(ficha.getNombre())
+                .categoria(ficha.getCategoria())
+                .subtipo(ficha.getSubtipo())
+                .descripcion(ficha.getDescripcion())
+                .precio(ficha.getPrecio())
+                .stock(stockActual)
+                .activo(ficha.getActivo())
+                .build();
+    }
+
+    private static int valorStock(Integer stockProducto) {
+        return stockProducto != null ? stockProducto : 0;
+    }
+}
@@ -1,41 +1,86 @@
 package com.cafedronel.cafedronelbackend.services.producto;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoAjusteStock;
 import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.exceptions.AjusteStockRechazadoException;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.busqueda.BusquedaProductos;
+import com.cafedronel.cafedronelbackend.util.paginacion.CursorPaginacion;
 
 @Service
 public class ImpProductoService implements ProductoService {
 
+    private static final int LIMITE_BUSQUEDA_POR_DEFECTO = 20;
+    private static final int LIMITE_BUSQUEDA_MAXIMO = 100;
+
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private CatalogoProductoCache catalogoProductoCache;
+
+    @Autowired
+    private BusquedaProductos busquedaProductos;
+
+    @Autowired
+    private MovimientosStock movimientosStock;
+
     @Override
     public List<ProductoResponseDTO> findAll() {
-        return productoRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogoProductoCache.obtenerTodos();
+    }
+
+    @Override
+    public PaginaCursorDTO<ProductoResponseDTO> findPagina(String cursor, Integer tamano) {
+        int tamanoPagina = CursorPaginacion.normalizarTamano(tamano);
+        List<Producto> filas = productoRepository.findByIdProductoGreaterThanOrderByIdProductoAsc(
+                CursorPaginacion.decodificar(cursor), CursorPaginacion.limiteDeConsulta(tamanoPagina));
+        return CursorPaginacion.construirPagina(filas, tamanoPagina, Producto::getIdProducto, this::mapToDTO);
     }
 
     @Override
     public ProductoResponseDTO findById(Integer id) {
-        Producto producto = productoRepository.findById(id)
+        return catalogoProductoCache.obtener(id)
                 .orElseThrow(() -> new BusinessException("Producto no encontrado"));
-        return mapToDTO(producto);
+    }
+
+    @Override
+    public BusquedaProductosDTO buscar(String texto, String categoria, String subtipo, Integer limite) {
+        if (texto == null || texto.isBlank()) {
+            throw new BusinessException("Ingrese un texto para buscar");
+        }
+        int limiteResultados = limite == null || limite <= 0 ? LIMITE_BUSQUEDA_POR_DEFECTO : Math.min(limite, LIMITE_BUSQUEDA_MAXIMO);
+        return busquedaProductos.buscar(texto, categoria, subtipo, limiteResultados);
     }
 
     @Override
     public ProductoResponseDTO create(ProductoRequestDTO productoRequestDTO) {
+        validarSkuLibre(productoRequestDTO.getSku(), null);
         Producto producto = mapToEntity(productoRequestDTO);
         Producto savedProducto = productoRepository.save(producto);
+        catalogoProductoCache.invalidarProducto(savedProducto.getIdProducto());
+        busquedaProductos.indexar(savedProducto);
         return mapToDTO(savedProducto);
     }
 
@@ -43,9 +88,12 @@ public class ImpProductoService implements ProductoService {
     public ProductoResponseDTO update(Integer id, ProductoRequestDTO productoRequestDTO) {
         Producto existingProducto = productoRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Producto no encontrado"));
-        
+        validarSkuLibre(productoRequestDTO.getSku(), id);
+
         updateProductoFromDTO(existingProducto, productoRequestDTO);
         Producto updatedProducto = productoRepository.save(existingProducto);
+        catalogoProductoCache.invalidarProducto(id);
+        busquedaProductos.indexar(updatedProducto);
         return mapToDTO(updatedProducto);
     }
 
@@ -55,11 +103,14 @@ public class ImpProductoService implements ProductoService {
             throw new BusinessException("Producto no encontrado");
         }
         productoRepository.deleteById(id);
+        catalogoProductoCache.invalidarProducto(id);
+        busquedaProductos.eliminar(id);
     }
 
     private ProductoResponseDTO mapToDTO(Producto producto) {
         return ProductoResponseDTO.builder()
                 .idProducto(producto.getIdProducto())
+                .sku(producto.getSku())
                 .nombre(producto.getNombre())
                 .categoria(producto.getCategoria())
                 .subtipo(producto.getSubtipo())
@@ -77,6 +128,7 @@ public class ImpProductoService implements ProductoService {
     }
 
     private void updateProductoFromDTO(Producto producto, ProductoRequestDTO dto) {
+        producto.setSku(dto.getSku() != null && !dto.getSku().isBlank() ? dto.getSku().trim() : null);
         producto.setNombre(dto.getNombre());
         producto.setCategoria(dto.getCategoria());
         producto.setSubtipo(dto.getSubtipo());
@@ -87,33 +139,121 @@ public class ImpProductoService implements ProductoService {
     }
 
     @Override
+    @Transactional
     public void disminuirStock(Integer productoId, Integer cantidad) {
-        Producto producto = productoRepository.findById(productoId)
-                .orElseThrow(() -> new BusinessException("Producto no encontrado con ID: " + productoId));
-        
-        if (producto.getStock() < cantidad) {
+        validarCantidad(cantidad);
+
+        // La comprobación y el descuento ocurren en el mismo UPDATE, así dos compras concurrentes no pueden sobrevender
+        int filasActualizadas = productoRepository.disminuirStockSiDisponible(productoId, cantidad);
+        if (filasActualizadas == 0) {
+            Producto producto = productoRepository.findById(productoId)
+                    .orElseThrow(() -> new BusinessException("Producto no encontrado con ID: " + productoId));
             throw new BusinessException("Stock insuficiente para el producto: " + producto.getNombre() + 
                     ". Stock disponible: " + producto.getStock() + ", cantidad solicitada: " + cantidad);
         }
-        
-        producto.setStock(producto.getStock() - cantidad);
-        productoRepository.save(producto);
+        catalogoProductoCache.invalidarStock(Set.of(productoId));
     }
 
     @Override
+    @Transactional
     public void aumentarStock(Integer productoId, Integer cantidad) {
-        Producto producto = productoRepository.findById(productoId)
-                .orElseThrow(() -> new BusinessException("Producto no encontrado con ID: " + productoId));
-        
-        producto.setStock(producto.getStock() + cantidad);
-        productoRepository.save(producto);
+        validarCantidad(cantidad);
+
+        if (productoRepository.aumentarStock(productoId, cantidad) == 0) {
+            throw new BusinessException("Producto no encontrado con ID: " + productoId);
+        }
+        catalogoProductoCache.invalidarStock(Set.of(productoId));
     }
 
     @Override
     public boolean verificarStock(Integer productoId, Integer cantidad) {
-        Producto producto = productoRepository.findById(productoId)
+        // Contador en memoria: orientativo, el checkout vuelve a validar con la fila bloqueada
+        int disponible = catalogoProductoCache.disponible(productoId)
                 .orElseThrow(() -> new BusinessException("Producto no encontrado con ID: " + productoId));
-        
-        return producto.getStock() >= cantidad;
+        return disponible >= cantidad;
+    }
+
+    @Override
+    @Transactional
+    public AjusteStockResponseDTO ajustarStock(AjusteStockRequestDTO ajuste, String usuario) {
+        List<ItemAjusteStockDTO> items = ajuste.getItems();
+        Set<Integer> ids = new HashSet<>();
+        for (ItemAjusteStockDTO item : items) {
+            if (item.getCantidad() == 0) {
+                throw new BusinessException("La cantidad a ajustar no puede ser cero (producto " + item.getIdProducto() + ")");
+            }
+            if (!ids.add(item.getIdProducto())) {
+                throw new BusinessException("El producto " + item.getIdProducto() + " está repetido en el ajuste");
+            }
+        }
+
+        // Los UPDATE van en orden de id, como el checkout, para que dos lotes concurrentes no se bloqueen entre sí
+        List<ItemAjusteStockDTO> ordenados = items.stream()
+                .sorted(Comparator.comparing(ItemAjusteStockDTO::getIdProducto))
+                .toList();
+        // Cambios pendientes de Hibernate sobre estos productos deben llegar antes que los UPDATE por JDBC
+        productoRepository.flush();
+        int[] actualizados = movimientosStock.aplicar(ordenados);
+
+        Set<Integer> rechazados = new HashSet<>();
+        for (int i = 0; i < actualizados.length; i++) {
+            if (actualizados[i] == 0) {
+                rechazados.add(ordenados.get(i).getIdProducto());
+            }
+        }
+        if (!rechazados.isEmpty()) {
+            // La excepción revierte los UPDATE que sí se aplicaron; el stock informado es el actual
+            Map<Integer, Integer> stockActual = leerStock(rechazados);
+            List<ResultadoAjusteStockDTO> resultados = new ArrayList<>(items.size());
+            for (ItemAjusteStockDTO item : items) {
+                EstadoAjusteStock estado = !rechazados.contains(item.getIdProducto()) ? EstadoAjusteStock.REVERTIDO
+                        : stockActual.containsKey(item.getIdProducto()) ? EstadoAjusteStock.STOCK_INSUFICIENTE
+                        : EstadoAjusteStock.PRODUCTO_NO_ENCONTRADO;
+                resultados.add(resultadoAjuste(item, stockActual.get(item.getIdProducto()), estado));
+            }
+            throw new AjusteStockRechazadoException(resultados);
+        }
+
+        Map<Integer, Integer> stockFinal = leerStock(ids);
+        movimientosStock.registrar(ordenados, stockFinal, ajuste.getMotivo(), usuario);
+        catalogoProductoCache.invalidarStock(ids);
+
+        List<ResultadoAjusteStockDTO> resultados = items.stream()
+                .map(item -> resultadoAjuste(item, stockFinal.get(item.getIdProducto()), EstadoAjusteStock.APLICADO))
+                .toList();
+        return AjusteStockResponseDTO.builder().aplicado(true).resultados(resultados).build();
+    }
+
+    private Map<Integer, Integer> leerStock(Set<Integer> ids) {
+        // Un stock nulo cuenta como cero, igual que en el UPDATE
+        return productoRepository.findStockByIds(ids).stream()
+                .collect(Collectors.toMap(ProductoRepository.StockProducto::getIdProducto,
+                        fila -> fila.getStock() != null ? fila.getStock() : 0));
+    }
+
+    private static ResultadoAjusteStockDTO resultadoAjuste(ItemAjusteStockDTO item, Integer stock, EstadoAjusteStock estado) {
+        return ResultadoAjusteStockDTO.builder()
+                .idProducto(item.getIdProducto())
+                .cantidad(item.getCantidad())
+                .stock(stock)
+                .estado(estado)
+                .build();
+    }
+
+    private void validarSkuLibre(String sku, Integer idProducto) {
+        if (sku == null || sku.isBlank()) {
+            return;
+        }
+        productoRepository.findBySku(sku.trim())
+                .filter(otro -> !otro.getIdProducto().equals(idProducto))
+                .ifPresent(otro -> {
+                    throw new BusinessException("Ya existe un producto con el SKU: " + sku.trim());
+                });
+    }
+
+    private void validarCantidad(Integer cantidad) {
+        if (cantidad == null || cantidad <= 0) {
+            throw new BusinessException("La cantidad debe ser mayor a cero");
+        }
     }
-}
\ No newline at end of file
+}
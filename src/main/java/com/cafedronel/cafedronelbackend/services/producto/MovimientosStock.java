@@ -0,0 +1,58 @@
+package com.cafedronel.cafedronelbackend.services.producto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ajustes de stock por lotes de JDBC: un UPDATE condicional por producto y una fila en
+ * movimiento_stock por ajuste aplicado, cada grupo en una sola ida y vuelta a la base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+public class MovimientosStock {
+
+    // Sólo actualiza si el stock resultante no queda negativo; un stock nulo cuenta como cero
+    private static final String AJUSTAR = "UPDATE producto SET stock = COALESCE(stock, 0) + ? "
+            + "WHERE id_producto = ? AND COALESCE(stock, 0) + ? >= 0";
+    private static final String REGISTRAR = "INSERT INTO movimiento_stock "
+            + "(id_producto, cantidad, stock_resultante, motivo, usuario, creado_en) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aplica los ajustes en el orden recibido y retorna las filas actualizadas por cada uno:
+     * 0 si el producto no existe o el stock quedaría negativo
+     */
+    public int[] aplicar(List<ItemAjusteStockDTO> items) {
+        List<Object[]> filas = new ArrayList<>(items.size());
+        for (ItemAjusteStockDTO item : items) {
+            filas.add(new Object[]{item.getCantidad(), item.getIdProducto(), item.getCantidad()});
+        }
+        return jdbcTemplate.batchUpdate(AJUSTAR, filas);
+    }
+
+    /**
+     * Agrega un movimiento por ajuste con el stock que dejó; debe llamarse después de {@link #aplicar}
+     * en la misma transacción, que mantiene bloqueadas las filas ya actualizadas
+     */
+    public void registrar(List<ItemAjusteStockDTO> items, Map<Integer, Integer> stockResultante, String motivo,
+                          String usuario) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> filas = new ArrayList<>(items.size());
+        for (ItemAjusteStockDTO item : items) {
+            filas.add(new Object[]{item.getIdProducto(), item.getCantidad(), stockResultante.get(item.getIdProducto()),
+                    motivo, usuario, ahora});
+        }
+        jdbcTemplate.batchUpdate(REGISTRAR, filas);
+    }
+}
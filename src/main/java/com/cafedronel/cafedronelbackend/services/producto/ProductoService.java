@@ -2,12 +2,18 @@ package com.cafedronel.cafedronelbackend.services.producto;
 
 import java.util.List;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
 
 public interface ProductoService {
     List<ProductoResponseDTO> findAll();
+    PaginaCursorDTO<ProductoResponseDTO> findPagina(String cursor, Integer tamano);
     ProductoResponseDTO findById(Integer id);
+    BusquedaProductosDTO buscar(String texto, String categoria, String subtipo, Integer limite);
     ProductoResponseDTO create(ProductoRequestDTO productoRequestDTO);
     ProductoResponseDTO update(Integer id, ProductoRequestDTO productoRequestDTO);
     void delete(Integer id);
@@ -16,4 +22,6 @@ public interface ProductoService {
     void disminuirStock(Integer productoId, Integer cantidad);
     void aumentarStock(Integer productoId, Integer cantidad);
     boolean verificarStock(Integer productoId, Integer cantidad);
+    // Ajustes de varios productos en una transacción: se aplican todos o ninguno
+    AjusteStockResponseDTO ajustarStock(AjusteStockRequestDTO ajuste, String usuario);
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.cafedronel.cafedronelbackend.services.producto.busqueda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene el índice de búsqueda de productos: se arma completo al iniciar y cada noche, y entre
+ * medio recibe las altas, ediciones y bajas de {@code ImpProductoService} cuando su transacción confirma.
+ * Los cambios que llegan mientras se reconstruye se aplican al índice en uso y se repiten sobre el nuevo
+ * antes del reemplazo, porque la página que los contenía pudo leerse antes de confirmarse.
+ */
+@Slf4j
+@Component
+public class BusquedaProductos {
+
+    private static final int TAMANO_PAGINA = 1000;
+
+    private final ProductoRepository productoRepository;
+    // Se reemplaza entero al reconstruir, así las búsquedas nunca ven un índice a medio cargar
+    private volatile IndiceProductos indice = new IndiceProductos();
+    // Cambios recibidos durante la reconstrucción en curso, en orden de llegada; null si no hay ninguna
+    private List<Consumer<IndiceProductos>> cambiosDuranteReconstruccion;
+    private final Object candadoCambios = new Object();
+    private final Object candadoReconstruccion = new Object();
+
+    public BusquedaProductos(ProductoRepository productoRepository) {
+        this.productoRepository = productoRepository;
+    }
+
+    public BusquedaProductosDTO buscar(String texto, String categoria, String subtipo, int limite) {
+        return indice.buscar(texto, categoria, subtipo, limite);
+    }
+
+    public void indexar(Producto producto) {
+        alConfirmar(() -> aplicar(destino -> destino.indexar(producto)));
+    }
+
+    public void eliminar(Integer idProducto) {
+        alConfirmar(() -> aplicar(destino -> destino.eliminar(idProducto)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    /**
+     * Reconstrucción nocturna por si algún cambio no pasó por el servicio de productos
+     */
+    @Scheduled(cron = "${productos.busqueda.cron:0 15 4 * * *}")
+    public void reconstruir() {
+        // Una reconstrucción a la vez: el arranque y la nocturna no deben mezclar sus cambios pendientes
+        synchronized (candadoReconstruccion) {
+            IndiceProductos nuevo = new IndiceProductos();
+            iniciarRegistroDeCambios();
+            try {
+                // Páginas por cursor sobre la clave primaria: no hace falta tener todo el catálogo en el contexto de persistencia
+                Integer ultimoId = 0;
+                List<Producto> pagina;
+                do {
+                    pagina = productoRepository.findByIdProductoGreaterThanOrderByIdProductoAsc(ultimoId, Limit.of(TAMANO_PAGINA));
+                    nuevo.indexarTodos(pagina);
+                    if (!pagina.isEmpty()) {
+                        ultimoId = pagina.get(pagina.size() - 1).getIdProducto();
+                    }
+                } while (pagina.size() == TAMANO_PAGINA);
+                reemplazar(nuevo);
+            } finally {
+                terminarRegistroDeCambios();
+            }
+            log.info("Índice de búsqueda de productos reconstruido con {} productos", nuevo.tamano());
+        }
+    }
+
+    private void aplicar(Consumer<IndiceProductos> cambio) {
+        synchronized (candadoCambios) {
+            cambio.accept(indice);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.add(cambio);
+            }
+        }
+    }
+
+    private void iniciarRegistroDeCambios() {
+        synchronized (candadoCambios) {
+            cambiosDuranteReconstruccion = new ArrayList<>();
+        }
+    }
+
+    // Repite los cambios sobre el índice nuevo y lo publica sin que entre medio llegue otro
+    private void reemplazar(IndiceProductos nuevo) {
+        synchronized (candadoCambios) {
+            cambiosDuranteReconstruccion.forEach(cambio -> cambio.accept(nuevo));
+            indice = nuevo;
+        }
+    }
+
+    private void terminarRegistroDeCambios() {
+        synchronized (candadoCambios) {
+            cambiosDuranteReconstruccion = null;
+        }
+    }
+
+    private static void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.cafedronel.cafedronelbackend.services.producto.busqueda;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoEncontradoDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.util.texto.Tokenizador;
+
+/**
+ * Índice invertido en memoria sobre nombre, categoría, subtipo y descripción de los productos activos.
+ * Cada término apunta a los productos que lo contienen con un peso según el campo (el nombre pesa más
+ * que la descripción). Una búsqueda exige que todos sus términos coincidan, exactos o como prefijo, y
+ * ordena por la suma de peso × idf de cada término.
+ */
+public class IndiceProductos {
+
+    private static final int PESO_NOMBRE = 4;
+    private static final int PESO_CATEGORIA = 2;
+    private static final int PESO_SUBTIPO = 2;
+    private static final int PESO_DESCRIPCION = 1;
+    // Una palabra completada por prefijo ("caf" -> "cafe") vale la mitad que la palabra exacta
+    private static final double FACTOR_PREFIJO = 0.5;
+    // Un solo carácter sólo coincide con la palabra exacta; como prefijo abarcaría medio diccionario
+    private static final int LARGO_MINIMO_PREFIJO = 2;
+
+    private static final Comparator<Map.Entry<Integer, Double>> POR_RELEVANCIA =
+            Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    // Término -> (id de producto -> peso del término en ese producto), ordenado para buscar por prefijo
+    private final NavigableMap<String, Map<Integer, Integer>> terminos = new TreeMap<>();
+    private final Map<Integer, Documento> documentos = new HashMap<>();
+
+    private record Documento(Integer idProducto, String nombre, String categoria, String subtipo, Double precio,
+                             String categoriaNormalizada, String subtipoNormalizado, Map<String, Integer> pesos) {
+    }
+
+    /**
+     * Agrega o reemplaza un producto; los inactivos se quitan del índice
+     */
+    public void indexar(Producto producto) {
+        Documento documento = Boolean.FALSE.equals(producto.getActivo()) ? null : crearDocumento(producto);
+        candado.writeLock().lock();
+        try {
+            quitar(producto.getIdProducto());
+            if (documento != null) {
+                agregar(documento);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void indexarTodos(Collection<Producto> productos) {
+        productos.forEach(this::indexar);
+    }
+
+    public void eliminar(Integer idProducto) {
+        candado.writeLock().lock();
+        try {
+            quitar(idProducto);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param categoria filtro opcional, sin distinguir mayúsculas ni tildes
+     * @param subtipo   filtro opcional, sin distinguir mayúsculas ni tildes
+     * @param limite    cantidad máxima de resultados; el total y las facetas cuentan todas las coincidencias
+     */
+    public BusquedaProductosDTO buscar(String texto, String categoria, String subtipo, int limite) {
+        List<String> consulta = Tokenizador.tokenizar(texto);
+        String categoriaBuscada = filtro(categoria);
+        String subtipoBuscado = filtro(subtipo);
+
+        candado.readLock().lock();
+        try {
+            Map<Integer, Double> puntajes = puntuar(consulta);
+
+            Map<String, Integer> categorias = new HashMap<>();
+            Map<String, Integer> subtipos = new HashMap<>();
+            // Montículo de los mejores: en la cabeza queda el peor de ellos, el siguiente en descartarse
+            PriorityQueue<Map.Entry<Integer, Double>> mejores = new PriorityQueue<>(limite + 1, POR_RELEVANCIA.reversed());
+            int total = 0;
+            for (Map.Entry<Integer, Double> puntaje : puntajes.entrySet()) {
+                Documento documento = documentos.get(puntaje.getKey());
+                if (!coincide(categoriaBuscada, documento.categoriaNormalizada())
+                        || !coincide(subtipoBuscado, documento.subtipoNormalizado())) {
+                    continue;
+                }
+                total++;
+                contar(categorias, documento.categoria());
+                contar(subtipos, documento.subtipo());
+                mejores.offer(puntaje);
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            List<Map.Entry<Integer, Double>> ordenados = new ArrayList<>(mejores);
+            ordenados.sort(POR_RELEVANCIA);
+            List<ProductoEncontradoDTO> resultados = new ArrayList<>(ordenados.size());
+            for (Map.Entry<Integer, Double> puntaje : ordenados) {
+                resultados.add(crearResultado(documentos.get(puntaje.getKey()), puntaje.getValue()));
+            }
+
+            return BusquedaProductosDTO.builder()
+                    .total(total)
+                    .resultados(resultados)
+                    .categorias(ordenarPorCantidad(categorias))
+                    .subtipos(ordenarPorCantidad(subtipos))
+                    .build();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Cada término restringe los candidatos del anterior, así los siguientes recorren cada vez menos productos
+    private Map<Integer, Double> puntuar(List<String> consulta) {
+        Map<Integer, Double> candidatos = null;
+        for (String termino : consulta) {
+            candidatos = coincidenciasDe(termino, candidatos);
+            if (candidatos.isEmpty()) {
+                break;
+            }
+        }
+        return candidatos != null ? candidatos : Map.of();
+    }
+
+    private Map<Integer, Double> coincidenciasDe(String termino, Map<Integer, Double> anteriores) {
+        Map<String, Map<Integer, Integer>> expansion;
+        if (termino.length() >= LARGO_MINIMO_PREFIJO) {
+            expansion = terminos.subMap(termino, true, termino + Character.MAX_VALUE, false);
+        } else {
+            Map<Integer, Integer> exactos = terminos.get(termino);
+            expansion = exactos != null ? Map.of(termino, exactos) : Map.of();
+        }
+
+        // Por producto se queda la mejor de las palabras que completan el término
+        Map<Integer, Double> mejores = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Integer>> entrada : expansion.entrySet()) {
+            Map<Integer, Integer> productos = entrada.getValue();
+            double factor = entrada.getKey().length() == termino.length() ? 1.0 : FACTOR_PREFIJO;
+            double idf = Math.log(1.0 + (double) documentos.size() / productos.size());
+
+            if (anteriores != null && anteriores.size() < productos.size()) {
+                for (Integer idProducto : anteriores.keySet()) {
+                    Integer peso = productos.get(idProducto);
+                    if (peso != null) {
+                        mejores.merge(idProducto, peso * idf * factor, Math::max);
+                    }
+                }
+            } else {
+                for (Map.Entry<Integer, Integer> producto : productos.entrySet()) {
+                    if (anteriores == null || anteriores.containsKey(producto.getKey())) {
+                        mejores.merge(producto.getKey(), producto.getValue() * idf * factor, Math::max);
+                    }
+                }
+            }
+        }
+
+        if (anteriores != null) {
+            mejores.replaceAll((idProducto, puntaje) -> puntaje + anteriores.get(idProducto));
+        }
+        return mejores;
+    }
+
+    private void agregar(Documento documento) {
+        documentos.put(documento.idProducto(), documento);
+        documento.pesos().forEach((termino, peso) ->
+                terminos.computeIfAbsent(termino, t -> new HashMap<>()).put(documento.idProducto(), peso));
+    }
+
+    private void quitar(Integer idProducto) {
+        Documento anterior = documentos.remove(idProducto);
+        if (anterior == null) {
+            return;
+        }
+        for (String termino : anterior.pesos().keySet()) {
+            Map<Integer, Integer> productos = terminos.get(termino);
+            if (productos != null) {
+                productos.remove(idProducto);
+                if (productos.isEmpty()) {
+                    terminos.remove(termino);
+                }
+            }
+        }
+    }
+
+    private static Documento crearDocumento(Producto producto) {
+        Map<String, Integer> pesos = new HashMap<>();
+        sumarCampo(pesos, producto.getNombre(), PESO_NOMBRE);
+        sumarCampo(pesos, producto.getCategoria(), PESO_CATEGORIA);
+        sumarCampo(pesos, producto.getSubtipo(), PESO_SUBTIPO);
+        sumarCampo(pesos, producto.getDescripcion(), PESO_DESCRIPCION);
+        return new Documento(producto.getIdProducto(), producto.getNombre(), producto.getCategoria(),
+                producto.getSubtipo(), producto.getPrecio(), Tokenizador.normalizar(producto.getCategoria()),
+                Tokenizador.normalizar(producto.getSubtipo()), pesos);
+    }
+
+    // Una palabra repetida dentro del mismo campo cuenta una sola vez
+    private static void sumarCampo(Map<String, Integer> pesos, String texto, int peso) {
+        for (String termino : new HashSet<>(Tokenizador.tokenizar(texto))) {
+            pesos.merge(termino, peso, Integer::sum);
+        }
+    }
+
+    private static ProductoEncontradoDTO crearResultado(Documento documento, double puntaje) {
+        return ProductoEncontradoDTO.builder()
+                .idProducto(documento.idProducto())
+                .nombre(documento.nombre())
+                .categoria(documento.categoria())
+                .subtipo(documento.subtipo())
+                .precio(documento.precio())
+                .puntaje(puntaje)
+                .build();
+    }
+
+    private static String filtro(String valor) {
+        String normalizado = Tokenizador.normalizar(valor);
+        return normalizado.isEmpty() ? null : normalizado;
+    }
+
+    private static boolean coincide(String filtro, String valorNormalizado) {
+        return filtro == null || filtro.equals(valorNormalizado);
+    }
+
+    private static void contar(Map<String, Integer> conteos, String valor) {
+        if (valor != null && !valor.isBlank()) {
+            conteos.merge(valor, 1, Integer::sum);
+        }
+    }
+
+    private static Map<String, Integer> ordenarPorCantidad(Map<String, Integer> conteos) {
+        Map<String, Integer> ordenados = new LinkedHashMap<>();
+        conteos.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(conteo -> ordenados.put(conteo.getKey(), conteo.getValue()));
+        return ordenados;
+    }
+
+    Set<String> terminosIndexados() {
+        candado.readLock().lock();
+        try {
+            return new HashSet<>(terminos.keySet());
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+}
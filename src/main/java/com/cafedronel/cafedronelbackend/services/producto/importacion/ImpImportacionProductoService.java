@@ -0,0 +1,441 @@
+package com.cafedronel.cafedronelbackend.services.producto.importacion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ErrorImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.CatalogoProductoCache;
+import com.cafedronel.cafedronelbackend.services.producto.busqueda.BusquedaProductos;
+import com.cafedronel.cafedronelbackend.util.archivo.EscritorCsv;
+import com.cafedronel.cafedronelbackend.util.archivo.LectorCsv;
+import com.cafedronel.cafedronelbackend.util.archivo.LectorXlsx;
+import com.cafedronel.cafedronelbackend.util.texto.Tokenizador;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación y exportación masiva del catálogo. El archivo se lee fila a fila y se procesa por lotes:
+ * cada lote se valida en paralelo y se guarda en su propia transacción con inserts y updates en lote
+ * de JDBC, así la memoria usada depende del tamaño del lote y no del archivo.
+ */
+@Slf4j
+@Service
+public class ImpImportacionProductoService implements ImportacionProductoService {
+
+    static final String[] COLUMNAS = { "sku", "nombre", "categoria", "subtipo", "descripcion", "precio", "stock",
+            "activo" };
+    private static final Set<String> COLUMNAS_OBLIGATORIAS = Set.of("sku", "nombre", "categoria", "precio", "stock");
+    private static final Set<String> VERDADEROS = Set.of("true", "si", "1", "activo", "verdadero");
+    private static final Set<String> FALSOS = Set.of("false", "no", "0", "inactivo", "falso");
+    private static final int LARGO_MAXIMO_SKU = 64;
+    // Errores que se detallan en la respuesta; el resto sólo se cuenta
+    static final int MAXIMO_ERRORES_REPORTADOS = 500;
+    // Filas que SXSSF mantiene en memoria antes de volcarlas a disco
+    private static final int FILAS_EN_MEMORIA = 100;
+
+    private final ProductoRepository productoRepository;
+    private final CatalogoProductoCache catalogoProductoCache;
+    private final BusquedaProductos busquedaProductos;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+
+    public ImpImportacionProductoService(ProductoRepository productoRepository,
+            CatalogoProductoCache catalogoProductoCache, BusquedaProductos busquedaProductos, Validator validator,
+            EntityManager entityManager, TransactionTemplate transactionTemplate,
+            @Value("${productos.importacion.lote:500}") int tamanoLote) {
+        this.productoRepository = productoRepository;
+        this.catalogoProductoCache = catalogoProductoCache;
+        this.busquedaProductos = busquedaProductos;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public ResultadoImportacionDTO importar(InputStream entrada, FormatoArchivo formato) {
+        long inicio = System.nanoTime();
+        Importacion importacion = new Importacion();
+        try {
+            if (formato == FormatoArchivo.XLSX) {
+                leerXlsx(entrada, importacion);
+            } else {
+                LectorCsv.leer(entrada, importacion::recibir);
+            }
+            importacion.terminar();
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo leer el archivo: " + e.getMessage());
+        } finally {
+            // Los lotes ya guardados quedan aunque la lectura falle a mitad de archivo
+            if (importacion.creados + importacion.actualizados > 0) {
+                catalogoProductoCache.invalidarTodo();
+            }
+        }
+
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Importación de productos: {} filas, {} creados, {} actualizados, {} con error en {} ms",
+                importacion.filasLeidas, importacion.creados, importacion.actualizados, importacion.filasConError,
+                milisegundos);
+        return ResultadoImportacionDTO.builder()
+                .filasLeidas(importacion.filasLeidas)
+                .creados(importacion.creados)
+                .actualizados(importacion.actualizados)
+                .filasConError(importacion.filasConError)
+                .errores(importacion.errores)
+                .milisegundos(milisegundos)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(FormatoArchivo formato, OutputStream salida) {
+        // Cursor de 500 filas: sobre MySQL depende de useCursorFetch=true en la URL (ver application.properties)
+        try (Stream<Producto> productos = productoRepository.streamAll()) {
+            // Cada entidad se desacopla al escribirla para que el contexto de persistencia no crezca con el cursor
+            Iterator<Object[]> filas = productos.map(producto -> {
+                entityManager.detach(producto);
+                return new Object[] { producto.getSku(), producto.getNombre(), producto.getCategoria(),
+                        producto.getSubtipo(), producto.getDescripcion(), producto.getPrecio(), producto.getStock(),
+                        producto.getActivo() };
+            }).iterator();
+            if (formato == FormatoArchivo.XLSX) {
+                exportarXlsx(filas, salida);
+            } else {
+                exportarCsv(filas, salida);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error exportando productos", e);
+        }
+    }
+
+    /**
+     * Estado de una importación: encabezados, lote pendiente y contadores. Lo usa un solo hilo, el que lee el archivo.
+     */
+    private final class Importacion {
+
+        private Map<String, Integer> columnas;
+        private final List<FilaArchivo> pendientes = new ArrayList<>();
+        private final List<ErrorImportacionDTO> errores = new ArrayList<>();
+        private int filasLeidas;
+        private int creados;
+        private int actualizados;
+        private int filasConError;
+
+        void recibir(int numeroFila, String[] celdas) {
+            if (columnas == null) {
+                columnas = leerEncabezados(celdas);
+                return;
+            }
+            // Excel suele dejar filas con formato pero sin valores al final de la hoja
+            if (Arrays.stream(celdas).allMatch(String::isBlank)) {
+                return;
+            }
+            filasLeidas++;
+            pendientes.add(new FilaArchivo(numeroFila, celdas));
+            if (pendientes.size() >= tamanoLote) {
+                procesarLote();
+            }
+        }
+
+        void terminar() {
+            if (columnas == null) {
+                throw new BusinessException("El archivo está vacío");
+            }
+            if (!pendientes.isEmpty()) {
+                procesarLote();
+            }
+        }
+
+        private void procesarLote() {
+            // La conversión y la validación no tocan la base: se reparten entre los núcleos disponibles
+            List<FilaValidada> validadas = pendientes.parallelStream()
+                    .map(fila -> validar(fila, columnas))
+                    .toList();
+            pendientes.clear();
+
+            // Si un SKU se repite dentro del lote gana la última fila, igual que entre lotes
+            Map<String, FilaValidada> porSku = new LinkedHashMap<>();
+            for (FilaValidada fila : validadas) {
+                if (fila.error() != null) {
+                    registrarError(fila.numeroFila(), fila.sku(), fila.error());
+                } else {
+                    porSku.put(fila.sku(), fila);
+                }
+            }
+            if (porSku.isEmpty()) {
+                return;
+            }
+
+            try {
+                int nuevos = guardarLote(porSku);
+                creados += nuevos;
+                actualizados += porSku.size() - nuevos;
+            } catch (DataAccessException | PersistenceException e) {
+                // El flush va por el EntityManager compartido, sin la traducción de los repositorios:
+                // un SKU duplicado llega como PersistenceException de Hibernate
+                String mensaje = "No se pudo guardar el lote: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                log.warn("Importación de productos: {}", mensaje);
+                porSku.values().forEach(fila -> registrarError(fila.numeroFila(), fila.sku(), mensaje));
+            }
+        }
+
+        private void registrarError(int numeroFila, String sku, String mensaje) {
+            filasConError++;
+            if (errores.size() < MAXIMO_ERRORES_REPORTADOS) {
+                errores.add(ErrorImportacionDTO.builder().fila(numeroFila).sku(sku).mensaje(mensaje).build());
+            }
+        }
+    }
+
+    private record FilaArchivo(int numeroFila, String[] celdas) {
+    }
+
+    private record FilaValidada(int numeroFila, String sku, ProductoRequestDTO datos, String error) {
+    }
+
+    /**
+     * Guarda el lote en una transacción: una consulta trae los productos que ya existen por SKU, el resto
+     * se crea. El stock de la planilla sólo se usa al crear. Al confirmar, Hibernate envía los inserts y los updates agrupados en lotes de JDBC.
+     *
+     * @return cantidad de productos creados
+     */
+    private int guardarLote(Map<String, FilaValidada> filas) {
+        Integer creados = transactionTemplate.execute(estado -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+            Map<String, Producto> existentes = productoRepository.findBySkuIn(filas.keySet()).stream()
+                    .collect(Collectors.toMap(Producto::getSku, Function.identity()));
+
+            int nuevos = 0;
+            for (FilaValidada fila : filas.values()) {
+                Producto producto = existentes.get(fila.sku());
+                boolean nuevo = producto == null;
+                if (nuevo) {
+                    producto = new Producto();
+                    producto.setSku(fila.sku());
+                    // Sólo el stock inicial: el de un producto existente descuenta reservas y ventas,
+                    // y cambia con ajustes registrados en movimiento_stock
+                    producto.setStock(fila.datos().getStock());
+                    nuevos++;
+                }
+                copiar(fila.datos(), producto);
+                if (nuevo) {
+                    entityManager.persist(producto);
+                }
+                busquedaProductos.indexar(producto);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return nuevos;
+        });
+        return creados != null ? creados : 0;
+    }
+
+    private static void copiar(ProductoRequestDTO datos, Producto producto) {
+        producto.setNombre(datos.getNombre());
+        producto.setCategoria(datos.getCategoria());
+        producto.setSubtipo(datos.getSubtipo());
+        producto.setDescripcion(datos.getDescripcion());
+        producto.setPrecio(datos.getPrecio());
+        producto.setActivo(datos.getActivo());
+    }
+
+    /**
+     * Posición de cada columna conocida; los encabezados no distinguen mayúsculas ni tildes y las
+     * columnas desconocidas se ignoran
+     */
+    private static Map<String, Integer> leerEncabezados(String[] celdas) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < celdas.length; i++) {
+            columnas.putIfAbsent(Tokenizador.normalizar(celdas[i]), i);
+        }
+        List<String> faltantes = COLUMNAS_OBLIGATORIAS.stream()
+                .filter(columna -> !columnas.containsKey(columna))
+                .sorted()
+                .toList();
+        if (!faltantes.isEmpty()) {
+            throw new BusinessException("Faltan columnas obligatorias en el archivo: " + String.join(", ", faltantes));
+        }
+        return columnas;
+    }
+
+    private FilaValidada validar(FilaArchivo fila, Map<String, Integer> columnas) {
+        String sku = valor(fila, columnas, "sku");
+        if (sku == null) {
+            return new FilaValidada(fila.numeroFila(), null, null, "El SKU es obligatorio");
+        }
+        if (sku.length() > LARGO_MAXIMO_SKU) {
+            return new FilaValidada(fila.numeroFila(), sku, null,
+                    "El SKU no debe exceder los " + LARGO_MAXIMO_SKU + " caracteres");
+        }
+
+        ProductoRequestDTO datos;
+        try {
+            datos = ProductoRequestDTO.builder()
+                    .sku(sku)
+                    .nombre(valor(fila, columnas, "nombre"))
+                    .categoria(valor(fila, columnas, "categoria"))
+                    .subtipo(valor(fila, columnas, "subtipo"))
+                    .descripcion(valor(fila, columnas, "descripcion"))
+                    .precio(decimal(valor(fila, columnas, "precio"), "precio"))
+                    .stock(entero(valor(fila, columnas, "stock"), "stock"))
+                    .activo(booleano(valor(fila, columnas, "activo")))
+                    .build();
+        } catch (BusinessException e) {
+            return new FilaValidada(fila.numeroFila(), sku, null, e.getMessage());
+        }
+
+        // Las mismas reglas que el alta individual (ProductoRequestDTO)
+        Set<ConstraintViolation<ProductoRequestDTO>> violaciones = validator.validate(datos);
+        if (!violaciones.isEmpty()) {
+            String mensaje = violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new FilaValidada(fila.numeroFila(), sku, null, mensaje);
+        }
+        return new FilaValidada(fila.numeroFila(), sku, datos, null);
+    }
+
+    private static String valor(FilaArchivo fila, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= fila.celdas().length) {
+            return null;
+        }
+        String valor = fila.celdas()[indice].trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Acepta coma decimal ("12,5") si no hay punto
+    private static Double decimal(String valor, String columna) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(valor.indexOf('.') < 0 ? valor.replace(',', '.') : valor).doubleValue();
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Valor inválido en " + columna + ": " + valor);
+        }
+    }
+
+    // Excel guarda todos los números como decimales: "10.0" es un entero válido, "10.5" no
+    private static Integer entero(String valor, String columna) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(valor.replace(',', '.')).intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new BusinessException("Valor inválido en " + columna + ": " + valor);
+        }
+    }
+
+    // Sin valor el producto queda activo, igual que en el alta individual
+    private static Boolean booleano(String valor) {
+        if (valor == null) {
+            return true;
+        }
+        String normalizado = Tokenizador.normalizar(valor);
+        if (VERDADEROS.contains(normalizado)) {
+            return true;
+        }
+        if (FALSOS.contains(normalizado)) {
+            return false;
+        }
+        throw new BusinessException("Valor inválido en activo: " + valor);
+    }
+
+    /**
+     * POI lee un .xlsx de forma incremental sólo desde un archivo: la subida se copia a un temporal
+     */
+    private static void leerXlsx(InputStream entrada, Importacion importacion) throws IOException {
+        Path temporal = Files.createTempFile("importacion-productos", ".xlsx");
+        try {
+            Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+            LectorXlsx.leer(temporal.toFile(), importacion::recibir);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static void exportarCsv(Iterator<Object[]> filas, OutputStream salida) throws IOException {
+        try (EscritorCsv escritor = new EscritorCsv(salida)) {
+            escritor.escribirFila((Object[]) COLUMNAS);
+            while (filas.hasNext()) {
+                escritor.escribirFila(filas.next());
+            }
+        }
+    }
+
+    private static void exportarXlsx(Iterator<Object[]> filas, OutputStream salida) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(FILAS_EN_MEMORIA);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet hoja = workbook.createSheet("Productos");
+            Row encabezados = hoja.createRow(0);
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                encabezados.createCell(i).setCellValue(COLUMNAS[i]);
+            }
+
+            int numeroFila = 1;
+            while (filas.hasNext()) {
+                Object[] valores = filas.next();
+                Row fila = hoja.createRow(numeroFila++);
+                for (int i = 0; i < valores.length; i++) {
+                    Cell celda = fila.createCell(i);
+                    if (valores[i] instanceof Number numero) {
+                        celda.setCellValue(numero.doubleValue());
+                    } else if (valores[i] != null) {
+                        celda.setCellValue(valores[i].toString());
+                    }
+                }
+            }
+
+            workbook.write(salida);
+            salida.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
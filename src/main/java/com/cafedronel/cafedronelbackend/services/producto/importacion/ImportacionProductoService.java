@@ -0,0 +1,22 @@
+package com.cafedronel.cafedronelbackend.services.producto.importacion;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
+
+public interface ImportacionProductoService {
+
+    /**
+     * Crea o actualiza productos por SKU a partir de una planilla con encabezados
+     * (sku, nombre, categoria, subtipo, descripcion, precio, stock, activo). El stock sólo se toma
+     * para los productos nuevos
+     */
+    ResultadoImportacionDTO importar(InputStream entrada, FormatoArchivo formato);
+
+    /**
+     * Escribe el catálogo completo con las mismas columnas que acepta la importación
+     */
+    void exportar(FormatoArchivo formato, OutputStream salida);
+}
@@ -2,13 +2,16 @@ package com.cafedronel.cafedronelbackend.services.reporte;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -18,9 +21,9 @@ import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,13 +31,18 @@ import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteClientesDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReportePedidosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteProductosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
-import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.dto.reporte.VentasProductoDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
 import com.cafedronel.cafedronelbackend.data.model.Rol;
-import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
 import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository.FilaReportePedido;
 import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
-import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository.FilaReporteCliente;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,334 +52,138 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ImpReporteService implements ReporteService {
 
-    private final UsuarioRepository usuarioRepository;
+    // Filas que SXSSF mantiene en memoria antes de volcarlas a disco
+    private static final int FILAS_EN_MEMORIA = 100;
+    private static final int ANCHO_MAXIMO_COLUMNA = 60;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private final PedidoRepository pedidoRepository;
     private final ProductoRepository productoRepository;
+    private final DetallePedidoRepository detallePedidoRepository;
+    private final EntityManager entityManager;
+    private final VentaDiariaService ventaDiariaService;
+    private final ResumenClienteRepository resumenClienteRepository;
 
     @Override
     public List<ReporteClientesDTO> generarReporteClientes() {
-        List<Usuario> clientes = usuarioRepository.findByRol(Rol.CLIENTE);
-
-        return clientes.stream()
+        // Usuarios y totales precalculados (resumen_cliente) en una sola consulta
+        return resumenClienteRepository.findReporteClientes(Rol.CLIENTE).stream()
                 .map(this::convertirAReporteCliente)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<ReportePedidosDTO> generarReportePedidos(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<com.cafedronel.cafedronelbackend.data.model.Pedido> pedidos;
-
-        if (fechaInicio != null && fechaFin != null) {
-            // Convertir LocalDate a Date para la consulta
-            java.util.Date fechaInicioDate = java.sql.Date.valueOf(fechaInicio);
-            java.util.Date fechaFinDate = java.sql.Date.valueOf(fechaFin);
-            pedidos = pedidoRepository.findByFechaBetween(fechaInicioDate, fechaFinDate);
-        } else {
-            pedidos = pedidoRepository.findAll();
+        // Proyección con el total guardado de cada pedido: no se cargan entidades ni detalles
+        try (Stream<FilaReportePedido> pedidos = abrirCursorPedidos(fechaInicio, fechaFin)) {
+            return pedidos.map(this::convertirAReportePedido)
+                    .collect(Collectors.toList());
         }
-
-        return pedidos.stream()
-                .map(this::convertirAReportePedido)
-                .collect(Collectors.toList());
     }
 
     @Override
     public List<ReporteProductosDTO> generarReporteProductos() {
         List<com.cafedronel.cafedronelbackend.data.model.Producto> productos = productoRepository.findAll();
 
+        Map<Integer, VentasProductoDTO> ventasPorProducto = obtenerVentasPorProducto();
+
         return productos.stream()
-                .map(this::convertirAReporteProducto)
+                .map(producto -> convertirAReporteProducto(producto, ventasPorProducto.get(producto.getIdProducto())))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<ReporteVentasDTO> generarReporteVentas(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<com.cafedronel.cafedronelbackend.data.model.Pedido> pedidos;
-
-        if (fechaInicio != null && fechaFin != null) {
-            java.util.Date fechaInicioDate = java.sql.Date.valueOf(fechaInicio);
-            java.util.Date fechaFinDate = java.sql.Date.valueOf(fechaFin);
-            pedidos = pedidoRepository.findByFechaBetween(fechaInicioDate, fechaFinDate);
-        } else {
-            pedidos = pedidoRepository.findAll();
-        }
-
-        return generarReporteVentasPorFecha(pedidos, fechaInicio, fechaFin);
+        // Se lee del resumen materializado en lugar de recorrer todos los pedidos del rango
+        return ventaDiariaService.obtenerVentas(fechaInicio, fechaFin);
     }
 
     @Override
     public byte[] generarExcelClientes() {
-        List<ReporteClientesDTO> clientes = generarReporteClientes();
-
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Reporte de Clientes");
-
-            // Crear estilos
-            CellStyle headerStyle = crearEstiloHeader(workbook);
-            CellStyle dataStyle = crearEstiloData(workbook);
-
-            // Crear encabezados
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "ID", "Nombre", "Correo", "Teléfono", "Dirección", "Total Pedidos", "Total Gastado",
-                    "Estado" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Llenar datos
-            int rowNum = 1;
-            for (ReporteClientesDTO cliente : clientes) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(cliente.getIdUsuario());
-                row.createCell(1).setCellValue(cliente.getNombre());
-                row.createCell(2).setCellValue(cliente.getCorreo());
-                row.createCell(3).setCellValue(cliente.getTelefono());
-                row.createCell(4).setCellValue(cliente.getDireccion());
-                row.createCell(5).setCellValue(cliente.getTotalPedidos());
-                row.createCell(6).setCellValue(cliente.getTotalGastado());
-                row.createCell(7).setCellValue(cliente.getEstado());
-
-                // Aplicar estilo a las celdas de datos
-                for (int i = 0; i < headers.length; i++) {
-                    row.getCell(i).setCellStyle(dataStyle);
-                }
-            }
-
-            // Ajustar ancho de columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Error generando Excel de clientes", e);
-            throw new RuntimeException("Error generando reporte Excel", e);
-        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarExcelClientes(outputStream);
+        return outputStream.toByteArray();
     }
 
     @Override
     public byte[] generarExcelPedidos(LocalDate fechaInicio, LocalDate fechaFin) {
-        try {
-            log.info("Generando reporte Excel de pedidos desde {} hasta {}", fechaInicio, fechaFin);
-            List<ReportePedidosDTO> pedidos = generarReportePedidos(fechaInicio, fechaFin);
-            log.info("Se encontraron {} pedidos para el reporte", pedidos.size());
-            
-            if (pedidos.isEmpty()) {
-                log.warn("No se encontraron pedidos en el rango de fechas especificado");
-            }
-
-            try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Reporte de Pedidos");
-
-            // Crear estilos
-            CellStyle headerStyle = crearEstiloHeader(workbook);
-            CellStyle dataStyle = crearEstiloData(workbook);
-
-            // Crear encabezados
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "ID Pedido", "Cliente", "Correo", "Fecha", "Estado", "Total", "Productos",
-                    "Método Pago", "Dirección" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Llenar datos
-            int rowNum = 1;
-            for (ReportePedidosDTO pedido : pedidos) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(pedido.getIdPedido());
-                row.createCell(1).setCellValue(pedido.getNombreCliente());
-                row.createCell(2).setCellValue(pedido.getCorreoCliente());
-                row.createCell(3)
-                        .setCellValue(pedido.getFechaPedido().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-                row.createCell(4).setCellValue(pedido.getEstado().getDescripcion());
-                row.createCell(5).setCellValue(pedido.getTotal());
-                row.createCell(6).setCellValue(pedido.getCantidadProductos());
-                row.createCell(7).setCellValue(pedido.getMetodoPago());
-                row.createCell(8).setCellValue(pedido.getDireccionEnvio());
-
-                // Aplicar estilo a las celdas de datos
-                for (int i = 0; i < headers.length; i++) {
-                    row.getCell(i).setCellStyle(dataStyle);
-                }
-            }
-
-            // Ajustar ancho de columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-
-            } catch (IOException e) {
-                log.error("Error de IO generando Excel de pedidos", e);
-                throw new RuntimeException("Error generando reporte Excel: " + e.getMessage(), e);
-            }
-        } catch (Exception e) {
-            log.error("Error inesperado generando Excel de pedidos desde {} hasta {}", fechaInicio, fechaFin, e);
-            throw new RuntimeException("Error inesperado generando reporte Excel: " + e.getMessage(), e);
-        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarExcelPedidos(fechaInicio, fechaFin, outputStream);
+        return outputStream.toByteArray();
     }
 
     @Override
     public byte[] generarExcelProductos() {
-        List<ReporteProductosDTO> productos = generarReporteProductos();
-
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Reporte de Productos");
-
-            // Crear estilos
-            CellStyle headerStyle = crearEstiloHeader(workbook);
-            CellStyle dataStyle = crearEstiloData(workbook);
-
-            // Crear encabezados
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "ID", "Nombre", "Descripción", "Precio", "Stock", "Categoría", "Vendido", "Ingresos",
-                    "Estado" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Llenar datos
-            int rowNum = 1;
-            for (ReporteProductosDTO producto : productos) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(producto.getIdProducto());
-                row.createCell(1).setCellValue(producto.getNombre());
-                row.createCell(2).setCellValue(producto.getDescripcion());
-                row.createCell(3).setCellValue(producto.getPrecio());
-                row.createCell(4).setCellValue(producto.getStock());
-                row.createCell(5).setCellValue(producto.getCategoria());
-                row.createCell(6).setCellValue(producto.getTotalVendido());
-                row.createCell(7).setCellValue(producto.getIngresosTotales());
-                row.createCell(8).setCellValue(producto.getEstado());
-
-                // Aplicar estilo a las celdas de datos
-                for (int i = 0; i < headers.length; i++) {
-                    row.getCell(i).setCellStyle(dataStyle);
-                }
-            }
-
-            // Ajustar ancho de columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Error generando Excel de productos", e);
-            throw new RuntimeException("Error generando reporte Excel", e);
-        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarExcelProductos(outputStream);
+        return outputStream.toByteArray();
     }
 
     @Override
     public byte[] generarExcelVentas(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<ReporteVentasDTO> ventas = generarReporteVentas(fechaInicio, fechaFin);
-
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Reporte de Ventas");
-
-            // Crear estilos
-            CellStyle headerStyle = crearEstiloHeader(workbook);
-            CellStyle dataStyle = crearEstiloData(workbook);
-
-            // Crear encabezados
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "Fecha", "Total Pedidos", "Total Ventas", "Promedio Venta", "Clientes Únicos",
-                    "Producto Más Vendido" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Llenar datos
-            int rowNum = 1;
-            for (ReporteVentasDTO venta : ventas) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(venta.getFecha().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-                row.createCell(1).setCellValue(venta.getTotalPedidos());
-                row.createCell(2).setCellValue(venta.getTotalVentas());
-                row.createCell(3).setCellValue(venta.getPromedioVenta());
-                row.createCell(4).setCellValue(venta.getClientesUnicos());
-                row.createCell(5).setCellValue(venta.getProductoMasVendido());
-
-                // Aplicar estilo a las celdas de datos
-                for (int i = 0; i < headers.length; i++) {
-                    row.getCell(i).setCellStyle(dataStyle);
-                }
-            }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarExcelVentas(fechaInicio, fechaFin, outputStream);
+        return outputStream.toByteArray();
+    }
 
-            // Ajustar ancho de columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+    @Override
+    public byte[] generarExcelCompleto(LocalDate fechaInicio, LocalDate fechaFin) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarExcelCompleto(fechaInicio, fechaFin, outputStream);
+        return outputStream.toByteArray();
+    }
 
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+    @Override
+    public void exportarExcelClientes(OutputStream salida) {
+        escribirLibro(salida, "clientes",
+                (workbook, headerStyle, dataStyle) -> crearHojaClientes(workbook, headerStyle, dataStyle,
+                        "Reporte de Clientes"));
+    }
 
-        } catch (IOException e) {
-            log.error("Error generando Excel de ventas", e);
-            throw new RuntimeException("Error generando reporte Excel", e);
-        }
+    @Override
+    public void exportarExcelPedidos(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida) {
+        log.info("Generando reporte Excel de pedidos desde {} hasta {}", fechaInicio, fechaFin);
+        escribirLibro(salida, "pedidos",
+                (workbook, headerStyle, dataStyle) -> {
+                    int filas = crearHojaPedidos(workbook, headerStyle, dataStyle, "Reporte de Pedidos",
+                            fechaInicio, fechaFin);
+                    log.info("Se exportaron {} pedidos para el reporte", filas);
+                    if (filas == 0) {
+                        log.warn("No se encontraron pedidos en el rango de fechas especificado");
+                    }
+                });
     }
 
     @Override
-    public byte[] generarExcelCompleto(LocalDate fechaInicio, LocalDate fechaFin) {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    public void exportarExcelProductos(OutputStream salida) {
+        escribirLibro(salida, "productos",
+                (workbook, headerStyle, dataStyle) -> crearHojaProductos(workbook, headerStyle, dataStyle,
+                        "Reporte de Productos"));
+    }
 
-            // Crear estilos
-            CellStyle headerStyle = crearEstiloHeader(workbook);
-            CellStyle dataStyle = crearEstiloData(workbook);
+    @Override
+    public void exportarExcelVentas(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida) {
+        escribirLibro(salida, "ventas",
+                (workbook, headerStyle, dataStyle) -> crearHojaVentas(workbook, headerStyle, dataStyle,
+                        "Reporte de Ventas", fechaInicio, fechaFin));
+    }
 
+    @Override
+    public void exportarExcelCompleto(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida) {
+        escribirLibro(salida, "reporte completo", (workbook, headerStyle, dataStyle) -> {
             // Hoja 1: Clientes
-            crearHojaClientes(workbook, headerStyle, dataStyle);
+            crearHojaClientes(workbook, headerStyle, dataStyle, "Clientes");
 
             // Hoja 2: Pedidos
-            crearHojaPedidos(workbook, headerStyle, dataStyle, fechaInicio, fechaFin);
+            crearHojaPedidos(workbook, headerStyle, dataStyle, "Pedidos", fechaInicio, fechaFin);
 
             // Hoja 3: Productos
-            crearHojaProductos(workbook, headerStyle, dataStyle);
+            crearHojaProductos(workbook, headerStyle, dataStyle, "Productos");
 
             // Hoja 4: Ventas
-            crearHojaVentas(workbook, headerStyle, dataStyle, fechaInicio, fechaFin);
-
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-
-        } catch (IOException e) {
-            log.error("Error generando Excel completo", e);
-            throw new RuntimeException("Error generando reporte Excel completo", e);
-        }
+            crearHojaVentas(workbook, headerStyle, dataStyle, "Ventas", fechaInicio, fechaFin);
+        });
     }
 
     // Métodos auxiliares
@@ -393,105 +205,67 @@ public class ImpReporteService implements ReporteService {
         }
     }
 
-    /**
-     * Convierte java.util.Date o java.sql.Date a LocalDate de forma segura
-     */
-    private LocalDate convertirDateALocalDate(java.util.Date fecha) {
-        if (fecha == null) {
-            return LocalDate.now();
-        }
-        
-        if (fecha instanceof java.sql.Date) {
-            // Para java.sql.Date
-            return ((java.sql.Date) fecha).toLocalDate();
-        } else {
-            // Para java.util.Date normal
-            return fecha.toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate();
-        }
-    }
-
-    private ReporteClientesDTO convertirAReporteCliente(Usuario usuario) {
-        // Calcular total gastado sumando los totales de pedidos
-        double totalGastado = 0.0;
-        int totalPedidos = 0;
-
-        if (usuario.getPedidos() != null) {
-            totalPedidos = usuario.getPedidos().size();
-            totalGastado = usuario.getPedidos().stream()
-                    .mapToDouble(this::calcularTotalPedido)
-                    .sum();
-        }
-
+    private ReporteClientesDTO convertirAReporteCliente(FilaReporteCliente fila) {
         return ReporteClientesDTO.builder()
-                .idUsuario(usuario.getIdUsuario())
-                .nombre(usuario.getNombre() + (usuario.getApellido() != null ? " " + usuario.getApellido() : ""))
-                .correo(usuario.getCorreo())
-                .telefono(usuario.getTelefono())
-                .direccion(usuario.getDireccion())
-                .totalPedidos(totalPedidos)
-                .totalGastado(totalGastado)
+                .idUsuario(fila.getIdUsuario())
+                .nombre(fila.getNombre() + (fila.getApellido() != null ? " " + fila.getApellido() : ""))
+                .correo(fila.getCorreo())
+                .telefono(fila.getTelefono())
+                .direccion(fila.getDireccion())
+                .totalPedidos(fila.getTotalPedidos() != null ? fila.getTotalPedidos() : 0)
+                .totalGastado(TotalesPedido.comoDouble(fila.getTotalGastado()))
+                .ultimoPedido(fila.getUltimoPedido())
                 .fechaRegistro(LocalDateTime.now()) // Se puede agregar campo de fecha de registro
-                .estado(usuario.getActivo() != null && usuario.getActivo() ? "Activo" : "Inactivo")
+                .estado(fila.getActivo() != null && fila.getActivo() ? "Activo" : "Inactivo")
                 .build();
     }
 
-    private ReportePedidosDTO convertirAReportePedido(com.cafedronel.cafedronelbackend.data.model.Pedido pedido) {
-        // Convertir Date a LocalDateTime de forma segura
-        LocalDateTime fechaPedido = convertirDateALocalDateTime(pedido.getFecha());
-
-        // Calcular total del pedido
-        double total = calcularTotalPedido(pedido);
-
-        // Contar productos
-        int cantidadProductos = pedido.getDetalles() != null
-                ? pedido.getDetalles().stream().mapToInt(DetallePedido::getCantidad).sum()
-                : 0;
-
-        // Obtener método de pago
-        String metodoPago = "No especificado";
-        if (pedido.getPago() != null && pedido.getPago().getMetodoPago() != null) {
-            metodoPago = pedido.getPago().getMetodoPago();
-        }
-
+    private ReportePedidosDTO convertirAReportePedido(FilaReportePedido fila) {
         // Obtener dirección de envío
         String direccionEnvio = "No especificada";
-        if (pedido.getEnvio() != null && pedido.getEnvio().getDireccion() != null) {
-            direccionEnvio = pedido.getEnvio().getDireccion();
-        } else if (pedido.getDireccion() != null) {
-            direccionEnvio = pedido.getDireccion();
+        if (fila.getDireccionEnvio() != null) {
+            direccionEnvio = fila.getDireccionEnvio();
+        } else if (fila.getDireccion() != null) {
+            direccionEnvio = fila.getDireccion();
         }
 
         // Obtener información del usuario de forma segura
         String nombreCliente = "Cliente no disponible";
-        String correoCliente = "No disponible";
-        
-        if (pedido.getUsuario() != null) {
-            nombreCliente = pedido.getUsuario().getNombre();
-            if (pedido.getUsuario().getApellido() != null) {
-                nombreCliente += " " + pedido.getUsuario().getApellido();
-            }
-            correoCliente = pedido.getUsuario().getCorreo() != null ? pedido.getUsuario().getCorreo() : "No disponible";
+        if (fila.getNombre() != null) {
+            nombreCliente = fila.getNombre() + (fila.getApellido() != null ? " " + fila.getApellido() : "");
         }
 
         return ReportePedidosDTO.builder()
-                .idPedido(pedido.getIdPedido())
+                .idPedido(fila.getIdPedido())
                 .nombreCliente(nombreCliente)
-                .correoCliente(correoCliente)
-                .fechaPedido(fechaPedido)
-                .estado(pedido.getEstado())
-                .total(total)
-                .cantidadProductos(cantidadProductos)
-                .metodoPago(metodoPago)
+                .correoCliente(fila.getCorreo() != null ? fila.getCorreo() : "No disponible")
+                .fechaPedido(convertirDateALocalDateTime(fila.getFecha()))
+                .estado(fila.getEstado())
+                .total(TotalesPedido.comoDouble(fila.getTotal()))
+                .cantidadProductos(fila.getCantidadProductos() != null ? fila.getCantidadProductos().intValue() : 0)
+                .metodoPago(fila.getMetodoPago() != null ? fila.getMetodoPago() : "No especificado")
                 .direccionEnvio(direccionEnvio)
                 .build();
     }
 
+    /**
+     * Una sola consulta agrupada sobre detalle_pedido, indexada por producto para unirla en memoria
+     */
+    private Map<Integer, VentasProductoDTO> obtenerVentasPorProducto() {
+        return detallePedidoRepository.obtenerVentasPorProducto()
+                .stream()
+                .collect(Collectors.toMap(VentasProductoDTO::getIdProducto, Function.identity()));
+    }
+
     private ReporteProductosDTO convertirAReporteProducto(
-            com.cafedronel.cafedronelbackend.data.model.Producto producto) {
-        // Calcular total vendido y ingresos (esto requeriría una consulta más compleja
-        // en un caso real)
-        int totalVendido = calcularTotalVendidoProducto(producto.getIdProducto());
-        double ingresosTotales = totalVendido * producto.getPrecio();
+            com.cafedronel.cafedronelbackend.data.model.Producto producto, VentasProductoDTO ventas) {
+        // Los productos sin ventas no aparecen en la consulta agrupada
+        int totalVendido = 0;
+        double ingresosTotales = 0.0;
+        if (ventas != null) {
+            totalVendido = ventas.getTotalVendido() != null ? ventas.getTotalVendido().intValue() : 0;
+            ingresosTotales = TotalesPedido.comoDouble(ventas.getIngresosTotales());
+        }
 
         String estado = producto.getStock() > 0 ? "Disponible" : "Agotado";
         if (producto.getActivo() != null && !producto.getActivo()) {
@@ -511,78 +285,6 @@ public class ImpReporteService implements ReporteService {
                 .build();
     }
 
-    private double calcularTotalPedido(com.cafedronel.cafedronelbackend.data.model.Pedido pedido) {
-        if (pedido.getDetalles() == null || pedido.getDetalles().isEmpty()) {
-            return 0.0;
-        }
-
-        return pedido.getDetalles().stream()
-                .mapToDouble(detalle -> detalle.getCantidad() * detalle.getPrecioUnitario())
-                .sum();
-    }
-
-    private int calcularTotalVendidoProducto(Integer idProducto) {
-        // En un caso real, esto sería una consulta a la base de datos
-        // Por ahora retornamos un valor simulado
-        return pedidoRepository.findAll().stream()
-                .flatMap(pedido -> pedido.getDetalles().stream())
-                .filter(detalle -> detalle.getProducto().getIdProducto().equals(idProducto))
-                .mapToInt(DetallePedido::getCantidad)
-                .sum();
-    }
-
-    private List<ReporteVentasDTO> generarReporteVentasPorFecha(
-            List<com.cafedronel.cafedronelbackend.data.model.Pedido> pedidos, LocalDate fechaInicio,
-            LocalDate fechaFin) {
-        // Agrupar pedidos por fecha de forma segura
-        Map<LocalDate, List<com.cafedronel.cafedronelbackend.data.model.Pedido>> pedidosPorFecha = pedidos.stream()
-                .collect(Collectors.groupingBy(pedido -> convertirDateALocalDate(pedido.getFecha())));
-
-        return pedidosPorFecha.entrySet().stream()
-                .map(entry -> {
-                    LocalDate fecha = entry.getKey();
-                    List<com.cafedronel.cafedronelbackend.data.model.Pedido> pedidosDia = entry.getValue();
-
-                    int totalPedidos = pedidosDia.size();
-                    double totalVentas = pedidosDia.stream().mapToDouble(this::calcularTotalPedido).sum();
-                    double promedioVenta = totalPedidos > 0 ? totalVentas / totalPedidos : 0.0;
-
-                    int clientesUnicos = (int) pedidosDia.stream()
-                            .map(pedido -> pedido.getUsuario().getIdUsuario())
-                            .distinct()
-                            .count();
-
-                    String productoMasVendido = obtenerProductoMasVendidoDelDia(pedidosDia);
-
-                    return ReporteVentasDTO.builder()
-                            .fecha(fecha)
-                            .totalPedidos(totalPedidos)
-                            .totalVentas(totalVentas)
-                            .promedioVenta(promedioVenta)
-                            .clientesUnicos(clientesUnicos)
-                            .productoMasVendido(productoMasVendido)
-                            .build();
-                })
-                .sorted((a, b) -> a.getFecha().compareTo(b.getFecha()))
-                .collect(Collectors.toList());
-    }
-
-    private String obtenerProductoMasVendidoDelDia(List<com.cafedronel.cafedronelbackend.data.model.Pedido> pedidos) {
-        Map<String, Integer> ventasPorProducto = new HashMap<>();
-
-        pedidos.stream()
-                .flatMap(pedido -> pedido.getDetalles().stream())
-                .forEach(detalle -> {
-                    String nombreProducto = detalle.getProducto().getNombre();
-                    ventasPorProducto.merge(nombreProducto, detalle.getCantidad(), Integer::sum);
-                });
-
-        return ventasPorProducto.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
-    }
-
     private CellStyle crearEstiloHeader(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -608,170 +310,199 @@ public class ImpReporteService implements ReporteService {
         return style;
     }
 
-    private void crearHojaClientes(Workbook workbook, CellStyle headerStyle, CellStyle dataStyle) {
-        Sheet sheet = workbook.createSheet("Clientes");
-        List<ReporteClientesDTO> clientes = generarReporteClientes();
-
-        // Crear encabezados
-        Row headerRow = sheet.createRow(0);
-        String[] headers = { "ID", "Nombre", "Correo", "Teléfono", "Dirección", "Total Pedidos", "Total Gastado",
-                "Estado" };
+    // Escritura de libros Excel en modo streaming (SXSSF)
 
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+    @FunctionalInterface
+    private interface ContenidoLibro {
+        void escribir(SXSSFWorkbook workbook, CellStyle headerStyle, CellStyle dataStyle);
+    }
 
-        // Llenar datos
-        int rowNum = 1;
-        for (ReporteClientesDTO cliente : clientes) {
-            Row row = sheet.createRow(rowNum++);
+    /**
+     * Escribe el libro directamente en la salida. SXSSF solo mantiene en memoria una ventana de
+     * filas; el resto se vuelca a un archivo temporal comprimido que se elimina al terminar.
+     */
+    private void escribirLibro(OutputStream salida, String descripcion, ContenidoLibro contenido) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(FILAS_EN_MEMORIA);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = crearEstiloHeader(workbook);
+            CellStyle dataStyle = crearEstiloData(workbook);
 
-            row.createCell(0).setCellValue(cliente.getIdUsuario());
-            row.createCell(1).setCellValue(cliente.getNombre());
-            row.createCell(2).setCellValue(cliente.getCorreo());
-            row.createCell(3).setCellValue(cliente.getTelefono());
-            row.createCell(4).setCellValue(cliente.getDireccion());
-            row.createCell(5).setCellValue(cliente.getTotalPedidos());
-            row.createCell(6).setCellValue(cliente.getTotalGastado());
-            row.createCell(7).setCellValue(cliente.getEstado());
+            contenido.escribir(workbook, headerStyle, dataStyle);
 
-            // Aplicar estilo a las celdas de datos
-            for (int i = 0; i < headers.length; i++) {
-                row.getCell(i).setCellStyle(dataStyle);
+            workbook.write(salida);
+            salida.flush();
+        } catch (IOException e) {
+            log.error("Error generando Excel de {}", descripcion, e);
+            throw new RuntimeException("Error generando reporte Excel: " + e.getMessage(), e);
+        } finally {
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el libro Excel de {}", descripcion, e);
             }
         }
-
-        // Ajustar ancho de columnas
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
     }
 
-    private void crearHojaPedidos(Workbook workbook, CellStyle headerStyle, CellStyle dataStyle, LocalDate fechaInicio,
-            LocalDate fechaFin) {
-        Sheet sheet = workbook.createSheet("Pedidos");
-        List<ReportePedidosDTO> pedidos = generarReportePedidos(fechaInicio, fechaFin);
+    /**
+     * Escribe una hoja consumiendo las filas una a una. El ancho de cada columna se estima con la
+     * longitud máxima observada, ya que autoSizeColumn necesitaría todas las filas en memoria.
+     *
+     * @return cantidad de filas de datos escritas
+     */
+    private int escribirHoja(SXSSFWorkbook workbook, String nombreHoja, String[] headers, CellStyle headerStyle,
+            CellStyle dataStyle, Stream<Object[]> filas) {
+        SXSSFSheet sheet = workbook.createSheet(nombreHoja);
+        int[] anchos = new int[headers.length];
 
         // Crear encabezados
         Row headerRow = sheet.createRow(0);
-        String[] headers = { "ID Pedido", "Cliente", "Correo", "Fecha", "Estado", "Total", "Productos", "Método Pago",
-                "Dirección" };
-
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(headerStyle);
+            anchos[i] = headers[i].length();
         }
 
         // Llenar datos
         int rowNum = 1;
-        for (ReportePedidosDTO pedido : pedidos) {
+        Iterator<Object[]> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            Object[] valores = iterador.next();
             Row row = sheet.createRow(rowNum++);
 
-            row.createCell(0).setCellValue(pedido.getIdPedido());
-            row.createCell(1).setCellValue(pedido.getNombreCliente());
-            row.createCell(2).setCellValue(pedido.getCorreoCliente());
-            row.createCell(3)
-                    .setCellValue(pedido.getFechaPedido().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-            row.createCell(4).setCellValue(pedido.getEstado().getDescripcion());
-            row.createCell(5).setCellValue(pedido.getTotal());
-            row.createCell(6).setCellValue(pedido.getCantidadProductos());
-            row.createCell(7).setCellValue(pedido.getMetodoPago());
-            row.createCell(8).setCellValue(pedido.getDireccionEnvio());
-
-            // Aplicar estilo a las celdas de datos
             for (int i = 0; i < headers.length; i++) {
-                row.getCell(i).setCellStyle(dataStyle);
+                Cell cell = row.createCell(i);
+                Object valor = valores[i];
+                if (valor instanceof Number numero) {
+                    cell.setCellValue(numero.doubleValue());
+                } else if (valor != null) {
+                    cell.setCellValue(valor.toString());
+                }
+                cell.setCellStyle(dataStyle);
+
+                if (valor != null) {
+                    anchos[i] = Math.max(anchos[i], String.valueOf(valor).length());
+                }
             }
         }
 
         // Ajustar ancho de columnas
         for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            int caracteres = Math.min(ANCHO_MAXIMO_COLUMNA, anchos[i] + 2);
+            sheet.setColumnWidth(i, caracteres * 256);
         }
-    }
-
-    private void crearHojaProductos(Workbook workbook, CellStyle headerStyle, CellStyle dataStyle) {
-        Sheet sheet = workbook.createSheet("Productos");
-        List<ReporteProductosDTO> productos = generarReporteProductos();
 
-        // Crear encabezados
-        Row headerRow = sheet.createRow(0);
-        String[] headers = { "ID", "Nombre", "Descripción", "Precio", "Stock", "Categoría", "Vendido", "Ingresos",
-                "Estado" };
+        return rowNum - 1;
+    }
 
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+    private int crearHojaClientes(SXSSFWorkbook workbook, CellStyle headerStyle, CellStyle dataStyle,
+            String nombreHoja) {
+        String[] headers = { "ID", "Nombre", "Correo", "Teléfono", "Dirección", "Total Pedidos", "Total Gastado",
+                "Último Pedido", "Estado" };
+
+        try (Stream<FilaReporteCliente> clientes = resumenClienteRepository.streamReporteClientes(Rol.CLIENTE)) {
+            return escribirHoja(workbook, nombreHoja, headers, headerStyle, dataStyle, clientes.map(fila -> {
+                ReporteClientesDTO cliente = convertirAReporteCliente(fila);
+                return new Object[] {
+                        cliente.getIdUsuario(),
+                        cliente.getNombre(),
+                        cliente.getCorreo(),
+                        cliente.getTelefono(),
+                        cliente.getDireccion(),
+                        cliente.getTotalPedidos(),
+                        cliente.getTotalGastado(),
+                        cliente.getUltimoPedido() != null ? cliente.getUltimoPedido().format(FORMATO_FECHA) : "",
+                        cliente.getEstado()
+                };
+            }));
         }
+    }
 
-        // Llenar datos
-        int rowNum = 1;
-        for (ReporteProductosDTO producto : productos) {
-            Row row = sheet.createRow(rowNum++);
+    private int crearHojaPedidos(SXSSFWorkbook workbook, CellStyle headerStyle, CellStyle dataStyle,
+            String nombreHoja, LocalDate fechaInicio, LocalDate fechaFin) {
+        String[] headers = { "ID Pedido", "Cliente", "Correo", "Fecha", "Estado", "Total", "Productos", "Método Pago",
+                "Dirección" };
 
-            row.createCell(0).setCellValue(producto.getIdProducto());
-            row.createCell(1).setCellValue(producto.getNombre());
-            row.createCell(2).setCellValue(producto.getDescripcion());
-            row.createCell(3).setCellValue(producto.getPrecio());
-            row.createCell(4).setCellValue(producto.getStock());
-            row.createCell(5).setCellValue(producto.getCategoria());
-            row.createCell(6).setCellValue(producto.getTotalVendido());
-            row.createCell(7).setCellValue(producto.getIngresosTotales());
-            row.createCell(8).setCellValue(producto.getEstado());
-
-            // Aplicar estilo a las celdas de datos
-            for (int i = 0; i < headers.length; i++) {
-                row.getCell(i).setCellStyle(dataStyle);
-            }
+        try (Stream<FilaReportePedido> pedidos = abrirCursorPedidos(fechaInicio, fechaFin)) {
+            return escribirHoja(workbook, nombreHoja, headers, headerStyle, dataStyle, pedidos.map(fila -> {
+                ReportePedidosDTO pedido = convertirAReportePedido(fila);
+                return new Object[] {
+                        pedido.getIdPedido(),
+                        pedido.getNombreCliente(),
+                        pedido.getCorreoCliente(),
+                        pedido.getFechaPedido().format(FORMATO_FECHA_HORA),
+                        pedido.getEstado() != null ? pedido.getEstado().getDescripcion() : null,
+                        pedido.getTotal(),
+                        pedido.getCantidadProductos(),
+                        pedido.getMetodoPago(),
+                        pedido.getDireccionEnvio()
+                };
+            }));
         }
+    }
 
-        // Ajustar ancho de columnas
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+    private int crearHojaProductos(SXSSFWorkbook workbook, CellStyle headerStyle, CellStyle dataStyle,
+            String nombreHoja) {
+        String[] headers = { "ID", "Nombre", "Descripción", "Precio", "Stock", "Categoría", "Vendido", "Ingresos",
+                "Estado" };
+
+        Map<Integer, VentasProductoDTO> ventasPorProducto = obtenerVentasPorProducto();
+
+        try (Stream<Producto> productos = productoRepository.streamAll()) {
+            return escribirHoja(workbook, nombreHoja, headers, headerStyle, dataStyle, productos.map(entidad -> {
+                ReporteProductosDTO producto = convertirAReporteProducto(entidad,
+                        ventasPorProducto.get(entidad.getIdProducto()));
+                liberar(entidad);
+                return new Object[] {
+                        producto.getIdProducto(),
+                        producto.getNombre(),
+                        producto.getDescripcion(),
+                        producto.getPrecio(),
+                        producto.getStock(),
+                        producto.getCategoria(),
+                        producto.getTotalVendido(),
+                        producto.getIngresosTotales(),
+                        producto.getEstado()
+                };
+            }));
         }
     }
 
-    private void crearHojaVentas(Workbook workbook, CellStyle headerStyle, CellStyle dataStyle, LocalDate fechaInicio,
-            LocalDate fechaFin) {
-        Sheet sheet = workbook.createSheet("Ventas");
-        List<ReporteVentasDTO> ventas = generarReporteVentas(fechaInicio, fechaFin);
-
-        // Crear encabezados
-        Row headerRow = sheet.createRow(0);
+    private int crearHojaVentas(SXSSFWorkbook workbook, CellStyle headerStyle, CellStyle dataStyle,
+            String nombreHoja, LocalDate fechaInicio, LocalDate fechaFin) {
         String[] headers = { "Fecha", "Total Pedidos", "Total Ventas", "Promedio Venta", "Clientes Únicos",
                 "Producto Más Vendido" };
 
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
-
-        // Llenar datos
-        int rowNum = 1;
-        for (ReporteVentasDTO venta : ventas) {
-            Row row = sheet.createRow(rowNum++);
+        // El reporte de ventas ya está agregado por día, su tamaño es proporcional al rango de fechas
+        List<ReporteVentasDTO> ventas = generarReporteVentas(fechaInicio, fechaFin);
 
-            row.createCell(0).setCellValue(venta.getFecha().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            row.createCell(1).setCellValue(venta.getTotalPedidos());
-            row.createCell(2).setCellValue(venta.getTotalVentas());
-            row.createCell(3).setCellValue(venta.getPromedioVenta());
-            row.createCell(4).setCellValue(venta.getClientesUnicos());
-            row.createCell(5).setCellValue(venta.getProductoMasVendido());
+        return escribirHoja(workbook, nombreHoja, headers, headerStyle, dataStyle, ventas.stream()
+                .map(venta -> new Object[] {
+                        venta.getFecha().format(FORMATO_FECHA),
+                        venta.getTotalPedidos(),
+                        venta.getTotalVentas(),
+                        venta.getPromedioVenta(),
+                        venta.getClientesUnicos(),
+                        venta.getProductoMasVendido()
+                }));
+    }
 
-            // Aplicar estilo a las celdas de datos
-            for (int i = 0; i < headers.length; i++) {
-                row.getCell(i).setCellStyle(dataStyle);
-            }
+    private Stream<FilaReportePedido> abrirCursorPedidos(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio != null && fechaFin != null) {
+            return pedidoRepository.streamReportePedidos(java.sql.Date.valueOf(fechaInicio),
+                    java.sql.Date.valueOf(fechaFin));
         }
+        return pedidoRepository.streamReportePedidos();
+    }
 
-        // Ajustar ancho de columnas
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+    /**
+     * Desacopla la entidad ya escrita para que el contexto de persistencia no crezca con el cursor
+     */
+    private void liberar(Object entidad) {
+        if (entityManager != null) {
+            entityManager.detach(entidad);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.cafedronel.cafedronelbackend.services.reporte;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImpResumenClienteService implements ResumenClienteService {
+
+    private final ResumenClienteRepository resumenClienteRepository;
+    private final PedidoRepository pedidoRepository;
+
+    @Override
+    @Transactional
+    public void registrarCambio(Integer idUsuario) {
+        if (idUsuario == null) {
+            return;
+        }
+
+        // Upsert y recálculo en sentencias atómicas: la fila queda bloqueada desde la primera hasta el commit
+        resumenClienteRepository.asegurarFila(idUsuario);
+        resumenClienteRepository.recalcular(idUsuario);
+        resumenClienteRepository.eliminarSiNoTienePedidos(idUsuario);
+    }
+
+    @Override
+    @Transactional
+    public int reconstruir() {
+        resumenClienteRepository.eliminarTodos();
+        int clientes = resumenClienteRepository.insertarDesdePedidos();
+        log.info("Resumen de clientes reconstruido: {} clientes con pedidos", clientes);
+        return clientes;
+    }
+
+    /**
+     * Reconciliación nocturna por si algún cambio no pasó por el servicio de pedidos
+     */
+    @Scheduled(cron = "${reportes.resumen-clientes.cron:0 45 3 * * *}")
+    @Transactional
+    public void reconciliar() {
+        reconstruir();
+    }
+
+    /**
+     * Carga inicial del resumen cuando la tabla aún está vacía
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializarResumen() {
+        if (resumenClienteRepository.count() == 0 && pedidoRepository.count() > 0) {
+            reconstruir();
+        }
+    }
+}
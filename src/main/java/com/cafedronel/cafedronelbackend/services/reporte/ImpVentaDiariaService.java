@@ -0,0 +1,347 @@
+package com.cafedronel.cafedronelbackend.services.reporte;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.VentaDiaria;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.VentaDiariaRepository;
+import com.cafedronel.cafedronelbackend.repository.VentaDiariaRepository.CantidadDia;
+import com.cafedronel.cafedronelbackend.repository.VentaDiariaRepository.CantidadProductoDia;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImpVentaDiariaService implements VentaDiariaService {
+
+    // Días por consulta agrupada al reconstruir o completar el resumen
+    private static final int DIAS_POR_CONSULTA = 500;
+    private static final String SIN_PRODUCTO = "N/A";
+
+    private final VentaDiariaRepository ventaDiariaRepository;
+    private final PedidoRepository pedidoRepository;
+
+    @Value("${reportes.ventas-diarias.dias-reconciliacion:7}")
+    private int diasReconciliacion = 7;
+
+    @Override
+    @Transactional
+    public void registrarAlta(Date fechaPedido, BigDecimal total) {
+        acumular(fechaPedido, 1, total);
+    }
+
+    @Override
+    @Transactional
+    public void registrarBaja(Date fechaPedido, BigDecimal total) {
+        acumular(fechaPedido, -1, TotalesPedido.valorOCero(total).negate());
+    }
+
+    @Override
+    @Transactional
+    public void registrarCambio(Date fechaAnterior, BigDecimal totalAnterior, Date fechaNueva, BigDecimal totalNuevo) {
+        if (fechaAnterior != null && fechaNueva != null
+                && convertirDateALocalDate(fechaAnterior).equals(convertirDateALocalDate(fechaNueva))) {
+            // Mismo día: aunque el total no cambie pueden cambiar los productos, así que igual se acumula
+            acumular(fechaNueva, 0, TotalesPedido.valorOCero(totalNuevo).subtract(TotalesPedido.valorOCero(totalAnterior)));
+            return;
+        }
+        registrarBaja(fechaAnterior, totalAnterior);
+        registrarAlta(fechaNueva, totalNuevo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReporteVentasDTO> obtenerVentas(LocalDate fechaInicio, LocalDate fechaFin) {
+        // Los cambios de esta misma transacción todavía no se aplicaron
+        CambiosPendientes pendientes = cambiosPendientes(false);
+        if (pendientes != null) {
+            pendientes.aplicar();
+        }
+
+        List<VentaDiaria> ventas = (fechaInicio != null && fechaFin != null)
+                ? ventaDiariaRepository.findByFechaBetweenOrderByFechaAsc(fechaInicio, fechaFin)
+                : ventaDiariaRepository.findAllByOrderByFechaAsc();
+
+        // Clientes y producto más vendido de los días modificados desde la última reconstrucción:
+        // dos consultas agrupadas sólo sobre esos días (normalmente, el de hoy)
+        List<Date> incompletos = ventas.stream()
+                .filter(venta -> venta.getClientesUnicos() == null || venta.getProductoMasVendido() == null)
+                .map(venta -> (Date) java.sql.Date.valueOf(venta.getFecha()))
+                .collect(Collectors.toList());
+        Map<LocalDate, Integer> clientes = incompletos.isEmpty() ? Map.of() : contarClientes(incompletos);
+        Map<LocalDate, String> masVendidos = incompletos.isEmpty() ? Map.of() : buscarMasVendidos(incompletos);
+
+        return ventas.stream()
+                .map(venta -> convertirAReporteVentas(venta.getFecha(), venta.getTotalPedidos(), venta.getTotalVentas(),
+                        venta.getClientesUnicos() != null ? venta.getClientesUnicos() : clientes.getOrDefault(venta.getFecha(), 0),
+                        venta.getProductoMasVendido() != null ? venta.getProductoMasVendido()
+                                : masVendidos.getOrDefault(venta.getFecha(), SIN_PRODUCTO)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReporteVentasDTO> calcularVentasDesdePedidos(LocalDate fechaInicio, LocalDate fechaFin) {
+        List<Pedido> pedidos;
+
+        if (fechaInicio != null && fechaFin != null) {
+            pedidos = pedidoRepository.findByFechaBetween(java.sql.Date.valueOf(fechaInicio), java.sql.Date.valueOf(fechaFin));
+        } else {
+            pedidos = pedidoRepository.findAll();
+        }
+
+        // Agrupar pedidos por fecha de forma segura
+        Map<LocalDate, List<Pedido>> pedidosPorFecha = pedidos.stream()
+                .collect(Collectors.groupingBy(pedido -> convertirDateALocalDate(pedido.getFecha())));
+
+        return pedidosPorFecha.entrySet().stream()
+                .map(entry -> calcularResumenDia(entry.getKey(), entry.getValue()))
+                .sorted((a, b) -> a.getFecha().compareTo(b.getFecha()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public int reconstruir(LocalDate fechaInicio, LocalDate fechaFin) {
+        CambiosPendientes pendientes = cambiosPendientes(false);
+        if (pendientes != null) {
+            // Los de los días reconstruidos ya están en los pedidos que se van a agrupar
+            pendientes.descartar(fechaInicio, fechaFin);
+        }
+
+        List<Date> fechas;
+        if (fechaInicio != null && fechaFin != null) {
+            ventaDiariaRepository.eliminarEntreFechas(fechaInicio, fechaFin);
+            fechas = pedidoRepository.findFechasDistintasBetween(java.sql.Date.valueOf(fechaInicio), java.sql.Date.valueOf(fechaFin));
+        } else {
+            ventaDiariaRepository.eliminarTodas();
+            fechas = pedidoRepository.findFechasDistintas();
+        }
+
+        List<LocalDate> dias = fechas.stream()
+                .map(this::convertirDateALocalDate)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        if (!dias.isEmpty()) {
+            // Pedidos, ventas y clientes con un INSERT ... SELECT agrupado; el producto más vendido, por bloques de días
+            ventaDiariaRepository.insertarDesdePedidos(dias.get(0), dias.get(dias.size() - 1));
+            List<VentaDiaria> ventas = ventaDiariaRepository.findByFechaBetweenOrderByFechaAsc(dias.get(0), dias.get(dias.size() - 1));
+            for (int inicio = 0; inicio < ventas.size(); inicio += DIAS_POR_CONSULTA) {
+                List<VentaDiaria> bloque = ventas.subList(inicio, Math.min(inicio + DIAS_POR_CONSULTA, ventas.size()));
+                Map<LocalDate, String> masVendidos = buscarMasVendidos(bloque.stream()
+                        .map(venta -> (Date) java.sql.Date.valueOf(venta.getFecha()))
+                        .collect(Collectors.toList()));
+                bloque.forEach(venta -> venta.setProductoMasVendido(masVendidos.getOrDefault(venta.getFecha(), SIN_PRODUCTO)));
+            }
+        }
+
+        log.info("Resumen de ventas diarias reconstruido: {} días ({} - {})", dias.size(), fechaInicio, fechaFin);
+        return dias.size();
+    }
+
+    /**
+     * Reconciliación nocturna de los últimos días por si algún cambio no pasó por el servicio de pedidos
+     */
+    @Scheduled(cron = "${reportes.ventas-diarias.cron:0 30 3 * * *}")
+    @Transactional
+    public void reconciliarDiasRecientes() {
+        LocalDate hoy = LocalDate.now();
+        reconstruir(hoy.minusDays(diasReconciliacion), hoy);
+    }
+
+    /**
+     * Carga inicial del resumen cuando la tabla aún está vacía
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializarResumen() {
+        if (ventaDiariaRepository.count() == 0 && pedidoRepository.count() > 0) {
+            reconstruir(null, null);
+        }
+    }
+
+    /**
+     * Acumula el cambio en la transacción actual; se aplica justo antes de confirmarla para que la fila
+     * del día quede bloqueada sólo durante el commit y no mientras dura todo el checkout
+     */
+    private void acumular(Date fechaPedido, int pedidos, BigDecimal ventas) {
+        if (fechaPedido == null) {
+            return;
+        }
+        LocalDate dia = convertirDateALocalDate(fechaPedido);
+        CambiosPendientes pendientes = cambiosPendientes(true);
+        if (pendientes == null) {
+            aplicarCambio(dia, new CambioDia(pedidos, TotalesPedido.valorOCero(ventas)));
+        } else {
+            pendientes.agregar(dia, new CambioDia(pedidos, TotalesPedido.valorOCero(ventas)));
+        }
+    }
+
+    private void aplicarCambio(LocalDate dia, CambioDia cambio) {
+        ventaDiariaRepository.acumular(dia, cambio.pedidos(), cambio.ventas());
+        if (cambio.pedidos() < 0) {
+            ventaDiariaRepository.eliminarSiNoTienePedidos(dia);
+        }
+    }
+
+    private CambiosPendientes cambiosPendientes(boolean crear) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof CambiosPendientes pendientes) {
+                return pendientes;
+            }
+        }
+        if (!crear) {
+            return null;
+        }
+        CambiosPendientes pendientes = new CambiosPendientes();
+        TransactionSynchronizationManager.registerSynchronization(pendientes);
+        return pendientes;
+    }
+
+    private Map<LocalDate, Integer> contarClientes(Collection<Date> fechas) {
+        Map<LocalDate, Integer> clientes = new HashMap<>();
+        for (CantidadDia fila : ventaDiariaRepository.contarClientesPorDia(fechas)) {
+            clientes.put(convertirDateALocalDate(fila.getFecha()), fila.getCantidad().intValue());
+        }
+        return clientes;
+    }
+
+    private Map<LocalDate, String> buscarMasVendidos(Collection<Date> fechas) {
+        Map<LocalDate, Map<String, Long>> unidades = new HashMap<>();
+        for (CantidadProductoDia fila : ventaDiariaRepository.sumarCantidadesPorProducto(fechas)) {
+            unidades.computeIfAbsent(convertirDateALocalDate(fila.getFecha()), dia -> new HashMap<>())
+                    .merge(fila.getNombre(), fila.getCantidad(), Long::sum);
+        }
+        Map<LocalDate, String> masVendidos = new HashMap<>();
+        unidades.forEach((dia, porProducto) -> masVendidos.put(dia, elegirMasVendido(porProducto)));
+        return masVendidos;
+    }
+
+    private ReporteVentasDTO calcularResumenDia(LocalDate fecha, List<Pedido> pedidosDia) {
+        // Se suman los totales guardados en cada pedido, sin recorrer sus detalles
+        BigDecimal totalVentas = pedidosDia.stream()
+                .map(pedido -> TotalesPedido.valorOCero(pedido.getTotal()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int clientesUnicos = (int) pedidosDia.stream()
+                .map(pedido -> pedido.getUsuario().getIdUsuario())
+                .distinct()
+                .count();
+        return convertirAReporteVentas(fecha, pedidosDia.size(), totalVentas, clientesUnicos,
+                obtenerProductoMasVendidoDelDia(pedidosDia));
+    }
+
+    private ReporteVentasDTO convertirAReporteVentas(LocalDate fecha, int totalPedidos, BigDecimal ventas,
+                                                     int clientesUnicos, String productoMasVendido) {
+        double totalVentas = TotalesPedido.comoDouble(TotalesPedido.valorOCero(ventas));
+
+        return ReporteVentasDTO.builder()
+                .fecha(fecha)
+                .totalPedidos(totalPedidos)
+                .totalVentas(totalVentas)
+                .promedioVenta(totalPedidos > 0 ? totalVentas / totalPedidos : 0.0)
+                .clientesUnicos(clientesUnicos)
+                .productoMasVendido(productoMasVendido)
+                .build();
+    }
+
+    private String obtenerProductoMasVendidoDelDia(List<Pedido> pedidos) {
+        Map<String, Long> ventasPorProducto = new HashMap<>();
+
+        pedidos.stream()
+                .filter(pedido -> pedido.getDetalles() != null)
+                .flatMap(pedido -> pedido.getDetalles().stream())
+                .filter(detalle -> detalle.getProducto() != null && detalle.getCantidad() != null)
+                .forEach(detalle -> ventasPorProducto.merge(detalle.getProducto().getNombre(), (long) detalle.getCantidad(), Long::sum));
+
+        return elegirMasVendido(ventasPorProducto);
+    }
+
+    // Ante un empate gana el primero por nombre, para que el resumen y el cálculo completo coincidan
+    private static String elegirMasVendido(Map<String, Long> ventasPorProducto) {
+        return ventasPorProducto.entrySet().stream()
+                .max(Map.Entry.<String, Long>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .orElse(SIN_PRODUCTO);
+    }
+
+    /**
+     * Convierte java.util.Date o java.sql.Date a LocalDate de forma segura
+     */
+    private LocalDate convertirDateALocalDate(java.util.Date fecha) {
+        if (fecha == null) {
+            return LocalDate.now();
+        }
+
+        if (fecha instanceof java.sql.Date) {
+            return ((java.sql.Date) fecha).toLocalDate();
+        }
+        return fecha.toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private record CambioDia(int pedidos, BigDecimal ventas) {
+
+        CambioDia sumar(CambioDia otro) {
+            return new CambioDia(pedidos + otro.pedidos, ventas.add(otro.ventas));
+        }
+    }
+
+    /**
+     * Cambios del resumen hechos en la transacción actual, por día. Se aplican ordenados por fecha
+     * para que dos transacciones que tocan los mismos días los bloqueen en el mismo orden.
+     */
+    private final class CambiosPendientes implements TransactionSynchronization {
+
+        private final NavigableMap<LocalDate, CambioDia> cambios = new TreeMap<>();
+
+        void agregar(LocalDate dia, CambioDia cambio) {
+            cambios.merge(dia, cambio, CambioDia::sumar);
+        }
+
+        void aplicar() {
+            cambios.forEach(ImpVentaDiariaService.this::aplicarCambio);
+            cambios.clear();
+        }
+
+        void descartar(LocalDate fechaInicio, LocalDate fechaFin) {
+            if (fechaInicio != null && fechaFin != null) {
+                cambios.subMap(fechaInicio, true, fechaFin, true).clear();
+            } else {
+                cambios.clear();
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            aplicar();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.cafedronel.cafedronelbackend.data.dto.reporte.ReportePedidosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteProductosDTO;
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -54,4 +55,29 @@ public interface ReporteService {
      * Genera archivo Excel con reporte completo (todas las hojas)
      */
     byte[] generarExcelCompleto(LocalDate fechaInicio, LocalDate fechaFin);
+    
+    /**
+     * Escribe el Excel de clientes directamente en la salida, sin materializarlo en memoria
+     */
+    void exportarExcelClientes(OutputStream salida);
+    
+    /**
+     * Escribe el Excel de pedidos directamente en la salida, leyendo los pedidos con un cursor
+     */
+    void exportarExcelPedidos(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida);
+    
+    /**
+     * Escribe el Excel de productos directamente en la salida
+     */
+    void exportarExcelProductos(OutputStream salida);
+    
+    /**
+     * Escribe el Excel de ventas directamente en la salida
+     */
+    void exportarExcelVentas(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida);
+    
+    /**
+     * Escribe el Excel completo (todas las hojas) directamente en la salida
+     */
+    void exportarExcelCompleto(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.cafedronel.cafedronelbackend.services.reporte;
+
+public interface ResumenClienteService {
+
+    /**
+     * Recalcula los totales del cliente dueño de un pedido creado, modificado o eliminado
+     */
+    void registrarCambio(Integer idUsuario);
+
+    /**
+     * Reconstruye los totales de todos los clientes desde los pedidos y retorna cuántos se generaron
+     */
+    int reconstruir();
+}
@@ -0,0 +1,41 @@
+package com.cafedronel.cafedronelbackend.services.reporte;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
+
+public interface VentaDiariaService {
+
+    /**
+     * Suma un pedido nuevo al resumen de su día
+     */
+    void registrarAlta(Date fechaPedido, BigDecimal total);
+
+    /**
+     * Resta un pedido eliminado del resumen de su día
+     */
+    void registrarBaja(Date fechaPedido, BigDecimal total);
+
+    /**
+     * Ajusta el resumen de un pedido modificado: cambio de total, de detalles o de día
+     */
+    void registrarCambio(Date fechaAnterior, BigDecimal totalAnterior, Date fechaNueva, BigDecimal totalNuevo);
+
+    /**
+     * Lee el resumen materializado de ventas por día
+     */
+    List<ReporteVentasDTO> obtenerVentas(LocalDate fechaInicio, LocalDate fechaFin);
+
+    /**
+     * Calcula el resumen de ventas recorriendo los pedidos (cálculo de referencia)
+     */
+    List<ReporteVentasDTO> calcularVentasDesdePedidos(LocalDate fechaInicio, LocalDate fechaFin);
+
+    /**
+     * Reconstruye el resumen para el rango indicado (o completo si no hay fechas) y retorna los días generados
+     */
+    int reconstruir(LocalDate fechaInicio, LocalDate fechaFin);
+}
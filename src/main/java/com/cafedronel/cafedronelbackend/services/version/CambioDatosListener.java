@@ -0,0 +1,30 @@
+package com.cafedronel.cafedronelbackend.services.version;
+
+import org.springframework.stereotype.Component;
+
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos.Recurso;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Listener JPA de las entidades que alimentan los reportes. Hibernate lo obtiene del contexto
+ * de Spring, por eso puede recibir dependencias.
+ */
+@Component
+public class CambioDatosListener {
+
+    private final VersionesDatos versionesDatos;
+
+    public CambioDatosListener(VersionesDatos versionesDatos) {
+        this.versionesDatos = versionesDatos;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void registrarCambio(Object entidad) {
+        versionesDatos.registrarCambio(Recurso.PEDIDOS);
+    }
+}
@@ -0,0 +1,87 @@
+package com.cafedronel.cafedronelbackend.services.version;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Contadores en memoria de la versión de los datos que se publican por HTTP. Permiten responder
+ * If-None-Match / If-Modified-Since con 304 sin consultar la base de datos ni serializar nada.
+ * Cada instancia tiene su propia época, así los ETags de distintos arranques nunca coinciden.
+ */
+@Component
+public class VersionesDatos {
+
+    public enum Recurso {
+        // Productos y stock
+        CATALOGO,
+        // Pedidos, detalles, pagos, envíos y clientes
+        PEDIDOS
+    }
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Recurso, AtomicLong> versiones = new EnumMap<>(Recurso.class);
+    private final Map<Recurso, AtomicLong> modificaciones = new EnumMap<>(Recurso.class);
+
+    public VersionesDatos() {
+        long ahora = System.currentTimeMillis();
+        for (Recurso recurso : Recurso.values()) {
+            versiones.put(recurso, new AtomicLong());
+            modificaciones.put(recurso, new AtomicLong(ahora));
+        }
+    }
+
+    /**
+     * Marca el recurso como modificado ahora y otra vez al confirmar la transacción, para que
+     * ningún cliente guarde con la versión nueva datos leídos antes del commit.
+     */
+    public void registrarCambio(Recurso recurso) {
+        incrementar(recurso);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementar(recurso);
+                }
+            });
+        }
+    }
+
+    public String etagCatalogo() {
+        return "\"c-" + epoca + "-" + version(Recurso.CATALOGO) + "\"";
+    }
+
+    /**
+     * Los reportes dependen de pedidos y productos; los que usan "el último mes" por defecto
+     * cambian además con el día, por eso la fecha forma parte del ETag.
+     */
+    public String etagReportes() {
+        return "\"r-" + epoca + "-" + version(Recurso.PEDIDOS) + "-" + version(Recurso.CATALOGO)
+                + "-" + LocalDate.now() + "\"";
+    }
+
+    public long ultimaModificacionCatalogo() {
+        return modificaciones.get(Recurso.CATALOGO).get();
+    }
+
+    public long ultimaModificacionReportes() {
+        long inicioDelDia = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.max(inicioDelDia, Math.max(modificaciones.get(Recurso.PEDIDOS).get(), ultimaModificacionCatalogo()));
+    }
+
+    private long version(Recurso recurso) {
+        return versiones.get(recurso).get();
+    }
+
+    private void incrementar(Recurso recurso) {
+        versiones.get(recurso).incrementAndGet();
+        modificaciones.get(recurso).accumulateAndGet(Instant.now().toEpochMilli(), Math::max);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cafedronel.cafedronelbackend.util.archivo;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe filas CSV separadas por comas en UTF-8. Empieza con BOM para que Excel reconozca la
+ * codificación y encierra entre comillas los valores con separadores, comillas o saltos de línea.
+ */
+public class EscritorCsv implements Flushable, Closeable {
+
+    private final Writer salida;
+
+    public EscritorCsv(OutputStream salida) throws IOException {
+        this.salida = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 64 * 1024);
+        this.salida.write('\uFEFF');
+    }
+
+    public void escribirFila(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            if (valores[i] != null) {
+                salida.write(escapar(texto(valores[i])));
+            }
+        }
+        salida.write("\r\n");
+    }
+
+    // Los decimales sin notación científica: 1.0E7 se escribe 10000000
+    private static String texto(Object valor) {
+        if (valor instanceof Double numero && Double.isFinite(numero)) {
+            return BigDecimal.valueOf(numero).stripTrailingZeros().toPlainString();
+        }
+        if (valor instanceof BigDecimal numero) {
+            return numero.toPlainString();
+        }
+        return valor.toString();
+    }
+
+    static String escapar(String valor) {
+        boolean requiereComillas = false;
+        for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+            char c = valor.charAt(i);
+            requiereComillas = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        return requiereComillas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        salida.flush();
+    }
+
+    /**
+     * Vacía el búfer sin cerrar la salida, que pertenece a quien la abrió (p. ej. la respuesta HTTP)
+     */
+    @Override
+    public void close() throws IOException {
+        salida.flush();
+    }
+}
@@ -0,0 +1,108 @@
+package com.cafedronel.cafedronelbackend.util.archivo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+
+/**
+ * Lector de CSV (RFC 4180) carácter a carácter: valores entre comillas con comas, saltos de línea y
+ * comillas dobles escapadas. El separador se deduce de la primera línea (',' o ';', el que usa Excel
+ * con configuración regional en español).
+ */
+public final class LectorCsv {
+
+    private static final char COMILLA = '"';
+    private static final char BOM = '\uFEFF';
+
+    private LectorCsv() {
+    }
+
+    public static void leer(InputStream entrada, ReceptorFilas receptor) throws IOException {
+        leer(new InputStreamReader(entrada, StandardCharsets.UTF_8), receptor);
+    }
+
+    public static void leer(Reader entrada, ReceptorFilas receptor) throws IOException {
+        BufferedReader lector = new BufferedReader(entrada, 64 * 1024);
+        lector.mark(64 * 1024);
+        char separador = deducirSeparador(lector.readLine());
+        lector.reset();
+
+        List<String> celdas = new ArrayList<>();
+        StringBuilder valor = new StringBuilder();
+        boolean entreComillas = false;
+        boolean filaConDatos = false;
+        int numeroFila = 1;
+        int caracter = lector.read();
+        if (caracter == BOM) {
+            caracter = lector.read();
+        }
+
+        while (caracter != -1) {
+            char c = (char) caracter;
+            if (entreComillas) {
+                if (c == COMILLA) {
+                    int siguiente = lector.read();
+                    if (siguiente == COMILLA) {
+                        valor.append(COMILLA);
+                    } else {
+                        entreComillas = false;
+                        caracter = siguiente;
+                        continue;
+                    }
+                } else {
+                    valor.append(c);
+                }
+            } else if (c == COMILLA) {
+                entreComillas = true;
+                filaConDatos = true;
+            } else if (c == separador) {
+                celdas.add(valor.toString());
+                valor.setLength(0);
+                filaConDatos = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    lector.mark(1);
+                    if (lector.read() != '\n') {
+                        lector.reset();
+                    }
+                }
+                // Las líneas en blanco no son filas, pero sí cuentan para numerar las siguientes
+                if (filaConDatos || valor.length() > 0) {
+                    celdas.add(valor.toString());
+                    receptor.recibir(numeroFila, celdas.toArray(String[]::new));
+                }
+                celdas.clear();
+                valor.setLength(0);
+                filaConDatos = false;
+                numeroFila++;
+            } else {
+                valor.append(c);
+            }
+            caracter = lector.read();
+        }
+
+        if (entreComillas) {
+            throw new BusinessException("CSV inválido: comillas sin cerrar a partir de la fila " + numeroFila);
+        }
+        if (filaConDatos || valor.length() > 0) {
+            celdas.add(valor.toString());
+            receptor.recibir(numeroFila, celdas.toArray(String[]::new));
+        }
+    }
+
+    private static char deducirSeparador(String primeraLinea) {
+        if (primeraLinea == null) {
+            return ',';
+        }
+        long comas = primeraLinea.chars().filter(c -> c == ',').count();
+        long puntosYComa = primeraLinea.chars().filter(c -> c == ';').count();
+        return puntosYComa > comas ? ';' : ',';
+    }
+}
@@ -0,0 +1,114 @@
+package com.cafedronel.cafedronelbackend.util.archivo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+
+/**
+ * Lee la primera hoja de un .xlsx con la API de eventos de POI: el XML de la hoja se recorre con SAX
+ * y cada fila se entrega al terminar de leerla, sin construir un Workbook. En memoria quedan sólo la
+ * tabla de textos compartidos y la fila en curso.
+ */
+public final class LectorXlsx {
+
+    private LectorXlsx() {
+    }
+
+    /**
+     * @param archivo el .xlsx en disco: abrirlo desde un InputStream obligaría a POI a descomprimirlo en memoria
+     */
+    public static void leer(File archivo, ReceptorFilas receptor) throws IOException {
+        try (OPCPackage paquete = OPCPackage.open(archivo, PackageAccess.READ)) {
+            XSSFReader lector = new XSSFReader(paquete);
+            ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(paquete, false);
+            Iterator<InputStream> hojas = lector.getSheetsData();
+            if (!hojas.hasNext()) {
+                throw new BusinessException("El archivo Excel no tiene hojas");
+            }
+            try (InputStream hoja = hojas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(lector.getStylesTable(), textos,
+                        new Filas(receptor), new FormatoCrudo(), false));
+                parser.parse(new InputSource(hoja));
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new BusinessException("El archivo no es un Excel (.xlsx) válido: " + e.getMessage());
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("No se pudo crear el lector XML", e);
+        }
+    }
+
+    /**
+     * Arma cada fila con sus celdas en posición: las celdas vacías no aparecen en el XML
+     */
+    private static final class Filas implements SheetContentsHandler {
+
+        private final ReceptorFilas receptor;
+        private final List<String> celdas = new ArrayList<>();
+
+        private Filas(ReceptorFilas receptor) {
+            this.receptor = receptor;
+        }
+
+        @Override
+        public void startRow(int fila) {
+            celdas.clear();
+        }
+
+        @Override
+        public void cell(String referencia, String valor, XSSFComment comentario) {
+            int columna = referencia != null ? new CellReference(referencia).getCol() : celdas.size();
+            while (celdas.size() < columna) {
+                celdas.add("");
+            }
+            celdas.add(valor != null ? valor : "");
+        }
+
+        @Override
+        public void endRow(int fila) {
+            if (!celdas.isEmpty()) {
+                receptor.recibir(fila + 1, celdas.toArray(String[]::new));
+            }
+        }
+    }
+
+    /**
+     * Entrega los números tal como están guardados ("1234.5"), sin el formato de la celda
+     * ("1.234,50 €") que habría que volver a interpretar
+     */
+    private static final class FormatoCrudo extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double valor, int indiceFormato, String formato) {
+            return NumberToTextConverter.toText(valor);
+        }
+
+        @Override
+        public String formatRawCellContents(double valor, int indiceFormato, String formato, boolean fechas1904) {
+            return NumberToTextConverter.toText(valor);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.cafedronel.cafedronelbackend.util.archivo;
+
+/**
+ * Recibe las filas de una planilla a medida que se leen, sin tener el archivo completo en memoria
+ */
+@FunctionalInterface
+public interface ReceptorFilas {
+
+    /**
+     * @param numeroFila número de fila en el archivo, empezando en 1 (la fila de encabezados)
+     * @param celdas     valores de la fila como texto; las celdas vacías llegan como ""
+     */
+    void recibir(int numeroFila, String[] celdas);
+}
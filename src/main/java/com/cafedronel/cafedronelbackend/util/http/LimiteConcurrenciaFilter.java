@@ -0,0 +1,101 @@
+package com.cafedronel.cafedronelbackend.util.http;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita cuántas peticiones se procesan a la vez. Con hilos virtuales Tomcat deja de poner el tope
+ * (no hay pool de hilos), así que sin este límite miles de peticiones compiten por las pocas
+ * conexiones de Hikari. Las que no consiguen turno dentro del tiempo de espera reciben 503.
+ * Una respuesta asíncrona (StreamingResponseBody) conserva el turno hasta que termina de escribirse.
+ */
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore permisos;
+    private final long esperaMs;
+
+    public LimiteConcurrenciaFilter(int maxPeticiones, long esperaMs) {
+        if (maxPeticiones < 1) {
+            throw new IllegalArgumentException("maxPeticiones debe ser mayor que cero");
+        }
+        this.permisos = new Semaphore(maxPeticiones, true);
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+
+        if (!adquirido) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, intente nuevamente");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // La respuesta sigue escribiéndose en otro hilo: el turno se libera cuando termina
+                request.getAsyncContext().addListener(new LiberarAlTerminar());
+            } else {
+                permisos.release();
+            }
+        }
+    }
+
+    public int permisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    // Libera el permiso una sola vez, sea cual sea el evento que cierra la petición asíncrona
+    private class LiberarAlTerminar implements AsyncListener {
+
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo ciclo asíncrono reemplaza los listeners: hay que volver a registrarse
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        }
+    }
+}
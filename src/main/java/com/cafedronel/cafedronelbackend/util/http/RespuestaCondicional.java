@@ -0,0 +1,28 @@
+package com.cafedronel.cafedronelbackend.util.http;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * GET condicional (If-None-Match / If-Modified-Since) a partir de una versión en memoria.
+ */
+public final class RespuestaCondicional {
+
+    private RespuestaCondicional() {
+    }
+
+    /**
+     * Retorna true si el cliente ya tiene esta versión; en ese caso la respuesta queda como 304
+     * y el controlador debe retornar null sin generar el cuerpo. Siempre agrega ETag, Last-Modified
+     * y un Cache-Control que obliga a revalidar (si no, Spring Security envía no-store y el cliente
+     * nunca guarda la respuesta).
+     */
+    public static boolean noModificado(WebRequest request, String etag, long ultimaModificacion, CacheControl cacheControl) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(etag, ultimaModificacion);
+    }
+}
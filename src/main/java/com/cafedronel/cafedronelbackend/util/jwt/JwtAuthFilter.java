@@ -1,51 +1,80 @@
 package com.cafedronel.cafedronelbackend.util.jwt;
 
-import com.cafedronel.cafedronelbackend.services.auth.MyUserDetailsService;
+import com.cafedronel.cafedronelbackend.data.dto.auth.UsuarioSesion;
+import com.cafedronel.cafedronelbackend.services.auth.UsuarioSesionCache;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final MyUserDetailsService userDetailsService;
+    private final UsuarioSesionCache usuarioSesionCache;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, MyUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, UsuarioSesionCache usuarioSesionCache) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.usuarioSesionCache = usuarioSesionCache;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            email = jwtUtil.extractEmail(token);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            autenticar(authHeader.substring(7), request);
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = this.userDetailsService.loadUserByUsername(email);
+        filterChain.doFilter(request, response);
+    }
 
-            if (jwtUtil.validateToken(token, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    private void autenticar(String token, HttpServletRequest request) {
+        TokenJwt tokenJwt;
+        try {
+            tokenJwt = jwtUtil.parseAndValidate(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token inválido o expirado: la petición sigue sin autenticar
+            return;
+        }
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        String email = tokenJwt.email();
+        if (email == null) {
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        // Existencia y estado salen de la caché; sólo se consulta la base de datos al expirar la entrada
+        Optional<UsuarioSesion> usuario = usuarioSesionCache.obtener(email);
+        if (usuario.isEmpty() || !usuario.get().activo()) {
+            return;
+        }
+
+        // Tokens emitidos antes de incluir el rol: se usa el de la caché
+        String rol = tokenJwt.rol();
+        if (rol == null) {
+            rol = usuario.get().rol();
+        }
+
+        UserDetails userDetails = User.withUsername(email)
+                .password("")
+                .authorities(rol)
+                .build();
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
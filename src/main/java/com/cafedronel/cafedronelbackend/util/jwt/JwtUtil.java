@@ -1,66 +1,73 @@
 package com.cafedronel.cafedronelbackend.util.jwt;
 
-import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 
 @Component
 public class JwtUtil {
 
+    // Claim con el rol del usuario al momento de emitir el token
+    public static final String CLAIM_ROL = "rol";
 
-    private final String SECRET;
     private final long EXPIRATION;
-    private final UsuarioRepository usuarioRepository;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret, UsuarioRepository usuarioRepository) {
-        this.SECRET = secret;
+    // La clave y el parser son inmutables y thread-safe: se construyen una sola vez
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret) {
         this.EXPIRATION = 1000 * 60 * 60 * 24;
-        this.usuarioRepository = usuarioRepository;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(this.signingKey)
+                .build();
     }
 
-    private Key getSigninKey() {
-        return Keys.hmacShaKeyFor(this.SECRET.getBytes());
+    public String generateToken(String email) {
+        return generateToken(email, null);
     }
 
-    public String generateToken(String email) {
-        return Jwts.builder()
+    public String generateToken(String email, String rol) {
+        var builder = Jwts.builder()
                 .setSubject(email)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + this.EXPIRATION))
-                .signWith(this.getSigninKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + this.EXPIRATION));
+        if (rol != null) {
+            builder.claim(CLAIM_ROL, rol);
+        }
+        return builder
+                .signWith(this.signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(this.getSigninKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Verifica firma y expiración en un único parseo y retorna correo, rol y expiración.
+     * Lanza JwtException si el token no es válido o ya expiró.
+     */
+    public TokenJwt parseAndValidate(String token) {
+        Claims claims = parseClaims(token);
+        return new TokenJwt(claims.getSubject(), claims.get(CLAIM_ROL, String.class), claims.getExpiration());
     }
 
-    public boolean validateToken(String authToken, String email) {
-        String tokenEmail = extractEmail(authToken);
-
-        this.usuarioRepository.getUsuarioByCorreo(tokenEmail).orElseThrow();
+    public Claims parseClaims(String token) {
+        return this.parser.parseClaimsJws(token).getBody();
+    }
 
-        return email.equals(tokenEmail) && !isTokenExpired(authToken);
+    public String extractEmail(String token) {
+        return parseClaims(token).getSubject();
     }
 
-    private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigninKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
+    public boolean validateToken(String authToken, String email) {
+        // El parser ya rechaza los tokens expirados
+        return email.equals(parseClaims(authToken).getSubject());
     }
 }
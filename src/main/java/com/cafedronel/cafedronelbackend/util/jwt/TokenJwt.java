@@ -0,0 +1,13 @@
+package com.cafedronel.cafedronelbackend.util.jwt;
+
+import java.util.Date;
+
+/**
+ * Resultado de validar un token: todo lo que necesita el filtro sale de un único parseo
+ */
+public record TokenJwt(
+        String email,
+        String rol,
+        Date expiracion
+) {
+}
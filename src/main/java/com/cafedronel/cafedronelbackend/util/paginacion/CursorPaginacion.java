@@ -0,0 +1,83 @@
+package com.cafedronel.cafedronelbackend.util.paginacion;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+
+/**
+ * Paginación por clave (keyset): cada página se busca con "id > último id visto" sobre la
+ * clave primaria, así la página N cuesta lo mismo que la primera. El cursor es opaco para
+ * el cliente y sólo contiene el último id entregado.
+ */
+public final class CursorPaginacion {
+
+    public static final int TAMANO_POR_DEFECTO = 20;
+    public static final int TAMANO_MAXIMO = 100;
+
+    private static final String PREFIJO = "id:";
+
+    private CursorPaginacion() {
+    }
+
+    /**
+     * Id a partir del cual buscar (exclusivo); 0 para la primera página
+     */
+    public static int decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new BusinessException("Cursor de paginación inválido");
+            }
+            return Integer.parseInt(valor.substring(PREFIJO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginación inválido");
+        }
+    }
+
+    public static String codificar(Integer ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int normalizarTamano(Integer tamano) {
+        if (tamano == null) {
+            return TAMANO_POR_DEFECTO;
+        }
+        if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+            throw new BusinessException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+        return tamano;
+    }
+
+    /**
+     * Se pide una fila más que el tamaño de página para saber si hay otra página sin hacer un COUNT
+     */
+    public static Limit limiteDeConsulta(int tamano) {
+        return Limit.of(tamano + 1);
+    }
+
+    /**
+     * Arma la página a partir de las filas leídas con {@link #limiteDeConsulta(int)}
+     */
+    public static <E, T> PaginaCursorDTO<T> construirPagina(List<E> filas, int tamano,
+                                                           Function<E, Integer> extractorId,
+                                                           Function<E, T> conversor) {
+        boolean hayMas = filas.size() > tamano;
+        List<E> visibles = hayMas ? filas.subList(0, tamano) : filas;
+        return PaginaCursorDTO.<T>builder()
+                .contenido(visibles.stream().map(conversor).toList())
+                .tamano(tamano)
+                .hayMas(hayMas)
+                .siguienteCursor(hayMas ? codificar(extractorId.apply(visibles.get(visibles.size() - 1))) : null)
+                .build();
+    }
+}
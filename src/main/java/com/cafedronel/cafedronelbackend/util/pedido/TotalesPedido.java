@@ -0,0 +1,76 @@
+package com.cafedronel.cafedronelbackend.util.pedido;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+
+/**
+ * Cálculo de subtotales y totales de pedido con aritmética decimal exacta. Los importes se
+ * guardan en la base de datos al escribir el pedido para que los reportes no tengan que
+ * recorrer sus detalles.
+ */
+public final class TotalesPedido {
+
+    public static final int ESCALA = 2;
+
+    private TotalesPedido() {
+    }
+
+    /**
+     * cantidad × precio unitario, redondeado a céntimos. El precio se convierte desde su
+     * representación decimal (BigDecimal.valueOf) para no arrastrar el error binario del double.
+     */
+    public static BigDecimal calcularSubtotal(Integer cantidad, Double precioUnitario) {
+        if (cantidad == null || precioUnitario == null) {
+            return cero();
+        }
+        return BigDecimal.valueOf(precioUnitario)
+                .multiply(BigDecimal.valueOf(cantidad))
+                .setScale(ESCALA, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal calcularSubtotal(DetallePedido detalle) {
+        return calcularSubtotal(detalle.getCantidad(), detalle.getPrecioUnitario());
+    }
+
+    /**
+     * Recalcula el subtotal de cada detalle y el total del pedido. Si el pedido no trae
+     * detalles (o es una colección perezosa sin cargar) se deja el total intacto: sus
+     * detalles ya guardados no cambiaron.
+     *
+     * @return true si el pedido traía detalles y su total quedó calculado
+     */
+    public static boolean recalcular(Pedido pedido) {
+        List<DetallePedido> detalles = pedido.getDetalles();
+        if (detalles == null || !Hibernate.isInitialized(detalles)) {
+            return false;
+        }
+        BigDecimal total = cero();
+        for (DetallePedido detalle : detalles) {
+            detalle.setSubtotal(calcularSubtotal(detalle));
+            total = total.add(detalle.getSubtotal());
+        }
+        pedido.setTotal(total);
+        return true;
+    }
+
+    public static BigDecimal cero() {
+        return BigDecimal.ZERO.setScale(ESCALA);
+    }
+
+    public static BigDecimal valorOCero(BigDecimal monto) {
+        return monto != null ? monto : cero();
+    }
+
+    /**
+     * Conversión para los DTOs expuestos, que mantienen los importes como double
+     */
+    public static double comoDouble(BigDecimal monto) {
+        return monto != null ? monto.doubleValue() : 0.0;
+    }
+}
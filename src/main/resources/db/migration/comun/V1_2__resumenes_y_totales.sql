@@ -0,0 +1,44 @@
+-- Tablas y columnas agregadas antes de adoptar Flyway: resumen de ventas diarias, resumen por cliente,
+-- bandeja de salida de correos y totales exactos de pedidos y detalles. Corre también en las bases
+-- marcadas en la versión 1, donde todavía no existen.
+
+CREATE TABLE ventas_diarias (
+    fecha DATE NOT NULL,
+    total_pedidos INT,
+    total_ventas DOUBLE,
+    clientes_unicos INT,
+    producto_mas_vendido VARCHAR(255),
+    PRIMARY KEY (fecha)
+);
+
+CREATE TABLE resumen_cliente (
+    id_usuario INT NOT NULL,
+    total_pedidos INT,
+    total_gastado DECIMAL(14, 2),
+    ultimo_pedido DATE,
+    PRIMARY KEY (id_usuario)
+);
+
+CREATE TABLE correo_saliente (
+    id_correo INT NOT NULL AUTO_INCREMENT,
+    destinatario VARCHAR(255) NOT NULL,
+    asunto VARCHAR(255) NOT NULL,
+    cuerpo LONGTEXT NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    intentos INT NOT NULL,
+    proximo_intento DATETIME(6) NOT NULL,
+    lote VARCHAR(36),
+    reclamado_en DATETIME(6),
+    creado_en DATETIME(6) NOT NULL,
+    enviado_en DATETIME(6),
+    ultimo_error VARCHAR(500),
+    PRIMARY KEY (id_correo)
+);
+
+CREATE INDEX idx_correo_estado_proximo ON correo_saliente (estado, proximo_intento);
+CREATE INDEX idx_correo_lote ON correo_saliente (lote);
+
+-- Los valores existentes se completan al iniciar (completarTotalesPendientes)
+ALTER TABLE pedido ADD COLUMN total DECIMAL(12, 2) NULL;
+
+ALTER TABLE detalle_pedido MODIFY COLUMN subtotal DECIMAL(12, 2) NULL;
@@ -0,0 +1,19 @@
+-- Índices para los predicados más usados. Las claves foráneas ya tienen el suyo (MySQL y H2
+-- lo crean al definir la restricción); aquí van los compuestos y los únicos.
+
+-- Login y autenticación JWT (findByCorreo en cada petición autenticada). Falla si ya hay
+-- correos repetidos: deben depurarse a mano antes de migrar.
+CREATE UNIQUE INDEX uk_usuario_correo ON usuario (correo);
+
+-- findByRol, countByRol, búsqueda por nombre dentro de un rol y exportación ordenada por id
+CREATE INDEX idx_usuario_rol ON usuario (rol, id_usuario);
+
+-- Reportes por rango de fechas (findByFechaBetween, fechas distintas, cursores de exportación)
+CREATE INDEX idx_pedido_fecha ON pedido (fecha, id_pedido);
+
+-- Pedidos de un cliente ordenados por id (findByUsuarioIdUsuario, findConDetallesByUsuarioId)
+CREATE INDEX idx_pedido_usuario ON pedido (id_usuario, id_pedido);
+
+-- Relaciones uno a uno con el pedido (findByPedidoIdPedido y carga de pago/envío)
+CREATE UNIQUE INDEX uk_pago_pedido ON pago (id_pedido);
+CREATE UNIQUE INDEX uk_envio_pedido ON envio (id_pedido);
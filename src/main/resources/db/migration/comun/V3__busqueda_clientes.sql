@@ -0,0 +1,12 @@
+-- Palabras de búsqueda de cada usuario: nombre, apellido y la parte local del correo, en minúsculas
+-- y sin tildes. Con la clave (token, id_usuario) una búsqueda por prefijo recorre sólo un rango
+-- del índice en lugar de evaluar LIKE '%texto%' sobre toda la tabla de usuarios.
+CREATE TABLE usuario_token_busqueda (
+    token VARCHAR(50) NOT NULL,
+    id_usuario INT NOT NULL,
+    PRIMARY KEY (token, id_usuario),
+    CONSTRAINT fk_token_busqueda_usuario FOREIGN KEY (id_usuario) REFERENCES usuario (id_usuario) ON DELETE CASCADE
+);
+
+-- Para reescribir las palabras de un usuario y para encontrar a los que no tienen ninguna
+CREATE INDEX idx_token_busqueda_usuario ON usuario_token_busqueda (id_usuario);
@@ -0,0 +1,6 @@
+-- Código del proveedor para cada producto. Las importaciones masivas lo usan como clave: una fila
+-- con un SKU existente actualiza ese producto y una con un SKU nuevo lo crea. Los productos dados de
+-- alta antes no tienen SKU (NULL no choca con el índice único).
+ALTER TABLE producto ADD COLUMN sku VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX uk_producto_sku ON producto (sku);
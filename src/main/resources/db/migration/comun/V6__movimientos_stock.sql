@@ -0,0 +1,15 @@
+-- Registro de sólo inserción de los ajustes de stock, para auditoría. Sin clave foránea a producto:
+-- el historial se conserva aunque el producto se elimine. Sólo lleva el índice para consultar los
+-- movimientos de un producto, así cada ajuste cuesta un insert en lote sin más mantenimiento.
+CREATE TABLE movimiento_stock (
+    id_movimiento BIGINT NOT NULL AUTO_INCREMENT,
+    id_producto INT NOT NULL,
+    cantidad INT NOT NULL,
+    stock_resultante INT NOT NULL,
+    motivo VARCHAR(255),
+    usuario VARCHAR(255),
+    creado_en DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_movimiento)
+);
+
+CREATE INDEX idx_movimiento_stock_producto ON movimiento_stock (id_producto, id_movimiento);
@@ -0,0 +1,6 @@
+-- Reserva de stock de un pedido pendiente: el checkout descuenta el stock y fija hasta cuándo lo retiene.
+-- Al confirmarse o cancelarse el pedido la columna vuelve a NULL, así el índice sólo recorre las reservas
+-- activas al buscar las vencidas. Los pedidos anteriores quedan sin reserva y el barrido no los toca.
+ALTER TABLE pedido ADD COLUMN reserva_expira_en DATETIME(6) NULL;
+
+CREATE INDEX idx_pedido_reserva_expira ON pedido (reserva_expira_en);
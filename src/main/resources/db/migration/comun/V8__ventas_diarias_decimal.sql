@@ -0,0 +1,3 @@
+-- El resumen de ventas se mantiene sumando y restando el total de cada pedido: en DOUBLE esas
+-- operaciones acumulan error de redondeo, en DECIMAL coinciden con la suma exacta de los pedidos.
+ALTER TABLE ventas_diarias MODIFY COLUMN total_ventas DECIMAL(14, 2) NULL;
@@ -0,0 +1,4 @@
+-- Secuencias nativas; el incremento debe coincidir con allocationSize de las entidades
+
+CREATE SEQUENCE pedido_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE detalle_pedido_seq START WITH 1 INCREMENT BY 50;
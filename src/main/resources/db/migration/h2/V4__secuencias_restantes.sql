@@ -0,0 +1,7 @@
+-- Secuencias del resto de las entidades; el incremento debe coincidir con allocationSize
+
+CREATE SEQUENCE usuario_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE producto_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE pago_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE envio_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE correo_saliente_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,13 @@
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (next_val).
+-- El incremento lo aplica Hibernate según allocationSize (50). En una base existente la tabla
+-- arranca por encima del mayor id, como en V4__secuencias_restantes.sql.
+
+CREATE TABLE pedido_seq (
+    next_val BIGINT
+);
+INSERT INTO pedido_seq SELECT COALESCE(MAX(id_pedido), 0) + 50 FROM pedido;
+
+CREATE TABLE detalle_pedido_seq (
+    next_val BIGINT
+);
+INSERT INTO detalle_pedido_seq SELECT COALESCE(MAX(id_detalle), 0) + 50 FROM detalle_pedido;
@@ -0,0 +1,27 @@
+-- El resto de las entidades pasa de IDENTITY a secuencias emuladas (ver V1_1__secuencias.sql).
+-- Cada tabla arranca por encima del mayor id existente; SecuenciasConfig la vuelve a sincronizar al iniciar.
+
+CREATE TABLE usuario_seq (
+    next_val BIGINT
+);
+INSERT INTO usuario_seq SELECT COALESCE(MAX(id_usuario), 0) + 50 FROM usuario;
+
+CREATE TABLE producto_seq (
+    next_val BIGINT
+);
+INSERT INTO producto_seq SELECT COALESCE(MAX(id_producto), 0) + 50 FROM producto;
+
+CREATE TABLE pago_seq (
+    next_val BIGINT
+);
+INSERT INTO pago_seq SELECT COALESCE(MAX(id_pago), 0) + 50 FROM pago;
+
+CREATE TABLE envio_seq (
+    next_val BIGINT
+);
+INSERT INTO envio_seq SELECT COALESCE(MAX(id_envio), 0) + 50 FROM envio;
+
+CREATE TABLE correo_saliente_seq (
+    next_val BIGINT
+);
+INSERT INTO correo_saliente_seq SELECT COALESCE(MAX(id_correo), 0) + 50 FROM correo_saliente;
@@ -0,0 +1,52 @@
+package com.cafedronel.cafedronelbackend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FugasConexionesMetricasTest {
+
+    private static final Logger LOGGER_HIKARI = LoggerFactory.getLogger("com.zaxxer.hikari.pool.ProxyLeakTask");
+
+    private SimpleMeterRegistry meterRegistry;
+    private FugasConexionesMetricas metricas;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricas = new FugasConexionesMetricas(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        metricas.destroy();
+    }
+
+    @Test
+    void advertenciaDeFuga_DeberiaIncrementarLaMetrica() {
+        LOGGER_HIKARI.warn("Connection leak detection triggered for {} on thread {}, stack trace follows", "conexion", "hilo");
+        LOGGER_HIKARI.info("Previously reported leaked connection {} on thread {} was returned to the pool (unleaked)", "conexion", "hilo");
+        LoggerFactory.getLogger(FugasConexionesMetricasTest.class).warn("Otra advertencia");
+
+        assertEquals(1.0, fugas());
+    }
+
+    @Test
+    void destroy_DeberiaDejarDeContar() {
+        metricas.destroy();
+
+        LOGGER_HIKARI.warn("Connection leak detection triggered for {} on thread {}, stack trace follows", "conexion", "hilo");
+
+        assertEquals(0.0, fugas());
+    }
+
+    private double fugas() {
+        return meterRegistry.get("hikaricp.connections.leaks").counter().count();
+    }
+}
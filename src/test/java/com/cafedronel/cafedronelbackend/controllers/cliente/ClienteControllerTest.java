@@ -1,8 +1,10 @@
 package com.cafedronel.cafedronelbackend.controllers.cliente;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteUpdateDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.EstadisticasClientesDTO;
 import com.cafedronel.cafedronelbackend.services.cliente.ClienteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -167,13 +169,19 @@ class ClienteControllerTest {
 
     @Test
     @WithMockUser(roles = "ADMINISTRADOR")
-    void buscarClientesPorNombre_DeberiaRetornarClientesEncontrados() throws Exception {
-        when(clienteService.findByNombreContaining("Juan")).thenReturn(Arrays.asList(clienteDTO));
+    void buscarClientes_DeberiaRetornarPaginaDeClientesEncontrados() throws Exception {
+        PaginaCursorDTO<ClienteDTO> pagina = PaginaCursorDTO.<ClienteDTO>builder()
+                .contenido(Arrays.asList(clienteDTO))
+                .tamano(20)
+                .hayMas(false)
+                .build();
+        when(clienteService.buscar("juan per", null, null)).thenReturn(pagina);
 
         mockMvc.perform(get("/api/v1/clientes/buscar")
-                        .param("nombre", "Juan"))
+                        .param("q", "juan per"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].nombre").value("Juan Pérez"));
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Juan Pérez"))
+                .andExpect(jsonPath("$.hayMas").value(false));
     }
 
     @Test
@@ -189,10 +197,18 @@ class ClienteControllerTest {
     @Test
     @WithMockUser(roles = "ADMINISTRADOR")
     void getEstadisticasClientes_DeberiaRetornarEstadisticas() throws Exception {
-        when(clienteService.count()).thenReturn(10L);
+        when(clienteService.obtenerEstadisticas()).thenReturn(EstadisticasClientesDTO.builder()
+                .totalClientes(10L)
+                .clientesConPedidos(4L)
+                .totalPedidos(9L)
+                .totalGastado(300.0)
+                .gastoPromedioPorCliente(30.0)
+                .build());
 
         mockMvc.perform(get("/api/v1/clientes/estadisticas"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.totalClientes").value(10));
+                .andExpect(jsonPath("$.totalClientes").value(10))
+                .andExpect(jsonPath("$.clientesConPedidos").value(4))
+                .andExpect(jsonPath("$.totalGastado").value(300.0));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.cafedronel.cafedronelbackend.controllers.envio;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.envio.EnvioDTO;
 import com.cafedronel.cafedronelbackend.data.model.Envio;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
@@ -71,12 +72,30 @@ class EnvioControllerTest {
     void getAllEnvios() throws Exception {
         when(envioService.findAll()).thenReturn(Arrays.asList(envio));
 
-        mockMvc.perform(get("/api/v1/envios"))
+        mockMvc.perform(get("/api/v1/envios").param("completo", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].idEnvio").value(1))
                 .andExpect(jsonPath("$[0].estado").value("PENDIENTE"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getPaginaEnvios() throws Exception {
+        PaginaCursorDTO<Envio> pagina = PaginaCursorDTO.<Envio>builder()
+                .contenido(Arrays.asList(envio))
+                .tamano(20)
+                .hayMas(true)
+                .siguienteCursor("aWQ6MQ")
+                .build();
+        when(envioService.findPagina("aWQ6MA", 20)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/v1/envios").param("cursor", "aWQ6MA").param("tamano", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].idEnvio").value(1))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.siguienteCursor").value("aWQ6MQ"));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void getEnvioById() throws Exception {
@@ -1,5 +1,6 @@
 package com.cafedronel.cafedronelbackend.controllers.pago;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.pago.PagoDTO;
 import com.cafedronel.cafedronelbackend.data.model.Pago;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
@@ -73,12 +74,30 @@ class PagoControllerTest {
     void getAllPagos() throws Exception {
         when(pagoService.findAll()).thenReturn(Arrays.asList(pago));
 
-        mockMvc.perform(get("/api/v1/pagos"))
+        mockMvc.perform(get("/api/v1/pagos").param("completo", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].idPago").value(1))
                 .andExpect(jsonPath("$[0].estado").value("COMPLETADO"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getPaginaPagos() throws Exception {
+        PaginaCursorDTO<Pago> pagina = PaginaCursorDTO.<Pago>builder()
+                .contenido(Arrays.asList(pago))
+                .tamano(20)
+                .hayMas(true)
+                .siguienteCursor("aWQ6MQ")
+                .build();
+        when(pagoService.findPagina("aWQ6MA", 20)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/v1/pagos").param("cursor", "aWQ6MA").param("tamano", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].idPago").value(1))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.siguienteCursor").value("aWQ6MQ"));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void getPagoById() throws Exception {
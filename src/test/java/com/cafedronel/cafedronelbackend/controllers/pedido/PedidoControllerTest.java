@@ -24,13 +24,16 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.pedido.CambiarEstadoPedidoDTO;
 import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoResumenDTO;
 import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
 import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.checkout.CheckoutService;
 import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -47,6 +50,9 @@ class PedidoControllerTest {
     @MockitoBean
     private PedidoService pedidoService;
 
+    @MockitoBean
+    private CheckoutService checkoutService;
+
     @MockitoBean
     private UsuarioRepository usuarioRepository;
 
@@ -54,6 +60,7 @@ class PedidoControllerTest {
     private PedidoRepository pedidoRepository;
 
     private Pedido pedido;
+    private PedidoResumenDTO pedidoResumen;
     private PedidoDTO pedidoDTO;
     private Usuario usuario;
 
@@ -72,6 +79,13 @@ class PedidoControllerTest {
         pedido.setDireccion("Calle Test 123");
         pedido.setTelefono("123456789");
 
+        pedidoResumen = PedidoResumenDTO.builder()
+                .idPedido(1)
+                .estado(EstadoPedido.PENDIENTE)
+                .idUsuario(1)
+                .nombreCliente("Usuario Test")
+                .build();
+
         pedidoDTO = new PedidoDTO();
         pedidoDTO.setIdUsuario(1);
         pedidoDTO.setDireccion("Calle Test 123");
@@ -81,14 +95,32 @@ class PedidoControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void getAllPedidos() throws Exception {
-        when(pedidoService.findAll()).thenReturn(Arrays.asList(pedido));
+        when(pedidoService.findAllResumen()).thenReturn(Arrays.asList(pedidoResumen));
 
-        mockMvc.perform(get("/api/v1/pedidos"))
+        mockMvc.perform(get("/api/v1/pedidos").param("completo", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].idPedido").value(1))
                 .andExpect(jsonPath("$[0].estado").value("PENDIENTE"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getPaginaPedidos() throws Exception {
+        PaginaCursorDTO<PedidoResumenDTO> pagina = PaginaCursorDTO.<PedidoResumenDTO>builder()
+                .contenido(Arrays.asList(pedidoResumen))
+                .tamano(1)
+                .hayMas(true)
+                .siguienteCursor("aWQ6MQ")
+                .build();
+        when(pedidoService.findPaginaResumen(null, 1)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/v1/pedidos").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].idPedido").value(1))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.siguienteCursor").value("aWQ6MQ"));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void getPedidoById() throws Exception {
@@ -112,7 +144,7 @@ class PedidoControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void getPedidosByUsuarioId() throws Exception {
-        when(pedidoService.findByUsuarioId(1)).thenReturn(Arrays.asList(pedido));
+        when(pedidoService.findResumenByUsuarioId(1)).thenReturn(Arrays.asList(pedidoResumen));
 
         mockMvc.perform(get("/api/v1/pedidos/usuario/1"))
                 .andExpect(status().isOk())
@@ -123,8 +155,7 @@ class PedidoControllerTest {
     @Test
     @WithMockUser(roles = "USER")
     void createPedido() throws Exception {
-        when(usuarioRepository.findById(1)).thenReturn(Optional.of(usuario));
-        when(pedidoService.save(any(Pedido.class))).thenReturn(pedido);
+        when(checkoutService.crearPedido(any(PedidoDTO.class))).thenReturn(pedido);
 
         mockMvc.perform(post("/api/v1/pedidos")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -148,6 +179,18 @@ class PedidoControllerTest {
                 .andExpect(jsonPath("$.estado").value("PENDIENTE"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updatePedido_usuarioNoEncontrado() throws Exception {
+        when(usuarioRepository.findById(1)).thenReturn(Optional.empty());
+
+        mockMvc.perform(put("/api/v1/pedidos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pedidoDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Usuario no encontrado"));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void cambiarEstadoPedido() throws Exception {
@@ -1,23 +1,45 @@
 package com.cafedronel.cafedronelbackend.controllers.producto;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoEncontradoDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoAjusteStock;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.services.producto.ProductoService;
+import com.cafedronel.cafedronelbackend.services.producto.importacion.ImportacionProductoService;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos.Recurso;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +55,12 @@ class ProductoControllerTest {
     @Mock
     private ProductoService productoService;
 
+    @Mock
+    private ImportacionProductoService importacionProductoService;
+
+    @Spy
+    private VersionesDatos versionesDatos = new VersionesDatos();
+
     @InjectMocks
     private ProductoController productoController;
 
@@ -72,7 +100,7 @@ class ProductoControllerTest {
         List<ProductoResponseDTO> productos = Arrays.asList(productoResponseDTO);
         when(productoService.findAll()).thenReturn(productos);
 
-        mockMvc.perform(get("/api/v1/productos"))
+        mockMvc.perform(get("/api/v1/productos").param("completo", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].idProducto", is(1)))
@@ -81,6 +109,78 @@ class ProductoControllerTest {
         verify(productoService, times(1)).findAll();
     }
 
+    @Test
+    void getPaginaProductos_SinCursor_ReturnsPrimeraPagina() throws Exception {
+        PaginaCursorDTO<ProductoResponseDTO> pagina = PaginaCursorDTO.<ProductoResponseDTO>builder()
+                .contenido(Arrays.asList(productoResponseDTO))
+                .tamano(20)
+                .hayMas(false)
+                .build();
+        when(productoService.findPagina(null, null)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/v1/productos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.contenido[0].nombre", is("Café Espresso")))
+                .andExpect(jsonPath("$.hayMas", is(false)));
+
+        verify(productoService, never()).findAll();
+    }
+
+    @Test
+    void getProductoById_ConEtagVigente_Retorna304SinConsultarElServicio() throws Exception {
+        when(productoService.findById(1)).thenReturn(productoResponseDTO);
+        String etag = mockMvc.perform(get("/api/v1/productos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(productoService);
+
+        mockMvc.perform(get("/api/v1/productos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(productoService);
+    }
+
+    @Test
+    void getProductoById_DespuesDeUnCambio_RetornaNuevaVersion() throws Exception {
+        when(productoService.findById(1)).thenReturn(productoResponseDTO);
+        String etag = mockMvc.perform(get("/api/v1/productos/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        versionesDatos.registrarCambio(Recurso.CATALOGO);
+
+        mockMvc.perform(get("/api/v1/productos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre", is("Café Espresso")));
+    }
+
+    @Test
+    void buscarProductos_ConFiltros_RetornaResultadosYFacetas() throws Exception {
+        ProductoEncontradoDTO encontrado = ProductoEncontradoDTO.builder()
+                .idProducto(1).nombre("Café Espresso").categoria("Bebidas").subtipo("Café").precio(3.5).puntaje(4.2).build();
+        BusquedaProductosDTO busqueda = BusquedaProductosDTO.builder()
+                .total(1)
+                .resultados(List.of(encontrado))
+                .categorias(Map.of("Bebidas", 1))
+                .subtipos(Map.of("Café", 1))
+                .build();
+        when(productoService.buscar("cafe", "Bebidas", null, 10)).thenReturn(busqueda);
+
+        mockMvc.perform(get("/api/v1/productos/buscar")
+                        .param("q", "cafe")
+                        .param("categoria", "Bebidas")
+                        .param("limite", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.resultados[0].nombre", is("Café Espresso")))
+                .andExpect(jsonPath("$.categorias.Bebidas", is(1)));
+
+        verify(productoService).buscar("cafe", "Bebidas", null, 10);
+        verify(productoService, never()).findById(any());
+    }
+
     @Test
     void getProductoById_ExistingId_ReturnsProducto() throws Exception {
         when(productoService.findById(1)).thenReturn(productoResponseDTO);
@@ -148,4 +248,82 @@ class ProductoControllerTest {
 
         verify(productoService, times(1)).delete(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void ajustarStock_ValidData_RetornaResultadoPorItem() throws Exception {
+        AjusteStockRequestDTO ajuste = AjusteStockRequestDTO.builder()
+                .items(List.of(new ItemAjusteStockDTO(1, 20), new ItemAjusteStockDTO(2, -3)))
+                .motivo("Recepción de mercadería")
+                .build();
+        AjusteStockResponseDTO respuesta = AjusteStockResponseDTO.builder()
+                .aplicado(true)
+                .resultados(List.of(
+                        new ResultadoAjusteStockDTO(1, 20, 120, EstadoAjusteStock.APLICADO),
+                        new ResultadoAjusteStockDTO(2, -3, 7, EstadoAjusteStock.APLICADO)))
+                .build();
+        when(productoService.ajustarStock(any(AjusteStockRequestDTO.class), any())).thenReturn(respuesta);
+
+        mockMvc.perform(post("/api/v1/productos/stock/ajustes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ajuste)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aplicado", is(true)))
+                .andExpect(jsonPath("$.resultados", hasSize(2)))
+                .andExpect(jsonPath("$.resultados[1].stock", is(7)));
+    }
+
+    @Test
+    void ajustarStock_SinItems_RetornaBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/productos/stock/ajustes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productoService);
+    }
+
+    @Test
+    void importarProductos_Csv_RetornaResultado() throws Exception {
+        ResultadoImportacionDTO resultado = ResultadoImportacionDTO.builder()
+                .filasLeidas(2).creados(1).actualizados(1).filasConError(0).errores(List.of()).build();
+        when(importacionProductoService.importar(any(InputStream.class), eq(FormatoArchivo.CSV))).thenReturn(resultado);
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "catalogo.csv", "text/csv",
+                "sku,nombre,categoria,precio,stock\nA1,Café,Bebidas,3.5,10\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/v1/productos/importar").file(archivo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creados", is(1)))
+                .andExpect(jsonPath("$.actualizados", is(1)));
+    }
+
+    @Test
+    void importarProductos_FormatoNoSoportado_NoImporta() {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "catalogo.pdf", "application/pdf", new byte[]{1});
+
+        Exception excepcion = assertThrows(Exception.class, () ->
+                mockMvc.perform(multipart("/api/v1/productos/importar").file(archivo)));
+
+        assertInstanceOf(BusinessException.class, excepcion.getCause());
+        verifyNoInteractions(importacionProductoService);
+    }
+
+    @Test
+    void exportarProductos_Xlsx_EscribeDirectamenteEnLaRespuesta() throws Exception {
+        byte[] contenido = {1, 2, 3};
+        doAnswer(invocation -> {
+            OutputStream salida = invocation.getArgument(1);
+            salida.write(contenido);
+            return null;
+        }).when(importacionProductoService).exportar(eq(FormatoArchivo.XLSX), any(OutputStream.class));
+
+        MvcResult resultado = mockMvc.perform(get("/api/v1/productos/exportar").param("formato", "xlsx"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", FormatoArchivo.XLSX.getTipoContenido()))
+                .andExpect(header().string("Content-Disposition", containsString(".xlsx")))
+                .andExpect(content().bytes(contenido));
+    }
+}
@@ -2,23 +2,32 @@ package com.cafedronel.cafedronelbackend.controllers.reporte;
 
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteClientesDTO;
 import com.cafedronel.cafedronelbackend.services.reporte.ReporteService;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -31,6 +40,9 @@ class ReporteControllerTest {
     @MockitoBean
     private ReporteService reporteService;
 
+    @MockitoBean
+    private ResumenClienteService resumenClienteService;
+
     private ReporteClientesDTO clienteReporte;
     private byte[] excelData;
 
@@ -77,6 +89,23 @@ class ReporteControllerTest {
                 .andExpect(status().isOk()); // Cambiado temporalmente para que pase la prueba
     }
 
+    @Test
+    @WithMockUser(roles = "ADMINISTRADOR")
+    void obtenerReporteClientes_ConEtagVigente_DeberiaRetornar304SinGenerarReporte() throws Exception {
+        // Arrange
+        when(reporteService.generarReporteClientes()).thenReturn(Arrays.asList(clienteReporte));
+        String etag = mockMvc.perform(get("/api/v1/reportes/clientes"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(reporteService);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/reportes/clientes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(reporteService);
+    }
+
     @Test
     @WithMockUser(roles = "ADMINISTRADOR")
     void obtenerReportePedidos_ConFechas_DeberiaRetornarReporte() throws Exception {
@@ -213,6 +242,31 @@ class ReporteControllerTest {
                 .andExpect(content().bytes(excelData));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMINISTRADOR")
+    void descargarExcelPedidosStreaming_DeberiaEscribirDirectamenteEnLaRespuesta() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream salida = invocation.getArgument(2);
+            salida.write(excelData);
+            return null;
+        }).when(reporteService).exportarExcelPedidos(any(LocalDate.class), any(LocalDate.class), any(OutputStream.class));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/api/v1/reportes/excel/stream/pedidos")
+                        .param("fechaInicio", "2024-01-01")
+                        .param("fechaFin", "2024-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/octet-stream"))
+                .andExpect(header().exists("Content-Disposition"))
+                .andExpect(content().bytes(excelData));
+    }
+
     @Test
     @WithMockUser(roles = "ADMINISTRADOR")
     void listarReportesDisponibles_DeberiaRetornarListaDeReportes() throws Exception {
@@ -244,4 +298,14 @@ class ReporteControllerTest {
         mockMvc.perform(get("/api/v1/reportes/clientes"))
                 .andExpect(status().isForbidden()); // En Spring Security puede retornar 403 en lugar de 401
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMINISTRADOR")
+    void reconstruirResumenClientes_DeberiaRetornarCantidadDeClientes() throws Exception {
+        when(resumenClienteService.reconstruir()).thenReturn(12);
+
+        mockMvc.perform(post("/api/v1/reportes/clientes/reconstruir"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Resumen de clientes reconstruido: 12 clientes"));
+    }
+}
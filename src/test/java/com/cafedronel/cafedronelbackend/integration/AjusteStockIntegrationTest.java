@@ -0,0 +1,128 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoAjusteStock;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.exceptions.AjusteStockRechazadoException;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.ProductoService;
+import com.cafedronel.cafedronelbackend.support.ContadorRondas;
+
+/**
+ * Ajustes de stock por lote. No es transaccional: el rechazo debe revertir de verdad los UPDATE
+ * que alcanzaron a ejecutarse, y eso sólo se ve después de que la transacción del servicio termina.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ContadorRondas.class)
+public class AjusteStockIntegrationTest {
+
+    private static final int PRODUCTOS = 20;
+    private static final int STOCK_INICIAL = 10;
+    // Un lote de UPDATE sobre producto y un lote de INSERT en movimiento_stock
+    private static final long ESCRITURAS_POR_AJUSTE = 2;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContadorRondas contadorRondas;
+
+    private List<Producto> productos;
+
+    @BeforeEach
+    void setUp() {
+        productos = new ArrayList<>();
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Café Ajuste " + i);
+            producto.setCategoria("Bebidas");
+            producto.setPrecio(5.0);
+            producto.setStock(STOCK_INICIAL);
+            producto.setActivo(true);
+            productos.add(producto);
+        }
+        productos = productoRepository.saveAll(productos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Producto producto : productos) {
+            jdbcTemplate.update("DELETE FROM movimiento_stock WHERE id_producto = ?", producto.getIdProducto());
+        }
+        productoRepository.deleteAll(productos);
+    }
+
+    @Test
+    void ajustarStock_VariosProductos_AplicaEnDosRondasYRegistraCadaMovimiento() throws Exception {
+        List<ItemAjusteStockDTO> items = new ArrayList<>();
+        for (int i = 0; i < PRODUCTOS; i++) {
+            // Ingresos en los pares, salidas que dejan el stock en cero en los impares
+            items.add(new ItemAjusteStockDTO(productos.get(i).getIdProducto(), i % 2 == 0 ? i + 1 : -STOCK_INICIAL));
+        }
+        AjusteStockResponseDTO[] respuesta = new AjusteStockResponseDTO[1];
+
+        long escrituras = contadorRondas.contarEscrituras(() -> respuesta[0] = productoService.ajustarStock(
+                new AjusteStockRequestDTO(items, "Inventario mensual"), "admin@example.com"));
+
+        assertEquals(ESCRITURAS_POR_AJUSTE, escrituras);
+        assertTrue(respuesta[0].isAplicado());
+        for (int i = 0; i < PRODUCTOS; i++) {
+            int esperado = i % 2 == 0 ? STOCK_INICIAL + i + 1 : 0;
+            assertEquals(esperado, respuesta[0].getResultados().get(i).getStock());
+            assertEquals(esperado, productoRepository.findStockById(productos.get(i).getIdProducto()).orElseThrow());
+        }
+
+        Map<String, Object> movimiento = jdbcTemplate.queryForMap(
+                "SELECT cantidad, stock_resultante, motivo, usuario FROM movimiento_stock WHERE id_producto = ?",
+                productos.get(2).getIdProducto());
+        assertEquals(3, ((Number) movimiento.get("cantidad")).intValue());
+        assertEquals(STOCK_INICIAL + 3, ((Number) movimiento.get("stock_resultante")).intValue());
+        assertEquals("Inventario mensual", movimiento.get("motivo"));
+        assertEquals("admin@example.com", movimiento.get("usuario"));
+    }
+
+    @Test
+    void ajustarStock_UnaSalidaMayorAlStock_NoAplicaNingunAjuste() {
+        Integer primero = productos.get(0).getIdProducto();
+        Integer segundo = productos.get(1).getIdProducto();
+        AjusteStockRequestDTO ajuste = new AjusteStockRequestDTO(List.of(
+                new ItemAjusteStockDTO(primero, 5),
+                new ItemAjusteStockDTO(segundo, -(STOCK_INICIAL + 1))), null);
+
+        AjusteStockRechazadoException excepcion = assertThrows(AjusteStockRechazadoException.class,
+                () -> productoService.ajustarStock(ajuste, null));
+
+        assertEquals(EstadoAjusteStock.REVERTIDO, excepcion.getResultados().get(0).getEstado());
+        assertEquals(EstadoAjusteStock.STOCK_INSUFICIENTE, excepcion.getResultados().get(1).getEstado());
+        assertEquals(STOCK_INICIAL, productoRepository.findStockById(primero).orElseThrow());
+        assertEquals(STOCK_INICIAL, productoRepository.findStockById(segundo).orElseThrow());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM movimiento_stock WHERE id_producto IN (?, ?)", Integer.class, primero, segundo));
+    }
+}
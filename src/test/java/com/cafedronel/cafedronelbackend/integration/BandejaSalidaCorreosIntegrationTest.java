@@ -0,0 +1,157 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.cafedronel.cafedronelbackend.data.dto.password.ForgotRequest;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo;
+import com.cafedronel.cafedronelbackend.data.model.CorreoSaliente;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.CorreoSalienteRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.email.BandejaSalidaCorreos;
+import com.cafedronel.cafedronelbackend.services.password.PasswordService;
+import com.cafedronel.cafedronelbackend.support.ServidorSmtpFalso;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La recuperación de contraseña sólo encola el correo; la bandeja lo envía después
+ * contra un servidor SMTP falso, por lotes y con reintentos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BandejaSalidaCorreosIntegrationTest {
+
+    private static final ServidorSmtpFalso SMTP = new ServidorSmtpFalso();
+    private static final int MAX_INTENTOS = 3;
+
+    @DynamicPropertySource
+    static void configurarSmtp(DynamicPropertyRegistry registro) {
+        registro.add("spring.mail.host", () -> "127.0.0.1");
+        registro.add("spring.mail.port", SMTP::puerto);
+        registro.add("correo.outbox.lote", () -> 10);
+        registro.add("correo.outbox.max-intentos", () -> MAX_INTENTOS);
+        // Sin espera entre reintentos para no depender del reloj
+        registro.add("correo.outbox.backoff-inicial-segundos", () -> 0);
+    }
+
+    @Autowired
+    private BandejaSalidaCorreos bandejaSalida;
+
+    @Autowired
+    private CorreoSalienteRepository correoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        correoRepository.deleteAll();
+        SMTP.reiniciar();
+
+        usuario = new Usuario();
+        usuario.setNombre("Cliente");
+        usuario.setApellido("Correo");
+        usuario.setCorreo("recuperar@example.com");
+        usuario.setContrasena("secreta");
+        usuario.setRol(Rol.CLIENTE);
+        usuario.setActivo(true);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        correoRepository.deleteAll();
+        usuarioRepository.delete(usuario);
+    }
+
+    @AfterAll
+    static void cerrarServidor() {
+        SMTP.close();
+    }
+
+    @Test
+    void forgotAccount_DeberiaEncolarSinContactarAlServidorSmtp() {
+        passwordService.forgotAccount(new ForgotRequest("recuperar@example.com"));
+
+        assertEquals(0, SMTP.conexiones());
+        List<CorreoSaliente> correos = correoRepository.findAll();
+        assertEquals(1, correos.size());
+        assertEquals(EstadoCorreo.PENDIENTE, correos.get(0).getEstado());
+        assertEquals("recuperar@example.com", correos.get(0).getDestinatario());
+        String codigo = usuarioRepository.findById(usuario.getIdUsuario()).orElseThrow().getRecoveryCode();
+        assertTrue(correos.get(0).getCuerpo().contains(codigo));
+
+        assertEquals(1, bandejaSalida.procesarLote());
+
+        CorreoSaliente enviado = correoRepository.findById(correos.get(0).getIdCorreo()).orElseThrow();
+        assertEquals(EstadoCorreo.ENVIADO, enviado.getEstado());
+        assertNotNull(enviado.getEnviadoEn());
+        assertEquals(1, SMTP.mensajes().size());
+        assertTrue(SMTP.mensajes().get(0).contains("recuperar@example.com"));
+    }
+
+    @Test
+    void procesarLote_DeberiaEnviarElLoteCompletoPorUnaSolaConexion() {
+        for (int i = 0; i < 5; i++) {
+            bandejaSalida.encolar("cliente" + i + "@example.com", "Asunto " + i, "<p>Hola " + i + "</p>");
+        }
+        long lotesAntes = meterRegistry.get("correo.outbox.envio").timer().count();
+
+        assertEquals(5, bandejaSalida.procesarLote());
+
+        assertEquals(1, SMTP.conexiones());
+        assertEquals(5, SMTP.mensajes().size());
+        assertTrue(correoRepository.findAll().stream().allMatch(correo -> correo.getEstado() == EstadoCorreo.ENVIADO));
+        assertEquals(lotesAntes + 1, meterRegistry.get("correo.outbox.envio").timer().count());
+        assertEquals(0, bandejaSalida.procesarLote());
+    }
+
+    @Test
+    void procesarLote_ConFallaTemporal_DeberiaReintentarYLuegoDescartar() {
+        SMTP.rechazarMensajes(true);
+        Integer idCorreo = bandejaSalida.encolar("cliente@example.com", "Asunto", "<p>Hola</p>").getIdCorreo();
+
+        bandejaSalida.procesarLote();
+
+        CorreoSaliente reintento = correoRepository.findById(idCorreo).orElseThrow();
+        assertEquals(EstadoCorreo.PENDIENTE, reintento.getEstado());
+        assertEquals(1, reintento.getIntentos());
+        assertNotNull(reintento.getUltimoError());
+
+        for (int intento = 2; intento <= MAX_INTENTOS; intento++) {
+            bandejaSalida.procesarLote();
+        }
+
+        CorreoSaliente descartado = correoRepository.findById(idCorreo).orElseThrow();
+        assertEquals(EstadoCorreo.FALLIDO, descartado.getEstado());
+        assertEquals(MAX_INTENTOS, descartado.getIntentos());
+
+        SMTP.rechazarMensajes(false);
+        assertEquals(0, bandejaSalida.procesarLote());
+        assertTrue(SMTP.mensajes().isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteUpdateDTO;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.cliente.ClienteService;
+import com.cafedronel.cafedronelbackend.services.cliente.IndiceBusquedaClientes;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BusquedaClientesIntegrationTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private ClienteDTO jose;
+    private ClienteDTO josefina;
+
+    @BeforeEach
+    void setUp() {
+        jose = registrar("José Pérez", "jose.perez@example.com");
+        josefina = registrar("Josefina Peña", "jpena@example.com");
+        registrar("Ana Torres", "ana.torres@example.com");
+    }
+
+    @Test
+    void buscar_SinTildesNiMayusculas_EncuentraPorPrefijo() {
+        assertEquals(List.of(jose.getIdUsuario(), josefina.getIdUsuario()), ids(clienteService.buscar("JOSE", null, null)));
+        assertEquals(List.of(josefina.getIdUsuario()), ids(clienteService.buscar("pena", null, null)));
+    }
+
+    @Test
+    void buscar_ConVariosTerminos_ExigeTodos() {
+        assertEquals(List.of(jose.getIdUsuario()), ids(clienteService.buscar("jos pér", null, null)));
+        assertTrue(ids(clienteService.buscar("jose torres", null, null)).isEmpty());
+    }
+
+    @Test
+    void buscar_PorCorreo_UsaSoloLaParteLocal() {
+        assertEquals(List.of(josefina.getIdUsuario()), ids(clienteService.buscar("jpena@example.com", null, null)));
+        assertTrue(ids(clienteService.buscar("example", null, null)).isEmpty());
+    }
+
+    @Test
+    void buscar_PorPaginas_SigueElCursor() {
+        PaginaCursorDTO<ClienteDTO> primera = clienteService.buscar("jos", null, 1);
+        assertTrue(primera.isHayMas());
+        assertEquals(List.of(jose.getIdUsuario()), ids(primera));
+
+        PaginaCursorDTO<ClienteDTO> segunda = clienteService.buscar("jos", primera.getSiguienteCursor(), 1);
+        assertFalse(segunda.isHayMas());
+        assertNull(segunda.getSiguienteCursor());
+        assertEquals(List.of(josefina.getIdUsuario()), ids(segunda));
+    }
+
+    @Test
+    void buscar_TextoMuyCorto_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> clienteService.buscar("j", null, null));
+    }
+
+    @Test
+    void update_ReemplazaLasPalabrasDeBusqueda() {
+        clienteService.update(jose.getIdUsuario(), ClienteUpdateDTO.builder().nombre("Pepe").apellido("Quispe").build());
+
+        assertTrue(ids(clienteService.buscar("jose perez", null, null)).isEmpty());
+        assertEquals(List.of(jose.getIdUsuario()), ids(clienteService.buscar("pepe quis", null, null)));
+    }
+
+    @Test
+    void indexarPendientes_CompletaUsuariosCreadosPorFueraDelServicio() {
+        Usuario directo = new Usuario();
+        directo.setNombre("Úrsula");
+        directo.setApellido("Ñahui");
+        directo.setCorreo("ursula@example.com");
+        directo.setContrasena("x");
+        directo.setRol(Rol.CLIENTE);
+        directo = usuarioRepository.saveAndFlush(directo);
+        assertTrue(ids(clienteService.buscar("ursula", null, null)).isEmpty());
+
+        indiceBusquedaClientes.indexarPendientes();
+
+        assertEquals(List.of(directo.getIdUsuario()), ids(clienteService.buscar("ursula nahui", null, null)));
+    }
+
+    private ClienteDTO registrar(String nombre, String correo) {
+        return clienteService.save(ClienteRequestDTO.builder()
+                .nombre(nombre)
+                .correo(correo)
+                .contrasena("password123")
+                .telefono("987654321")
+                .direccion("Av. Arequipa 123")
+                .build());
+    }
+
+    private static List<Integer> ids(PaginaCursorDTO<ClienteDTO> pagina) {
+        return pagina.getContenido().stream().map(ClienteDTO::getIdUsuario).toList();
+    }
+}
@@ -0,0 +1,171 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cafedronel.cafedronelbackend.data.dto.pedido.DetallePedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.ResumenCliente;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.checkout.CheckoutService;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
+
+/**
+ * Checkouts simultáneos del mismo día. No es transaccional: cada hilo confirma su propia
+ * transacción, así compiten de verdad por la fila del resumen de ventas de hoy y por la del cliente.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CheckoutConcurrenteIntegrationTest {
+
+    private static final int COMPRADORES = 20;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private VentaDiariaService ventaDiariaService;
+
+    @Autowired
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private final List<Usuario> clientes = new ArrayList<>();
+    private final List<Producto> productos = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Integer> pedidos = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < COMPRADORES; i++) {
+            Usuario cliente = new Usuario();
+            cliente.setNombre("Cliente");
+            cliente.setApellido("Concurrente " + i);
+            cliente.setCorreo("concurrente" + i + "@example.com");
+            cliente.setContrasena("secreta");
+            cliente.setRol(Rol.CLIENTE);
+            cliente.setActivo(true);
+            clientes.add(usuarioRepository.save(cliente));
+
+            // Un producto por comprador para que no se esperen en el bloqueo del stock
+            Producto producto = new Producto();
+            producto.setNombre("Producto Concurrente " + i);
+            producto.setCategoria("Bebidas");
+            producto.setPrecio(2.5 + i);
+            producto.setStock(10);
+            producto.setActivo(true);
+            productos.add(productoRepository.save(producto));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidos.forEach(pedidoService::delete);
+        productos.forEach(producto -> productoRepository.deleteById(producto.getIdProducto()));
+        clientes.forEach(cliente -> usuarioRepository.deleteById(cliente.getIdUsuario()));
+    }
+
+    @Test
+    void checkoutsDelMismoDia_DeberianConfirmarseTodosYSumarseAlResumen() throws Exception {
+        LocalDate hoy = LocalDate.now();
+        int pedidosAntes = pedidosDelDia(hoy);
+
+        ejecutarALaVez(i -> pedidos.add(checkoutService.crearPedido(crearPedidoDTO(clientes.get(i), productos.get(i))).getIdPedido()));
+
+        assertEquals(COMPRADORES, pedidos.size());
+        assertEquals(pedidosAntes + COMPRADORES, pedidosDelDia(hoy));
+        assertEquals(ventaDiariaService.calcularVentasDesdePedidos(hoy, hoy), ventaDiariaService.obtenerVentas(hoy, hoy));
+    }
+
+    @Test
+    void primerosPedidosDeUnClienteALaVez_DeberianContarseTodosEnSuResumen() throws Exception {
+        Usuario cliente = clientes.get(0);
+        assertFalse(resumenClienteRepository.existsById(cliente.getIdUsuario()));
+
+        // Nadie tiene todavía la fila del cliente: todos los hilos intentan crearla a la vez
+        ejecutarALaVez(i -> pedidos.add(checkoutService.crearPedido(crearPedidoDTO(cliente, productos.get(i))).getIdPedido()));
+
+        ResumenCliente resumen = resumenClienteRepository.findById(cliente.getIdUsuario()).orElseThrow();
+        assertEquals(COMPRADORES, resumen.getTotalPedidos());
+        assertEquals(LocalDate.now(), resumen.getUltimoPedido());
+    }
+
+    private int pedidosDelDia(LocalDate dia) {
+        return ventaDiariaService.obtenerVentas(dia, dia).stream()
+                .mapToInt(venta -> venta.getTotalPedidos())
+                .sum();
+    }
+
+    private void ejecutarALaVez(Compra compra) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(COMPRADORES);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> compras = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < COMPRADORES; i++) {
+                int indice = i;
+                compras.add(executor.submit(() -> {
+                    salida.await();
+                    compra.ejecutar(indice);
+                    return null;
+                }));
+            }
+
+            // Todos los hilos arrancan a la vez para maximizar la contención; un checkout fallido falla la prueba
+            salida.countDown();
+            for (Future<?> resultado : compras) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PedidoDTO crearPedidoDTO(Usuario cliente, Producto producto) {
+        DetallePedidoDTO detalle = new DetallePedidoDTO();
+        detalle.setIdProducto(producto.getIdProducto());
+        detalle.setCantidad(2);
+
+        PedidoDTO pedidoDTO = new PedidoDTO();
+        pedidoDTO.setIdUsuario(cliente.getIdUsuario());
+        pedidoDTO.setTelefono("123456789");
+        pedidoDTO.setDireccion("Calle Concurrente 1");
+        pedidoDTO.setDetalles(List.of(detalle));
+        return pedidoDTO;
+    }
+
+    @FunctionalInterface
+    private interface Compra {
+        void ejecutar(int indice);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.producto.importacion.ImportacionProductoService;
+import com.cafedronel.cafedronelbackend.support.RegistroFetchSize;
+import com.cafedronel.cafedronelbackend.support.RegistroSentencias;
+
+/**
+ * Los cursores de las exportaciones deben llegar al driver con su fetch size; sobre MySQL
+ * Connector/J además necesita useCursorFetch=true o lee el resultado entero en memoria.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(RegistroFetchSize.class)
+public class CursoresExportacionIntegrationTest {
+
+    private static final int FETCH_SIZE = 500;
+    private static final java.util.Date INICIO = java.sql.Date.valueOf(LocalDate.of(2025, 1, 1));
+    private static final java.util.Date FIN = java.sql.Date.valueOf(LocalDate.of(2025, 1, 31));
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ImportacionProductoService importacionProductoService;
+
+    @Test
+    void cursoresDeExportacion_DeberianPasarElFetchSizeAlDriver() throws Exception {
+        Map<String, RegistroSentencias.Accion> cursores = new LinkedHashMap<>();
+        cursores.put("ProductoRepository.streamAll", () -> consumir(productoRepository.streamAll()));
+        cursores.put("PedidoRepository.streamReportePedidos(fechas)",
+                () -> consumir(pedidoRepository.streamReportePedidos(INICIO, FIN)));
+        cursores.put("PedidoRepository.streamReportePedidos", () -> consumir(pedidoRepository.streamReportePedidos()));
+        cursores.put("ResumenClienteRepository.streamReporteClientes",
+                () -> consumir(resumenClienteRepository.streamReporteClientes(Rol.CLIENTE)));
+        cursores.put("UsuarioRepository.streamByRolOrderByIdUsuario",
+                () -> consumir(usuarioRepository.streamByRolOrderByIdUsuario(Rol.CLIENTE)));
+
+        List<String> sinFetchSize = new ArrayList<>();
+        for (Map.Entry<String, RegistroSentencias.Accion> cursor : cursores.entrySet()) {
+            Map<String, Integer> consultas = RegistroFetchSize.grabar(cursor.getValue());
+            assertFalse(consultas.isEmpty(), cursor.getKey() + " no ejecutó ninguna consulta");
+            consultas.forEach((sql, fetchSize) -> {
+                if (fetchSize != FETCH_SIZE) {
+                    sinFetchSize.add(cursor.getKey() + " (fetch size " + fetchSize + "): " + sql);
+                }
+            });
+        }
+
+        assertTrue(sinFetchSize.isEmpty(), "Cursores sin fetch size:\n" + String.join("\n", sinFetchSize));
+    }
+
+    @Test
+    void exportarProductos_DeberiaLeerElCatalogoConElCursor() throws Exception {
+        Map<String, Integer> consultas = RegistroFetchSize.grabar(
+                () -> importacionProductoService.exportar(FormatoArchivo.XLSX, new ByteArrayOutputStream()));
+
+        // La exportación masiva recorre todo el catálogo: una sola consulta, con el fetch size del cursor
+        assertEquals(1, consultas.size(), consultas.keySet().toString());
+        assertEquals(FETCH_SIZE, consultas.values().iterator().next());
+    }
+
+    @Test
+    void urlDeMySql_DeberiaUsarCursoresDelServidorEnTodosLosPerfiles() throws Exception {
+        String url = propiedades("application.properties").getProperty("spring.datasource.url");
+        assertTrue(url.startsWith("jdbc:mysql:") && url.contains("useCursorFetch=true"), url);
+
+        // Los perfiles de despliegue heredan la URL base; si alguno la redefine debe conservar la opción
+        for (String perfil : new String[]{"prod", "virtual", "benchmark"}) {
+            String propia = propiedades("application-" + perfil + ".properties").getProperty("spring.datasource.url");
+            assertTrue(propia == null || propia.contains("useCursorFetch=true"), perfil + ": " + propia);
+        }
+    }
+
+    private static Properties propiedades(String archivo) throws Exception {
+        return PropertiesLoaderUtils.loadProperties(new ClassPathResource(archivo));
+    }
+
+    private static void consumir(Stream<?> filas) {
+        try (filas) {
+            filas.count();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ErrorImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.importacion.ImportacionProductoService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Importación por SKU en lotes de dos filas, para que el archivo cruce varios lotes
+ */
+@SpringBootTest(properties = "productos.importacion.lote=2")
+@ActiveProfiles("test")
+@Transactional
+public class ImportacionProductosIntegrationTest {
+
+    @Autowired
+    private ImportacionProductoService importacionProductoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Producto existente = new Producto();
+        existente.setSku("IMP-1");
+        existente.setNombre("Café Importado");
+        existente.setCategoria("Bebidas");
+        existente.setPrecio(10.0);
+        existente.setStock(5);
+        existente.setActivo(true);
+        productoRepository.save(existente);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void importarCsv_DeberiaActualizarPorSkuCrearLosNuevosEInformarErrores() {
+        String csv = """
+                SKU;Nombre;Categoría;Precio;Stock;Activo;Proveedor
+                IMP-1;Café Importado Premium;Bebidas;12,5;8;sí;Finca Norte
+                IMP-2;Prensa Francesa;Cafeteras;45;3;;Finca Norte
+                IMP-3;;Accesorios;2;1;;
+                IMP-4;Filtro de papel;Accesorios;gratis;100;;
+                IMP-5;Molinillo manual;Accesorios;30.0;2.0;no;
+                """;
+
+        ResultadoImportacionDTO resultado = importar(csv, FormatoArchivo.CSV);
+
+        assertEquals(5, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getCreados());
+        assertEquals(1, resultado.getActualizados());
+        assertEquals(2, resultado.getFilasConError());
+        assertEquals(List.of(4, 5), resultado.getErrores().stream().map(ErrorImportacionDTO::getFila).toList());
+        assertTrue(resultado.getErrores().get(0).getMensaje().contains("nombre"));
+        assertTrue(resultado.getErrores().get(1).getMensaje().contains("precio"));
+
+        Producto actualizado = productoRepository.findBySku("IMP-1").orElseThrow();
+        assertEquals("Café Importado Premium", actualizado.getNombre());
+        assertEquals(12.5, actualizado.getPrecio());
+        // El stock de un producto existente no se pisa: cambia sólo con ajustes registrados
+        assertEquals(5, actualizado.getStock());
+
+        Producto nuevo = productoRepository.findBySku("IMP-2").orElseThrow();
+        assertEquals("Prensa Francesa", nuevo.getNombre());
+        assertEquals(3, nuevo.getStock());
+        assertTrue(nuevo.getActivo());
+        assertFalse(productoRepository.findBySku("IMP-5").orElseThrow().getActivo());
+        assertTrue(productoRepository.findBySku("IMP-3").isEmpty());
+    }
+
+    @Test
+    void importarCsv_SinColumnasObligatorias_DeberiaRechazarElArchivo() {
+        BusinessException excepcion = assertThrows(BusinessException.class,
+                () -> importar("sku,nombre\nIMP-9,Café\n", FormatoArchivo.CSV));
+
+        assertTrue(excepcion.getMessage().contains("categoria"));
+        assertTrue(productoRepository.findBySku("IMP-9").isEmpty());
+    }
+
+    @Test
+    void exportarEImportarXlsx_DeberiaDejarElCatalogoIgual() {
+        importar("sku,nombre,categoria,subtipo,precio,stock\nIMP-2,Prensa Francesa,Cafeteras,Manual,45.9,3\n",
+                FormatoArchivo.CSV);
+        long productos = productoRepository.count();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        importacionProductoService.exportar(FormatoArchivo.XLSX, salida);
+        ResultadoImportacionDTO resultado = importacionProductoService.importar(
+                new ByteArrayInputStream(salida.toByteArray()), FormatoArchivo.XLSX);
+
+        // Los productos sin SKU (dados de alta por otras pruebas) se exportan pero no pueden reimportarse
+        assertEquals(0, resultado.getCreados());
+        assertEquals(resultado.getFilasLeidas() - resultado.getFilasConError(), resultado.getActualizados());
+        assertEquals(productos, productoRepository.count());
+        Producto prensa = productoRepository.findBySku("IMP-2").orElseThrow();
+        assertEquals(45.9, prensa.getPrecio());
+        assertEquals("Manual", prensa.getSubtipo());
+    }
+
+    @Test
+    void exportarCsv_DeberiaIncluirLasColumnasDeLaImportacion() {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        importacionProductoService.exportar(FormatoArchivo.CSV, salida);
+
+        String csv = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("\uFEFFsku,nombre,categoria,subtipo,descripcion,precio,stock,activo\r\n"));
+        assertTrue(csv.contains("IMP-1,Café Importado,Bebidas,,,10,5,true\r\n"));
+    }
+
+    private ResultadoImportacionDTO importar(String contenido, FormatoArchivo formato) {
+        return importacionProductoService.importar(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+}
@@ -0,0 +1,88 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ErrorImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ResultadoImportacionDTO;
+import com.cafedronel.cafedronelbackend.data.enums.FormatoArchivo;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.importacion.ImportacionProductoService;
+
+/**
+ * Un lote que falla al guardarse no corta la importación. No es transaccional: cada lote confirma
+ * su propia transacción, igual que en una importación real.
+ */
+@SpringBootTest(properties = "productos.importacion.lote=2")
+@ActiveProfiles("test")
+public class ImportacionProductosLotesIntegrationTest {
+
+    private static final List<String> SKUS = List.of("LOTE-1", "LOTE-2", "LOTE-3", "LOTE-4", "LOTE-5");
+
+    @Autowired
+    private ImportacionProductoService importacionProductoService;
+
+    @MockitoSpyBean
+    private ProductoRepository productoRepository;
+
+    @BeforeEach
+    void setUp() {
+        Producto existente = new Producto();
+        existente.setSku("LOTE-2");
+        existente.setNombre("Café Existente");
+        existente.setCategoria("Bebidas");
+        existente.setPrecio(10.0);
+        existente.setStock(5);
+        existente.setActivo(true);
+        productoRepository.save(existente);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Por SKU uno a uno: findBySkuIn sigue simulado hasta que termina la prueba
+        SKUS.forEach(sku -> productoRepository.findBySku(sku).ifPresent(productoRepository::delete));
+    }
+
+    @Test
+    void importar_LoteQueViolaElSkuUnico_DeberiaInformarloYSeguirConLosDemas() {
+        // Otra importación creó LOTE-2 entre la búsqueda por SKU y el flush: el lote intenta insertarlo de nuevo
+        doReturn(List.of()).when(productoRepository).findBySkuIn(argThat(skus -> skus != null && skus.contains("LOTE-2")));
+        String csv = """
+                sku,nombre,categoria,precio,stock
+                LOTE-1,Prensa Francesa,Cafeteras,45,3
+                LOTE-2,Café Duplicado,Bebidas,12,8
+                LOTE-3,Filtro de papel,Accesorios,2,100
+                LOTE-4,Molinillo manual,Accesorios,30,2
+                LOTE-5,Taza doble,Accesorios,8,10
+                """;
+
+        ResultadoImportacionDTO resultado = importacionProductoService.importar(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), FormatoArchivo.CSV);
+
+        assertEquals(5, resultado.getFilasLeidas());
+        assertEquals(3, resultado.getCreados());
+        assertEquals(2, resultado.getFilasConError());
+        assertEquals(List.of(2, 3), resultado.getErrores().stream().map(ErrorImportacionDTO::getFila).toList());
+        assertTrue(resultado.getErrores().get(0).getMensaje().startsWith("No se pudo guardar el lote"));
+
+        // El lote fallido se revierte entero; los siguientes se guardan
+        assertTrue(productoRepository.findBySku("LOTE-1").isEmpty());
+        assertEquals("Café Existente", productoRepository.findBySku("LOTE-2").orElseThrow().getNombre());
+        assertEquals(3, productoRepository.findBySkuIn(List.of("LOTE-3", "LOTE-4", "LOTE-5")).size());
+    }
+}
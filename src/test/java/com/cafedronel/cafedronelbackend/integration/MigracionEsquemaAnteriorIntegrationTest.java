@@ -0,0 +1,89 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Arranca la aplicación sobre una base creada por Hibernate antes de Flyway (db/esquema-anterior.sql):
+ * Flyway la marca en la versión 1 y debe aplicar todas las migraciones siguientes, y la carga inicial
+ * debe completar los totales y los resúmenes de los pedidos que ya existían.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class MigracionEsquemaAnteriorIntegrationTest {
+
+    private static final String URL = "jdbc:h2:mem:esquema_anterior;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseAnterior(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "")) {
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("DROP ALL OBJECTS");
+            }
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/esquema-anterior.sql"));
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void migrar_DeberiaMarcarLaVersion1YAplicarLasSiguientes() {
+        MigrationInfo[] aplicadas = flyway.info().applied();
+
+        assertEquals(MigrationType.BASELINE, aplicadas[0].getType());
+        assertEquals("1", aplicadas[0].getVersion().getVersion());
+        assertEquals("1.1", aplicadas[1].getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+        for (String tabla : new String[]{"ventas_diarias", "resumen_cliente", "correo_saliente", "movimiento_stock"}) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE 1 = 0", Integer.class));
+        }
+    }
+
+    @Test
+    void arranque_DeberiaCompletarTotalesDeLosPedidosAnteriores() {
+        assertDecimal("17.25", jdbcTemplate.queryForObject("SELECT total FROM pedido WHERE id_pedido = 1", BigDecimal.class));
+        assertDecimal("10.50", jdbcTemplate.queryForObject("SELECT total FROM pedido WHERE id_pedido = 2", BigDecimal.class));
+        assertDecimal("10.50", jdbcTemplate.queryForObject(
+                "SELECT subtotal FROM detalle_pedido WHERE id_pedido = 2", BigDecimal.class));
+    }
+
+    @Test
+    void arranque_DeberiaCargarLosResumenesDesdeLosPedidosAnteriores() {
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ventas_diarias", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT total_pedidos FROM resumen_cliente WHERE id_usuario = 1", Integer.class));
+        assertDecimal("27.75", jdbcTemplate.queryForObject(
+                "SELECT total_gastado FROM resumen_cliente WHERE id_usuario = 1", BigDecimal.class));
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM usuario_token_busqueda WHERE id_usuario = 1", Integer.class) > 0);
+    }
+
+    private static void assertDecimal(String esperado, BigDecimal valor) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(valor), "Esperado " + esperado + ", obtenido " + valor);
+    }
+}
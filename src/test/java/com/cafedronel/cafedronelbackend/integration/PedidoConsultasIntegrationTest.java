@@ -0,0 +1,202 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoResumenDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Envio;
+import com.cafedronel.cafedronelbackend.data.model.Pago;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.support.ContadorConsultas;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Los listados de pedidos deben resolverse con un número fijo de consultas,
+ * sin importar cuántos pedidos, detalles, pagos y envíos haya.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class PedidoConsultasIntegrationTest {
+
+    private static final int PEDIDOS = 15;
+    private static final int DETALLES_POR_PEDIDO = 3;
+    private static final long PRESUPUESTO_LISTADO = 1;
+    // Una consulta para los ids de la página y otra para su grafo
+    private static final long PRESUPUESTO_PAGINA = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ContadorConsultas contadorConsultas;
+    private Usuario cliente;
+
+    @BeforeEach
+    void setUp() {
+        contadorConsultas = new ContadorConsultas(entityManagerFactory);
+
+        cliente = new Usuario();
+        cliente.setNombre("Cliente");
+        cliente.setApellido("Consultas");
+        cliente.setCorreo("consultas@example.com");
+        cliente.setContrasena("secreta");
+        cliente.setRol(Rol.CLIENTE);
+        cliente.setActivo(true);
+        cliente = usuarioRepository.save(cliente);
+
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < DETALLES_POR_PEDIDO; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto Consultas " + i);
+            producto.setCategoria("Bebidas");
+            producto.setPrecio(4.0 + i);
+            producto.setStock(100);
+            producto.setActivo(true);
+            productos.add(productoRepository.save(producto));
+        }
+
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidoRepository.save(crearPedido(i, productos));
+        }
+
+        // Se vacía el contexto para que cada asociación tenga que leerse desde la base de datos
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listarPedidos_DeberiaRespetarElPresupuestoDeConsultas() throws Exception {
+        contadorConsultas.verificarPresupuesto("GET /api/v1/pedidos", PRESUPUESTO_LISTADO, () ->
+                mockMvc.perform(get("/api/v1/pedidos").param("completo", "true"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(PEDIDOS))
+                        .andExpect(jsonPath("$[0].correoCliente").value("consultas@example.com"))
+                        .andExpect(jsonPath("$[0].metodoPago").value("TARJETA"))
+                        .andExpect(jsonPath("$[0].numeroSeguimiento").exists())
+                        .andExpect(jsonPath("$[0].detalles.length()").value(DETALLES_POR_PEDIDO))
+                        .andExpect(jsonPath("$[0].detalles[0].nombreProducto").exists()));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void paginaDePedidos_DeberiaRespetarElPresupuestoDeConsultas() throws Exception {
+        contadorConsultas.verificarPresupuesto("GET /api/v1/pedidos?tamano=5", PRESUPUESTO_PAGINA, () ->
+                mockMvc.perform(get("/api/v1/pedidos").param("tamano", "5"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.contenido.length()").value(5))
+                        .andExpect(jsonPath("$.contenido[0].detalles.length()").value(DETALLES_POR_PEDIDO))
+                        .andExpect(jsonPath("$.hayMas").value(true)));
+    }
+
+    @Test
+    void recorrerPaginas_DeberiaEntregarCadaPedidoUnaSolaVezYEnOrden() {
+        List<Integer> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaCursorDTO<PedidoResumenDTO> pagina = pedidoService.findPaginaResumen(cursor, 4);
+            pagina.getContenido().forEach(pedido -> vistos.add(pedido.getIdPedido()));
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(PEDIDOS, vistos.size());
+        assertEquals(vistos.stream().sorted().distinct().toList(), vistos);
+        assertEquals((PEDIDOS + 3) / 4, paginas);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listarPedidosDeUsuario_DeberiaRespetarElPresupuestoDeConsultas() throws Exception {
+        contadorConsultas.verificarPresupuesto("GET /api/v1/pedidos/usuario/{id}", PRESUPUESTO_LISTADO, () ->
+                mockMvc.perform(get("/api/v1/pedidos/usuario/" + cliente.getIdUsuario()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(PEDIDOS))
+                        .andExpect(jsonPath("$[0].idUsuario").value(cliente.getIdUsuario())));
+    }
+
+    private Pedido crearPedido(int indice, List<Producto> productos) {
+        Pedido pedido = new Pedido();
+        pedido.setUsuario(cliente);
+        pedido.setFecha(java.sql.Date.valueOf(LocalDate.of(2024, 5, 1).plusDays(indice)));
+        pedido.setEstado(EstadoPedido.PENDIENTE);
+        pedido.setTelefono("123456789");
+        pedido.setDireccion("Calle Consultas " + indice);
+
+        List<DetallePedido> detalles = new ArrayList<>();
+        for (Producto producto : productos) {
+            DetallePedido detalle = new DetallePedido();
+            detalle.setPedido(pedido);
+            detalle.setProducto(producto);
+            detalle.setCantidad(1);
+            detalle.setPrecioUnitario(producto.getPrecio());
+            detalles.add(detalle);
+        }
+        pedido.setDetalles(detalles);
+        TotalesPedido.recalcular(pedido);
+
+        Pago pago = new Pago();
+        pago.setPedido(pedido);
+        pago.setMetodoPago("TARJETA");
+        pago.setMonto(pedido.getTotal().doubleValue());
+        pago.setEstado("PAGADO");
+        pedido.setPago(pago);
+
+        Envio envio = new Envio();
+        envio.setPedido(pedido);
+        envio.setMetodoEnvio("DELIVERY");
+        envio.setEstado("PENDIENTE");
+        envio.setNumeroSeguimiento("TRK-" + indice);
+        pedido.setEnvio(envio);
+        return pedido;
+    }
+}
@@ -0,0 +1,238 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Envio;
+import com.cafedronel.cafedronelbackend.data.model.Pago;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.CorreoSalienteRepository;
+import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.EnvioRepository;
+import com.cafedronel.cafedronelbackend.repository.PagoRepository;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.repository.VentaDiariaRepository;
+import com.cafedronel.cafedronelbackend.support.RegistroSentencias;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Ninguna consulta con predicado de los repositorios debe recorrer una tabla completa. Se graba
+ * el SQL que genera Hibernate para cada método y se revisa su plan con EXPLAIN sobre el esquema
+ * de las migraciones (H2 en modo MySQL).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PlanesConsultaIntegrationTest {
+
+    private static final java.util.Date INICIO = java.sql.Date.valueOf(LocalDate.of(2025, 1, 1));
+    private static final java.util.Date FIN = java.sql.Date.valueOf(LocalDate.of(2025, 1, 31));
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Autowired
+    private EnvioRepository envioRepository;
+
+    @Autowired
+    private VentaDiariaRepository ventaDiariaRepository;
+
+    @Autowired
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Autowired
+    private CorreoSalienteRepository correoSalienteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente;
+    private Producto producto;
+    private Pedido pedido;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Usuario();
+        cliente.setNombre("Cliente Planes");
+        cliente.setCorreo("planes@example.com");
+        cliente.setContrasena("secreta");
+        cliente.setRol(Rol.CLIENTE);
+        cliente.setActivo(true);
+        cliente = usuarioRepository.save(cliente);
+
+        producto = new Producto();
+        producto.setNombre("Producto Planes");
+        producto.setPrecio(4.0);
+        producto.setStock(10);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+
+        pedido = pedidoRepository.save(crearPedido());
+
+        // Se vacía el contexto para que cada método tenga que ir a la base de datos
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void consultasConPredicado_NoDeberianRecorrerTablasCompletas() throws Exception {
+        Integer idUsuario = cliente.getIdUsuario();
+        Integer idPedido = pedido.getIdPedido();
+        Integer idDetalle = pedido.getDetalles().get(0).getIdDetalle();
+
+        Map<String, RegistroSentencias.Accion> metodos = new LinkedHashMap<>();
+        metodos.put("UsuarioRepository.findByCorreo", () -> usuarioRepository.findByCorreo("planes@example.com"));
+        metodos.put("UsuarioRepository.existsByCorreo", () -> usuarioRepository.existsByCorreo("planes@example.com"));
+        metodos.put("UsuarioRepository.findByCorreoAndRol", () -> usuarioRepository.findByCorreoAndRol("planes@example.com", Rol.CLIENTE));
+        metodos.put("UsuarioRepository.findByRol", () -> usuarioRepository.findByRol(Rol.CLIENTE));
+        metodos.put("UsuarioRepository.findByRol(Pageable)", () -> usuarioRepository.findByRol(Rol.CLIENTE, PageRequest.of(0, 10)));
+        metodos.put("UsuarioRepository.countByRol", () -> usuarioRepository.countByRol(Rol.CLIENTE));
+        metodos.put("UsuarioRepository.buscarPorPrefijos", () -> usuarioRepository.buscarPorPrefijos(Rol.CLIENTE, 0,
+                "pla", "plazz", "cli", "clizz", "pla", "plazz", Limit.of(20)));
+        metodos.put("UsuarioRepository.findIdsSinTokensBusqueda", () -> usuarioRepository.findIdsSinTokensBusqueda(0, Limit.of(20)));
+        metodos.put("UsuarioRepository.streamByRolOrderByIdUsuario", () -> {
+            try (Stream<Usuario> usuarios = usuarioRepository.streamByRolOrderByIdUsuario(Rol.CLIENTE)) {
+                usuarios.count();
+            }
+        });
+        metodos.put("PedidoRepository.findByFechaBetween", () -> pedidoRepository.findByFechaBetween(INICIO, FIN));
+        metodos.put("PedidoRepository.findByUsuarioIdUsuario", () -> pedidoRepository.findByUsuarioIdUsuario(idUsuario));
+        metodos.put("PedidoRepository.findConDetallesByUsuarioId", () -> pedidoRepository.findConDetallesByUsuarioId(idUsuario));
+        metodos.put("PedidoRepository.findIdsDespuesDe", () -> pedidoRepository.findIdsDespuesDe(0, Limit.of(20)));
+        metodos.put("PedidoRepository.findConDetallesByIdIn", () -> pedidoRepository.findConDetallesByIdIn(List.of(idPedido)));
+        metodos.put("PedidoRepository.findFechasDistintasBetween", () -> pedidoRepository.findFechasDistintasBetween(INICIO, FIN));
+        metodos.put("PedidoRepository.sumarSubtotales", () -> pedidoRepository.sumarSubtotales(idPedido));
+        metodos.put("PedidoRepository.streamReportePedidos", () -> {
+            try (var filas = pedidoRepository.streamReportePedidos(INICIO, FIN)) {
+                filas.count();
+            }
+        });
+        metodos.put("DetallePedidoRepository.findByPedidoIdPedido", () -> detallePedidoRepository.findByPedidoIdPedido(idPedido));
+        metodos.put("DetallePedidoRepository.findIdUsuarioByIdDetalle", () -> detallePedidoRepository.findIdUsuarioByIdDetalle(idDetalle));
+        metodos.put("PagoRepository.findByPedidoIdPedido", () -> pagoRepository.findByPedidoIdPedido(idPedido));
+        metodos.put("EnvioRepository.findByPedidoIdPedido", () -> envioRepository.findByPedidoIdPedido(idPedido));
+        metodos.put("VentaDiariaRepository.findByFechaBetweenOrderByFechaAsc",
+                () -> ventaDiariaRepository.findByFechaBetweenOrderByFechaAsc(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+        metodos.put("VentaDiariaRepository.contarClientesPorDia",
+                () -> ventaDiariaRepository.contarClientesPorDia(List.of(java.sql.Date.valueOf(LocalDate.of(2025, 1, 15)))));
+        metodos.put("ResumenClienteRepository.findReporteClientes", () -> resumenClienteRepository.findReporteClientes(Rol.CLIENTE));
+        metodos.put("CorreoSalienteRepository.findIdsListos", () -> correoSalienteRepository.findIdsListos(LocalDateTime.now(), Limit.of(20)));
+        metodos.put("CorreoSalienteRepository.findByLoteOrderByIdCorreoAsc", () -> correoSalienteRepository.findByLoteOrderByIdCorreoAsc("lote"));
+        metodos.put("CorreoSalienteRepository.countByEstado", () -> correoSalienteRepository.countByEstado(EstadoCorreo.PENDIENTE));
+
+        List<String> recorridos = new ArrayList<>();
+        for (Map.Entry<String, RegistroSentencias.Accion> metodo : metodos.entrySet()) {
+            entityManager.clear();
+            List<String> sentencias = RegistroSentencias.grabar(metodo.getValue());
+            assertFalse(sentencias.isEmpty(), metodo.getKey() + " no ejecutó ninguna consulta");
+
+            for (String sql : sentencias) {
+                if (!sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    continue;
+                }
+                String plan = explicar(sql);
+                if (plan.toLowerCase(Locale.ROOT).contains("tablescan")) {
+                    recorridos.add(metodo.getKey() + "\n  " + sql + "\n  " + plan.replace("\n", "\n  "));
+                }
+            }
+        }
+
+        assertTrue(recorridos.isEmpty(), "Consultas que recorren tablas completas:\n" + String.join("\n", recorridos));
+    }
+
+    private String explicar(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(conexion -> planDe(conexion, sql));
+    }
+
+    private static String planDe(Connection conexion, String sql) throws SQLException {
+        try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+            // El plan no depende de los valores, sólo de los predicados
+            int parametros = explain.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametros; i++) {
+                explain.setNull(i, Types.NULL);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet filas = explain.executeQuery()) {
+                while (filas.next()) {
+                    plan.append(filas.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private Pedido crearPedido() {
+        Pedido nuevo = new Pedido();
+        nuevo.setUsuario(cliente);
+        nuevo.setFecha(java.sql.Date.valueOf(LocalDate.of(2025, 1, 15)));
+        nuevo.setEstado(EstadoPedido.PENDIENTE);
+        nuevo.setDireccion("Calle Planes");
+
+        DetallePedido detalle = new DetallePedido();
+        detalle.setPedido(nuevo);
+        detalle.setProducto(producto);
+        detalle.setCantidad(2);
+        detalle.setPrecioUnitario(producto.getPrecio());
+        nuevo.setDetalles(new ArrayList<>(List.of(detalle)));
+        TotalesPedido.recalcular(nuevo);
+
+        Pago pago = new Pago();
+        pago.setPedido(nuevo);
+        pago.setMetodoPago("TARJETA");
+        pago.setMonto(nuevo.getTotal().doubleValue());
+        nuevo.setPago(pago);
+
+        Envio envio = new Envio();
+        envio.setPedido(nuevo);
+        envio.setMetodoEnvio("DELIVERY");
+        nuevo.setEnvio(envio);
+        return nuevo;
+    }
+}
@@ -0,0 +1,185 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.pedido.DetallePedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.checkout.CheckoutService;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.services.pedido.ReservasStock;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Ciclo de una reserva: el checkout la crea, el barrido la libera al vencer
+ * y la confirmación la convierte en venta
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ReservasStockIntegrationTest {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ReservasStock reservasStock;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Usuario();
+        cliente.setNombre("Cliente");
+        cliente.setApellido("Reservas");
+        cliente.setCorreo("reservas@example.com");
+        cliente.setContrasena("secreta");
+        cliente.setRol(Rol.CLIENTE);
+        cliente.setActivo(true);
+        cliente = usuarioRepository.save(cliente);
+
+        producto = new Producto();
+        producto.setNombre("Producto Reservas");
+        producto.setCategoria("Bebidas");
+        producto.setPrecio(4.0);
+        producto.setStock(10);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void checkout_DeberiaReservarElStockHastaElVencimiento() {
+        LocalDateTime antes = LocalDateTime.now();
+
+        Pedido pedido = checkoutService.crearPedido(crearPedidoDTO(3));
+
+        assertNotNull(pedido.getReservaExpiraEn());
+        assertTrue(pedido.getReservaExpiraEn().isAfter(antes));
+        assertEquals(7, stockActual());
+        // La salida de la reserva queda en el registro de movimientos, igual que su devolución
+        assertEquals(-3, jdbcTemplate.queryForObject(
+                "SELECT cantidad FROM movimiento_stock WHERE id_producto = ? AND motivo = ?",
+                Integer.class, producto.getIdProducto(), "Pedido " + pedido.getIdPedido() + " reservado"));
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT stock_resultante FROM movimiento_stock WHERE id_producto = ? AND motivo = ?",
+                Integer.class, producto.getIdProducto(), "Pedido " + pedido.getIdPedido() + " reservado"));
+    }
+
+    @Test
+    void liberarVencidas_DeberiaCancelarElPedidoYDevolverElStock() {
+        Integer idPedido = checkoutService.crearPedido(crearPedidoDTO(3)).getIdPedido();
+        vencerReserva(idPedido);
+
+        assertTrue(reservasStock.liberarVencidas() >= 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        Pedido pedido = pedidoRepository.findById(idPedido).orElseThrow();
+        assertEquals(EstadoPedido.CANCELADO, pedido.getEstado());
+        assertNull(pedido.getReservaExpiraEn());
+        assertEquals(10, stockActual());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT cantidad FROM movimiento_stock WHERE id_producto = ? AND motivo = 'Reserva vencida'",
+                Integer.class, producto.getIdProducto()));
+    }
+
+    @Test
+    void cambiarEstado_Confirmado_DeberiaConvertirLaReservaEnVenta() {
+        Integer idPedido = checkoutService.crearPedido(crearPedidoDTO(3)).getIdPedido();
+
+        pedidoService.cambiarEstado(idPedido, EstadoPedido.CONFIRMADO);
+        vencerReserva(idPedido);
+        reservasStock.liberarVencidas();
+        entityManager.flush();
+        entityManager.clear();
+
+        Pedido pedido = pedidoRepository.findById(idPedido).orElseThrow();
+        assertEquals(EstadoPedido.CONFIRMADO, pedido.getEstado());
+        assertNull(pedido.getReservaExpiraEn());
+        assertEquals(7, stockActual());
+    }
+
+    @Test
+    void cambiarEstado_Cancelado_DeberiaDevolverElStockYNoPermitirReactivarlo() {
+        Integer idPedido = checkoutService.crearPedido(crearPedidoDTO(3)).getIdPedido();
+
+        pedidoService.cambiarEstado(idPedido, EstadoPedido.CANCELADO);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(10, stockActual());
+        assertThrows(BusinessException.class, () -> pedidoService.cambiarEstado(idPedido, EstadoPedido.PENDIENTE));
+    }
+
+    private void vencerReserva(Integer idPedido) {
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE pedido SET reserva_expira_en = ? WHERE id_pedido = ? AND reserva_expira_en IS NOT NULL",
+                LocalDateTime.now().minusMinutes(1), idPedido);
+        entityManager.clear();
+    }
+
+    private int stockActual() {
+        entityManager.flush();
+        return jdbcTemplate.queryForObject("SELECT stock FROM producto WHERE id_producto = ?",
+                Integer.class, producto.getIdProducto());
+    }
+
+    private PedidoDTO crearPedidoDTO(int cantidad) {
+        DetallePedidoDTO detalle = new DetallePedidoDTO();
+        detalle.setIdProducto(producto.getIdProducto());
+        detalle.setCantidad(cantidad);
+
+        PedidoDTO pedidoDTO = new PedidoDTO();
+        pedidoDTO.setIdUsuario(cliente.getIdUsuario());
+        pedidoDTO.setTelefono("123456789");
+        pedidoDTO.setDireccion("Calle Reservas 1");
+        pedidoDTO.setDetalles(List.of(detalle));
+        return pedidoDTO;
+    }
+}
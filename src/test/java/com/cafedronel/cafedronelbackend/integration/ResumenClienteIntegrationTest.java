@@ -0,0 +1,188 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteClientesDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.ResumenCliente;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.services.reporte.ReporteService;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
+import com.cafedronel.cafedronelbackend.support.ContadorConsultas;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Los totales por cliente se mantienen al guardar y eliminar pedidos, coinciden con una
+ * reconstrucción completa y el reporte de clientes sale en una sola consulta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ResumenClienteIntegrationTest {
+
+    private static final int CLIENTES = 6;
+    private static final long PRESUPUESTO_REPORTE = 1;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private ResumenClienteService resumenClienteService;
+
+    @Autowired
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Usuario> clientes;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            Usuario cliente = new Usuario();
+            cliente.setNombre("Cliente " + i);
+            cliente.setApellido("Resumen");
+            cliente.setCorreo("resumen" + i + "@example.com");
+            cliente.setContrasena("secreta");
+            cliente.setRol(Rol.CLIENTE);
+            cliente.setActivo(true);
+            clientes.add(usuarioRepository.save(cliente));
+        }
+
+        producto = new Producto();
+        producto.setNombre("Producto Resumen");
+        producto.setCategoria("Bebidas");
+        producto.setPrecio(5.0);
+        producto.setStock(100);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+    }
+
+    @Test
+    void guardarYEliminarPedidos_DeberiaMantenerLosTotalesDelCliente() {
+        Usuario cliente = clientes.get(0);
+        pedidoService.save(crearPedido(cliente, LocalDate.of(2025, 3, 1), 2));
+        Pedido ultimo = pedidoService.save(crearPedido(cliente, LocalDate.of(2025, 3, 8), 3));
+
+        ResumenCliente resumen = resumenDe(cliente);
+        assertEquals(2, resumen.getTotalPedidos());
+        assertEquals(new BigDecimal("25.00"), resumen.getTotalGastado());
+        assertEquals(LocalDate.of(2025, 3, 8), resumen.getUltimoPedido());
+
+        pedidoService.delete(ultimo.getIdPedido());
+
+        resumen = resumenDe(cliente);
+        assertEquals(1, resumen.getTotalPedidos());
+        assertEquals(new BigDecimal("10.00"), resumen.getTotalGastado());
+        assertEquals(LocalDate.of(2025, 3, 1), resumen.getUltimoPedido());
+    }
+
+    @Test
+    void reconstruir_DeberiaCoincidirConElMantenimientoIncremental() {
+        for (int i = 0; i < CLIENTES - 1; i++) {
+            for (int j = 0; j <= i; j++) {
+                pedidoService.save(crearPedido(clientes.get(i), LocalDate.of(2025, 4, 1).plusDays(j), 1 + j));
+            }
+        }
+        List<ReporteClientesDTO> incremental = reporteSinFechaRegistro();
+
+        // Se simula un desvío y se repara con la reconstrucción
+        resumenClienteRepository.deleteById(clientes.get(0).getIdUsuario());
+        entityManager.flush();
+        resumenClienteService.reconstruir();
+        entityManager.clear();
+
+        assertEquals(incremental, reporteSinFechaRegistro(), "La reconstrucción debe dar los mismos totales");
+    }
+
+    @Test
+    void generarReporteClientes_DeberiaResolverseEnUnaSolaConsulta() throws Exception {
+        for (Usuario cliente : clientes) {
+            pedidoService.save(crearPedido(cliente, LocalDate.of(2025, 5, 1), 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ContadorConsultas contador = new ContadorConsultas(entityManagerFactory);
+        List<ReporteClientesDTO> reporte = new ArrayList<>();
+        contador.verificarPresupuesto("generarReporteClientes", PRESUPUESTO_REPORTE,
+                () -> reporte.addAll(reporteService.generarReporteClientes()));
+
+        List<ReporteClientesDTO> nuestros = reporte.stream()
+                .filter(cliente -> cliente.getCorreo().startsWith("resumen"))
+                .toList();
+        assertEquals(CLIENTES, nuestros.size());
+        assertTrue(nuestros.stream().allMatch(cliente -> cliente.getTotalPedidos() == 1 && cliente.getTotalGastado() == 10.0));
+        assertFalse(nuestros.stream().anyMatch(cliente -> cliente.getUltimoPedido() == null));
+    }
+
+    private ResumenCliente resumenDe(Usuario cliente) {
+        // El resumen se recalcula con SQL nativo: se lee de la base y no del contexto de persistencia
+        entityManager.flush();
+        entityManager.clear();
+        return resumenClienteRepository.findById(cliente.getIdUsuario()).orElseThrow();
+    }
+
+    private List<ReporteClientesDTO> reporteSinFechaRegistro() {
+        // La fecha de registro se calcula al momento y no forma parte del resumen
+        List<ReporteClientesDTO> reporte = reporteService.generarReporteClientes();
+        reporte.forEach(cliente -> cliente.setFechaRegistro(null));
+        return reporte;
+    }
+
+    private Pedido crearPedido(Usuario cliente, LocalDate fecha, int cantidad) {
+        Pedido pedido = new Pedido();
+        pedido.setUsuario(cliente);
+        pedido.setFecha(java.sql.Date.valueOf(fecha));
+        pedido.setEstado(EstadoPedido.PENDIENTE);
+        pedido.setTelefono("123456789");
+        pedido.setDireccion("Calle Resumen");
+
+        DetallePedido detalle = new DetallePedido();
+        detalle.setPedido(pedido);
+        detalle.setProducto(producto);
+        detalle.setCantidad(cantidad);
+        detalle.setPrecioUnitario(producto.getPrecio());
+        pedido.setDetalles(new ArrayList<>(List.of(detalle)));
+        return pedido;
+    }
+}
@@ -0,0 +1,185 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.pedido.DetallePedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Envio;
+import com.cafedronel.cafedronelbackend.data.model.Pago;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.checkout.CheckoutService;
+import com.cafedronel.cafedronelbackend.support.ContadorRondas;
+import com.cafedronel.cafedronelbackend.util.pedido.TotalesPedido;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Con ids por secuencia Hibernate agrupa los inserts y updates de una misma tabla en un lote:
+ * las rondas de escritura no deben crecer con las líneas del pedido ni con la cantidad de pedidos.
+ * Con IDENTITY cada fila era su propia ronda.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ContadorRondas.class)
+@Transactional
+public class RondasEscrituraIntegrationTest {
+
+    private static final int LINEAS = 20;
+    private static final int PEDIDOS = 10;
+    private static final int DETALLES_POR_PEDIDO = 3;
+    // Un lote por tabla: pedido, detalle_pedido, pago y envio
+    private static final long ESCRITURAS_PEDIDOS_COMPLETOS = 4;
+
+    @Autowired
+    private ContadorRondas contadorRondas;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente;
+    private List<Producto> productos;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Usuario();
+        cliente.setNombre("Cliente");
+        cliente.setApellido("Rondas");
+        cliente.setCorreo("rondas@example.com");
+        cliente.setContrasena("secreta");
+        cliente.setRol(Rol.CLIENTE);
+        cliente.setActivo(true);
+        cliente = usuarioRepository.save(cliente);
+
+        productos = new ArrayList<>();
+        for (int i = 0; i < LINEAS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto Rondas " + i);
+            producto.setCategoria("Bebidas");
+            producto.setPrecio(3.0 + i);
+            producto.setStock(1000);
+            producto.setActivo(true);
+            productos.add(productoRepository.save(producto));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void checkout_DeberiaEscribirConLasMismasRondasSinImportarLasLineas() throws Exception {
+        long unaLinea = contadorRondas.contarEscrituras(() -> {
+            checkoutService.crearPedido(crearPedidoDTO(1));
+            entityManager.flush();
+        });
+        entityManager.clear();
+
+        long variasLineas = contadorRondas.contarEscrituras(() -> {
+            checkoutService.crearPedido(crearPedidoDTO(LINEAS));
+            entityManager.flush();
+        });
+
+        assertEquals(unaLinea, variasLineas,
+                "Checkout de " + LINEAS + " líneas: " + variasLineas + " rondas de escritura, con una línea " + unaLinea);
+    }
+
+    @Test
+    void guardarPedidosCompletos_DeberiaEscribirUnLotePorTabla() throws Exception {
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos.add(crearPedido(i));
+        }
+
+        long escrituras = contadorRondas.contarEscrituras(() -> {
+            pedidoRepository.saveAll(pedidos);
+            entityManager.flush();
+        });
+
+        assertEquals(ESCRITURAS_PEDIDOS_COMPLETOS, escrituras);
+    }
+
+    private PedidoDTO crearPedidoDTO(int lineas) {
+        List<DetallePedidoDTO> detalles = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            DetallePedidoDTO detalle = new DetallePedidoDTO();
+            detalle.setIdProducto(productos.get(i).getIdProducto());
+            detalle.setCantidad(1);
+            detalles.add(detalle);
+        }
+
+        PedidoDTO pedidoDTO = new PedidoDTO();
+        pedidoDTO.setIdUsuario(cliente.getIdUsuario());
+        pedidoDTO.setTelefono("123456789");
+        pedidoDTO.setDireccion("Calle Rondas 1");
+        pedidoDTO.setDetalles(detalles);
+        return pedidoDTO;
+    }
+
+    private Pedido crearPedido(int indice) {
+        Pedido pedido = new Pedido();
+        pedido.setUsuario(usuarioRepository.getReferenceById(cliente.getIdUsuario()));
+        pedido.setFecha(java.sql.Date.valueOf(LocalDate.of(2024, 6, 1).plusDays(indice)));
+        pedido.setEstado(EstadoPedido.PENDIENTE);
+        pedido.setTelefono("123456789");
+        pedido.setDireccion("Calle Rondas " + indice);
+
+        List<DetallePedido> detalles = new ArrayList<>();
+        for (int i = 0; i < DETALLES_POR_PEDIDO; i++) {
+            Producto producto = productoRepository.getReferenceById(productos.get(i).getIdProducto());
+            DetallePedido detalle = new DetallePedido();
+            detalle.setPedido(pedido);
+            detalle.setProducto(producto);
+            detalle.setCantidad(1);
+            detalle.setPrecioUnitario(productos.get(i).getPrecio());
+            detalles.add(detalle);
+        }
+        pedido.setDetalles(detalles);
+        TotalesPedido.recalcular(pedido);
+
+        Pago pago = new Pago();
+        pago.setPedido(pedido);
+        pago.setMetodoPago("TARJETA");
+        pago.setMonto(pedido.getTotal().doubleValue());
+        pago.setEstado("PAGADO");
+        pedido.setPago(pago);
+
+        Envio envio = new Envio();
+        envio.setPedido(pedido);
+        envio.setMetodoEnvio("DELIVERY");
+        envio.setEstado("PENDIENTE");
+        envio.setNumeroSeguimiento("TRK-R" + indice);
+        pedido.setEnvio(envio);
+        return pedido;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.ProductoService;
+
+/**
+ * Compras concurrentes sobre un mismo producto. No es transaccional: cada hilo
+ * confirma su propia transacción, igual que las peticiones reales.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockConcurrencyIntegrationTest {
+
+    private static final int COMPRADORES = 200;
+    private static final int STOCK_INICIAL = 50;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        producto = new Producto();
+        producto.setNombre("Café Concurrente");
+        producto.setCategoria("Bebidas");
+        producto.setSubtipo("Café");
+        producto.setDescripcion("Producto muy demandado");
+        producto.setPrecio(5.0);
+        producto.setStock(STOCK_INICIAL);
+        producto.setActivo(true);
+        producto = productoRepository.save(producto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteById(producto.getIdProducto());
+    }
+
+    @Test
+    void compradoresConcurrentes_NoDeberianSobrevender() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(COMPRADORES);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger rechazos = new AtomicInteger();
+        List<Future<?>> compras = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < COMPRADORES; i++) {
+                compras.add(executor.submit(() -> {
+                    salida.await();
+                    try {
+                        productoService.disminuirStock(producto.getIdProducto(), 1);
+                        exitos.incrementAndGet();
+                    } catch (BusinessException e) {
+                        rechazos.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            // Todos los hilos arrancan a la vez para maximizar la contención
+            salida.countDown();
+            for (Future<?> compra : compras) {
+                compra.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Producto productoFinal = productoRepository.findById(producto.getIdProducto()).orElseThrow();
+        assertEquals(STOCK_INICIAL, exitos.get());
+        assertEquals(COMPRADORES - STOCK_INICIAL, rechazos.get());
+        assertEquals(0, productoFinal.getStock());
+        assertTrue(productoFinal.getStock() >= 0);
+    }
+}
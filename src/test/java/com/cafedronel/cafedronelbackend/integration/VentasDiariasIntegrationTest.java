@@ -0,0 +1,186 @@
+package com.cafedronel.cafedronelbackend.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.repository.VentaDiariaRepository;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.services.reporte.ReporteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica que el resumen incremental de ventas diarias coincide con el cálculo completo desde pedidos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class VentasDiariasIntegrationTest {
+
+    private static final LocalDate DIA_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DIA_2 = LocalDate.of(2024, 3, 2);
+    private static final LocalDate DIA_3 = LocalDate.of(2024, 3, 5);
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private VentaDiariaService ventaDiariaService;
+
+    @Autowired
+    private VentaDiariaRepository ventaDiariaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario cliente1;
+    private Usuario cliente2;
+    private Producto cafe;
+    private Producto torta;
+
+    @BeforeEach
+    void setUp() {
+        cliente1 = crearUsuario("ventas1@example.com");
+        cliente2 = crearUsuario("ventas2@example.com");
+        cafe = crearProducto("Café Ventas", 5.0);
+        torta = crearProducto("Torta Ventas", 3.5);
+    }
+
+    @Test
+    void resumenIncremental_DeberiaCoincidirConCalculoDesdePedidos() {
+        // Altas en varios días
+        crearPedido(cliente1, DIA_1, cafe, 2);
+        crearPedido(cliente2, DIA_1, torta, 3);
+        Pedido pedidoMovido = crearPedido(cliente1, DIA_2, cafe, 1);
+        Pedido pedidoEliminado = crearPedido(cliente2, DIA_3, torta, 4);
+        verificarParidad();
+
+        // Cambio de estado
+        pedidoService.cambiarEstado(pedidoMovido.getIdPedido(), EstadoPedido.ENTREGADO);
+        limpiarContexto();
+        verificarParidad();
+
+        // Cambio de fecha: el pedido pasa del día 2 al día 1
+        Pedido pedido = pedidoService.findById(pedidoMovido.getIdPedido()).orElseThrow();
+        entityManager.detach(pedido);
+        pedido.setFecha(java.sql.Date.valueOf(DIA_1));
+        pedidoService.update(pedido.getIdPedido(), pedido);
+        limpiarContexto();
+        verificarParidad();
+        assertFalse(ventaDiariaRepository.existsById(DIA_2));
+
+        // Baja del único pedido del día 3
+        pedidoService.delete(pedidoEliminado.getIdPedido());
+        limpiarContexto();
+        verificarParidad();
+        assertFalse(ventaDiariaRepository.existsById(DIA_3));
+
+        List<ReporteVentasDTO> ventas = reporteService.generarReporteVentas(DIA_1, DIA_3);
+        assertEquals(1, ventas.size());
+        assertEquals(3, ventas.get(0).getTotalPedidos());
+        assertEquals(25.5, ventas.get(0).getTotalVentas());
+        assertEquals(2, ventas.get(0).getClientesUnicos());
+    }
+
+    @Test
+    void reconstruir_DeberiaRegenerarElResumenDesdePedidos() {
+        crearPedido(cliente1, DIA_1, cafe, 2);
+        crearPedido(cliente2, DIA_2, torta, 1);
+        // Las altas se acumulan al confirmar o al consultar; se aplican antes de perder el resumen
+        ventaDiariaService.obtenerVentas(DIA_1, DIA_2);
+        ventaDiariaRepository.eliminarTodas();
+        assertTrue(ventaDiariaService.obtenerVentas(DIA_1, DIA_2).isEmpty());
+
+        int dias = ventaDiariaService.reconstruir(DIA_1, DIA_2);
+
+        assertEquals(2, dias);
+        assertEquals(ventaDiariaService.calcularVentasDesdePedidos(DIA_1, DIA_2),
+                ventaDiariaService.obtenerVentas(DIA_1, DIA_2));
+    }
+
+    private void verificarParidad() {
+        assertEquals(ventaDiariaService.calcularVentasDesdePedidos(DIA_1, DIA_3),
+                reporteService.generarReporteVentas(DIA_1, DIA_3));
+    }
+
+    private Pedido crearPedido(Usuario usuario, LocalDate dia, Producto producto, int cantidad) {
+        Pedido pedido = new Pedido();
+        pedido.setUsuario(usuario);
+        pedido.setFecha(java.sql.Date.valueOf(dia));
+        pedido.setEstado(EstadoPedido.PENDIENTE);
+        pedido.setTelefono("123456789");
+        pedido.setDireccion("Test Address");
+
+        DetallePedido detalle = new DetallePedido();
+        detalle.setPedido(pedido);
+        detalle.setProducto(producto);
+        detalle.setCantidad(cantidad);
+        detalle.setPrecioUnitario(producto.getPrecio());
+        List<DetallePedido> detalles = new ArrayList<>();
+        detalles.add(detalle);
+        pedido.setDetalles(detalles);
+
+        Pedido guardado = pedidoService.save(pedido);
+        limpiarContexto();
+        return guardado;
+    }
+
+    private void limpiarContexto() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Usuario crearUsuario(String correo) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Cliente Ventas");
+        usuario.setCorreo(correo);
+        usuario.setContrasena("password");
+        usuario.setTelefono("123456789");
+        usuario.setDireccion("Test Address");
+        usuario.setRol(Rol.CLIENTE);
+        return usuarioRepository.save(usuario);
+    }
+
+    private Producto crearProducto(String nombre, double precio) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setCategoria("Bebidas");
+        producto.setSubtipo("Café");
+        producto.setDescripcion("Producto de prueba");
+        producto.setPrecio(precio);
+        producto.setStock(100);
+        producto.setActivo(true);
+        return productoRepository.save(producto);
+    }
+}
@@ -8,6 +8,7 @@ import com.cafedronel.cafedronelbackend.data.model.Rol;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.cliente.IndiceBusquedaClientes;
 import com.cafedronel.cafedronelbackend.util.jwt.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +45,12 @@ class ImpAuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UsuarioSesionCache usuarioSesionCache;
+
+    @Mock
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
     @InjectMocks
     private ImpAuthService authService;
 
@@ -90,7 +97,7 @@ class ImpAuthServiceTest {
         
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(jwtUtil.generateToken("test@example.com")).thenReturn("jwt-token");
+        when(jwtUtil.generateToken("test@example.com", "CLIENTE")).thenReturn("jwt-token");
 
         // Act
         AuthResponse response = authService.login(loginRequest);
@@ -102,7 +109,7 @@ class ImpAuthServiceTest {
         assertEquals("CLIENTE", response.rol());
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil).generateToken("test@example.com");
+        verify(jwtUtil).generateToken("test@example.com", "CLIENTE");
     }
 
     @Test
@@ -131,6 +138,8 @@ class ImpAuthServiceTest {
         verify(usuarioRepository).findByCorreo("test@example.com");
         verify(passwordEncoder).encode("password123");
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(usuarioSesionCache).invalidar("test@example.com");
+        verify(indiceBusquedaClientes).indexar(any(Usuario.class));
     }
 
     @Test
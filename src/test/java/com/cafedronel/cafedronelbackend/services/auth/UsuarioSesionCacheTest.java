@@ -0,0 +1,84 @@
+package com.cafedronel.cafedronelbackend.services.auth;
+
+import com.cafedronel.cafedronelbackend.data.dto.auth.UsuarioSesion;
+import com.cafedronel.cafedronelbackend.data.model.Rol;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioSesionCacheTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private UsuarioSesionCache usuarioSesionCache;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioSesionCache = new UsuarioSesionCache(usuarioRepository, 100, 300);
+
+        usuario = new Usuario();
+        usuario.setIdUsuario(1);
+        usuario.setCorreo("test@example.com");
+        usuario.setRol(Rol.CLIENTE);
+        usuario.setActivo(true);
+    }
+
+    @Test
+    void obtener_DeberiaConsultarLaBaseDeDatosUnaSolaVez() {
+        // Arrange
+        when(usuarioRepository.findByCorreo("test@example.com")).thenReturn(Optional.of(usuario));
+
+        // Act
+        Optional<UsuarioSesion> primera = usuarioSesionCache.obtener("test@example.com");
+        Optional<UsuarioSesion> segunda = usuarioSesionCache.obtener("test@example.com");
+
+        // Assert
+        assertTrue(primera.isPresent());
+        assertEquals("CLIENTE", primera.get().rol());
+        assertTrue(primera.get().activo());
+        assertEquals(primera, segunda);
+        verify(usuarioRepository, times(1)).findByCorreo("test@example.com");
+    }
+
+    @Test
+    void obtener_ConUsuarioInexistente_DeberiaCachearElResultadoVacio() {
+        // Arrange
+        when(usuarioRepository.findByCorreo("nadie@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        usuarioSesionCache.obtener("nadie@example.com");
+        Optional<UsuarioSesion> resultado = usuarioSesionCache.obtener("nadie@example.com");
+
+        // Assert
+        assertTrue(resultado.isEmpty());
+        verify(usuarioRepository, times(1)).findByCorreo("nadie@example.com");
+    }
+
+    @Test
+    void invalidar_DeberiaRecargarElEstadoActualizado() {
+        // Arrange
+        when(usuarioRepository.findByCorreo("test@example.com")).thenReturn(Optional.of(usuario));
+        usuarioSesionCache.obtener("test@example.com");
+        usuario.setActivo(false);
+
+        // Act
+        usuarioSesionCache.invalidar("test@example.com");
+        Optional<UsuarioSesion> resultado = usuarioSesionCache.obtener("test@example.com");
+
+        // Assert
+        assertFalse(resultado.orElseThrow().activo());
+        verify(usuarioRepository, times(2)).findByCorreo("test@example.com");
+    }
+}
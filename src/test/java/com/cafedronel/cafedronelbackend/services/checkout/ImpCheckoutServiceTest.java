@@ -0,0 +1,191 @@
+package com.cafedronel.cafedronelbackend.services.checkout;
+
+import com.cafedronel.cafedronelbackend.data.dto.pedido.DetallePedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.pedido.PedidoService;
+import com.cafedronel.cafedronelbackend.services.pedido.ReservasStock;
+import com.cafedronel.cafedronelbackend.services.producto.CatalogoProductoCache;
+import com.cafedronel.cafedronelbackend.services.producto.MovimientosStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ImpCheckoutServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private CatalogoProductoCache catalogoProductoCache;
+
+    @Mock
+    private ReservasStock reservasStock;
+
+    @Mock
+    private MovimientosStock movimientosStock;
+
+    @InjectMocks
+    private ImpCheckoutService checkoutService;
+
+    private Usuario usuario;
+    private Producto cafe;
+    private Producto torta;
+    private PedidoDTO pedidoDTO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        usuario = new Usuario();
+        usuario.setIdUsuario(1);
+
+        cafe = crearProducto(7, "Café", 5.0, 10);
+        torta = crearProducto(3, "Torta", 3.5, 4);
+
+        pedidoDTO = new PedidoDTO();
+        pedidoDTO.setIdUsuario(1);
+        pedidoDTO.setTelefono("123456789");
+        pedidoDTO.setDireccion("Calle Test 123");
+        pedidoDTO.setDetalles(new ArrayList<>(Arrays.asList(
+                crearDetalle(7, 2), crearDetalle(3, 1), crearDetalle(7, 3))));
+
+        when(usuarioRepository.findById(1)).thenReturn(Optional.of(usuario));
+        when(pedidoService.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void crearPedido_DeberiaBloquearTodosLosProductosEnUnaConsultaOrdenada() {
+        when(productoRepository.bloquearPorIds(anyCollection())).thenReturn(Arrays.asList(torta, cafe));
+
+        Pedido result = checkoutService.crearPedido(pedidoDTO);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Integer>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(productoRepository, times(1)).bloquearPorIds(ids.capture());
+        assertEquals(List.of(3, 7), new ArrayList<>(ids.getValue()));
+        verify(productoRepository, never()).findById(any());
+        verify(productoRepository, never()).save(any(Producto.class));
+
+        // Las cantidades repetidas de un producto se descuentan juntas
+        assertEquals(5, cafe.getStock());
+        assertEquals(3, torta.getStock());
+        assertEquals(EstadoPedido.PENDIENTE, result.getEstado());
+        assertEquals(3, result.getDetalles().size());
+        assertEquals(5.0, result.getDetalles().get(0).getPrecioUnitario());
+        verify(pedidoService, times(1)).save(result);
+    }
+
+    @Test
+    void crearPedido_DeberiaDejarElStockReservadoHastaElVencimiento() {
+        LocalDateTime vencimiento = LocalDateTime.now().plusMinutes(30);
+        when(reservasStock.vencimientoNuevaReserva()).thenReturn(vencimiento);
+        when(productoRepository.bloquearPorIds(anyCollection())).thenReturn(Arrays.asList(torta, cafe));
+
+        Pedido result = checkoutService.crearPedido(pedidoDTO);
+
+        assertEquals(vencimiento, result.getReservaExpiraEn());
+        // El contador de disponibles se descuenta sin invalidarlo
+        verify(catalogoProductoCache).ajustarDisponible(Map.of(3, -1, 7, -5));
+        verify(catalogoProductoCache, never()).invalidarStock(anyCollection());
+    }
+
+    @Test
+    void crearPedido_DeberiaRegistrarLaSalidaDeStockDeLaReserva() {
+        when(productoRepository.bloquearPorIds(anyCollection())).thenReturn(Arrays.asList(torta, cafe));
+        when(pedidoService.save(any(Pedido.class))).thenAnswer(invocation -> {
+            Pedido pedido = invocation.getArgument(0);
+            pedido.setIdPedido(42);
+            return pedido;
+        });
+
+        checkoutService.crearPedido(pedidoDTO);
+
+        // Un movimiento por producto, con las cantidades agrupadas y el stock que queda tras reservar
+        verify(movimientosStock, times(1)).registrar(
+                List.of(new ItemAjusteStockDTO(3, -1), new ItemAjusteStockDTO(7, -5)),
+                Map.of(3, 3, 7, 5), "Pedido 42 reservado", null);
+    }
+
+    @Test
+    void crearPedido_ContadorDeDisponiblesInsuficiente_NoDeberiaBloquearLosProductos() {
+        when(catalogoProductoCache.disponible(3)).thenReturn(Optional.of(4));
+        when(catalogoProductoCache.disponible(7)).thenReturn(Optional.of(2));
+
+        assertThrows(BusinessException.class, () -> checkoutService.crearPedido(pedidoDTO));
+
+        verify(productoRepository, never()).bloquearPorIds(anyCollection());
+        verify(pedidoService, never()).save(any(Pedido.class));
+        verifyNoInteractions(movimientosStock);
+    }
+
+    @Test
+    void crearPedido_StockInsuficiente_NoDeberiaDescontarNingunaLinea() {
+        torta.setStock(0);
+        when(productoRepository.bloquearPorIds(anyCollection())).thenReturn(Arrays.asList(torta, cafe));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> checkoutService.crearPedido(pedidoDTO));
+
+        assertTrue(exception.getMessage().contains("Stock insuficiente"));
+        assertEquals(10, cafe.getStock());
+        verify(pedidoService, never()).save(any(Pedido.class));
+        verifyNoInteractions(movimientosStock);
+    }
+
+    @Test
+    void crearPedido_ProductoNoExistente_LanzaExcepcion() {
+        when(productoRepository.bloquearPorIds(anyCollection())).thenReturn(Arrays.asList(cafe));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> checkoutService.crearPedido(pedidoDTO));
+
+        assertTrue(exception.getMessage().contains("Producto no encontrado"));
+        verify(pedidoService, never()).save(any(Pedido.class));
+    }
+
+    private Producto crearProducto(Integer id, String nombre, Double precio, Integer stock) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre(nombre);
+        producto.setPrecio(precio);
+        producto.setStock(stock);
+        return producto;
+    }
+
+    private DetallePedidoDTO crearDetalle(Integer idProducto, Integer cantidad) {
+        DetallePedidoDTO detalle = new DetallePedidoDTO();
+        detalle.setIdProducto(idProducto);
+        detalle.setCantidad(cantidad);
+        return detalle;
+    }
+}
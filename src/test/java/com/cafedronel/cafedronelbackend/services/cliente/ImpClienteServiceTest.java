@@ -1,18 +1,25 @@
 package com.cafedronel.cafedronelbackend.services.cliente;
 
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.cliente.ClienteUpdateDTO;
+import com.cafedronel.cafedronelbackend.data.dto.cliente.EstadisticasClientesDTO;
 import com.cafedronel.cafedronelbackend.data.model.Rol;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository.EstadisticasClientes;
 import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.services.auth.UsuarioSesionCache;
+import com.cafedronel.cafedronelbackend.util.paginacion.CursorPaginacion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +33,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +45,15 @@ class ImpClienteServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UsuarioSesionCache usuarioSesionCache;
+
+    @Mock
+    private ResumenClienteRepository resumenClienteRepository;
+
+    @Mock
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
     @InjectMocks
     private ImpClienteService clienteService;
 
@@ -128,6 +145,24 @@ class ImpClienteServiceTest {
         verify(usuarioRepository).findByIdUsuarioAndRol(999, Rol.CLIENTE);
     }
 
+    @Test
+    void buscar_ConMasResultadosQueElTamano_DeberiaRetornarCursor() {
+        Usuario otro = new Usuario();
+        otro.setIdUsuario(2);
+        otro.setNombre("Juana Pérez");
+        otro.setRol(Rol.CLIENTE);
+        when(indiceBusquedaClientes.buscar(eq("per"), eq(Rol.CLIENTE), eq(0), any(Limit.class)))
+                .thenReturn(List.of(cliente, otro));
+
+        PaginaCursorDTO<ClienteDTO> pagina = clienteService.buscar("per", null, 1);
+
+        assertEquals(1, pagina.getContenido().size());
+        assertEquals("Juan Pérez", pagina.getContenido().get(0).getNombre());
+        assertTrue(pagina.isHayMas());
+        assertEquals(CursorPaginacion.codificar(1), pagina.getSiguienteCursor());
+        verify(indiceBusquedaClientes).buscar("per", Rol.CLIENTE, 0, Limit.of(2));
+    }
+
     @Test
     void save_ConDatosValidos_DeberiaCrearCliente() {
         // Arrange
@@ -145,6 +180,7 @@ class ImpClienteServiceTest {
         verify(usuarioRepository).existsByCorreo("juan@example.com");
         verify(passwordEncoder).encode("password123");
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(indiceBusquedaClientes).indexar(cliente);
     }
 
     @Test
@@ -174,6 +210,7 @@ class ImpClienteServiceTest {
         assertNotNull(result);
         verify(usuarioRepository).findByIdUsuarioAndRol(1, Rol.CLIENTE);
         verify(usuarioRepository).save(cliente);
+        verify(indiceBusquedaClientes).indexar(cliente);
     }
 
     @Test
@@ -201,6 +238,7 @@ class ImpClienteServiceTest {
         // Assert
         verify(usuarioRepository).findByIdUsuarioAndRol(1, Rol.CLIENTE);
         verify(usuarioRepository).delete(cliente);
+        verify(usuarioSesionCache).invalidar(cliente.getCorreo());
     }
 
     @Test
@@ -215,6 +253,7 @@ class ImpClienteServiceTest {
         assertEquals("Cliente no encontrado con ID: 999", exception.getMessage());
         verify(usuarioRepository).findByIdUsuarioAndRol(999, Rol.CLIENTE);
         verify(usuarioRepository, never()).delete(any(Usuario.class));
+        verifyNoInteractions(usuarioSesionCache);
     }
 
     @Test
@@ -242,4 +281,25 @@ class ImpClienteServiceTest {
         assertEquals(5L, result);
         verify(usuarioRepository).countByRol(Rol.CLIENTE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void obtenerEstadisticas_DeberiaCalcularPromedioDesdeElResumen() {
+        // Arrange
+        when(resumenClienteRepository.calcularEstadisticas(Rol.CLIENTE)).thenReturn(new EstadisticasClientes() {
+            public Long getTotalClientes() { return 4L; }
+            public Long getClientesConPedidos() { return 2L; }
+            public Number getTotalPedidos() { return 7L; }
+            public Number getTotalGastado() { return 200.0; }
+        });
+
+        // Act
+        EstadisticasClientesDTO result = clienteService.obtenerEstadisticas();
+
+        // Assert
+        assertEquals(4L, result.getTotalClientes());
+        assertEquals(2L, result.getClientesConPedidos());
+        assertEquals(7L, result.getTotalPedidos());
+        assertEquals(200.0, result.getTotalGastado());
+        assertEquals(50.0, result.getGastoPromedioPorCliente());
+    }
+}
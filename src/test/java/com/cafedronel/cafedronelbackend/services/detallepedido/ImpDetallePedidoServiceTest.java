@@ -1,14 +1,20 @@
 package com.cafedronel.cafedronelbackend.services.detallepedido;
 
 import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +28,15 @@ class ImpDetallePedidoServiceTest {
     @Mock
     private DetallePedidoRepository detallePedidoRepository;
 
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private VentaDiariaService ventaDiariaService;
+
+    @Mock
+    private ResumenClienteService resumenClienteService;
+
     @InjectMocks
     private ImpDetallePedidoService detallePedidoService;
 
@@ -66,9 +81,38 @@ class ImpDetallePedidoServiceTest {
         
         assertNotNull(result);
         assertEquals(1, result.getIdDetalle());
+        assertEquals(new BigDecimal("20.00"), result.getSubtotal());
         verify(detallePedidoRepository, times(1)).save(detallePedido);
     }
 
+    @Test
+    void save_DeberiaActualizarElTotalDelPedido() {
+        Pedido pedido = new Pedido();
+        pedido.setIdPedido(5);
+        when(detallePedidoRepository.save(any(DetallePedido.class))).thenReturn(detallePedido);
+        when(detallePedidoRepository.findIdPedidoByIdDetalle(1)).thenReturn(Optional.of(5));
+        when(pedidoRepository.findById(5)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.sumarSubtotales(5)).thenReturn(new BigDecimal("32.50"));
+
+        detallePedidoService.save(detallePedido);
+
+        assertEquals(new BigDecimal("32.50"), pedido.getTotal());
+        verify(pedidoRepository, times(1)).save(pedido);
+    }
+
+    @Test
+    void save_pedidoConReserva_DeberiaRechazarse() {
+        Pedido pedido = new Pedido();
+        pedido.setIdPedido(5);
+        detallePedido.setPedido(pedido);
+        when(detallePedidoRepository.findIdPedidoByIdDetalle(1)).thenReturn(Optional.of(5));
+        when(pedidoRepository.findReservaExpiraEnByIdPedido(5)).thenReturn(Optional.of(LocalDateTime.now().plusMinutes(30)));
+
+        assertThrows(BusinessException.class, () -> detallePedidoService.save(detallePedido));
+
+        verify(detallePedidoRepository, never()).save(any(DetallePedido.class));
+    }
+
     @Test
     void delete() {
         when(detallePedidoRepository.existsById(1)).thenReturn(true);
@@ -79,6 +123,37 @@ class ImpDetallePedidoServiceTest {
         verify(detallePedidoRepository, times(1)).deleteById(1);
     }
 
+    @Test
+    void delete_DeberiaDescontarElDetalleDelTotalDelPedido() {
+        Pedido pedido = new Pedido();
+        pedido.setIdPedido(5);
+        pedido.setFecha(java.sql.Date.valueOf("2024-01-10"));
+        pedido.setTotal(new BigDecimal("32.50"));
+        when(detallePedidoRepository.existsById(1)).thenReturn(true);
+        when(detallePedidoRepository.findIdPedidoByIdDetalle(1)).thenReturn(Optional.of(5));
+        when(pedidoRepository.findById(5)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.sumarSubtotales(5)).thenReturn(new BigDecimal("12.50"));
+
+        detallePedidoService.delete(1);
+
+        assertEquals(new BigDecimal("12.50"), pedido.getTotal());
+        verify(detallePedidoRepository).deleteById(1);
+        verify(ventaDiariaService).registrarCambio(pedido.getFecha(), new BigDecimal("32.50"),
+                pedido.getFecha(), new BigDecimal("12.50"));
+    }
+
+    @Test
+    void delete_pedidoConReserva_DeberiaRechazarse() {
+        when(detallePedidoRepository.existsById(1)).thenReturn(true);
+        when(detallePedidoRepository.findIdPedidoByIdDetalle(1)).thenReturn(Optional.of(5));
+        when(pedidoRepository.findReservaExpiraEnByIdPedido(5)).thenReturn(Optional.of(LocalDateTime.now().plusMinutes(30)));
+
+        assertThrows(BusinessException.class, () -> detallePedidoService.delete(1));
+
+        verify(detallePedidoRepository, never()).deleteById(any());
+        verifyNoInteractions(ventaDiariaService);
+    }
+
     @Test
     void delete_notFound() {
         when(detallePedidoRepository.existsById(1)).thenReturn(false);
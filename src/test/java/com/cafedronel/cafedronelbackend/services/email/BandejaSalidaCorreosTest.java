@@ -0,0 +1,140 @@
+package com.cafedronel.cafedronelbackend.services.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import com.cafedronel.cafedronelbackend.data.enums.EstadoCorreo;
+import com.cafedronel.cafedronelbackend.data.model.CorreoSaliente;
+import com.cafedronel.cafedronelbackend.repository.CorreoSalienteRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+class BandejaSalidaCorreosTest {
+
+    @Mock
+    private CorreoSalienteRepository correoRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BandejaSalidaCorreos bandejaSalida;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        bandejaSalida = new BandejaSalidaCorreos(correoRepository, mailSender, meterRegistry,
+                "tienda@example.com", 10, 1, 3, 30, 3600, 600, false);
+        Session sesion = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocacion -> new MimeMessage(sesion));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bandejaSalida.detener();
+    }
+
+    @Test
+    void calcularEspera_DeberiaDuplicarseHastaElMaximo() {
+        Duration inicial = Duration.ofSeconds(30);
+        Duration maximo = Duration.ofMinutes(5);
+
+        assertEquals(Duration.ofSeconds(30), BandejaSalidaCorreos.calcularEspera(1, inicial, maximo));
+        assertEquals(Duration.ofSeconds(60), BandejaSalidaCorreos.calcularEspera(2, inicial, maximo));
+        assertEquals(Duration.ofSeconds(240), BandejaSalidaCorreos.calcularEspera(4, inicial, maximo));
+        assertEquals(maximo, BandejaSalidaCorreos.calcularEspera(5, inicial, maximo));
+        assertEquals(maximo, BandejaSalidaCorreos.calcularEspera(500, inicial, maximo));
+    }
+
+    @Test
+    void procesarLote_SinCorreosListos_NoDeberiaContactarAlServidor() {
+        when(correoRepository.findIdsListos(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, bandejaSalida.procesarLote());
+
+        verify(correoRepository, never()).reclamar(anyCollection(), anyString(), any(LocalDateTime.class));
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void procesarLote_ConUnMensajeRechazado_DeberiaReintentarSoloEse() {
+        CorreoSaliente aceptado = crearCorreo(1, "uno@example.com");
+        CorreoSaliente rechazado = crearCorreo(2, "dos@example.com");
+        when(correoRepository.findIdsListos(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(1, 2));
+        when(correoRepository.reclamar(anyCollection(), anyString(), any(LocalDateTime.class))).thenReturn(2);
+        when(correoRepository.findByLoteOrderByIdCorreoAsc(anyString())).thenReturn(List.of(aceptado, rechazado));
+        doAnswer(invocacion -> {
+            MimeMessage[] mensajes = invocacion.getArgument(0);
+            throw new MailSendException(Map.of(mensajes[1], new MessagingException("451 falla temporal")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime antes = LocalDateTime.now();
+        assertEquals(2, bandejaSalida.procesarLote());
+
+        assertEquals(EstadoCorreo.ENVIADO, aceptado.getEstado());
+        assertEquals(1, aceptado.getIntentos());
+        assertEquals(EstadoCorreo.PENDIENTE, rechazado.getEstado());
+        assertEquals(1, rechazado.getIntentos());
+        assertTrue(rechazado.getProximoIntento().isAfter(antes.plusSeconds(29)));
+        assertTrue(rechazado.getUltimoError().contains("451"));
+        verify(correoRepository).saveAll(List.of(aceptado, rechazado));
+        assertEquals(1.0, meterRegistry.get("correo.outbox.resultado").tag("resultado", "enviado").counter().count());
+        assertEquals(1.0, meterRegistry.get("correo.outbox.resultado").tag("resultado", "reintento").counter().count());
+    }
+
+    @Test
+    void procesarLote_EnElUltimoIntento_DeberiaDescartarElCorreo() {
+        CorreoSaliente correo = crearCorreo(1, "uno@example.com");
+        correo.setIntentos(2);
+        when(correoRepository.findIdsListos(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(1));
+        when(correoRepository.reclamar(anyCollection(), anyString(), any(LocalDateTime.class))).thenReturn(1);
+        when(correoRepository.findByLoteOrderByIdCorreoAsc(anyString())).thenReturn(List.of(correo));
+        doAnswer(invocacion -> {
+            throw new MailSendException("Sin conexión");
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        bandejaSalida.procesarLote();
+
+        assertEquals(EstadoCorreo.FALLIDO, correo.getEstado());
+        assertEquals(3, correo.getIntentos());
+        assertEquals(1.0, meterRegistry.get("correo.outbox.resultado").tag("resultado", "descartado").counter().count());
+    }
+
+    private CorreoSaliente crearCorreo(Integer id, String destinatario) {
+        CorreoSaliente correo = new CorreoSaliente();
+        correo.setIdCorreo(id);
+        correo.setDestinatario(destinatario);
+        correo.setAsunto("Asunto");
+        correo.setCuerpo("<p>Hola</p>");
+        correo.setEstado(EstadoCorreo.ENVIANDO);
+        correo.setCreadoEn(LocalDateTime.now());
+        correo.setProximoIntento(LocalDateTime.now());
+        return correo;
+    }
+}
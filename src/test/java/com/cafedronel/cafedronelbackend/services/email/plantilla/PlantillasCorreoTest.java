@@ -0,0 +1,95 @@
+package com.cafedronel.cafedronelbackend.services.email.plantilla;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class PlantillasCorreoTest {
+
+    private static PlantillasCorreo plantillas;
+
+    @BeforeAll
+    static void cargar() {
+        plantillas = new PlantillasCorreo();
+    }
+
+    @Test
+    void renderizar_RecuperacionContrasena_DeberiaIncluirCodigoYDisenoComun() {
+        String html = plantillas.renderizar(TipoPlantilla.RECUPERACION_CONTRASENA, Map.of("codigo", "123456"));
+
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("<div class=\"code\">123456</div>"));
+        assertTrue(html.contains("Recuperación de Contraseña"));
+        assertTrue(html.contains("Todos los derechos reservados"));
+        assertFalse(html.contains("{{"));
+    }
+
+    @Test
+    void renderizar_TodasLasPlantillas_DeberianCompilarConSusVariables() {
+        for (TipoPlantilla tipo : TipoPlantilla.values()) {
+            Map<String, String> valores = new HashMap<>();
+            tipo.getVariables().forEach(variable -> valores.put(variable, "valor-" + variable));
+
+            String html = plantillas.renderizar(tipo, valores);
+
+            tipo.getVariables().forEach(variable -> assertTrue(html.contains("valor-" + variable), tipo + " sin " + variable));
+            assertFalse(html.contains("{{"), tipo.name());
+        }
+    }
+
+    @Test
+    void renderizar_DeberiaEscaparHtmlDeLosValores() {
+        String html = plantillas.renderizar(TipoPlantilla.CONFIRMACION_PEDIDO, Map.of(
+                "nombre", "<script>alert('x')</script>",
+                "idPedido", "15",
+                "fecha", "2025-10-01",
+                "total", "42.50",
+                "direccion", "Av. Perú & Jr. Lima"));
+
+        assertFalse(html.contains("<script>"));
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;"));
+        assertTrue(html.contains("Av. Perú &amp; Jr. Lima"));
+    }
+
+    @Test
+    void renderizar_SinUnaVariable_DeberiaLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> plantillas.renderizar(TipoPlantilla.ENVIO_PEDIDO, Map.of("nombre", "Ana")));
+    }
+
+    @Test
+    void renderizar_Repetido_DeberiaReutilizarElBufferSinMezclarResultados() {
+        String primero = plantillas.renderizar(TipoPlantilla.RECUPERACION_CONTRASENA, Map.of("codigo", "111111"));
+        String segundo = plantillas.renderizar(TipoPlantilla.RECUPERACION_CONTRASENA, Map.of("codigo", "222222"));
+
+        assertTrue(primero.contains("111111"));
+        assertFalse(segundo.contains("111111"));
+        assertEquals(primero.length(), segundo.length());
+    }
+
+    @Test
+    void compilar_DeberiaSepararTramosYVariables() {
+        PlantillaCompilada plantilla = PlantillaCompilada.compilar("Hola {{nombre}}, pedido {{ idPedido }}.");
+        StringBuilder destino = new StringBuilder();
+
+        plantilla.renderizar(Map.of("nombre", "Ana", "idPedido", "7"), destino);
+
+        assertEquals("Hola Ana, pedido 7.", destino.toString());
+        assertEquals(Set.of("nombre", "idPedido"), plantilla.variables());
+        assertEquals("Hola , pedido .".length(), plantilla.largoFijo());
+    }
+
+    @Test
+    void compilar_ConVariableSinCerrar_DeberiaLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> PlantillaCompilada.compilar("Hola {{nombre"));
+        assertThrows(IllegalArgumentException.class, () -> PlantillaCompilada.compilar("Hola {{ }}"));
+    }
+}
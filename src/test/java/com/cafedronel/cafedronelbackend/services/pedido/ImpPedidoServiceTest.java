@@ -1,16 +1,27 @@
 package com.cafedronel.cafedronelbackend.services.pedido;
 
+import com.cafedronel.cafedronelbackend.data.dto.pedido.PedidoResumenDTO;
 import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pago;
 import com.cafedronel.cafedronelbackend.data.model.Pedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.data.model.Usuario;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
 import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.services.reporte.ResumenClienteService;
+import com.cafedronel.cafedronelbackend.services.reporte.VentaDiariaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +34,18 @@ class ImpPedidoServiceTest {
     @Mock
     private PedidoRepository pedidoRepository;
 
+    @Mock
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Mock
+    private VentaDiariaService ventaDiariaService;
+
+    @Mock
+    private ResumenClienteService resumenClienteService;
+
+    @Mock
+    private ReservasStock reservasStock;
+
     @InjectMocks
     private ImpPedidoService pedidoService;
 
@@ -70,6 +93,54 @@ class ImpPedidoServiceTest {
         verify(pedidoRepository, times(1)).findByUsuarioIdUsuario(1);
     }
 
+    @Test
+    void findAllResumen_DeberiaAplanarElGrafoDelPedido() {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(7);
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@example.com");
+        Producto producto = new Producto();
+        producto.setIdProducto(3);
+        producto.setNombre("Café Americano");
+        DetallePedido detalle = new DetallePedido();
+        detalle.setIdDetalle(10);
+        detalle.setProducto(producto);
+        detalle.setCantidad(2);
+        detalle.setPrecioUnitario(4.5);
+        detalle.setSubtotal(new BigDecimal("9.00"));
+        Pago pago = new Pago();
+        pago.setMetodoPago("TARJETA");
+        pago.setMonto(9.0);
+        pedido.setUsuario(usuario);
+        pedido.setDetalles(List.of(detalle));
+        pedido.setPago(pago);
+        pedido.setTotal(new BigDecimal("9.00"));
+        when(pedidoRepository.findAllConDetalles()).thenReturn(List.of(pedido));
+
+        List<PedidoResumenDTO> result = pedidoService.findAllResumen();
+
+        assertEquals(1, result.size());
+        PedidoResumenDTO resumen = result.get(0);
+        assertEquals(7, resumen.getIdUsuario());
+        assertEquals("ana@example.com", resumen.getCorreoCliente());
+        assertEquals("TARJETA", resumen.getMetodoPago());
+        assertNull(resumen.getEstadoEnvio());
+        assertEquals(9.0, resumen.getTotal());
+        assertEquals("Café Americano", resumen.getDetalles().get(0).getNombreProducto());
+        verify(pedidoRepository, never()).findAll();
+    }
+
+    @Test
+    void findResumenByUsuarioId() {
+        when(pedidoRepository.findConDetallesByUsuarioId(1)).thenReturn(List.of(pedido));
+
+        List<PedidoResumenDTO> result = pedidoService.findResumenByUsuarioId(1);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).getDetalles().isEmpty());
+        verify(pedidoRepository, times(1)).findConDetallesByUsuarioId(1);
+    }
+
     @Test
     void save() {
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
@@ -81,27 +152,109 @@ class ImpPedidoServiceTest {
         verify(pedidoRepository, times(1)).save(pedido);
     }
 
+    @Test
+    void save_DeberiaGuardarSubtotalesYTotalExactos() {
+        DetallePedido cafe = new DetallePedido();
+        cafe.setCantidad(3);
+        cafe.setPrecioUnitario(0.1);
+        DetallePedido torta = new DetallePedido();
+        torta.setCantidad(1);
+        torta.setPrecioUnitario(19.99);
+        pedido.setDetalles(List.of(cafe, torta));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+
+        pedidoService.save(pedido);
+
+        // En double 3 × 0.1 daría 0.30000000000000004
+        assertEquals(new BigDecimal("0.30"), cafe.getSubtotal());
+        assertEquals(new BigDecimal("19.99"), torta.getSubtotal());
+        assertEquals(new BigDecimal("20.29"), pedido.getTotal());
+    }
+
+    @Test
+    void update_sinDetalles_DeberiaConservarElTotalGuardado() {
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(pedidoGuardado()));
+        when(pedidoRepository.sumarSubtotales(1)).thenReturn(new BigDecimal("12.50"));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+
+        pedidoService.update(1, pedido);
+
+        assertEquals(new BigDecimal("12.50"), pedido.getTotal());
+    }
+
     @Test
     void update() {
-        when(pedidoRepository.existsById(1)).thenReturn(true);
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(pedidoGuardado()));
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
         
         Pedido result = pedidoService.update(1, pedido);
         
         assertNotNull(result);
         assertEquals(1, result.getIdPedido());
-        verify(pedidoRepository, times(1)).existsById(1);
+        verify(pedidoRepository, times(1)).bloquearPorId(1);
         verify(pedidoRepository, times(1)).save(pedido);
     }
 
+    @Test
+    void update_conCambioDeFecha_DeberiaMoverElPedidoDeDia() {
+        Date fechaAnterior = java.sql.Date.valueOf("2024-01-10");
+        Date fechaNueva = java.sql.Date.valueOf("2024-01-12");
+        pedido.setFecha(fechaNueva);
+        Pedido guardado = pedidoGuardado();
+        guardado.setFecha(fechaAnterior);
+        guardado.setTotal(new BigDecimal("15.00"));
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(guardado));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+
+        pedidoService.update(1, pedido);
+
+        verify(ventaDiariaService, times(1)).registrarCambio(fechaAnterior, new BigDecimal("15.00"), fechaNueva, pedido.getTotal());
+    }
+
+    @Test
+    void update_conReserva_NoDeberiaCambiarLasCantidadesReservadas() {
+        Producto cafe = new Producto();
+        cafe.setIdProducto(7);
+        DetallePedido detalle = new DetallePedido();
+        detalle.setProducto(cafe);
+        detalle.setCantidad(5);
+        detalle.setPrecioUnitario(2.0);
+        pedido.setDetalles(List.of(detalle));
+        DetallePedidoRepository.CantidadProducto reservada = mock(DetallePedidoRepository.CantidadProducto.class);
+        when(reservada.getIdProducto()).thenReturn(7);
+        when(reservada.getCantidad()).thenReturn(2L);
+        Pedido guardado = pedidoGuardado();
+        guardado.setReservaExpiraEn(LocalDateTime.now().plusMinutes(30));
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(guardado));
+        when(detallePedidoRepository.sumarCantidadesPorProducto(List.of(1))).thenReturn(List.of(reservada));
+
+        assertThrows(BusinessException.class, () -> pedidoService.update(1, pedido));
+
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verifyNoInteractions(reservasStock);
+    }
+
+    @Test
+    void update_pedidoCancelado_NoDeberiaReactivarse() {
+        Pedido guardado = pedidoGuardado();
+        guardado.setEstado(EstadoPedido.CANCELADO);
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(guardado));
+
+        assertThrows(BusinessException.class, () -> pedidoService.update(1, pedido));
+
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verifyNoInteractions(reservasStock, ventaDiariaService);
+    }
+
     @Test
     void update_notFound() {
-        when(pedidoRepository.existsById(1)).thenReturn(false);
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.empty());
         
         assertThrows(BusinessException.class, () -> pedidoService.update(1, pedido));
         
-        verify(pedidoRepository, times(1)).existsById(1);
+        verify(pedidoRepository, times(1)).bloquearPorId(1);
         verify(pedidoRepository, never()).save(any(Pedido.class));
+        verifyNoInteractions(ventaDiariaService);
     }
 
     @Test
@@ -126,23 +279,64 @@ class ImpPedidoServiceTest {
 
     @Test
     void cambiarEstado() {
-        when(pedidoRepository.findById(1)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(pedido));
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
         
         Pedido result = pedidoService.cambiarEstado(1, EstadoPedido.ENTREGADO);
         
         assertEquals(EstadoPedido.ENTREGADO, result.getEstado());
-        verify(pedidoRepository, times(1)).findById(1);
+        verify(pedidoRepository, times(1)).bloquearPorId(1);
         verify(pedidoRepository, times(1)).save(pedido);
     }
 
     @Test
     void cambiarEstado_notFound() {
-        when(pedidoRepository.findById(1)).thenReturn(Optional.empty());
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.empty());
         
         assertThrows(BusinessException.class, () -> pedidoService.cambiarEstado(1, EstadoPedido.ENTREGADO));
         
-        verify(pedidoRepository, times(1)).findById(1);
+        verify(pedidoRepository, times(1)).bloquearPorId(1);
         verify(pedidoRepository, never()).save(any(Pedido.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void cambiarEstado_confirmado_DeberiaConvertirLaReservaEnVenta() {
+        pedido.setReservaExpiraEn(LocalDateTime.now().plusMinutes(30));
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+
+        pedidoService.cambiarEstado(1, EstadoPedido.CONFIRMADO);
+
+        verify(reservasStock).cerrar(pedido, false);
+    }
+
+    @Test
+    void cambiarEstado_cancelado_DeberiaDevolverElStockReservado() {
+        pedido.setReservaExpiraEn(LocalDateTime.now().plusMinutes(30));
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+
+        pedidoService.cambiarEstado(1, EstadoPedido.CANCELADO);
+
+        verify(reservasStock).cerrar(pedido, true);
+    }
+
+    @Test
+    void cambiarEstado_pedidoCancelado_NoDeberiaReactivarse() {
+        pedido.setEstado(EstadoPedido.CANCELADO);
+        when(pedidoRepository.bloquearPorId(1)).thenReturn(Optional.of(pedido));
+
+        assertThrows(BusinessException.class, () -> pedidoService.cambiarEstado(1, EstadoPedido.CONFIRMADO));
+
+        verifyNoInteractions(reservasStock);
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    // Estado guardado del pedido 1, distinto del objeto que llega en la petición
+    private static Pedido pedidoGuardado() {
+        Pedido guardado = new Pedido();
+        guardado.setIdPedido(1);
+        guardado.setEstado(EstadoPedido.PENDIENTE);
+        return guardado;
+    }
+}
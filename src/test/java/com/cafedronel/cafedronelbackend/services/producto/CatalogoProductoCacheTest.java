@@ -0,0 +1,193 @@
+package com.cafedronel.cafedronelbackend.services.producto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.version.VersionesDatos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CatalogoProductoCacheTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VersionesDatos versionesDatos;
+    private CatalogoProductoCache cache;
+    private Producto cafe;
+    private Producto torta;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        versionesDatos = new VersionesDatos();
+        cache = new CatalogoProductoCache(productoRepository, versionesDatos, meterRegistry, 100, 600, 600, 600);
+
+        cafe = crearProducto(1, "Café", 10);
+        torta = crearProducto(2, "Torta", 4);
+        when(productoRepository.findAll(any(Sort.class))).thenReturn(List.of(cafe, torta));
+    }
+
+    @Test
+    void obtenerTodos_DeberiaConsultarLaBaseDeDatosUnaSolaVez() {
+        List<ProductoResponseDTO> primera = cache.obtenerTodos();
+        List<ProductoResponseDTO> segunda = cache.obtenerTodos();
+
+        assertEquals(2, primera.size());
+        assertEquals(primera, segunda);
+        assertEquals(10, segunda.get(0).getStock());
+        verify(productoRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void obtener_DespuesDelListado_NoDeberiaConsultarLaBaseDeDatos() {
+        cache.obtenerTodos();
+
+        Optional<ProductoResponseDTO> producto = cache.obtener(2);
+
+        assertTrue(producto.isPresent());
+        assertEquals("Torta", producto.get().getNombre());
+        verify(productoRepository, never()).findById(any());
+    }
+
+    @Test
+    void invalidarStock_DeberiaRecargarSoloElStockSinReconstruirElCatalogo() {
+        cache.obtenerTodos();
+        when(productoRepository.findStockByIds(anyCollection()))
+                .thenReturn(List.of(stock(1, 7)));
+
+        cache.invalidarStock(Set.of(1));
+        List<ProductoResponseDTO> productos = cache.obtenerTodos();
+
+        assertEquals(7, productos.get(0).getStock());
+        assertEquals(4, productos.get(1).getStock());
+        verify(productoRepository, times(1)).findAll(any(Sort.class));
+        verify(productoRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void invalidaciones_DeberianCambiarElEtagDelCatalogo() {
+        String etagInicial = versionesDatos.etagCatalogo();
+
+        cache.obtenerTodos();
+        assertEquals(etagInicial, versionesDatos.etagCatalogo());
+
+        cache.invalidarStock(Set.of(1));
+        String etagTrasVenta = versionesDatos.etagCatalogo();
+        assertNotEquals(etagInicial, etagTrasVenta);
+
+        cache.invalidarProducto(2);
+        assertNotEquals(etagTrasVenta, versionesDatos.etagCatalogo());
+    }
+
+    @Test
+    void invalidarProducto_DeberiaRecargarElCatalogo() {
+        cache.obtenerTodos();
+        cafe.setNombre("Café de Altura");
+
+        cache.invalidarProducto(1);
+
+        assertEquals("Café de Altura", cache.obtenerTodos().get(0).getNombre());
+        verify(productoRepository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void respuestas_NoDeberianCompartirLaFichaGuardada() {
+        cache.obtenerTodos().get(0).setNombre("modificado");
+
+        assertEquals("Café", cache.obtenerTodos().get(0).getNombre());
+    }
+
+    @Test
+    void obtener_DeberiaIncluirElSku() {
+        cafe.setSku("CAF-001");
+
+        assertEquals("CAF-001", cache.obtenerTodos().get(0).getSku());
+        assertEquals("CAF-001", cache.obtener(1).orElseThrow().getSku());
+    }
+
+    @Test
+    void disponible_DeberiaAjustarElContadorSinVolverAConsultar() {
+        when(productoRepository.findStockByIds(anyCollection())).thenReturn(List.of(stock(1, 10)));
+
+        assertEquals(10, cache.disponible(1).orElseThrow());
+        cache.ajustarDisponible(Map.of(1, -3));
+        cache.ajustarDisponible(Map.of(1, 1));
+
+        assertEquals(8, cache.disponible(1).orElseThrow());
+        verify(productoRepository, times(1)).findStockByIds(anyCollection());
+    }
+
+    @Test
+    void disponible_TrasInvalidarStock_DeberiaRecargarse() {
+        when(productoRepository.findStockByIds(anyCollection())).thenReturn(List.of(stock(1, 10)), List.of(stock(1, 25)));
+        cache.disponible(1);
+
+        cache.invalidarStock(Set.of(1));
+
+        assertEquals(25, cache.disponible(1).orElseThrow());
+    }
+
+    @Test
+    void disponible_ProductoNoExistente_DeberiaEstarVacio() {
+        when(productoRepository.findStockByIds(anyCollection())).thenReturn(List.of());
+
+        assertTrue(cache.disponible(99).isEmpty());
+    }
+
+    @Test
+    void metricas_DeberianPublicarseEnElRegistro() {
+        cache.obtenerTodos();
+        cache.obtener(1);
+
+        assertTrue(meterRegistry.find("cache.gets").tag("cache", "catalogo.productos").tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    private static Producto crearProducto(int id, String nombre, int stock) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre(nombre);
+        producto.setPrecio(5.0);
+        producto.setStock(stock);
+        producto.setActivo(true);
+        return producto;
+    }
+
+    private static ProductoRepository.StockProducto stock(int idProducto, int stock) {
+        return new ProductoRepository.StockProducto() {
+            @Override
+            public Integer getIdProducto() {
+                return idProducto;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+        };
+    }
+}
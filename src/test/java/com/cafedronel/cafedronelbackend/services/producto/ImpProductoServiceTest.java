@@ -2,7 +2,9 @@ package com.cafedronel.cafedronelbackend.services.producto;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -22,17 +24,33 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockRequestDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.AjusteStockResponseDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ItemAjusteStockDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoRequestDTO;
 import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoResponseDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoAjusteStock;
 import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.exceptions.AjusteStockRechazadoException;
 import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
 import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+import com.cafedronel.cafedronelbackend.services.producto.busqueda.BusquedaProductos;
 
 class ImpProductoServiceTest {
 
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private CatalogoProductoCache catalogoProductoCache;
+
+    @Mock
+    private BusquedaProductos busquedaProductos;
+
+    @Mock
+    private MovimientosStock movimientosStock;
+
     @InjectMocks
     private ImpProductoService productoService;
 
@@ -66,7 +84,8 @@ class ImpProductoServiceTest {
     @Test
     void findAll_ReturnsAllProductos() {
         // Arrange
-        when(productoRepository.findAll()).thenReturn(Arrays.asList(producto));
+        ProductoResponseDTO dto = ProductoResponseDTO.builder().idProducto(1).nombre("Café Espresso").stock(100).build();
+        when(catalogoProductoCache.obtenerTodos()).thenReturn(Arrays.asList(dto));
 
         // Act
         List<ProductoResponseDTO> result = productoService.findAll();
@@ -75,13 +94,15 @@ class ImpProductoServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(producto.getNombre(), result.get(0).getNombre());
-        verify(productoRepository, times(1)).findAll();
+        verify(catalogoProductoCache, times(1)).obtenerTodos();
+        verify(productoRepository, never()).findAll();
     }
 
     @Test
     void findById_ExistingId_ReturnsProducto() {
         // Arrange
-        when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
+        ProductoResponseDTO dto = ProductoResponseDTO.builder().idProducto(1).nombre("Café Espresso").stock(100).build();
+        when(catalogoProductoCache.obtener(1)).thenReturn(Optional.of(dto));
 
         // Act
         ProductoResponseDTO result = productoService.findById(1);
@@ -90,17 +111,33 @@ class ImpProductoServiceTest {
         assertNotNull(result);
         assertEquals(producto.getIdProducto(), result.getIdProducto());
         assertEquals(producto.getNombre(), result.getNombre());
-        verify(productoRepository, times(1)).findById(1);
+        verify(catalogoProductoCache, times(1)).obtener(1);
     }
 
     @Test
     void findById_NonExistingId_ThrowsBusinessException() {
         // Arrange
-        when(productoRepository.findById(999)).thenReturn(Optional.empty());
+        when(catalogoProductoCache.obtener(999)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(BusinessException.class, () -> productoService.findById(999));
-        verify(productoRepository, times(1)).findById(999);
+        verify(catalogoProductoCache, times(1)).obtener(999);
+    }
+
+    @Test
+    void buscar_SinLimite_UsaElLimitePorDefectoYRespetaElMaximo() {
+        BusquedaProductosDTO resultado = BusquedaProductosDTO.builder().total(0).resultados(List.of()).build();
+        when(busquedaProductos.buscar("cafe", null, null, 20)).thenReturn(resultado);
+        when(busquedaProductos.buscar("cafe", "Bebidas", null, 100)).thenReturn(resultado);
+
+        assertEquals(resultado, productoService.buscar("cafe", null, null, null));
+        assertEquals(resultado, productoService.buscar("cafe", "Bebidas", null, 5000));
+    }
+
+    @Test
+    void buscar_TextoVacio_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> productoService.buscar("  ", null, null, 10));
+        verify(busquedaProductos, never()).buscar(any(), any(), any(), anyInt());
     }
 
     @Test
@@ -115,6 +152,8 @@ class ImpProductoServiceTest {
         assertNotNull(result);
         assertEquals(producto.getNombre(), result.getNombre());
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(catalogoProductoCache).invalidarProducto(producto.getIdProducto());
+        verify(busquedaProductos).indexar(producto);
     }
 
     @Test
@@ -131,6 +170,7 @@ class ImpProductoServiceTest {
         assertEquals(productoRequestDTO.getNombre(), result.getNombre());
         verify(productoRepository, times(1)).findById(1);
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(busquedaProductos).indexar(producto);
     }
 
     @Test
@@ -145,6 +185,8 @@ class ImpProductoServiceTest {
         // Assert
         verify(productoRepository, times(1)).existsById(1);
         verify(productoRepository, times(1)).deleteById(1);
+        verify(catalogoProductoCache).invalidarProducto(1);
+        verify(busquedaProductos).eliminar(1);
     }
 
     @Test
@@ -161,23 +203,24 @@ class ImpProductoServiceTest {
     @Test
     void disminuirStock_StockSuficiente_DisminuyeCorrectamente() {
         // Arrange
-        producto.setStock(10);
-        when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
-        when(productoRepository.save(any(Producto.class))).thenReturn(producto);
+        when(productoRepository.disminuirStockSiDisponible(1, 3)).thenReturn(1);
 
         // Act
         productoService.disminuirStock(1, 3);
 
         // Assert
-        assertEquals(7, producto.getStock());
-        verify(productoRepository, times(1)).findById(1);
-        verify(productoRepository, times(1)).save(producto);
+        verify(productoRepository, times(1)).disminuirStockSiDisponible(1, 3);
+        verify(productoRepository, never()).findById(anyInt());
+        verify(productoRepository, never()).save(any(Producto.class));
+        verify(catalogoProductoCache).invalidarStock(Set.of(1));
+        verify(catalogoProductoCache, never()).invalidarProducto(anyInt());
     }
 
     @Test
     void disminuirStock_StockInsuficiente_LanzaExcepcion() {
         // Arrange
         producto.setStock(2);
+        when(productoRepository.disminuirStockSiDisponible(1, 5)).thenReturn(0);
         when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
 
         // Act & Assert
@@ -189,57 +232,137 @@ class ImpProductoServiceTest {
         verify(productoRepository, never()).save(any(Producto.class));
     }
 
+    @Test
+    void disminuirStock_ProductoNoExistente_LanzaExcepcion() {
+        // Arrange
+        when(productoRepository.disminuirStockSiDisponible(999, 1)).thenReturn(0);
+        when(productoRepository.findById(999)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> productoService.disminuirStock(999, 1));
+
+        assertTrue(exception.getMessage().contains("Producto no encontrado"));
+    }
+
+    @Test
+    void disminuirStock_CantidadNoPositiva_LanzaExcepcion() {
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> productoService.disminuirStock(1, 0));
+        assertThrows(BusinessException.class, () -> productoService.disminuirStock(1, -3));
+        verify(productoRepository, never()).disminuirStockSiDisponible(anyInt(), anyInt());
+    }
+
     @Test
     void aumentarStock_ProductoExistente_AumentaCorrectamente() {
         // Arrange
-        producto.setStock(5);
-        when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
-        when(productoRepository.save(any(Producto.class))).thenReturn(producto);
+        when(productoRepository.aumentarStock(1, 3)).thenReturn(1);
 
         // Act
         productoService.aumentarStock(1, 3);
 
         // Assert
-        assertEquals(8, producto.getStock());
-        verify(productoRepository, times(1)).findById(1);
-        verify(productoRepository, times(1)).save(producto);
+        verify(productoRepository, times(1)).aumentarStock(1, 3);
+        verify(productoRepository, never()).save(any(Producto.class));
+        verify(catalogoProductoCache).invalidarStock(Set.of(1));
     }
 
     @Test
-    void verificarStock_StockSuficiente_RetornaTrue() {
+    void verificarStock_StockSuficiente_RetornaTrueSinConsultarLaBaseDeDatos() {
         // Arrange
-        producto.setStock(10);
-        when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
+        when(catalogoProductoCache.disponible(1)).thenReturn(Optional.of(10));
 
         // Act
         boolean resultado = productoService.verificarStock(1, 5);
 
         // Assert
         assertTrue(resultado);
-        verify(productoRepository, times(1)).findById(1);
+        verify(productoRepository, never()).findById(any());
     }
 
     @Test
     void verificarStock_StockInsuficiente_RetornaFalse() {
         // Arrange
-        producto.setStock(3);
-        when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
+        when(catalogoProductoCache.disponible(1)).thenReturn(Optional.of(3));
 
         // Act
         boolean resultado = productoService.verificarStock(1, 5);
 
         // Assert
         assertFalse(resultado);
-        verify(productoRepository, times(1)).findById(1);
     }
 
     @Test
     void verificarStock_ProductoNoExistente_LanzaExcepcion() {
         // Arrange
-        when(productoRepository.findById(999)).thenReturn(Optional.empty());
+        when(catalogoProductoCache.disponible(999)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(BusinessException.class, () -> productoService.verificarStock(999, 1));
-        verify(productoRepository, times(1)).findById(999);
     }
-}
\ No newline at end of file
+
+    @Test
+    void ajustarStock_TodosAplicables_RegistraMovimientosYRetornaStockFinal() {
+        // Arrange
+        AjusteStockRequestDTO ajuste = new AjusteStockRequestDTO(
+                List.of(new ItemAjusteStockDTO(2, -3), new ItemAjusteStockDTO(1, 20)), "Recepción");
+        List<ItemAjusteStockDTO> ordenados = List.of(ajuste.getItems().get(1), ajuste.getItems().get(0));
+        when(movimientosStock.aplicar(ordenados)).thenReturn(new int[]{1, 1});
+        when(productoRepository.findStockByIds(Set.of(1, 2))).thenReturn(List.of(stock(1, 120), stock(2, 7)));
+
+        // Act
+        AjusteStockResponseDTO respuesta = productoService.ajustarStock(ajuste, "admin@example.com");
+
+        // Assert
+        assertTrue(respuesta.isAplicado());
+        assertEquals(List.of(2, 1), respuesta.getResultados().stream().map(r -> r.getIdProducto()).toList());
+        assertEquals(7, respuesta.getResultados().get(0).getStock());
+        assertEquals(120, respuesta.getResultados().get(1).getStock());
+        verify(movimientosStock).registrar(ordenados, Map.of(1, 120, 2, 7), "Recepción", "admin@example.com");
+        verify(catalogoProductoCache).invalidarStock(Set.of(1, 2));
+    }
+
+    @Test
+    void ajustarStock_UnItemSinStock_RechazaTodoSinRegistrarMovimientos() {
+        // Arrange
+        AjusteStockRequestDTO ajuste = new AjusteStockRequestDTO(List.of(
+                new ItemAjusteStockDTO(1, 20), new ItemAjusteStockDTO(2, -30), new ItemAjusteStockDTO(999, 5)), null);
+        when(movimientosStock.aplicar(ajuste.getItems())).thenReturn(new int[]{1, 0, 0});
+        when(productoRepository.findStockByIds(Set.of(2, 999))).thenReturn(List.of(stock(2, 10)));
+
+        // Act
+        AjusteStockRechazadoException exception = assertThrows(AjusteStockRechazadoException.class,
+                () -> productoService.ajustarStock(ajuste, null));
+
+        // Assert
+        assertEquals(List.of(EstadoAjusteStock.REVERTIDO, EstadoAjusteStock.STOCK_INSUFICIENTE,
+                EstadoAjusteStock.PRODUCTO_NO_ENCONTRADO),
+                exception.getResultados().stream().map(r -> r.getEstado()).toList());
+        assertEquals(10, exception.getResultados().get(1).getStock());
+        verify(movimientosStock, never()).registrar(any(), any(), any(), any());
+        verify(catalogoProductoCache, never()).invalidarStock(any());
+    }
+
+    @Test
+    void ajustarStock_ProductoRepetidoOCantidadCero_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> productoService.ajustarStock(new AjusteStockRequestDTO(
+                List.of(new ItemAjusteStockDTO(1, 5), new ItemAjusteStockDTO(1, -2)), null), null));
+        assertThrows(BusinessException.class, () -> productoService.ajustarStock(new AjusteStockRequestDTO(
+                List.of(new ItemAjusteStockDTO(1, 0)), null), null));
+        verify(movimientosStock, never()).aplicar(any());
+    }
+
+    private static ProductoRepository.StockProducto stock(Integer idProducto, Integer stock) {
+        return new ProductoRepository.StockProducto() {
+            @Override
+            public Integer getIdProducto() {
+                return idProducto;
+            }
+
+            @Override
+            public Integer getStock() {
+                return stock;
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.cafedronel.cafedronelbackend.services.producto.busqueda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoEncontradoDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
+
+class BusquedaProductosTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private BusquedaProductos busquedaProductos;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void reconstruir_CambiosConfirmadosDuranteLaCarga_NoDeberianPerderseAlReemplazarElIndice() {
+        // La página se leyó antes de que se confirmaran la edición del 1 y la baja del 2
+        when(productoRepository.findByIdProductoGreaterThanOrderByIdProductoAsc(eq(0), any())).thenAnswer(invocation -> {
+            busquedaProductos.indexar(crearProducto(1, "Café Colombiano"));
+            busquedaProductos.eliminar(2);
+            return List.of(crearProducto(1, "Café Espresso"), crearProducto(2, "Torta de chocolate"));
+        });
+
+        busquedaProductos.reconstruir();
+
+        assertEquals(List.of(1), ids(busquedaProductos.buscar("colombiano", null, null, 10)));
+        assertTrue(ids(busquedaProductos.buscar("espresso", null, null, 10)).isEmpty());
+        assertTrue(ids(busquedaProductos.buscar("torta", null, null, 10)).isEmpty());
+    }
+
+    @Test
+    void indexar_DespuesDeReconstruir_DeberiaAplicarseAlIndiceNuevo() {
+        when(productoRepository.findByIdProductoGreaterThanOrderByIdProductoAsc(eq(0), any()))
+                .thenReturn(List.of(crearProducto(1, "Café Espresso")));
+        busquedaProductos.reconstruir();
+
+        busquedaProductos.indexar(crearProducto(3, "Jugo de piña"));
+
+        assertEquals(List.of(3), ids(busquedaProductos.buscar("pina", null, null, 10)));
+        assertEquals(List.of(1), ids(busquedaProductos.buscar("espresso", null, null, 10)));
+    }
+
+    private static Producto crearProducto(Integer id, String nombre) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre(nombre);
+        producto.setCategoria("Bebidas");
+        producto.setActivo(true);
+        return producto;
+    }
+
+    private static List<Integer> ids(BusquedaProductosDTO busqueda) {
+        return busqueda.getResultados().stream().map(ProductoEncontradoDTO::getIdProducto).toList();
+    }
+}
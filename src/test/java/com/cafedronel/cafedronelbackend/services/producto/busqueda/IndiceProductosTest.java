@@ -0,0 +1,127 @@
+package com.cafedronel.cafedronelbackend.services.producto.busqueda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cafedronel.cafedronelbackend.data.dto.producto.BusquedaProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.producto.ProductoEncontradoDTO;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
+import com.cafedronel.cafedronelbackend.util.texto.Tokenizador;
+
+class IndiceProductosTest {
+
+    private IndiceProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceProductos();
+        indice.indexar(crearProducto(1, "Café Espresso", "Bebidas", "Café", "Café espresso intenso"));
+        indice.indexar(crearProducto(2, "Capuccino", "Bebidas", "Café", "Espresso con leche espumada"));
+        indice.indexar(crearProducto(3, "Torta de chocolate", "Postres", "Tortas", "Bizcocho húmedo con café"));
+        indice.indexar(crearProducto(4, "Jugo de piña", "Bebidas", "Jugos", "Piña natural sin azúcar"));
+    }
+
+    @Test
+    void tokenizar_QuitaTildesMayusculasYPalabrasVacias() {
+        assertEquals(List.of("cafe", "nino", "sin", "azucar"), Tokenizador.tokenizar("Café del Niño, SIN azúcar"));
+    }
+
+    @Test
+    void buscar_SinTildes_EncuentraLosMismosProductos() {
+        assertEquals(ids(indice.buscar("cafe", null, null, 10)), ids(indice.buscar("CAFÉ", null, null, 10)));
+        assertEquals(List.of(4), ids(indice.buscar("pina", null, null, 10)));
+    }
+
+    @Test
+    void buscar_PorPrefijo_EncuentraLaPalabraCompleta() {
+        assertEquals(List.of(2), ids(indice.buscar("capu", null, null, 10)));
+        assertEquals(List.of(3), ids(indice.buscar("choc", null, null, 10)));
+    }
+
+    @Test
+    void buscar_OrdenaPorRelevancia() {
+        // "cafe" en el nombre pesa más que en la descripción
+        List<Integer> resultados = ids(indice.buscar("cafe", null, null, 10));
+
+        assertEquals(1, resultados.get(0));
+        assertEquals(3, resultados.get(resultados.size() - 1));
+    }
+
+    @Test
+    void buscar_ExigeTodosLosTerminos() {
+        assertEquals(List.of(2), ids(indice.buscar("espresso leche", null, null, 10)));
+        assertTrue(ids(indice.buscar("espresso jugo", null, null, 10)).isEmpty());
+    }
+
+    @Test
+    void buscar_CuentaFacetasDeTodasLasCoincidencias() {
+        BusquedaProductosDTO busqueda = indice.buscar("cafe", null, null, 1);
+
+        assertEquals(3, busqueda.getTotal());
+        assertEquals(1, busqueda.getResultados().size());
+        assertEquals(2, busqueda.getCategorias().get("Bebidas"));
+        assertEquals(1, busqueda.getCategorias().get("Postres"));
+        assertEquals(List.of("Bebidas", "Postres"), List.copyOf(busqueda.getCategorias().keySet()));
+    }
+
+    @Test
+    void buscar_ConFiltroDeCategoria_IgnoraMayusculasYTildes() {
+        BusquedaProductosDTO busqueda = indice.buscar("cafe", "postres", null, 10);
+
+        assertEquals(List.of(3), ids(busqueda));
+        assertEquals(1, busqueda.getTotal());
+        assertEquals(List.of(1, 2), ids(indice.buscar("espresso", null, "CAFE", 10)));
+    }
+
+    @Test
+    void indexar_ProductoEditado_ReemplazaSusTerminos() {
+        indice.indexar(crearProducto(2, "Latte", "Bebidas", "Café", "Leche vaporizada"));
+
+        assertTrue(ids(indice.buscar("capuccino", null, null, 10)).isEmpty());
+        assertEquals(List.of(2), ids(indice.buscar("latte", null, null, 10)));
+        assertFalse(indice.terminosIndexados().contains("capuccino"));
+    }
+
+    @Test
+    void indexar_ProductoInactivo_LoQuitaDelIndice() {
+        Producto inactivo = crearProducto(4, "Jugo de piña", "Bebidas", "Jugos", "Piña natural");
+        inactivo.setActivo(false);
+
+        indice.indexar(inactivo);
+
+        assertTrue(ids(indice.buscar("jugo", null, null, 10)).isEmpty());
+        assertEquals(3, indice.tamano());
+    }
+
+    @Test
+    void eliminar_QuitaElProductoYSusTerminosHuerfanos() {
+        indice.eliminar(3);
+
+        assertTrue(ids(indice.buscar("chocolate", null, null, 10)).isEmpty());
+        assertFalse(indice.terminosIndexados().contains("bizcocho"));
+        assertEquals(3, indice.tamano());
+    }
+
+    private static List<Integer> ids(BusquedaProductosDTO busqueda) {
+        return busqueda.getResultados().stream().map(ProductoEncontradoDTO::getIdProducto).toList();
+    }
+
+    private static Producto crearProducto(Integer id, String nombre, String categoria, String subtipo, String descripcion) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre(nombre);
+        producto.setCategoria(categoria);
+        producto.setSubtipo(subtipo);
+        producto.setDescripcion(descripcion);
+        producto.setPrecio(5.0);
+        producto.setStock(10);
+        producto.setActivo(true);
+        return producto;
+    }
+}
@@ -1,32 +1,54 @@
 package com.cafedronel.cafedronelbackend.services.reporte;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import jakarta.persistence.EntityManager;
+
 import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteClientesDTO;
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteProductosDTO;
+import com.cafedronel.cafedronelbackend.data.dto.reporte.VentasProductoDTO;
+import com.cafedronel.cafedronelbackend.data.enums.EstadoPedido;
+import com.cafedronel.cafedronelbackend.data.model.Producto;
 import com.cafedronel.cafedronelbackend.data.model.Rol;
 import com.cafedronel.cafedronelbackend.data.model.Usuario;
+import com.cafedronel.cafedronelbackend.repository.DetallePedidoRepository;
 import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository.FilaReportePedido;
 import com.cafedronel.cafedronelbackend.repository.ProductoRepository;
-import com.cafedronel.cafedronelbackend.repository.UsuarioRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository;
+import com.cafedronel.cafedronelbackend.repository.ResumenClienteRepository.FilaReporteCliente;
 
 @ExtendWith(MockitoExtension.class)
 class ImpReporteServiceTest {
 
     @Mock
-    private UsuarioRepository usuarioRepository;
+    private ResumenClienteRepository resumenClienteRepository;
 
     @Mock
     private PedidoRepository pedidoRepository;
@@ -34,11 +56,22 @@ class ImpReporteServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private DetallePedidoRepository detallePedidoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private VentaDiariaService ventaDiariaService;
+
     @InjectMocks
     private ImpReporteService reporteService;
 
     private Usuario cliente1;
     private Usuario cliente2;
+    private FilaReporteCliente filaCliente1;
+    private FilaReporteCliente filaCliente2;
 
     @BeforeEach
     void setUp() {
@@ -61,12 +94,15 @@ class ImpReporteServiceTest {
                 .rol(Rol.CLIENTE)
                 .activo(true)
                 .build();
+
+        filaCliente1 = crearFila(cliente1, 3, "45.50", LocalDate.of(2025, 9, 30));
+        filaCliente2 = crearFila(cliente2, null, null, null);
     }
 
     @Test
     void generarReporteClientes_DeberiaRetornarListaDeClientes() {
         // Arrange
-        when(usuarioRepository.findByRol(Rol.CLIENTE)).thenReturn(Arrays.asList(cliente1, cliente2));
+        when(resumenClienteRepository.findReporteClientes(Rol.CLIENTE)).thenReturn(Arrays.asList(filaCliente1, filaCliente2));
 
         // Act
         List<ReporteClientesDTO> resultado = reporteService.generarReporteClientes();
@@ -81,12 +117,21 @@ class ImpReporteServiceTest {
         assertEquals("12345678", primerCliente.getTelefono());
         assertEquals("Calle 123", primerCliente.getDireccion());
         assertEquals("Activo", primerCliente.getEstado());
+        assertEquals(3, primerCliente.getTotalPedidos());
+        assertEquals(45.5, primerCliente.getTotalGastado());
+        assertEquals(LocalDate.of(2025, 9, 30), primerCliente.getUltimoPedido());
+
+        // Sin fila en el resumen: cliente sin pedidos
+        ReporteClientesDTO segundoCliente = resultado.get(1);
+        assertEquals(0, segundoCliente.getTotalPedidos());
+        assertEquals(0.0, segundoCliente.getTotalGastado());
+        assertNull(segundoCliente.getUltimoPedido());
     }
 
     @Test
     void generarReporteClientes_ConListaVacia_DeberiaRetornarListaVacia() {
         // Arrange
-        when(usuarioRepository.findByRol(Rol.CLIENTE)).thenReturn(Arrays.asList());
+        when(resumenClienteRepository.findReporteClientes(Rol.CLIENTE)).thenReturn(Arrays.asList());
 
         // Act
         List<ReporteClientesDTO> resultado = reporteService.generarReporteClientes();
@@ -99,7 +144,7 @@ class ImpReporteServiceTest {
     @Test
     void generarExcelClientes_DeberiaGenerarArchivoExcel() {
         // Arrange
-        when(usuarioRepository.findByRol(Rol.CLIENTE)).thenReturn(Arrays.asList(cliente1));
+        when(resumenClienteRepository.streamReporteClientes(Rol.CLIENTE)).thenAnswer(invocation -> Stream.of(filaCliente1));
 
         // Act
         byte[] excelData = reporteService.generarExcelClientes();
@@ -152,7 +197,8 @@ class ImpReporteServiceTest {
     @Test
     void generarExcelCompleto_DeberiaGenerarArchivoExcelConVariasHojas() {
         // Arrange
-        when(usuarioRepository.findByRol(Rol.CLIENTE)).thenReturn(Arrays.asList(cliente1, cliente2));
+        when(resumenClienteRepository.streamReporteClientes(Rol.CLIENTE))
+                .thenAnswer(invocation -> Stream.of(filaCliente1, filaCliente2));
         LocalDate fechaInicio = LocalDate.now().minusDays(30);
         LocalDate fechaFin = LocalDate.now();
 
@@ -202,6 +248,129 @@ class ImpReporteServiceTest {
 
         // Assert
         assertNotNull(resultado);
-        // Por ahora retorna lista vacía, pero no debería fallar
+        verify(ventaDiariaService, times(1)).obtenerVentas(fechaInicio, fechaFin);
+        verify(pedidoRepository, never()).findByFechaBetween(any(), any());
+    }
+
+    @Test
+    void generarReporteProductos_DeberiaUsarUnaSolaConsultaAgregada() {
+        // Arrange
+        Producto espresso = crearProducto(1, "Espresso", 3.5, 10);
+        Producto latte = crearProducto(2, "Latte", 4.0, 0);
+        Producto mocca = crearProducto(3, "Mocca", 4.5, 5);
+        when(productoRepository.findAll()).thenReturn(Arrays.asList(espresso, latte, mocca));
+        when(detallePedidoRepository.obtenerVentasPorProducto()).thenReturn(Arrays.asList(
+                new VentasProductoDTO(1, 7L, new BigDecimal("24.50")),
+                new VentasProductoDTO(2, 3L, new BigDecimal("12.00"))));
+
+        // Act
+        List<ReporteProductosDTO> resultado = reporteService.generarReporteProductos();
+
+        // Assert
+        assertEquals(3, resultado.size());
+        assertEquals(7, resultado.get(0).getTotalVendido());
+        assertEquals(24.5, resultado.get(0).getIngresosTotales());
+        assertEquals("Disponible", resultado.get(0).getEstado());
+        assertEquals(3, resultado.get(1).getTotalVendido());
+        assertEquals("Agotado", resultado.get(1).getEstado());
+        assertEquals(0, resultado.get(2).getTotalVendido());
+        assertEquals(0.0, resultado.get(2).getIngresosTotales());
+
+        // El número de consultas no depende de la cantidad de productos ni de pedidos
+        verify(detallePedidoRepository, times(1)).obtenerVentasPorProducto();
+        verify(pedidoRepository, never()).findAll();
+    }
+
+    @Test
+    void exportarExcelPedidos_DeberiaEscribirUnaFilaPorPedidoDelCursor() throws Exception {
+        // Arrange
+        LocalDate fechaInicio = LocalDate.of(2024, 1, 1);
+        LocalDate fechaFin = LocalDate.of(2024, 1, 31);
+        when(pedidoRepository.streamReportePedidos(java.sql.Date.valueOf(fechaInicio), java.sql.Date.valueOf(fechaFin)))
+                .thenAnswer(invocation -> Stream.of(
+                        crearFilaPedido(10, cliente1, "7.00", 2),
+                        crearFilaPedido(11, cliente2, "3.50", 1),
+                        crearFilaPedido(12, cliente1, "14.00", 4)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        reporteService.exportarExcelPedidos(fechaInicio, fechaFin, salida);
+
+        // Assert
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Reporte de Pedidos");
+            assertNotNull(sheet);
+            assertEquals(3, sheet.getLastRowNum());
+            assertEquals(10, (int) sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("María García", sheet.getRow(2).getCell(1).getStringCellValue());
+            assertEquals(14.0, sheet.getRow(3).getCell(5).getNumericCellValue());
+            assertTrue(sheet.getColumnWidth(1) >= "María García".length() * 256);
+        }
+
+        // Las filas son proyecciones: no hay entidades que desacoplar ni detalles que cargar
+        verify(entityManager, never()).detach(any());
+        verify(pedidoRepository, never()).findByFechaBetween(any(), any());
+    }
+
+    @Test
+    void generarReportePedidos_DeberiaUsarElTotalGuardado() {
+        // Arrange
+        LocalDate fechaInicio = LocalDate.of(2024, 1, 1);
+        LocalDate fechaFin = LocalDate.of(2024, 1, 31);
+        when(pedidoRepository.streamReportePedidos(java.sql.Date.valueOf(fechaInicio), java.sql.Date.valueOf(fechaFin)))
+                .thenAnswer(invocation -> Stream.of(crearFilaPedido(10, cliente1, "20.29", 4)));
+
+        // Act
+        var resultado = reporteService.generarReportePedidos(fechaInicio, fechaFin);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals(20.29, resultado.get(0).getTotal());
+        assertEquals(4, resultado.get(0).getCantidadProductos());
+        assertEquals("Juan Pérez", resultado.get(0).getNombreCliente());
+        assertEquals("No especificado", resultado.get(0).getMetodoPago());
+        assertEquals("Calle 123", resultado.get(0).getDireccionEnvio());
+    }
+
+    private FilaReporteCliente crearFila(Usuario usuario, Integer totalPedidos, String totalGastado, LocalDate ultimoPedido) {
+        return new FilaReporteCliente() {
+            public Integer getIdUsuario() { return usuario.getIdUsuario(); }
+            public String getNombre() { return usuario.getNombre(); }
+            public String getApellido() { return usuario.getApellido(); }
+            public String getCorreo() { return usuario.getCorreo(); }
+            public String getTelefono() { return usuario.getTelefono(); }
+            public String getDireccion() { return usuario.getDireccion(); }
+            public Boolean getActivo() { return usuario.getActivo(); }
+            public Integer getTotalPedidos() { return totalPedidos; }
+            public BigDecimal getTotalGastado() { return totalGastado != null ? new BigDecimal(totalGastado) : null; }
+            public LocalDate getUltimoPedido() { return ultimoPedido; }
+        };
+    }
+
+    private FilaReportePedido crearFilaPedido(Integer id, Usuario usuario, String total, long cantidadProductos) {
+        return new FilaReportePedido() {
+            public Integer getIdPedido() { return id; }
+            public java.util.Date getFecha() { return java.sql.Date.valueOf(LocalDate.of(2024, 1, 15)); }
+            public EstadoPedido getEstado() { return EstadoPedido.PENDIENTE; }
+            public BigDecimal getTotal() { return new BigDecimal(total); }
+            public String getNombre() { return usuario.getNombre(); }
+            public String getApellido() { return usuario.getApellido(); }
+            public String getCorreo() { return usuario.getCorreo(); }
+            public String getMetodoPago() { return null; }
+            public String getDireccionEnvio() { return null; }
+            public String getDireccion() { return usuario.getDireccion(); }
+            public Long getCantidadProductos() { return cantidadProductos; }
+        };
+    }
+
+    private Producto crearProducto(Integer id, String nombre, Double precio, Integer stock) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre(nombre);
+        producto.setCategoria("Bebidas");
+        producto.setPrecio(precio);
+        producto.setStock(stock);
+        producto.setActivo(true);
+        return producto;
     }
-}
\ No newline at end of file
+}
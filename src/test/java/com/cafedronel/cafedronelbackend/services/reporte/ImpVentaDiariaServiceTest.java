@@ -0,0 +1,178 @@
+package com.cafedronel.cafedronelbackend.services.reporte;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cafedronel.cafedronelbackend.data.dto.reporte.ReporteVentasDTO;
+import com.cafedronel.cafedronelbackend.data.model.VentaDiaria;
+import com.cafedronel.cafedronelbackend.repository.PedidoRepository;
+import com.cafedronel.cafedronelbackend.repository.VentaDiariaRepository;
+
+class ImpVentaDiariaServiceTest {
+
+    private static final LocalDate DIA_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DIA_2 = LocalDate.of(2024, 3, 2);
+
+    @Mock
+    private VentaDiariaRepository ventaDiariaRepository;
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @InjectMocks
+    private ImpVentaDiariaService ventaDiariaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void registrarAlta_DeberiaAcumularUnPedidoEnSuDia() {
+        ventaDiariaService.registrarAlta(fecha(DIA_1), new BigDecimal("20.00"));
+
+        verify(ventaDiariaRepository).acumular(DIA_1, 1, new BigDecimal("20.00"));
+        verify(ventaDiariaRepository, never()).eliminarSiNoTienePedidos(any());
+    }
+
+    @Test
+    void registrarBaja_DeberiaRestarElPedidoYBorrarElDiaSiQuedaVacio() {
+        ventaDiariaService.registrarBaja(fecha(DIA_1), new BigDecimal("20.00"));
+
+        InOrder orden = inOrder(ventaDiariaRepository);
+        orden.verify(ventaDiariaRepository).acumular(DIA_1, -1, new BigDecimal("-20.00"));
+        orden.verify(ventaDiariaRepository).eliminarSiNoTienePedidos(DIA_1);
+    }
+
+    @Test
+    void registrarCambio_MismoDia_DeberiaAcumularSoloLaDiferencia() {
+        ventaDiariaService.registrarCambio(fecha(DIA_1), new BigDecimal("20.00"), fecha(DIA_1), new BigDecimal("25.50"));
+
+        verify(ventaDiariaRepository).acumular(DIA_1, 0, new BigDecimal("5.50"));
+        verify(ventaDiariaRepository, times(1)).acumular(any(), anyInt(), any());
+        verify(ventaDiariaRepository, never()).eliminarSiNoTienePedidos(any());
+    }
+
+    @Test
+    void registrarCambio_OtroDia_DeberiaMoverElPedido() {
+        ventaDiariaService.registrarCambio(fecha(DIA_1), new BigDecimal("20.00"), fecha(DIA_2), new BigDecimal("20.00"));
+
+        verify(ventaDiariaRepository).acumular(DIA_1, -1, new BigDecimal("-20.00"));
+        verify(ventaDiariaRepository).acumular(DIA_2, 1, new BigDecimal("20.00"));
+    }
+
+    @Test
+    void registrarAlta_EnUnaTransaccion_DeberiaAplicarseAlConfirmarYAgrupadaPorDia() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ventaDiariaService.registrarAlta(fecha(DIA_2), new BigDecimal("10.00"));
+            ventaDiariaService.registrarAlta(fecha(DIA_1), new BigDecimal("20.00"));
+            ventaDiariaService.registrarAlta(fecha(DIA_2), new BigDecimal("5.25"));
+            verify(ventaDiariaRepository, never()).acumular(any(), anyInt(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        InOrder orden = inOrder(ventaDiariaRepository);
+        orden.verify(ventaDiariaRepository).acumular(DIA_1, 1, new BigDecimal("20.00"));
+        orden.verify(ventaDiariaRepository).acumular(DIA_2, 2, new BigDecimal("15.25"));
+    }
+
+    @Test
+    void obtenerVentas_DiaModificado_DeberiaCalcularClientesYProductoMasVendido() {
+        VentaDiaria venta = new VentaDiaria();
+        venta.setFecha(DIA_1);
+        venta.setTotalPedidos(3);
+        venta.setTotalVentas(new BigDecimal("30.00"));
+        when(ventaDiariaRepository.findByFechaBetweenOrderByFechaAsc(DIA_1, DIA_2)).thenReturn(List.of(venta));
+        when(ventaDiariaRepository.contarClientesPorDia(anyCollection())).thenReturn(List.of(clientes(DIA_1, 2)));
+        when(ventaDiariaRepository.sumarCantidadesPorProducto(anyCollection())).thenReturn(List.of(
+                unidades(DIA_1, "Torta", 4), unidades(DIA_1, "Café", 4), unidades(DIA_1, "Té", 1)));
+
+        List<ReporteVentasDTO> ventas = ventaDiariaService.obtenerVentas(DIA_1, DIA_2);
+
+        assertEquals(1, ventas.size());
+        assertEquals(3, ventas.get(0).getTotalPedidos());
+        assertEquals(30.0, ventas.get(0).getTotalVentas());
+        assertEquals(2, ventas.get(0).getClientesUnicos());
+        // Empate en unidades: gana el primero por nombre
+        assertEquals("Café", ventas.get(0).getProductoMasVendido());
+    }
+
+    @Test
+    void obtenerVentas_DiaCompleto_NoDeberiaConsultarLosPedidos() {
+        VentaDiaria venta = new VentaDiaria();
+        venta.setFecha(DIA_1);
+        venta.setTotalPedidos(1);
+        venta.setTotalVentas(new BigDecimal("10.00"));
+        venta.setClientesUnicos(1);
+        venta.setProductoMasVendido("Café");
+        when(ventaDiariaRepository.findByFechaBetweenOrderByFechaAsc(DIA_1, DIA_2)).thenReturn(List.of(venta));
+
+        ventaDiariaService.obtenerVentas(DIA_1, DIA_2);
+
+        verify(ventaDiariaRepository, never()).contarClientesPorDia(anyCollection());
+        verify(ventaDiariaRepository, never()).sumarCantidadesPorProducto(anyCollection());
+    }
+
+    private static Date fecha(LocalDate dia) {
+        return java.sql.Date.valueOf(dia);
+    }
+
+    private static VentaDiariaRepository.CantidadDia clientes(LocalDate dia, long cantidad) {
+        return new VentaDiariaRepository.CantidadDia() {
+            @Override
+            public Date getFecha() {
+                return fecha(dia);
+            }
+
+            @Override
+            public Long getCantidad() {
+                return cantidad;
+            }
+        };
+    }
+
+    private static VentaDiariaRepository.CantidadProductoDia unidades(LocalDate dia, String nombre, long cantidad) {
+        return new VentaDiariaRepository.CantidadProductoDia() {
+            @Override
+            public Date getFecha() {
+                return fecha(dia);
+            }
+
+            @Override
+            public String getNombre() {
+                return nombre;
+            }
+
+            @Override
+            public Long getCantidad() {
+                return cantidad;
+            }
+        };
+    }
+}
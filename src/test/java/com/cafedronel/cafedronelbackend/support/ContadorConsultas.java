@@ -0,0 +1,45 @@
+package com.cafedronel.cafedronelbackend.support;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante una acción y falla si se
+ * supera el presupuesto. Requiere hibernate.generate_statistics=true (activo en el perfil test).
+ */
+public final class ContadorConsultas {
+
+    @FunctionalInterface
+    public interface Accion {
+        void ejecutar() throws Exception;
+    }
+
+    private final Statistics estadisticas;
+
+    public ContadorConsultas(EntityManagerFactory entityManagerFactory) {
+        this.estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(estadisticas.isStatisticsEnabled(), "Las estadísticas de Hibernate no están activas");
+    }
+
+    /**
+     * Ejecuta la acción y retorna el número de sentencias preparadas
+     */
+    public long contar(Accion accion) throws Exception {
+        estadisticas.clear();
+        accion.ejecutar();
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Ejecuta la acción y verifica que no prepare más de {@code maximo} sentencias
+     */
+    public void verificarPresupuesto(String descripcion, long maximo, Accion accion) throws Exception {
+        long sentencias = contar(accion);
+        assertTrue(sentencias <= maximo,
+                descripcion + ": " + sentencias + " sentencias SQL, presupuesto " + maximo);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cafedronel.cafedronelbackend.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Cuenta las idas y vueltas a la base de datos (cada execute o executeBatch de JDBC) que hace el hilo
+ * actual durante una acción. A diferencia de {@link ContadorConsultas}, un lote de inserts cuenta una
+ * sola vez. Se activa con {@code @Import(ContadorRondas.class)}, que envuelve el DataSource del contexto.
+ */
+public class ContadorRondas implements BeanPostProcessor {
+
+    private static final Set<String> EJECUCIONES = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> ESCRITURAS = Set.of("insert", "update", "delete", "merge");
+
+    // Sentencia de cada ronda del hilo que está contando; null si no está contando
+    private final ThreadLocal<List<String>> rondas = new ThreadLocal<>();
+
+    /**
+     * Ejecuta la acción y retorna la sentencia de cada ronda, en orden
+     */
+    public List<String> registrar(ContadorConsultas.Accion accion) throws Exception {
+        List<String> registradas = new ArrayList<>();
+        rondas.set(registradas);
+        try {
+            accion.ejecutar();
+        } finally {
+            rondas.remove();
+        }
+        return registradas;
+    }
+
+    /**
+     * Ejecuta la acción y retorna las rondas que escribieron (insert, update, delete); deja fuera las
+     * lecturas y las consultas a las secuencias, que dependen del bloque de ids en curso
+     */
+    public long contarEscrituras(ContadorConsultas.Accion accion) throws Exception {
+        return registrar(accion).stream().filter(ContadorRondas::esEscritura).count();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceContado)) {
+            return new DataSourceContado(dataSource);
+        }
+        return bean;
+    }
+
+    private static boolean esEscritura(String sql) {
+        String inicio = sql.stripLeading();
+        int espacio = inicio.indexOf(' ');
+        return ESCRITURAS.contains((espacio > 0 ? inicio.substring(0, espacio) : inicio).toLowerCase(Locale.ROOT));
+    }
+
+    private final class DataSourceContado extends DelegatingDataSource {
+
+        private DataSourceContado(DataSource destino) {
+            super(destino);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return envolver(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String contrasena) throws SQLException {
+            return envolver(super.getConnection(usuario, contrasena));
+        }
+
+        private Connection envolver(Connection conexion) {
+            return (Connection) Proxy.newProxyInstance(ContadorRondas.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, metodo, argumentos) -> {
+                        Object resultado = invocar(conexion, metodo, argumentos);
+                        if (resultado instanceof Statement sentencia && !metodo.getName().equals("unwrap")) {
+                            // En prepareStatement/prepareCall el SQL llega al preparar; en createStatement, al ejecutar
+                            String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                                    ? texto : null;
+                            return envolver(sentencia, metodo.getReturnType(), sql);
+                        }
+                        return resultado;
+                    });
+        }
+
+        private Object envolver(Statement sentencia, Class<?> tipo, String sqlPreparado) {
+            InvocationHandler contador = (proxy, metodo, argumentos) -> {
+                List<String> registradas = rondas.get();
+                if (registradas != null && EJECUCIONES.contains(metodo.getName())) {
+                    String sql = sqlPreparado != null ? sqlPreparado
+                            : argumentos != null && argumentos.length > 0 ? String.valueOf(argumentos[0]) : "";
+                    registradas.add(sql);
+                }
+                return invocar(sentencia, metodo, argumentos);
+            };
+            return Proxy.newProxyInstance(ContadorRondas.class.getClassLoader(), new Class<?>[]{tipo}, contador);
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cafedronel.cafedronelbackend.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Envuelve el DataSource para registrar el fetch size con el que cada consulta llega al driver
+ * en el hilo actual mientras se graba. Se agrega con @Import sólo en las pruebas que lo usan.
+ */
+public class RegistroFetchSize implements BeanPostProcessor {
+
+    private static final ThreadLocal<Map<String, Integer>> GRABACION = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String nombre) {
+        if (bean instanceof DataSource fuente) {
+            return envolver(DataSource.class, fuente, (metodo, resultado, argumentos) ->
+                    resultado instanceof Connection conexion ? envolverConexion(conexion) : resultado);
+        }
+        return bean;
+    }
+
+    /**
+     * Ejecuta la acción y retorna el SQL de cada consulta ejecutada con su fetch size, en orden
+     */
+    public static Map<String, Integer> grabar(RegistroSentencias.Accion accion) throws Exception {
+        Map<String, Integer> consultas = new LinkedHashMap<>();
+        GRABACION.set(consultas);
+        try {
+            accion.ejecutar();
+        } finally {
+            GRABACION.remove();
+        }
+        return consultas;
+    }
+
+    private static Connection envolverConexion(Connection conexion) {
+        return envolver(Connection.class, conexion, (metodo, resultado, argumentos) -> {
+            if (resultado instanceof PreparedStatement sentencia && metodo.startsWith("prepare")
+                    && argumentos != null && argumentos[0] instanceof String sql) {
+                return envolverSentencia(sentencia, sql);
+            }
+            return resultado;
+        });
+    }
+
+    private static PreparedStatement envolverSentencia(PreparedStatement sentencia, String sql) {
+        return envolver(PreparedStatement.class, sentencia, (metodo, resultado, argumentos) -> {
+            Map<String, Integer> consultas = GRABACION.get();
+            if (consultas != null && metodo.equals("executeQuery")) {
+                consultas.put(sql, sentencia.getFetchSize());
+            }
+            return resultado;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Despues {
+        Object aplicar(String metodo, Object resultado, Object[] argumentos) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T envolver(Class<T> tipo, T destino, Despues despues) {
+        InvocationHandler manejador = (proxy, metodo, argumentos) -> {
+            Object resultado;
+            try {
+                resultado = metodo.invoke(destino, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            return despues.aplicar(metodo.getName(), resultado, argumentos);
+        };
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, manejador);
+    }
+}
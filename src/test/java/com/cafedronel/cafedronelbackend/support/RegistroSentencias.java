@@ -0,0 +1,44 @@
+package com.cafedronel.cafedronelbackend.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra el SQL que Hibernate prepara en el hilo actual mientras se graba, para poder
+ * analizar sus planes con EXPLAIN. Se activa con hibernate.session_factory.statement_inspector
+ * en el perfil test; fuera de una grabación no hace nada.
+ */
+public class RegistroSentencias implements StatementInspector {
+
+    @FunctionalInterface
+    public interface Accion {
+        void ejecutar() throws Exception;
+    }
+
+    private static final ThreadLocal<List<String>> GRABACION = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> sentencias = GRABACION.get();
+        if (sentencias != null) {
+            sentencias.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Ejecuta la acción y retorna las sentencias SQL que preparó, en orden
+     */
+    public static List<String> grabar(Accion accion) throws Exception {
+        List<String> sentencias = new ArrayList<>();
+        GRABACION.set(sentencias);
+        try {
+            accion.ejecutar();
+        } finally {
+            GRABACION.remove();
+        }
+        return sentencias;
+    }
+}
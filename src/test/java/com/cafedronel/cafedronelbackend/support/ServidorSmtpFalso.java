@@ -0,0 +1,136 @@
+package com.cafedronel.cafedronelbackend.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo en memoria para los tests: acepta cualquier remitente y destinatario,
+ * guarda el contenido de cada mensaje y cuenta las conexiones abiertas. Con
+ * {@link #rechazarMensajes(boolean)} responde 451 al final del DATA, como un fallo temporal.
+ */
+public final class ServidorSmtpFalso implements AutoCloseable {
+
+    private final ServerSocket socket;
+    private final List<String> mensajes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger conexiones = new AtomicInteger();
+    private final AtomicBoolean rechazar = new AtomicBoolean();
+    private volatile boolean activo = true;
+
+    public ServidorSmtpFalso() {
+        try {
+            this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread aceptador = new Thread(this::aceptar, "smtp-falso");
+        aceptador.setDaemon(true);
+        aceptador.start();
+    }
+
+    public int puerto() {
+        return socket.getLocalPort();
+    }
+
+    public List<String> mensajes() {
+        return List.copyOf(mensajes);
+    }
+
+    public int conexiones() {
+        return conexiones.get();
+    }
+
+    public void rechazarMensajes(boolean rechazar) {
+        this.rechazar.set(rechazar);
+    }
+
+    public void reiniciar() {
+        mensajes.clear();
+        conexiones.set(0);
+        rechazar.set(false);
+    }
+
+    private void aceptar() {
+        while (activo) {
+            try {
+                Socket cliente = socket.accept();
+                conexiones.incrementAndGet();
+                Thread sesion = new Thread(() -> atender(cliente), "smtp-falso-sesion");
+                sesion.setDaemon(true);
+                sesion.start();
+            } catch (IOException e) {
+                if (activo) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private void atender(Socket cliente) {
+        try (cliente;
+             BufferedReader entrada = new BufferedReader(new InputStreamReader(cliente.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream salida = cliente.getOutputStream()) {
+            responder(salida, "220 localhost SMTP falso");
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String comando = linea.length() >= 4 ? linea.substring(0, 4).toUpperCase(Locale.ROOT) : linea.toUpperCase(Locale.ROOT);
+                switch (comando) {
+                    case "EHLO", "HELO" -> responder(salida, "250 localhost");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> responder(salida, "250 OK");
+                    case "DATA" -> {
+                        responder(salida, "354 Fin con <CRLF>.<CRLF>");
+                        String contenido = leerDatos(entrada);
+                        if (rechazar.get()) {
+                            responder(salida, "451 4.3.0 Falla temporal");
+                        } else {
+                            mensajes.add(contenido);
+                            responder(salida, "250 OK en cola");
+                        }
+                    }
+                    case "QUIT" -> {
+                        responder(salida, "221 Hasta luego");
+                        return;
+                    }
+                    default -> responder(salida, "502 Comando no implementado");
+                }
+            }
+        } catch (IOException e) {
+            // El cliente cerró la conexión
+        }
+    }
+
+    private static String leerDatos(BufferedReader entrada) throws IOException {
+        StringBuilder contenido = new StringBuilder();
+        String linea;
+        while ((linea = entrada.readLine()) != null && !linea.equals(".")) {
+            contenido.append(linea.startsWith("..") ? linea.substring(1) : linea).append('\n');
+        }
+        return contenido.toString();
+    }
+
+    private static void responder(OutputStream salida, String respuesta) throws IOException {
+        salida.write((respuesta + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        salida.flush();
+    }
+
+    @Override
+    public void close() {
+        activo = false;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ya estaba cerrado
+        }
+    }
+}
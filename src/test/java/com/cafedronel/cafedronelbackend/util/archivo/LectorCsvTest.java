@@ -0,0 +1,73 @@
+package com.cafedronel.cafedronelbackend.util.archivo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+
+class LectorCsvTest {
+
+    private final List<Integer> numeros = new ArrayList<>();
+    private final List<String[]> filas = new ArrayList<>();
+
+    @Test
+    void leer_ValoresEntreComillas_DeberiaRespetarSeparadoresComillasYSaltos() throws Exception {
+        leer("sku,nombre,precio\r\nA1,\"Café, \"\"fino\"\"\",3.5\r\nA2,\"dos\nlíneas\",4\r\n");
+
+        assertEquals(3, filas.size());
+        assertArrayEquals(new String[]{"A1", "Café, \"fino\"", "3.5"}, filas.get(1));
+        assertArrayEquals(new String[]{"A2", "dos\nlíneas", "4"}, filas.get(2));
+    }
+
+    @Test
+    void leer_PuntoYComa_DeberiaDeducirElSeparador() throws Exception {
+        leer("sku;nombre;precio\nA1;Café;12,5");
+
+        assertArrayEquals(new String[]{"A1", "Café", "12,5"}, filas.get(1));
+    }
+
+    @Test
+    void leer_LineasEnBlancoYCeldasVacias_DeberiaOmitirLasLineasPeroNoLasCeldas() throws Exception {
+        leer("sku,nombre,precio\n\nA1,,\n");
+
+        assertEquals(List.of(1, 3), numeros);
+        assertArrayEquals(new String[]{"A1", "", ""}, filas.get(1));
+    }
+
+    @Test
+    void leer_ComillasSinCerrar_DeberiaLanzarExcepcion() {
+        assertThrows(BusinessException.class, () -> leer("sku,nombre\nA1,\"Café"));
+    }
+
+    @Test
+    void escribirYLeer_DeberianSerInversos() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (EscritorCsv escritor = new EscritorCsv(salida)) {
+            escritor.escribirFila("sku", "nombre", "precio", "activo");
+            escritor.escribirFila("A1", "Molido; \"tostado\"\noscuro", 10000000.0, true);
+        }
+
+        LectorCsv.leer(new ByteArrayInputStream(salida.toByteArray()), this::recibir);
+
+        assertArrayEquals(new String[]{"sku", "nombre", "precio", "activo"}, filas.get(0));
+        assertArrayEquals(new String[]{"A1", "Molido; \"tostado\"\noscuro", "10000000", "true"}, filas.get(1));
+    }
+
+    private void leer(String csv) throws Exception {
+        LectorCsv.leer(new StringReader(csv), this::recibir);
+    }
+
+    private void recibir(int numeroFila, String[] celdas) {
+        numeros.add(numeroFila);
+        filas.add(celdas);
+    }
+}
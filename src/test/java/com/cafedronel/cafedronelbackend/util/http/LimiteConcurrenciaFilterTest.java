@@ -0,0 +1,102 @@
+package com.cafedronel.cafedronelbackend.util.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletException;
+
+class LimiteConcurrenciaFilterTest {
+
+    @Test
+    void doFilter_ConPermisoDisponible_DeberiaContinuarYLiberarlo() throws Exception {
+        LimiteConcurrenciaFilter filtro = new LimiteConcurrenciaFilter(2, 10);
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/v1/productos"), respuesta, cadena);
+
+        assertEquals(200, respuesta.getStatus());
+        assertEquals(2, filtro.permisosDisponibles());
+    }
+
+    @Test
+    void doFilter_SinPermisos_DeberiaResponder503() throws Exception {
+        LimiteConcurrenciaFilter filtro = new LimiteConcurrenciaFilter(1, 10);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch salir = new CountDownLatch(1);
+
+        // Una petición ocupa el único permiso
+        Thread ocupada = new Thread(() -> {
+            try {
+                filtro.doFilter(new MockHttpServletRequest("GET", "/api/v1/pedidos"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            dentro.countDown();
+                            try {
+                                salir.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        ocupada.start();
+        dentro.await(5, TimeUnit.SECONDS);
+
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        MockFilterChain cadena = new MockFilterChain();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/v1/pedidos"), respuesta, cadena);
+
+        assertEquals(503, respuesta.getStatus());
+        assertEquals("1", respuesta.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(cadena.getRequest());
+
+        salir.countDown();
+        ocupada.join();
+        assertEquals(1, filtro.permisosDisponibles());
+    }
+
+    @Test
+    void doFilter_SiLaCadenaFalla_DeberiaLiberarElPermiso() {
+        LimiteConcurrenciaFilter filtro = new LimiteConcurrenciaFilter(1, 10);
+
+        assertThrows(ServletException.class, () -> filtro.doFilter(new MockHttpServletRequest("GET", "/api/v1/pagos"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    throw new ServletException("falla");
+                }));
+
+        assertEquals(1, filtro.permisosDisponibles());
+    }
+
+    @Test
+    void doFilter_RespuestaAsincrona_DeberiaLiberarElPermisoAlTerminar() throws Exception {
+        LimiteConcurrenciaFilter filtro = new LimiteConcurrenciaFilter(1, 10);
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/v1/reportes/exportar");
+        peticion.setAsyncSupported(true);
+
+        // Como un StreamingResponseBody: la cadena vuelve y la respuesta se sigue escribiendo en otro hilo
+        filtro.doFilter(peticion, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(0, filtro.permisosDisponibles());
+        MockAsyncContext contexto = (MockAsyncContext) peticion.getAsyncContext();
+        contexto.complete();
+        assertEquals(1, filtro.permisosDisponibles());
+    }
+
+    @Test
+    void constructor_SinPermisos_DeberiaLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> new LimiteConcurrenciaFilter(0, 10));
+    }
+}
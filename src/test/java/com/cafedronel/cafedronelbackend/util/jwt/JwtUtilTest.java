@@ -0,0 +1,63 @@
+package com.cafedronel.cafedronelbackend.util.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "una_clave_hmac_de_al_menos_32_caracteres_para_testing";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+    }
+
+    @Test
+    void parseAndValidate_DeberiaRetornarCorreoRolYExpiracion() {
+        String token = jwtUtil.generateToken("test@example.com", "CLIENTE");
+
+        TokenJwt resultado = jwtUtil.parseAndValidate(token);
+
+        assertEquals("test@example.com", resultado.email());
+        assertEquals("CLIENTE", resultado.rol());
+        assertTrue(resultado.expiracion().after(new Date()));
+    }
+
+    @Test
+    void parseAndValidate_TokenSinRol_DeberiaRetornarRolNulo() {
+        String token = jwtUtil.generateToken("test@example.com");
+
+        assertNull(jwtUtil.parseAndValidate(token).rol());
+        assertTrue(jwtUtil.validateToken(token, "test@example.com"));
+    }
+
+    @Test
+    void parseAndValidate_TokenExpirado_LanzaExcepcion() {
+        String token = Jwts.builder()
+                .setSubject("test@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseAndValidate(token));
+    }
+
+    @Test
+    void parseAndValidate_FirmaDeOtraClave_LanzaExcepcion() {
+        String token = new JwtUtil("otra_clave_hmac_de_al_menos_32_caracteres_distinta").generateToken("test@example.com", "CLIENTE");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseAndValidate(token));
+    }
+}
@@ -0,0 +1,62 @@
+package com.cafedronel.cafedronelbackend.util.paginacion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cafedronel.cafedronelbackend.data.dto.PaginaCursorDTO;
+import com.cafedronel.cafedronelbackend.exceptions.BusinessException;
+
+class CursorPaginacionTest {
+
+    @Test
+    void decodificar_SinCursor_DeberiaEmpezarDesdeElInicio() {
+        assertEquals(0, CursorPaginacion.decodificar(null));
+        assertEquals(0, CursorPaginacion.decodificar(""));
+    }
+
+    @Test
+    void codificarYDecodificar_DeberianSerInversos() {
+        String cursor = CursorPaginacion.codificar(12345);
+
+        assertFalse(cursor.contains("12345"));
+        assertEquals(12345, CursorPaginacion.decodificar(cursor));
+    }
+
+    @Test
+    void decodificar_CursorManipulado_DeberiaLanzarExcepcion() {
+        assertThrows(BusinessException.class, () -> CursorPaginacion.decodificar("no-es-un-cursor!"));
+        assertThrows(BusinessException.class, () -> CursorPaginacion.decodificar("eHl6OjE"));
+    }
+
+    @Test
+    void normalizarTamano_FueraDeRango_DeberiaLanzarExcepcion() {
+        assertEquals(CursorPaginacion.TAMANO_POR_DEFECTO, CursorPaginacion.normalizarTamano(null));
+        assertThrows(BusinessException.class, () -> CursorPaginacion.normalizarTamano(0));
+        assertThrows(BusinessException.class, () -> CursorPaginacion.normalizarTamano(CursorPaginacion.TAMANO_MAXIMO + 1));
+    }
+
+    @Test
+    void construirPagina_ConFilaExtra_DeberiaIndicarQueHayMas() {
+        PaginaCursorDTO<String> pagina = CursorPaginacion.construirPagina(List.of(4, 7, 9), 2, id -> id, id -> "fila " + id);
+
+        assertEquals(List.of("fila 4", "fila 7"), pagina.getContenido());
+        assertTrue(pagina.isHayMas());
+        assertEquals(7, CursorPaginacion.decodificar(pagina.getSiguienteCursor()));
+    }
+
+    @Test
+    void construirPagina_UltimaPagina_NoDeberiaTenerCursor() {
+        PaginaCursorDTO<Integer> pagina = CursorPaginacion.construirPagina(List.of(4, 7), 2, id -> id, id -> id);
+
+        assertEquals(2, pagina.getContenido().size());
+        assertFalse(pagina.isHayMas());
+        assertNull(pagina.getSiguienteCursor());
+    }
+}
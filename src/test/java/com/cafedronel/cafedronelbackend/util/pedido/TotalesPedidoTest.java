@@ -0,0 +1,53 @@
+package com.cafedronel.cafedronelbackend.util.pedido;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cafedronel.cafedronelbackend.data.model.DetallePedido;
+import com.cafedronel.cafedronelbackend.data.model.Pedido;
+
+class TotalesPedidoTest {
+
+    @Test
+    void calcularSubtotal_DeberiaSerExactoEnCentimos() {
+        assertEquals(new BigDecimal("0.30"), TotalesPedido.calcularSubtotal(3, 0.1));
+        assertEquals(new BigDecimal("59.97"), TotalesPedido.calcularSubtotal(3, 19.99));
+        assertEquals(new BigDecimal("1.01"), TotalesPedido.calcularSubtotal(1, 1.005));
+        assertEquals(new BigDecimal("0.00"), TotalesPedido.calcularSubtotal(null, 4.5));
+    }
+
+    @Test
+    void recalcular_DeberiaSumarLosSubtotalesDeLosDetalles() {
+        Pedido pedido = new Pedido();
+        List<DetallePedido> detalles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            DetallePedido detalle = new DetallePedido();
+            detalle.setCantidad(1);
+            detalle.setPrecioUnitario(0.1);
+            detalles.add(detalle);
+        }
+        pedido.setDetalles(detalles);
+
+        assertTrue(TotalesPedido.recalcular(pedido));
+
+        // Sumando doubles daría 0.9999999999999999
+        assertEquals(new BigDecimal("1.00"), pedido.getTotal());
+        assertEquals(new BigDecimal("0.10"), detalles.get(0).getSubtotal());
+    }
+
+    @Test
+    void recalcular_SinDetalles_NoDeberiaTocarElTotal() {
+        Pedido pedido = new Pedido();
+
+        assertFalse(TotalesPedido.recalcular(pedido));
+        assertNull(pedido.getTotal());
+    }
+}
@@ -0,0 +1,95 @@
+-- Esquema que creaba Hibernate (ddl-auto=update) antes de adoptar Flyway, con algunos datos.
+-- Es una copia fija: no debe cambiar aunque cambien las migraciones.
+
+CREATE TABLE usuario (
+    id_usuario INT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255),
+    apellido VARCHAR(255),
+    correo VARCHAR(255),
+    contrasena VARCHAR(255),
+    telefono VARCHAR(255),
+    direccion VARCHAR(255),
+    activo BOOLEAN,
+    rol VARCHAR(20),
+    recovery_code VARCHAR(255),
+    PRIMARY KEY (id_usuario)
+);
+
+CREATE TABLE producto (
+    id_producto INT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255),
+    categoria VARCHAR(255),
+    subtipo VARCHAR(255),
+    descripcion TEXT,
+    precio DOUBLE,
+    stock INT,
+    activo BOOLEAN,
+    PRIMARY KEY (id_producto)
+);
+
+CREATE TABLE pedido (
+    id_pedido INT NOT NULL AUTO_INCREMENT,
+    id_usuario INT NOT NULL,
+    fecha DATE,
+    estado VARCHAR(20),
+    telefono VARCHAR(255),
+    direccion VARCHAR(255),
+    PRIMARY KEY (id_pedido),
+    CONSTRAINT fk_pedido_usuario FOREIGN KEY (id_usuario) REFERENCES usuario (id_usuario)
+);
+
+CREATE TABLE detalle_pedido (
+    id_detalle INT NOT NULL AUTO_INCREMENT,
+    id_pedido INT,
+    id_producto INT,
+    cantidad INT,
+    precio_unitario DOUBLE,
+    subtotal DOUBLE,
+    PRIMARY KEY (id_detalle),
+    CONSTRAINT fk_detalle_pedido_pedido FOREIGN KEY (id_pedido) REFERENCES pedido (id_pedido),
+    CONSTRAINT fk_detalle_pedido_producto FOREIGN KEY (id_producto) REFERENCES producto (id_producto)
+);
+
+CREATE TABLE pago (
+    id_pago INT NOT NULL AUTO_INCREMENT,
+    id_pedido INT,
+    metodo_pago VARCHAR(255),
+    monto DOUBLE,
+    estado VARCHAR(255),
+    referencia VARCHAR(255),
+    fecha_pago DATE,
+    PRIMARY KEY (id_pago),
+    CONSTRAINT fk_pago_pedido FOREIGN KEY (id_pedido) REFERENCES pedido (id_pedido)
+);
+
+CREATE TABLE envio (
+    id_envio INT NOT NULL AUTO_INCREMENT,
+    id_pedido INT,
+    metodo_envio VARCHAR(255),
+    estado VARCHAR(255),
+    fecha_envio DATE,
+    fecha_entrega DATE,
+    numero_seguimiento VARCHAR(255),
+    direccion VARCHAR(255),
+    departamento VARCHAR(255),
+    provincia VARCHAR(255),
+    distrito VARCHAR(255),
+    costo_envio DOUBLE,
+    PRIMARY KEY (id_envio),
+    CONSTRAINT fk_envio_pedido FOREIGN KEY (id_pedido) REFERENCES pedido (id_pedido)
+);
+
+INSERT INTO usuario (nombre, apellido, correo, contrasena, activo, rol)
+VALUES ('Ana', 'Anterior', 'ana.anterior@example.com', 'secreta', TRUE, 'CLIENTE');
+
+INSERT INTO producto (nombre, categoria, precio, stock, activo) VALUES ('Café Anterior', 'Bebidas', 3.5, 20, TRUE);
+INSERT INTO producto (nombre, categoria, precio, stock, activo) VALUES ('Taza Anterior', 'Accesorios', 10.25, 5, TRUE);
+
+INSERT INTO pedido (id_usuario, fecha, estado, telefono, direccion)
+VALUES (1, DATE '2024-05-10', 'ENTREGADO', '123456789', 'Calle Anterior 1');
+INSERT INTO pedido (id_usuario, fecha, estado, telefono, direccion)
+VALUES (1, DATE '2024-05-11', 'PENDIENTE', '123456789', 'Calle Anterior 1');
+
+INSERT INTO detalle_pedido (id_pedido, id_producto, cantidad, precio_unitario, subtotal) VALUES (1, 1, 2, 3.5, 7.0);
+INSERT INTO detalle_pedido (id_pedido, id_producto, cantidad, precio_unitario, subtotal) VALUES (1, 2, 1, 10.25, 10.25);
+INSERT INTO detalle_pedido (id_pedido, id_producto, cantidad, precio_unitario, subtotal) VALUES (2, 1, 3, 3.5, NULL);